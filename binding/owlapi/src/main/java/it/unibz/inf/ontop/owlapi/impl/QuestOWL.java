@@ -20,6 +20,8 @@ package it.unibz.inf.ontop.owlapi.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
@@ -30,11 +32,13 @@ import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.owlapi.OntopOWLReasoner;
 import it.unibz.inf.ontop.owlapi.connection.OntopOWLConnection;
 import it.unibz.inf.ontop.owlapi.connection.impl.DefaultOntopOWLConnection;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorOWL2QL;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VersionInfo;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.reasoner.*;
@@ -48,7 +52,15 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * The OBDAOWLReformulationPlatform implements the OWL reasoner interface and is
@@ -68,6 +80,7 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 	private boolean questready = false;
 	
 	private Object inconsistent = null;
+	private ImmutableList<Object> inconsistentAxioms = ImmutableList.of();
 
 	private Exception questException = null;
 
@@ -105,6 +118,8 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 	private final OntopQueryEngine queryEngine;
 	private final InputQueryFactory inputQueryFactory;
 	private final OWLAPITranslatorOWL2QL owlapiTranslator;
+	private final int consistencyCheckMaxThreads;
+	private final int consistencyCheckBatchSize;
 
 	/* Used to signal whether to apply the user constraints above */
 	//private boolean applyExcludeFromTMappings = false;
@@ -147,6 +162,10 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 
 		owlapiTranslator = ontopConfiguration.getInjector().getInstance(OWLAPITranslatorOWL2QL.class);
 
+		OntopSystemSettings settings = ontopConfiguration.getSettings();
+		consistencyCheckMaxThreads = settings.getConsistencyCheckMaxThreads();
+		consistencyCheckBatchSize = settings.getConsistencyCheckBatchSize();
+
 		prepareReasoner();
 
     }
@@ -371,10 +390,12 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 	@Override
     public boolean isConsistent() throws ReasonerInterruptedException, TimeOutException {
 		try {
-			return isDisjointAxiomsConsistent() && isFunctionalPropertyAxiomsConsistent();
+			inconsistentAxioms = getViolatedAxioms();
 		} catch (OWLException e) {
 			throw new ReasonerInterruptedException(e);
 		}
+		inconsistent = inconsistentAxioms.isEmpty() ? null : inconsistentAxioms.get(0);
+		return inconsistentAxioms.isEmpty();
 	}
 	
 	//info to return which axiom was inconsistent during the check
@@ -382,103 +403,134 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 	public Object getInconsistentAxiom() {
 		return inconsistent;
 	}
-	
-	private boolean isDisjointAxiomsConsistent() throws ReasonerInterruptedException, TimeOutException, OWLException {
-
-		//deal with disjoint classes
-		{
-			final String strQueryClass = "ASK {?x a <%s>; a <%s> }";
-			
-			for (NaryAxiom<ClassExpression> dda : translatedOntologyMerge.disjointClasses()) {
-				// TODO: handle complex class expressions and many pairs of disjoint classes
-				Collection<ClassExpression> disj = dda.getComponents();
-				Iterator<ClassExpression> classIterator = disj.iterator();
-				ClassExpression s1 = classIterator.next();
-				ClassExpression s2 = classIterator.next();
-				String strQuery = String.format(strQueryClass, s1, s2);
-				
-				boolean isConsistent = executeConsistencyQuery(strQuery);
-				if (!isConsistent) {
-					inconsistent = dda;
-					return false;
-				}
-			}
-		}
-		
-		//deal with disjoint properties
-		{
-			final String strQueryProp = "ASK {?x <%s> ?y; <%s> ?y }";
-
-			for(NaryAxiom<ObjectPropertyExpression> dda
-						: translatedOntologyMerge.disjointObjectProperties()) {
-				// TODO: handle role inverses and multiple arguments			
-				Collection<ObjectPropertyExpression> props = dda.getComponents();
-				Iterator<ObjectPropertyExpression> iterator = props.iterator();
-				ObjectPropertyExpression p1 = iterator.next();
-				ObjectPropertyExpression p2 = iterator.next();
-				String strQuery = String.format(strQueryProp, p1, p2);
-				
-				boolean isConsistent = executeConsistencyQuery(strQuery);
-				if (!isConsistent) {
-					inconsistent = dda;
-					return false;
-				}
-			}
-		}
-		
-		{
-			final String strQueryProp = "ASK {?x <%s> ?y; <%s> ?y }";
-
-			for(NaryAxiom<DataPropertyExpression> dda
-						: translatedOntologyMerge.disjointDataProperties()) {
-				// TODO: handle role inverses and multiple arguments			
-				Collection<DataPropertyExpression> props = dda.getComponents();
-				Iterator<DataPropertyExpression> iterator = props.iterator();
-				DataPropertyExpression p1 = iterator.next();
-				DataPropertyExpression p2 = iterator.next();
-				String strQuery = String.format(strQueryProp, p1, p2);
-				
-				boolean isConsistent = executeConsistencyQuery(strQuery);
-				if (!isConsistent) {
-					inconsistent = dda;
-					return false;
-				}
-			}
+
+	@Override
+	public ImmutableList<Object> getInconsistentAxioms() {
+		return inconsistentAxioms;
+	}
+
+	/**
+	 * Disjointness and functionality axioms violated by the data.
+	 *
+	 * The axioms whose ASK query is reformulated into an empty query (e.g. incompatible IRI templates)
+	 * are consistent without touching the DB. The other ones are grouped into batches (one ASK query with
+	 * a UNION per batch) that are evaluated concurrently. The batches with a violation are split
+	 * until the violated axioms are found.
+	 */
+	private ImmutableList<Object> getViolatedAxioms() throws ReasonerInterruptedException, OWLException {
+		ImmutableList<ConsistencyCheck> checks = Stream.concat(getDisjointnessChecks(), getFunctionalityChecks())
+				.collect(ImmutableCollectors.toList());
+		if (checks.isEmpty())
+			return ImmutableList.of();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(consistencyCheckMaxThreads, checks.size()));
+		try {
+			ImmutableList<Boolean> staticallyConsistent = getAll(checks.stream()
+					.map(c -> executor.submit(() -> isStaticallyConsistent(c)))
+					.collect(ImmutableCollectors.toList()));
+
+			ImmutableList<ConsistencyCheck> remainingChecks = IntStream.range(0, checks.size())
+					.filter(i -> !staticallyConsistent.get(i))
+					.mapToObj(checks::get)
+					.collect(ImmutableCollectors.toList());
+
+			return getAll(Lists.partition(remainingChecks, consistencyCheckBatchSize).stream()
+					.map(b -> executor.submit(() -> getViolatedChecks(b)))
+					.collect(ImmutableCollectors.toList())).stream()
+					.flatMap(Collection::stream)
+					.map(c -> c.axiom)
+					.collect(ImmutableCollectors.toList());
+		} finally {
+			executor.shutdownNow();
 		}
-		
-		return true;
 	}
-	
-	private boolean isFunctionalPropertyAxiomsConsistent() throws ReasonerInterruptedException, TimeOutException, OWLException {
-		
-		//deal with functional properties
 
-		final String strQueryFunc = "ASK { ?x <%s> ?y; <%s> ?z. FILTER (?z != ?y) }";
-		
-		for (ObjectPropertyExpression pfa : translatedOntologyMerge.functionalObjectProperties()) {
-			// TODO: handle inverses
-			String propFunc = pfa.getName();
-			String strQuery = String.format(strQueryFunc, propFunc, propFunc);
-			
-			boolean isConsistent = executeConsistencyQuery(strQuery);
-			if (!isConsistent) {
-				inconsistent = pfa;
-				return false;
-			}
+	private Stream<ConsistencyCheck> getDisjointnessChecks() {
+		// TODO: handle complex class expressions and many pairs of disjoint classes
+		Stream<ConsistencyCheck> classChecks = translatedOntologyMerge.disjointClasses().stream()
+				.map(dda -> {
+					Iterator<ClassExpression> classIterator = dda.getComponents().iterator();
+					return new ConsistencyCheck(dda, String.format("?x a <%s>; a <%s>",
+							classIterator.next(), classIterator.next()));
+				});
+
+		// TODO: handle role inverses and multiple arguments
+		Stream<ConsistencyCheck> objectPropertyChecks = translatedOntologyMerge.disjointObjectProperties().stream()
+				.map(dda -> {
+					Iterator<ObjectPropertyExpression> iterator = dda.getComponents().iterator();
+					return new ConsistencyCheck(dda, String.format("?x <%s> ?y; <%s> ?y",
+							iterator.next(), iterator.next()));
+				});
+
+		Stream<ConsistencyCheck> dataPropertyChecks = translatedOntologyMerge.disjointDataProperties().stream()
+				.map(dda -> {
+					Iterator<DataPropertyExpression> iterator = dda.getComponents().iterator();
+					return new ConsistencyCheck(dda, String.format("?x <%s> ?y; <%s> ?y",
+							iterator.next(), iterator.next()));
+				});
+
+		return Stream.of(classChecks, objectPropertyChecks, dataPropertyChecks)
+				.flatMap(c -> c);
+	}
+
+	private Stream<ConsistencyCheck> getFunctionalityChecks() {
+		final String strQueryFunc = "?x <%s> ?y; <%s> ?z. FILTER (?z != ?y)";
+
+		// TODO: handle inverses
+		Stream<ConsistencyCheck> objectPropertyChecks = translatedOntologyMerge.functionalObjectProperties().stream()
+				.map(pfa -> new ConsistencyCheck(pfa, String.format(strQueryFunc, pfa.getName(), pfa.getName())));
+
+		Stream<ConsistencyCheck> dataPropertyChecks = translatedOntologyMerge.functionalDataProperties().stream()
+				.map(pfa -> new ConsistencyCheck(pfa, String.format(strQueryFunc, pfa.getName(), pfa.getName())));
+
+		return Stream.concat(objectPropertyChecks, dataPropertyChecks);
+	}
+
+	/**
+	 * True if the reformulation shows that the axiom cannot be violated (the DB is not queried)
+	 */
+	private boolean isStaticallyConsistent(ConsistencyCheck check) throws OWLException {
+		try {
+			AskQuery query = inputQueryFactory.createAskQuery(check.getAskQuery());
+			return queryEngine.getQueryReformulator().reformulateIntoNativeQuery(query).isEmpty();
+		} catch (Exception e) {
+			throw new OWLException(e);
 		}
-		
-		for (DataPropertyExpression pfa : translatedOntologyMerge.functionalDataProperties()) {
-			String propFunc = pfa.getName();
-			String strQuery = String.format(strQueryFunc, propFunc, propFunc);
-			
-			boolean isConsistent = executeConsistencyQuery(strQuery);
-			if (!isConsistent) {
-				inconsistent = pfa;
-				return false;
-			}
+	}
+
+	private ImmutableList<ConsistencyCheck> getViolatedChecks(List<ConsistencyCheck> checks) throws OWLException {
+		String strQuery = checks.stream()
+				.map(c -> "{ " + c.graphPattern + " }")
+				.collect(Collectors.joining(" UNION ", "ASK { ", " }"));
+
+		if (executeConsistencyQuery(strQuery))
+			return ImmutableList.of();
+		if (checks.size() == 1)
+			return ImmutableList.copyOf(checks);
+
+		int middle = checks.size() / 2;
+		return ImmutableList.<ConsistencyCheck>builder()
+				.addAll(getViolatedChecks(checks.subList(0, middle)))
+				.addAll(getViolatedChecks(checks.subList(middle, checks.size())))
+				.build();
+	}
+
+	private static <T> ImmutableList<T> getAll(ImmutableList<Future<T>> futures) throws ReasonerInterruptedException,
+			OWLException {
+		ImmutableList.Builder<T> builder = ImmutableList.builder();
+		try {
+			for (Future<T> future : futures)
+				builder.add(future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReasonerInterruptedException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof OWLException)
+				throw (OWLException) cause;
+			throw new OWLException(cause);
 		}
-		
-		return true;
+		return builder.build();
 	}
 	
 	private boolean executeConsistencyQuery(String strQuery) throws OWLException {
@@ -499,6 +551,23 @@ public class QuestOWL extends OWLReasonerBase implements OntopOWLReasoner {
 		}
 	}
 
+	/**
+	 * Axiom and the graph pattern of its violations
+	 */
+	private static final class ConsistencyCheck {
+		private final Object axiom;
+		private final String graphPattern;
+
+		private ConsistencyCheck(Object axiom, String graphPattern) {
+			this.axiom = axiom;
+			this.graphPattern = graphPattern;
+		}
+
+		String getAskQuery() {
+			return "ASK {" + graphPattern + " }";
+		}
+	}
+
 	@Override
     public boolean isSatisfiable(@Nonnull OWLClassExpression classExpression) throws ReasonerInterruptedException, TimeOutException,
 			ClassExpressionNotInProfileException, FreshEntitiesException, InconsistentOntologyException {
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.owlapi;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
@@ -461,8 +462,12 @@ public class LeftJoinProfTest {
             conn.close();
             reasoner.dispose();
         }
+        // Without ORDER BY, the order of the solutions is not specified
+        boolean isOrdered = query.toUpperCase().contains("ORDER BY");
         assertTrue(String.format("%s instead of \n %s", returnedValues.toString(), expectedValues.toString()),
-                returnedValues.equals(expectedValues));
+                isOrdered
+                        ? returnedValues.equals(expectedValues)
+                        : ImmutableMultiset.copyOf(returnedValues).equals(ImmutableMultiset.copyOf(expectedValues)));
         assertTrue(String.format("Wrong size: %d (expected %d)", i, expectedValues.size()), expectedValues.size() == i);
 
         return sql;
@@ -0,0 +1,83 @@
+package it.unibz.inf.ontop.rdf4j.query.impl;
+
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
+import it.unibz.inf.ontop.rdf4j.utils.RDF4JHelper;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Converts the assertions one by one while iterating over the result set.
+ *
+ * Closing the result also closes the statement that has produced it.
+ */
+public class OntopGraphQueryResult implements GraphQueryResult {
+
+	private final SimpleGraphResultSet res;
+	private final OntopStatement stm;
+	private final Map<String, String> namespaces = new HashMap<>();
+
+	// statement that has been converted by hasNext() but not yet returned
+	private Statement nextStatement;
+
+	public OntopGraphQueryResult(SimpleGraphResultSet res, OntopStatement stm) {
+		if (res == null)
+			throw new NullPointerException();
+		this.res = res;
+		this.stm = stm;
+	}
+
+	@Override
+	public Map<String, String> getNamespaces() throws QueryEvaluationException {
+		return namespaces;
+	}
+
+	@Override
+	public boolean hasNext() throws QueryEvaluationException {
+		try {
+			while (nextStatement == null && res.hasNext()) {
+				Statement st = RDF4JHelper.createStatement(res.next());
+				if (st.getSubject() != null && st.getPredicate() != null && st.getObject() != null)
+					nextStatement = st;
+			}
+			return nextStatement != null;
+		} catch (Exception e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	@Override
+	public Statement next() throws QueryEvaluationException {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		Statement st = nextStatement;
+		nextStatement = null;
+		return st;
+	}
+
+	@Override
+	public void remove() throws QueryEvaluationException {
+		throw new QueryEvaluationException("The query result is read-only. Elements cannot be removed");
+	}
+
+	@Override
+	public void close() throws QueryEvaluationException {
+		try {
+			res.close();
+		} catch (Exception e) {
+			throw new QueryEvaluationException(e);
+		}
+		finally {
+			try {
+				stm.close();
+			} catch (Exception e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+	}
+}
@@ -81,12 +81,13 @@ public class OntopTupleQuery extends AbstractOntopQuery implements TupleQuery {
     @Override
 	public void evaluate(TupleQueryResultHandler handler) 
 			throws QueryEvaluationException, TupleQueryResultHandlerException {
-		TupleQueryResult result = evaluate();
-		handler.startQueryResult(result.getBindingNames());
-		while (result.hasNext()) {
-			handler.handleSolution(result.next());
+		try (TupleQueryResult result = evaluate()) {
+			handler.startQueryResult(result.getBindingNames());
+			while (result.hasNext()) {
+				handler.handleSolution(result.next());
+			}
+			handler.endQueryResult();
 		}
-		handler.endQueryResult();
 	}
 
     @Override
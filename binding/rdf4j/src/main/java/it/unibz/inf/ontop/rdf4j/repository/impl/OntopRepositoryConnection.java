@@ -21,6 +21,10 @@ package it.unibz.inf.ontop.rdf4j.repository.impl;
  */
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QueryStage;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+import it.unibz.inf.ontop.answering.monitoring.QueryType;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.rdf4j.query.impl.OntopBooleanQuery;
@@ -29,8 +33,9 @@ import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
-import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.ExceptionConvertingIteration;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.NamespaceImpl;
 import org.eclipse.rdf4j.model.impl.ValueFactoryImpl;
@@ -55,6 +60,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 	private OntopRepository repository;
 	private OntopConnection ontopConnection;
 	private final RDF4JInputQueryFactory inputQueryFactory;
+	private final QueryLifecycleListener lifecycleListener;
 	private boolean isOpen;
     private boolean isActive;
     private RDFParser rdfParser;
@@ -62,10 +68,11 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 
 	
 	OntopRepositoryConnection(OntopRepository rep, OntopConnection connection,
-							  RDF4JInputQueryFactory inputQueryFactory) {
+							  RDF4JInputQueryFactory inputQueryFactory, QueryLifecycleListener lifecycleListener) {
 		this.repository = rep;
 		this.ontopConnection = connection;
 		this.inputQueryFactory = inputQueryFactory;
+		this.lifecycleListener = lifecycleListener;
 		this.isOpen = true;
 		this.isActive = false;
 		this.rdfParser = Rio.createParser(RDFFormat.RDFXML, this.repository.getValueFactory());
@@ -175,18 +182,12 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
             throws RepositoryException, RDFHandlerException {
         //Exports all statements with a specific subject, predicate
         //and/or object from the repository, optionally from the specified contexts.
-        RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts);
-
-        handler.startRDF();
-        // handle
-        if (stms != null) {
-            while (stms.hasNext()) {
-                Statement st = stms.next();
-                if (st != null)
-                    handler.handleStatement(st);
-            }
+        try (RepositoryResult<Statement> stms = getStatements(subj, pred, obj, includeInferred, contexts)) {
+            handler.startRDF();
+            while (stms.hasNext())
+                handler.handleStatement(stms.next());
+            handler.endRDF();
         }
-        handler.endRDF();
 
     }
 
@@ -242,44 +243,41 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		//Gets all statements with a specific subject, 
 		//predicate and/or object from the repository.
 		//The result is optionally restricted to the specified set of named contexts. 
-		
+		if (!isDefaultContext(contexts))
+			return new RepositoryResult<>(new EmptyIteration<>());
+
 		//construct query for it
-		StringBuilder queryString = new StringBuilder("CONSTRUCT {");
+		StringBuilder spo = getTriplePattern(subj, pred, obj);
+		String queryString = "CONSTRUCT {" + spo + "} WHERE {" + spo + "}";
+
+		// the statements are converted while iterating over the JDBC result set
+		try {
+			GraphQueryResult result = prepareGraphQuery(QueryLanguage.SPARQL, queryString).evaluate();
+			return new RepositoryResult<>(new ExceptionConvertingIteration<Statement, RepositoryException>(result) {
+				@Override
+				protected RepositoryException convert(Exception e) {
+					return e instanceof RepositoryException
+							? (RepositoryException) e
+							: new RepositoryException(e);
+				}
+			});
+		} catch (MalformedQueryException | QueryEvaluationException e) {
+			throw new RepositoryException(e);
+		}
+	}
 
+	private static boolean isDefaultContext(Resource... contexts) {
+		return contexts.length == 0 || contexts[0] == null;
+	}
+
+	private static StringBuilder getTriplePattern(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) {
 		StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
 
 		spo = pred == null ? spo.append( " ?p ") : RenderUtils.toSPARQL(pred, spo);
 
 		spo = obj == null ? spo.append( " ?o ") : RenderUtils.toSPARQL(obj, spo);
 
-		queryString.append(spo).append("} WHERE {").append(spo).append("}");
-		
-		//execute construct query
-		try {
-			List<Statement> list = new LinkedList<Statement>();
-			
-			if (contexts.length == 0 || (contexts.length > 0 && contexts[0] == null)) {
-					GraphQuery query = prepareGraphQuery(QueryLanguage.SPARQL,
-							queryString.toString());
-					GraphQueryResult result = query.evaluate();
-
-					// System.out.println("result: "+result.hasNext());
-					while (result.hasNext())
-						list.add(result.next());
-					// result.close();
-			}
-			CloseableIteration<Statement, RepositoryException> iter = new CloseableIteratorIteration<Statement, RepositoryException>(
-					list.iterator());
-			RepositoryResult<Statement> repoResult = new RepositoryResult<Statement>(iter);
-
-			return repoResult;
-		} catch (MalformedQueryException e) {
-			throw new RepositoryException(e);
-
-		} catch (QueryEvaluationException e) {
-			throw new RepositoryException(e);
-
-		}
+		return spo;
 	}
 
 	@Override
@@ -302,14 +300,17 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
                                 boolean includeInferred, Resource... contexts) throws RepositoryException {
 		//Checks whether the repository contains statements with a specific subject, 
 		//predicate and/or object, optionally in the specified contexts. 
-		    RepositoryResult<Statement> stIter = getStatements(subj, pred,
-                     obj, includeInferred, contexts);
-             try {
-                 return stIter.hasNext();
-             } finally {
-                 stIter.close();
-             }
-         }
+		if (!isDefaultContext(contexts))
+			return false;
+
+		// ASK query: the statements are not retrieved
+		String queryString = "ASK {" + getTriplePattern(subj, pred, obj) + "}";
+		try {
+			return prepareBooleanQuery(QueryLanguage.SPARQL, queryString).evaluate();
+		} catch (MalformedQueryException | QueryEvaluationException e) {
+			throw new RepositoryException(e);
+		}
+	}
 
 
 
@@ -326,7 +327,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 	@Override
     public boolean isEmpty() throws RepositoryException {
 		//Returns true if this repository does not contain any (explicit) statements. 
-		return size() == 0;
+		return !hasStatement(null, null, null, false);
 	}
 
 	@Override
@@ -356,7 +357,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 				? null
 				: baseIRI.isEmpty() ? null : baseIRI ;
 
-		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+		ParsedQuery q = parseQuery(queryString, safeBaseIRI);
 		return new OntopBooleanQuery(queryString, q, safeBaseIRI, ontopConnection, inputQueryFactory);
 	}
 
@@ -380,7 +381,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 				? null
 				: baseIRI.isEmpty() ? null : baseIRI ;
 
-		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+		ParsedQuery q = parseQuery(queryString, safeBaseIRI);
 		return new OntopGraphQuery(queryString, q, safeBaseIRI, ontopConnection, inputQueryFactory);
 			
 	}
@@ -400,7 +401,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		if (ql != QueryLanguage.SPARQL)
 			throw new MalformedQueryException("SPARQL query expected! ");
 		
-		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+		ParsedQuery q = parseQuery(queryString, baseIRI);
 		
 		if (q instanceof ParsedTupleQuery)
 			return new OntopTupleQuery(queryString, q, baseIRI, ontopConnection, inputQueryFactory);
@@ -412,6 +413,15 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 			throw new MalformedQueryException("Unrecognized query type. " + queryString);
 	}
 
+	private ParsedQuery parseQuery(String queryString, String baseIRI) throws MalformedQueryException {
+		long start = System.nanoTime();
+		ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+		if (lifecycleListener.isEnabled())
+			lifecycleListener.onStageCompleted(new QueryStageEvent(QueryStage.PARSING,
+					QueryType.of(parsedQuery, queryString), System.nanoTime() - start));
+		return parsedQuery;
+	}
+
 	@Override
     public TupleQuery prepareTupleQuery(QueryLanguage ql, String query)
 			throws RepositoryException, MalformedQueryException {
@@ -432,7 +442,7 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 		String safeBaseIRI = baseIRI == null
 				? null
 				: baseIRI.isEmpty() ? null : baseIRI ;
-		ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+		ParsedQuery q = parseQuery(queryString, safeBaseIRI);
 
 		return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, inputQueryFactory);
 	}
@@ -544,7 +554,18 @@ public class OntopRepositoryConnection implements org.eclipse.rdf4j.repository.R
 	@Override
     public long size(Resource... contexts) throws RepositoryException {
 		//Returns the number of (explicit) statements that are in the specified contexts in this repository. 
-		return 0;
+		if (!isDefaultContext(contexts))
+			return 0;
+
+		// counted by the database (the same triple may be produced by several mapping assertions)
+		String queryString = "SELECT (COUNT(*) AS ?c) WHERE { SELECT DISTINCT ?s ?p ?o WHERE { ?s ?p ?o } }";
+		try (TupleQueryResult result = prepareTupleQuery(QueryLanguage.SPARQL, queryString).evaluate()) {
+			return result.hasNext()
+					? ((Literal) result.next().getValue("c")).longValue()
+					: 0;
+		} catch (MalformedQueryException | QueryEvaluationException e) {
+			throw new RepositoryException(e);
+		}
 	}
 
 
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.rdf4j.repository.impl;
  */
 
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
@@ -47,10 +48,12 @@ public class OntopVirtualRepository implements OntopRepository {
 	@Nullable
 	private OntopQueryEngine queryEngine;
 	private final RDF4JInputQueryFactory inputQueryFactory;
+	private final QueryLifecycleListener lifecycleListener;
 
 	public OntopVirtualRepository(OntopSystemConfiguration configuration) {
 		this.configuration = configuration;
 		inputQueryFactory = configuration.getInjector().getInstance(RDF4JInputQueryFactory.class);
+		lifecycleListener = configuration.getInjector().getInstance(QueryLifecycleListener.class);
 	}
 
 	/**
@@ -63,7 +66,8 @@ public class OntopVirtualRepository implements OntopRepository {
 	@Override
 	public RepositoryConnection getConnection() throws RepositoryException {
 		try {
-			return new OntopRepositoryConnection(this, getOntopConnection(), inputQueryFactory);
+			return new OntopRepositoryConnection(this, getOntopConnection(), inputQueryFactory,
+					lifecycleListener);
 		} catch (Exception e) {
 			logger.error("Error creating repo connection: " + e.getMessage());
 			throw new RepositoryException(e);
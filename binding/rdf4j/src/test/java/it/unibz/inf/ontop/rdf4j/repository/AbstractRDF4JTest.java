@@ -16,6 +16,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 import java.util.UUID;
 
 public class AbstractRDF4JTest {
@@ -28,6 +29,11 @@ public class AbstractRDF4JTest {
     private static RepositoryConnection REPO_CONNECTION;
 
     protected static void init(String dbScriptRelativePath, String obdaRelativePath) throws SQLException, IOException {
+        init(dbScriptRelativePath, obdaRelativePath, new Properties());
+    }
+
+    protected static void init(String dbScriptRelativePath, String obdaRelativePath, Properties properties)
+            throws SQLException, IOException {
 
         String jdbcUrl = URL_PREFIX + UUID.randomUUID().toString();
 
@@ -53,6 +59,7 @@ public class AbstractRDF4JTest {
                 .jdbcUrl(jdbcUrl)
                 .jdbcUser(USER)
                 .jdbcPassword(PASSWORD)
+                .properties(properties)
                 .enableTestMode()
                 .build();
 
@@ -69,6 +76,10 @@ public class AbstractRDF4JTest {
         SQL_CONNECTION.close();
     }
 
+    protected static RepositoryConnection getRepositoryConnection() {
+        return REPO_CONNECTION;
+    }
+
     protected int runQueryAndCount(String queryString) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
 
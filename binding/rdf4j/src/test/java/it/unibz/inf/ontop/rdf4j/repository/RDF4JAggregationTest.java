@@ -0,0 +1,182 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * GROUP BY, HAVING and the aggregates are evaluated by the database
+ */
+public class RDF4JAggregationTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/aggregation/aggregation.sql";
+    private static final String OBDA_FILE = "/aggregation/aggregation.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        init(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testCountGroupBy() {
+        Map<String, Value> counts = evaluate(PREFIX +
+                "SELECT ?d (COUNT(?e) AS ?v) WHERE { ?e ex:department ?d } GROUP BY ?d");
+
+        assertEquals(ImmutableSet.of(department("sales"), department("it"), department("hr")), counts.keySet());
+        Literal salesCount = (Literal) counts.get(department("sales"));
+        assertEquals(2, salesCount.intValue());
+        assertEquals(XMLSchema.INTEGER, salesCount.getDatatype());
+        assertEquals(1, ((Literal) counts.get(department("hr"))).intValue());
+    }
+
+    @Test
+    public void testHaving() {
+        Map<String, Value> sums = evaluate(PREFIX +
+                "SELECT ?d (SUM(?s) AS ?v) WHERE { ?e ex:department ?d ; ex:salary ?s } " +
+                "GROUP BY ?d HAVING (SUM(?s) > 5000)");
+
+        assertEquals(ImmutableMap.of(department("it"), 8000), toIntegers(sums));
+    }
+
+    @Test
+    public void testCountAllWithoutGroupBy() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT (COUNT(*) AS ?c) WHERE { ?e ex:salary ?s }").evaluate()) {
+            assertTrue(result.hasNext());
+            assertEquals(5, ((Literal) result.next().getValue("c")).intValue());
+            assertFalse(result.hasNext());
+        }
+    }
+
+    @Test
+    public void testCountDistinct() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT (COUNT(DISTINCT ?s) AS ?c) WHERE { ?e ex:salary ?s }").evaluate()) {
+            assertEquals(4, ((Literal) result.next().getValue("c")).intValue());
+        }
+    }
+
+    @Test
+    public void testMinMaxAvg() {
+        assertEquals(ImmutableMap.of(department("sales"), 2000, department("it"), 4000, department("hr"), 2500),
+                toIntegers(evaluate(PREFIX +
+                        "SELECT ?d (MIN(?s) AS ?v) WHERE { ?e ex:department ?d ; ex:salary ?s } GROUP BY ?d")));
+        assertEquals(ImmutableMap.of(department("sales"), 3000, department("it"), 4000, department("hr"), 2500),
+                toIntegers(evaluate(PREFIX +
+                        "SELECT ?d (MAX(?s) AS ?v) WHERE { ?e ex:department ?d ; ex:salary ?s } GROUP BY ?d")));
+        assertEquals(ImmutableMap.of(department("sales"), 2500, department("it"), 4000, department("hr"), 2500),
+                toIntegers(evaluate(PREFIX +
+                        "SELECT ?d (AVG(?s) AS ?v) WHERE { ?e ex:department ?d ; ex:salary ?s } GROUP BY ?d")));
+    }
+
+    /**
+     * The average of integers is a decimal, not truncated
+     */
+    @Test
+    public void testAvgOfIntegers() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT (AVG(?s) AS ?a) WHERE { ?e ex:salary ?s FILTER (?s >= 3000) }").evaluate()) {
+            Literal average = (Literal) result.next().getValue("a");
+            assertEquals(XMLSchema.DECIMAL, average.getDatatype());
+            assertEquals(11000.0 / 3, average.doubleValue(), 0.001);
+        }
+    }
+
+    /**
+     * MIN and MAX over values of different datatypes are not evaluated by the database
+     */
+    @Test(expected = QueryEvaluationException.class)
+    public void testMinOfHeterogeneousValues() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT (MIN(?v) AS ?m) WHERE { ?e ex:salary|ex:name ?v }").evaluate()) {
+            result.hasNext();
+        }
+    }
+
+    @Test
+    public void testMaxIRI() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT (MAX(?d) AS ?m) WHERE { ?e ex:department ?d }").evaluate()) {
+            Value max = result.next().getValue("m");
+            assertTrue(max instanceof IRI);
+            assertEquals(department("sales"), max.stringValue());
+        }
+    }
+
+    @Test
+    public void testGroupConcat() {
+        Map<String, Value> names = evaluate(PREFIX +
+                "SELECT ?d (GROUP_CONCAT(?n; separator=\", \") AS ?v) WHERE { ?e ex:department ?d ; ex:name ?n } " +
+                "GROUP BY ?d");
+
+        assertEquals(ImmutableSet.of("Carol", "Dave"),
+                ImmutableSet.copyOf(Arrays.asList(names.get(department("it")).stringValue().split(", "))));
+        assertEquals("Eve", names.get(department("hr")).stringValue());
+    }
+
+    @Test
+    public void testOrderByAggregate() {
+        try (TupleQueryResult result = getRepositoryConnection().prepareTupleQuery(QueryLanguage.SPARQL, PREFIX +
+                "SELECT ?d (SUM(?s) AS ?total) WHERE { ?e ex:department ?d ; ex:salary ?s } " +
+                "GROUP BY ?d ORDER BY DESC(?total)").evaluate()) {
+            assertEquals(department("it"), result.next().getValue("d").stringValue());
+            assertEquals(department("sales"), result.next().getValue("d").stringValue());
+            assertEquals(department("hr"), result.next().getValue("d").stringValue());
+        }
+    }
+
+    @Test
+    public void testSize() {
+        // 5 employees x 3 properties, and the duplicate name of Alice
+        assertEquals(15, getRepositoryConnection().size());
+    }
+
+    private static String department(String name) {
+        return "http://example.org/department/" + name;
+    }
+
+    /**
+     * ?d -> ?v
+     */
+    private static Map<String, Value> evaluate(String queryString) {
+        Map<String, Value> values = new HashMap<>();
+        try (TupleQueryResult result = getRepositoryConnection()
+                .prepareTupleQuery(QueryLanguage.SPARQL, queryString).evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                assertNull(values.put(bindingSet.getValue("d").stringValue(), bindingSet.getValue("v")));
+            }
+        }
+        return values;
+    }
+
+    private static Map<String, Integer> toIntegers(Map<String, Value> values) {
+        Map<String, Integer> integers = new HashMap<>();
+        values.forEach((k, v) -> integers.put(k, ((Literal) v).intValue()));
+        return integers;
+    }
+}
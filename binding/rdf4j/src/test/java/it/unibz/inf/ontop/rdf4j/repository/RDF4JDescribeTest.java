@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * DESCRIBE is evaluated by batches of CONSTRUCT queries (2 resources per batch here)
+ */
+public class RDF4JDescribeTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/describe/describe.sql";
+    private static final String OBDA_FILE = "/describe/describe.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopSystemSettings.DESCRIBE_BATCH_SIZE, "2");
+        init(CREATE_DB_FILE, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testDescribeIRI() {
+        assertEquals(ImmutableSet.of(
+                "person/1 name Alice",
+                "person/1 knows person/2",
+                "person/4 knows person/1"),
+                evaluate("DESCRIBE <http://example.org/person/1>"));
+    }
+
+    /**
+     * 5 resources: 3 batches
+     */
+    @Test
+    public void testDescribeVariable() {
+        assertEquals(ImmutableSet.of(
+                "person/1 name Alice",
+                "person/2 name Bob",
+                "person/3 name Carol",
+                "person/4 name Dave",
+                "person/5 name Eve",
+                "person/1 knows person/2",
+                "person/2 knows person/3",
+                "person/4 knows person/1"),
+                evaluate("DESCRIBE ?x WHERE { ?x ex:name ?n }"));
+    }
+
+    /**
+     * The "knows" triples are returned by the patterns of both their resources,
+     * in the same batch or in different ones
+     */
+    @Test
+    public void testDescribeWithoutDuplicates() {
+        int count = 0;
+        try (GraphQueryResult result = getRepositoryConnection()
+                .prepareGraphQuery(QueryLanguage.SPARQL, PREFIX + "DESCRIBE ?x WHERE { ?x ex:name ?n }").evaluate()) {
+            while (result.hasNext()) {
+                result.next();
+                count++;
+            }
+        }
+        assertEquals(8, count);
+    }
+
+    @Test
+    public void testDescribeObjectOnly() {
+        assertEquals(ImmutableSet.of(
+                "person/3 name Carol",
+                "person/2 knows person/3"),
+                evaluate("DESCRIBE ?x WHERE { ?y ex:knows ?x . ?x ex:name \"Carol\" }"));
+    }
+
+    @Test
+    public void testDescribeNothing() {
+        assertTrue(evaluate("DESCRIBE ?x WHERE { ?x ex:name \"Nobody\" }").isEmpty());
+    }
+
+    private static Set<String> evaluate(String queryString) {
+        Set<String> triples = new HashSet<>();
+        try (GraphQueryResult result = getRepositoryConnection()
+                .prepareGraphQuery(QueryLanguage.SPARQL, PREFIX + queryString).evaluate()) {
+            while (result.hasNext()) {
+                Statement statement = result.next();
+                triples.add(shorten(statement.getSubject().stringValue()) + " "
+                        + shorten(statement.getPredicate().stringValue()) + " "
+                        + shorten(statement.getObject().stringValue()));
+            }
+        }
+        return triples;
+    }
+
+    private static String shorten(String value) {
+        return value.replace("http://example.org/", "");
+    }
+}
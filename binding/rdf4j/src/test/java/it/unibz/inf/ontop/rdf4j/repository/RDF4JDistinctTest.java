@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * DISTINCT post-processing enabled: only applied when the SQL DISTINCT would not be equivalent
+ * (here, for the integers and the decimals)
+ */
+public class RDF4JDistinctTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/distinct/distinct.sql";
+    private static final String OBDA_FILE = "/distinct/distinct.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.DISTINCT_RESULTSET, "true");
+        properties.setProperty(OntopSystemSettings.DISTINCT_RESULTSET_MAX_IN_MEMORY_ROWS, "1");
+        init(CREATE_DB_FILE, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testDistinctIRIs() {
+        assertEquals(3, runQueryAndCount(PREFIX + "SELECT DISTINCT ?d WHERE { ?e ex:department ?d }"));
+    }
+
+    @Test
+    public void testDistinctIntegers() {
+        assertEquals(4, runQueryAndCount(PREFIX + "SELECT DISTINCT ?s WHERE { ?e ex:salary ?s }"));
+    }
+
+    @Test
+    public void testDistinctIRIsAndIntegers() {
+        assertEquals(4, runQueryAndCount(PREFIX +
+                "SELECT DISTINCT ?d ?s WHERE { ?e ex:department ?d ; ex:salary ?s }"));
+    }
+
+    /**
+     * 1.0 and 1.00 are equal as numbers but are distinct RDF terms
+     */
+    @Test
+    public void testDistinctDecimals() {
+        assertEquals(2, runQueryAndCount(PREFIX + "SELECT DISTINCT ?b WHERE { ?e ex:bonus ?b }"));
+    }
+
+    @Test
+    public void testNoDistinct() {
+        assertEquals(5, runQueryAndCount(PREFIX + "SELECT ?d WHERE { ?e ex:department ?d }"));
+    }
+}
@@ -0,0 +1,62 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JMX export of the statistics of the stages of query answering
+ */
+public class RDF4JMonitoringTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/aggregation/aggregation.sql";
+    private static final String OBDA_FILE = "/aggregation/aggregation.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+    private static final String DOMAIN = "it.unibz.inf.ontop:type=QueryStage,queryType=SELECT,stage=";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSettings.JMX_MONITORING, "true");
+        init(CREATE_DB_FILE, OBDA_FILE, properties);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testStages() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        long previousCount = getCount(server, "UNFOLDING");
+
+        assertEquals(5, runQueryAndCount(PREFIX + "SELECT ?d WHERE { ?e ex:department ?d }"));
+
+        assertEquals(previousCount + 1, getCount(server, "UNFOLDING"));
+        for (String stage : new String[]{"PARSING", "TRANSLATION", "REWRITING", "NATIVE_QUERY_GENERATION",
+                "EXECUTION", "FIRST_ROW", "RESULT_DECODING"})
+            assertTrue(stage, getCount(server, stage) > 0);
+
+        ObjectName rows = new ObjectName("it.unibz.inf.ontop:type=QuerySize,queryType=SELECT,size=ROW_COUNT");
+        assertTrue((double) server.getAttribute(rows, "Max") >= 5);
+    }
+
+    private static long getCount(MBeanServer server, String stage) throws Exception {
+        ObjectName name = new ObjectName(DOMAIN + stage);
+        return server.isRegistered(name)
+                ? (long) server.getAttribute(name, "Count")
+                : 0;
+    }
+}
@@ -0,0 +1,144 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The property paths p+ and p* are evaluated by the database (recursive common table expressions)
+ */
+public class RDF4JPropertyPathTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/property-path/property-path.sql";
+    private static final String OBDA_FILE = "/property-path/property-path.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        init(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testOneOrMoreFromConstant() {
+        assertEquals(categories(4, 2, 1), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/5> ex:broader+ ?x }"));
+    }
+
+    @Test
+    public void testZeroOrMoreFromConstant() {
+        assertEquals(categories(5, 4, 2, 1), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/5> ex:broader* ?x }"));
+    }
+
+    @Test
+    public void testOneOrMoreToConstant() {
+        assertEquals(categories(2, 3, 4, 5, 8), evaluate(
+                "SELECT ?x WHERE { ?x ex:broader+ <http://example.org/category/1> }"));
+    }
+
+    @Test
+    public void testCycle() {
+        assertEquals(categories(6, 7), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/6> ex:broader+ ?x }"));
+    }
+
+    /**
+     * The first step comes from another mapping assertion
+     */
+    @Test
+    public void testUnionOfMappings() {
+        assertEquals(categories(5, 4, 2, 1), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/8> ex:broader+ ?x }"));
+    }
+
+    @Test
+    public void testSequenceStep() {
+        assertEquals(categories(2), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/5> (ex:broader/ex:broader)+ ?x }"));
+    }
+
+    @Test
+    public void testJoinWithClosure() {
+        assertEquals(categories(2, 3, 4, 5, 8), evaluate(
+                "SELECT ?x WHERE { ?x ex:broader+ ?y . ?y ex:name \"root\" }"));
+    }
+
+    @Test
+    public void testZeroOrOne() {
+        assertEquals(categories(5, 4), evaluate(
+                "SELECT ?x WHERE { <http://example.org/category/5> ex:broader? ?x }"));
+    }
+
+    /**
+     * Complete graph: the number of walks grows exponentially with their length, not the number of paths
+     * without repeated nodes
+     */
+    @Test
+    public void testCompleteGraph() {
+        assertEquals(nodes(1, 2, 3, 4, 5, 6), evaluate(
+                "SELECT ?x WHERE { <http://example.org/node/1> ex:linked+ ?x }"));
+    }
+
+    /**
+     * Paths of 150 steps
+     */
+    @Test
+    public void testLongChain() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 101; i <= 250; i++)
+            expected.add("http://example.org/node/" + i);
+        assertEquals(expected, evaluate(
+                "SELECT ?x WHERE { <http://example.org/node/100> ex:linked+ ?x }"));
+    }
+
+    /**
+     * Sequence of 30 diamonds: 2^30 paths from the first node to the last one
+     */
+    @Test
+    public void testDiamonds() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 1001; i <= 1090; i++)
+            expected.add("http://example.org/node/" + i);
+        assertEquals(expected, evaluate(
+                "SELECT ?x WHERE { <http://example.org/node/1000> ex:linked+ ?x }"));
+    }
+
+    private static Set<String> nodes(int... ids) {
+        Set<String> iris = new HashSet<>();
+        for (int id : ids)
+            iris.add("http://example.org/node/" + id);
+        return ImmutableSet.copyOf(iris);
+    }
+
+    private static Set<String> categories(int... ids) {
+        Set<String> iris = new HashSet<>();
+        for (int id : ids)
+            iris.add("http://example.org/category/" + id);
+        return ImmutableSet.copyOf(iris);
+    }
+
+    private static Set<String> evaluate(String queryString) {
+        Set<String> values = new HashSet<>();
+        try (TupleQueryResult result = getRepositoryConnection()
+                .prepareTupleQuery(QueryLanguage.SPARQL, PREFIX + queryString).evaluate()) {
+            while (result.hasNext())
+                values.add(result.next().getValue("x").stringValue());
+        }
+        return values;
+    }
+}
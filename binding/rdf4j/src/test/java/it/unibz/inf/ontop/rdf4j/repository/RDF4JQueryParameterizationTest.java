@@ -0,0 +1,127 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.impl.BoundedQueryCache;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Queries differing only by their string constants share the same parameterized native query
+ */
+public class RDF4JQueryParameterizationTest {
+
+    private static final String URL = "jdbc:h2:mem:parameterization";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/> ";
+
+    private static Connection sqlConnection;
+    private static RepositoryConnection conn;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement st = sqlConnection.createStatement();
+             Scanner sqlFile = new Scanner(new File("src/test/resources/parameterization/parameterization.sql"))) {
+            st.executeUpdate(sqlFile.useDelimiter("\\A").next());
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(QueryCache.class.getCanonicalName(), BoundedQueryCache.class.getCanonicalName());
+        properties.setProperty(OntopReformulationSettings.QUERY_PARAMETERIZATION, "true");
+        properties.setProperty(OntopReformulationSettings.JMX_MONITORING, "true");
+
+        OntopSQLOWLAPIConfiguration config = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile("src/test/resources/parameterization/parameterization.obda")
+                .jdbcUrl(URL)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+
+        OntopRepository repo = OntopRepository.defaultRepository(config);
+        repo.initialize();
+        conn = repo.getConnection();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        conn.close();
+        sqlConnection.close();
+    }
+
+    /**
+     * The template reformulated for the first query is re-used by the following ones
+     */
+    @Test
+    public void testSameShapeDifferentValues() throws Exception {
+        long hitCount = getQueryCacheHitCount();
+        assertEquals(1, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"Alice\" }"));
+        assertEquals(1, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"Bob\" }"));
+        assertEquals(1, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"O'Brien\" }"));
+        assertEquals(0, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"Nobody\" }"));
+        assertEquals(3, getQueryCacheHitCount() - hitCount);
+    }
+
+    @Test
+    public void testSeveralParameters() {
+        assertEquals(1, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"Alice\" ; ex:city \"Bolzano\" }"));
+        assertEquals(0, count(PREFIX + "SELECT ?p WHERE { ?p ex:name \"Alice\" ; ex:city \"Trento\" }"));
+        assertEquals(2, count(PREFIX + "SELECT ?p WHERE { ?p ex:city \"Bolzano\" }"));
+    }
+
+    /**
+     * The query with the mapping constant is reformulated on its own, without using the template
+     */
+    @Test
+    public void testMappingConstant() throws Exception {
+        long hitCount = getQueryCacheHitCount();
+        assertEquals(0, count(PREFIX + "SELECT ?p WHERE { ?p ex:status \"inactive\" }"));
+        assertEquals(2, count(PREFIX + "SELECT ?p WHERE { ?p ex:status \"active\" }"));
+        assertEquals(0, count(PREFIX + "SELECT ?p WHERE { ?p ex:status \"unknown\" }"));
+        assertEquals(1, getQueryCacheHitCount() - hitCount);
+    }
+
+    /**
+     * Sum over the query caches of the JVM (registered through JMX)
+     */
+    private static long getQueryCacheHitCount() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        long hitCount = 0;
+        for (ObjectName name : server.queryNames(new ObjectName("it.unibz.inf.ontop:type=QueryCache,*"), null))
+            hitCount += (Long) server.getAttribute(name, "HitCount");
+        return hitCount;
+    }
+
+    private static int count(String queryString) {
+        TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+        int count = 0;
+        try (TupleQueryResult result = query.evaluate()) {
+            while (result.hasNext()) {
+                result.next();
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,79 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+
+public class RDF4JStatementsTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/label_comment.sql";
+    private static final String OBDA_FILE = "/label_comment.obda";
+
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final IRI INDIVIDUAL = VALUE_FACTORY.createIRI("http://example.org/Individual1");
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        init(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testGetStatements() {
+        RepositoryConnection conn = getRepositoryConnection();
+        int count = 0;
+        try (RepositoryResult<Statement> result = conn.getStatements(INDIVIDUAL, RDFS.LABEL, null, false)) {
+            while (result.hasNext()) {
+                Statement st = result.next();
+                assertEquals(INDIVIDUAL, st.getSubject());
+                assertEquals(RDFS.LABEL, st.getPredicate());
+                count++;
+            }
+        }
+        assertEquals(2, count);
+    }
+
+    @Test
+    public void testGetStatementsEarlyClose() {
+        RepositoryConnection conn = getRepositoryConnection();
+        try (RepositoryResult<Statement> result = conn.getStatements(null, null, null, false)) {
+            assertTrue(result.hasNext());
+            assertNotNull(result.next());
+        }
+        // the connection can still be used
+        assertTrue(conn.hasStatement(INDIVIDUAL, RDFS.COMMENT, null, false));
+    }
+
+    @Test
+    public void testHasStatement() {
+        RepositoryConnection conn = getRepositoryConnection();
+        assertTrue(conn.hasStatement(INDIVIDUAL, RDFS.LABEL, VALUE_FACTORY.createLiteral("testdaten", "de"), false));
+        assertFalse(conn.hasStatement(INDIVIDUAL, RDFS.LABEL, VALUE_FACTORY.createLiteral("testdaten", "en"), false));
+        assertFalse(conn.hasStatement(VALUE_FACTORY.createIRI("http://example.org/Individual2"), null, null, false));
+        assertFalse(conn.hasStatement(null, null, null, false, (Resource) VALUE_FACTORY.createIRI("http://example.org/g")));
+        assertFalse(conn.isEmpty());
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(4, getRepositoryConnection().size());
+    }
+}
@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Triple patterns with IRI constants: the mapping definitions of the other IRI templates are discarded
+ */
+public class RDF4JTemplatePruningTest extends AbstractRDF4JTest {
+
+    private static final String CREATE_DB_FILE = "/template-pruning/template-pruning.sql";
+    private static final String OBDA_FILE = "/template-pruning/template-pruning.obda";
+    private static final String PREFIX = "PREFIX ex: <http://example.org/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        init(CREATE_DB_FILE, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testConstantSubject() {
+        // rdf:type, name, department and homepage
+        assertEquals(4, runQueryAndCount(PREFIX +
+                "SELECT ?p ?o WHERE { <http://example.org/person/1> ?p ?o }"));
+    }
+
+    @Test
+    public void testConstantObject() {
+        assertEquals(2, runQueryAndCount(PREFIX +
+                "SELECT ?s ?p WHERE { ?s ?p <http://example.org/department/sales> }"));
+    }
+
+    @Test
+    public void testConstantObjectFromColumn() {
+        assertEquals(1, runQueryAndCount(PREFIX +
+                "SELECT ?s ?p WHERE { ?s ?p <http://example.org/home/alice> }"));
+    }
+
+    @Test
+    public void testConstantSubjectAndProperty() {
+        assertEquals(1, runQueryAndCount(PREFIX +
+                "SELECT ?n WHERE { <http://example.org/department/it> ex:name ?n }"));
+    }
+
+    @Test
+    public void testConstantSubjectClass() {
+        assertEquals(1, runQueryAndCount(PREFIX +
+                "SELECT ?c WHERE { <http://example.org/department/it> a ?c }"));
+    }
+
+    @Test
+    public void testUnknownSubject() {
+        assertEquals(0, runQueryAndCount(PREFIX +
+                "SELECT ?p ?o WHERE { <http://example.org/project/1> ?p ?o }"));
+    }
+}
@@ -0,0 +1,11 @@
+CREATE TABLE "employee" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL,
+    dept character varying(20) NOT NULL,
+    salary integer NOT NULL
+);
+INSERT INTO "employee" VALUES (1, 'Alice', 'sales', 3000);
+INSERT INTO "employee" VALUES (2, 'Bob', 'sales', 2000);
+INSERT INTO "employee" VALUES (3, 'Carol', 'it', 4000);
+INSERT INTO "employee" VALUES (4, 'Dave', 'it', 4000);
+INSERT INTO "employee" VALUES (5, 'Eve', 'hr', 2500);
@@ -0,0 +1,10 @@
+CREATE TABLE "person" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL,
+    knows integer
+);
+INSERT INTO "person" VALUES (1, 'Alice', 2);
+INSERT INTO "person" VALUES (2, 'Bob', 3);
+INSERT INTO "person" VALUES (3, 'Carol', NULL);
+INSERT INTO "person" VALUES (4, 'Dave', 1);
+INSERT INTO "person" VALUES (5, 'Eve', NULL);
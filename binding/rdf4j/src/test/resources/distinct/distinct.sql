@@ -0,0 +1,19 @@
+CREATE TABLE "employee" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL,
+    dept character varying(20) NOT NULL,
+    salary integer NOT NULL
+);
+INSERT INTO "employee" VALUES (1, 'Alice', 'sales', 3000);
+INSERT INTO "employee" VALUES (2, 'Bob', 'sales', 2000);
+INSERT INTO "employee" VALUES (3, 'Carol', 'it', 4000);
+INSERT INTO "employee" VALUES (4, 'Dave', 'it', 4000);
+INSERT INTO "employee" VALUES (5, 'Eve', 'hr', 2500);
+
+CREATE TABLE "bonus" (
+    id integer NOT NULL PRIMARY KEY,
+    amount character varying(10) NOT NULL
+);
+INSERT INTO "bonus" VALUES (1, '1.0');
+INSERT INTO "bonus" VALUES (2, '1.00');
+INSERT INTO "bonus" VALUES (3, '1.00');
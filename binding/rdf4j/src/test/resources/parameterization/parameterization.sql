@@ -0,0 +1,9 @@
+CREATE TABLE "person" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20),
+    city character varying(20),
+    active boolean
+);
+INSERT INTO "person" VALUES (1, 'Alice', 'Bolzano', true);
+INSERT INTO "person" VALUES (2, 'Bob', 'Bolzano', false);
+INSERT INTO "person" VALUES (3, 'O''Brien', 'Trento', true);
@@ -0,0 +1,30 @@
+CREATE TABLE "category" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL,
+    parent integer
+);
+INSERT INTO "category" VALUES (1, 'root', NULL);
+INSERT INTO "category" VALUES (2, 'a', 1);
+INSERT INTO "category" VALUES (3, 'b', 1);
+INSERT INTO "category" VALUES (4, 'a1', 2);
+INSERT INTO "category" VALUES (5, 'a11', 4);
+INSERT INTO "category" VALUES (6, 'x', 7);
+INSERT INTO "category" VALUES (7, 'y', 6);
+INSERT INTO "category" VALUES (8, 'z', NULL);
+
+CREATE TABLE "extra_link" (
+    child integer NOT NULL,
+    parent integer NOT NULL
+);
+INSERT INTO "extra_link" VALUES (8, 5);
+
+CREATE TABLE "mesh" (
+    source integer NOT NULL,
+    target integer NOT NULL
+);
+INSERT INTO "mesh" SELECT a.X, b.X FROM SYSTEM_RANGE(1, 6) a, SYSTEM_RANGE(1, 6) b WHERE a.X <> b.X;
+INSERT INTO "mesh" SELECT X, X + 1 FROM SYSTEM_RANGE(100, 249);
+INSERT INTO "mesh" SELECT 1000 + 3 * X, 1000 + 3 * X + 1 FROM SYSTEM_RANGE(0, 29);
+INSERT INTO "mesh" SELECT 1000 + 3 * X, 1000 + 3 * X + 2 FROM SYSTEM_RANGE(0, 29);
+INSERT INTO "mesh" SELECT 1000 + 3 * X + 1, 1000 + 3 * X + 3 FROM SYSTEM_RANGE(0, 29);
+INSERT INTO "mesh" SELECT 1000 + 3 * X + 2, 1000 + 3 * X + 3 FROM SYSTEM_RANGE(0, 29);
@@ -0,0 +1,14 @@
+CREATE TABLE "person" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL,
+    dept character varying(20) NOT NULL,
+    homepage character varying(100)
+);
+CREATE TABLE "department" (
+    id character varying(20) NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL
+);
+INSERT INTO "person" VALUES (1, 'Alice', 'sales', 'http://example.org/home/alice');
+INSERT INTO "person" VALUES (2, 'Bob', 'sales', NULL);
+INSERT INTO "department" VALUES ('sales', 'Sales');
+INSERT INTO "department" VALUES ('it', 'IT');
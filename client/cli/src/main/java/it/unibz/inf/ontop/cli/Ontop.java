@@ -48,9 +48,6 @@ public class Ontop {
                         OntopBootstrap.class,
                         OntopValidate.class,
                         OntopEndpoint.class,
-                        /**
-                         * hidden commands
-                         */
                         OntopCompile.class
                 );
 
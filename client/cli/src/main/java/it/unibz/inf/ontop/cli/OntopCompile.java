@@ -21,14 +21,104 @@ package it.unibz.inf.ontop.cli;
  */
 
 import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.OptionType;
+import com.github.rvesse.airline.annotations.help.BashCompletion;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.github.rvesse.airline.help.cli.bash.CompletionBehaviour;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.CompiledSpecificationArchive;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
 
 @Command(name = "compile",
-        description = "compile the ontology axioms into  mappings",
-        hidden = true)
-public class OntopCompile implements OntopCommand {
+        description = "Bundle the mapping, the ontology (with its imports), the properties (without the credentials) " +
+                "and the DB metadata into a single file that can be loaded without extracting the DB metadata")
+public class OntopCompile extends OntopMappingOntologyRelatedCommand {
+
+    @Option(type = OptionType.COMMAND, name = {"-o", "--output"}, title = "output",
+            description = "output file of the compiled specification")
+    @Required
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    private String outputFile;
+
+    @Option(type = OptionType.COMMAND, name = {"-c", "--constraint"}, title = "constraint file",
+            description = "user-supplied DB constraint file")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    private String constraintFile;
 
     @Override
     public void run() {
 
+        OntopSQLOWLAPIConfiguration.Builder configurationBuilder = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .propertyFile(propertiesFile);
+
+        if (owlFile != null)
+            configurationBuilder.ontologyFile(owlFile);
+
+        if (isR2rmlFile(mappingFile))
+            configurationBuilder.r2rmlMappingFile(mappingFile);
+        else
+            configurationBuilder.nativeOntopMappingFile(mappingFile);
+
+        if (constraintFile != null)
+            configurationBuilder.basicImplicitConstraintFile(constraintFile);
+
+        try {
+            OBDASpecification specification = configurationBuilder.build().loadSpecification();
+
+            Properties settings = new Properties();
+            try (Reader reader = new FileReader(propertiesFile)) {
+                settings.load(reader);
+            }
+            String mapping = new String(Files.readAllBytes(Paths.get(mappingFile)), StandardCharsets.UTF_8);
+            Optional<byte[]> ontology = owlFile == null
+                    ? Optional.empty()
+                    : Optional.of(mergeImportsClosure(owlFile));
+
+            CompiledSpecificationArchive.write(new File(outputFile), settings, mapping, isR2rmlFile(mappingFile),
+                    ontology, specification.getDBMetadata());
+
+            System.out.println("Specification compiled into " + outputFile);
+        }
+        catch (Exception e) {
+            System.out.format("ERROR: The specification cannot be compiled\n");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The ontology and the ontologies it imports, as a single RDF/XML document:
+     *   the archive then does not depend on their locations (e.g., relative owl:imports)
+     */
+    private static byte[] mergeImportsClosure(String owlFile)
+            throws OWLOntologyCreationException, OWLOntologyStorageException {
+        OWLOntology ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new File(owlFile));
+
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLOntology merged = manager.createOntology();
+        for (OWLOntology o : ontology.getImportsClosure())
+            manager.addAxioms(merged, o.getAxioms());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manager.saveOntology(merged, new RDFXMLDocumentFormat(), out);
+        return out.toByteArray();
     }
 }
@@ -19,6 +19,10 @@ public class OntopEndpoint extends OntopMappingOntologyRelatedCommand {
             description = "CORS allowed origins")
     private String corsAllowedOrigins = ",";
 
+    @Option(type = OptionType.COMMAND, name = {"--streaming-threads"}, title = "threads",
+            description = "maximum number of responses streamed concurrently (default: 16)")
+    private int streamingThreads = 16;
+
     @Override
     public void run() {
         String[] args = {
@@ -26,7 +30,8 @@ public class OntopEndpoint extends OntopMappingOntologyRelatedCommand {
                 "--mapping=" + this.mappingFile,
                 "--properties=" + this.propertiesFile,
                 "--port=" + this.port,
-                "--cors-allowed-origins=" + this.corsAllowedOrigins
+                "--cors-allowed-origins=" + this.corsAllowedOrigins,
+                "--streaming-threads=" + this.streamingThreads
         };
 
         SpringApplication.run(OntopEndpointApplication.class, args);
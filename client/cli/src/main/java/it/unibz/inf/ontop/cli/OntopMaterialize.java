@@ -25,6 +25,7 @@ import com.github.rvesse.airline.annotations.Command;
 import com.github.rvesse.airline.annotations.Option;
 import com.github.rvesse.airline.annotations.OptionType;
 import com.github.rvesse.airline.annotations.restrictions.AllowedValues;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
@@ -32,15 +33,26 @@ import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.owlapi.OntopOWLAPIMaterializer;
 import it.unibz.inf.ontop.owlapi.resultset.MaterializedGraphOWLResultSet;
+import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
+import it.unibz.inf.ontop.rdf4j.query.MaterializationGraphQuery;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import org.apache.commons.rdf.api.RDF;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.io.WriterDocumentTarget;
 import org.semanticweb.owlapi.model.*;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 
 @Command(name = "materialize",
@@ -69,6 +81,9 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     private static final String OWL_XML = "owlxml";
     private static final String TURTLE = "turtle";
     private static final String N3 = "n3";
+    private static final String NTRIPLES = "ntriples";
+    // Number of triples handed over at once to a shard writer
+    private static final int SHARD_BATCH_SIZE = 10000;
 
 
     @Option(type = OptionType.COMMAND, override = true, name = {"-o", "--output"},
@@ -80,7 +95,7 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "The format of the materialized ontology. " +
                     //" Options: rdfxml, owlxml, turtle, n3. " +
                     "Default: rdfxml")
-    @AllowedValues(allowedValues = {RDF_XML, OWL_XML, TURTLE, N3})
+    @AllowedValues(allowedValues = {RDF_XML, OWL_XML, TURTLE, N3, NTRIPLES})
     public String format = RDF_XML;
 
     @Option(type = OptionType.COMMAND, name = {"--separate-files"}, title = "output to separate files",
@@ -92,6 +107,17 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--threads"}, title = "number of threads",
+            description = "Number of classes/properties materialized concurrently, each on its own DB connection. " +
+                    "Default: 1.")
+    private int threads = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--shards"}, title = "number of output shards",
+            description = "Number of output files written concurrently (only for turtle and ntriples). " +
+                    "The triples of the same subject are written into the same file. " +
+                    "The shard number is inserted before the extension of the output file. Default: 1.")
+    private int shards = 1;
+
     private boolean doStreamResults = true;
 
     public OntopMaterialize(){}
@@ -106,6 +132,8 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
         }
         if(separate) {
             runWithSeparateFiles();
+        } else if (shards > 1 || format.equals(NTRIPLES)) {
+            runWithShards();
         } else {
             runWithSingleFile();
         }
@@ -319,6 +347,7 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             OntopOWLAPIMaterializer materializer = OntopOWLAPIMaterializer.defaultMaterializer();
             MaterializationParams materializationParams = MaterializationParams.defaultBuilder()
                     .enableDBResultsStreaming(doStreamResults)
+                    .parallelism(threads)
                     .build();
 
 
@@ -352,6 +381,212 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
     }
 
 
+    /**
+     * Streams the triples into one or several files, each written by its own thread.
+     *
+     * Contrary to the other modes, the triples are not accumulated into an OWL ontology beforehand.
+     */
+    private void runWithShards() {
+        final RDFFormat rdfFormat;
+        final String suffix;
+        switch (format) {
+            case TURTLE:
+                rdfFormat = RDFFormat.TURTLE;
+                suffix = ".ttl";
+                break;
+            case NTRIPLES:
+                rdfFormat = RDFFormat.NTRIPLES;
+                suffix = ".nt";
+                break;
+            default:
+                System.err.println("Output shards are only supported for the formats " + TURTLE + " and " + NTRIPLES);
+                return;
+        }
+        if (shards > 1 && outputFile == null) {
+            System.err.println("An output file is required for writing several shards");
+            return;
+        }
+
+        ExecutorService writerService = Executors.newFixedThreadPool(shards);
+        try {
+            final long startTime = System.currentTimeMillis();
+
+            OWLOntology ontology;
+            if (owlFile != null) {
+                Builder configBuilder = createAndInitConfigurationBuilder();
+                configBuilder.ontologyFile(owlFile);
+                OntopSQLOWLAPIConfiguration initialConfiguration = configBuilder.build();
+                OWLOntology initialOntology = initialConfiguration.loadProvidedInputOntology();
+                ontology = disableReasoning
+                        ? extractDeclarations(initialOntology.getOWLOntologyManager(), initialOntology)
+                        : initialOntology;
+            } else {
+                ontology = OWLManager.createOWLOntologyManager().createOntology();
+            }
+            OntopSQLOWLAPIConfiguration materializerConfiguration = createAndInitConfigurationBuilder()
+                    .ontology(ontology)
+                    .build();
+
+            MaterializationParams materializationParams = MaterializationParams.defaultBuilder()
+                    .enableDBResultsStreaming(doStreamResults)
+                    .parallelism(threads)
+                    .build();
+
+            MaterializationGraphQuery graphQuery = RDF4JMaterializer.defaultMaterializer()
+                    .materialize(materializerConfiguration, materializationParams);
+
+            List<ShardWriter> writers = new ArrayList<>();
+            List<Future<Long>> writerResults = new ArrayList<>();
+            for (int i = 0; i < shards; i++) {
+                OutputStream output = (outputFile == null)
+                        ? new NonClosingOutputStream(System.out)
+                        : new FileOutputStream(shards > 1 ? getShardFileName(outputFile, i, suffix) : outputFile);
+                ShardWriter writer = new ShardWriter(rdfFormat, output);
+                writers.add(writer);
+                writerResults.add(writerService.submit(writer));
+            }
+
+            try (GraphQueryResult result = graphQuery.evaluate()) {
+                List<List<Statement>> batches = new ArrayList<>(shards);
+                for (int i = 0; i < shards; i++)
+                    batches.add(new ArrayList<>(SHARD_BATCH_SIZE));
+
+                while (result.hasNext()) {
+                    Statement statement = result.next();
+                    int shardIndex = getShardIndex(statement);
+                    List<Statement> batch = batches.get(shardIndex);
+                    batch.add(statement);
+                    if (batch.size() == SHARD_BATCH_SIZE) {
+                        writers.get(shardIndex).write(batch);
+                        batches.set(shardIndex, new ArrayList<>(SHARD_BATCH_SIZE));
+                    }
+                }
+                for (int i = 0; i < shards; i++)
+                    writers.get(i).write(batches.get(i));
+            } finally {
+                for (ShardWriter writer : writers)
+                    writer.end();
+            }
+
+            long tripleCount = 0;
+            for (Future<Long> writerResult : writerResults)
+                tripleCount += writerResult.get();
+
+            System.err.println("NR of TRIPLES: " + tripleCount);
+            System.err.println("VOCABULARY SIZE (NR of QUERIES): " + graphQuery.getSelectedVocabulary().size());
+
+            final long endTime = System.currentTimeMillis();
+            System.out.println("Elapsed time to materialize: " + (endTime - startTime) + " {ms}");
+
+        } catch (Exception e) {
+            System.out.println("Error materializing ontology:");
+            e.printStackTrace();
+        } finally {
+            writerService.shutdownNow();
+        }
+    }
+
+    /**
+     * By subject, so that the triples of the same subject are grouped into the same file
+     */
+    private int getShardIndex(Statement statement) {
+        return Math.floorMod(statement.getSubject().hashCode(), shards);
+    }
+
+    /**
+     * Inserts the shard number before the extension (if any)
+     */
+    private static String getShardFileName(String outputFile, int shardIndex, String defaultSuffix) {
+        String fileName = Paths.get(outputFile).getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex > 0) {
+            int index = outputFile.length() - fileName.length() + extensionIndex;
+            return outputFile.substring(0, index) + "-" + shardIndex + outputFile.substring(index);
+        }
+        return outputFile + "-" + shardIndex + defaultSuffix;
+    }
+
+    /**
+     * Serializes the batches of triples it receives until an empty batch is received.
+     */
+    private static class ShardWriter implements Callable<Long> {
+
+        private static final List<Statement> END = ImmutableList.of();
+
+        private final BlockingQueue<List<Statement>> batches = new ArrayBlockingQueue<>(4);
+        private final RDFFormat rdfFormat;
+        private final OutputStream output;
+
+        ShardWriter(RDFFormat rdfFormat, OutputStream output) {
+            this.rdfFormat = rdfFormat;
+            this.output = output;
+        }
+
+        // Set when the writing thread stops (normally or not), so that the producer never blocks forever
+        private volatile boolean terminated = false;
+
+        void write(List<Statement> batch) throws InterruptedException {
+            if (!batch.isEmpty())
+                put(batch);
+        }
+
+        /**
+         * The failures of the writer are reported by its future
+         */
+        void end() throws InterruptedException {
+            try {
+                put(END);
+            } catch (IllegalStateException e) {
+                // Already terminated
+            }
+        }
+
+        private void put(List<Statement> batch) throws InterruptedException {
+            while (!batches.offer(batch, 1, TimeUnit.SECONDS)) {
+                if (terminated)
+                    throw new IllegalStateException("The shard writer has stopped");
+            }
+        }
+
+        @Override
+        public Long call() throws Exception {
+            long tripleCount = 0;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                RDFWriter rdfWriter = Rio.createWriter(rdfFormat, writer);
+                rdfWriter.startRDF();
+                for (List<Statement> batch = batches.take(); batch != END; batch = batches.take()) {
+                    for (Statement statement : batch)
+                        rdfWriter.handleStatement(statement);
+                    tripleCount += batch.size();
+                }
+                rdfWriter.endRDF();
+            } finally {
+                terminated = true;
+            }
+            return tripleCount;
+        }
+    }
+
+    /**
+     * For writing to System.out: flushes instead of closing it
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     /**
      * Mapping file + connection info
      */
@@ -4,6 +4,19 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.ExternalResource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class OntopMaterializeTest {
 
     @ClassRule
@@ -84,6 +97,57 @@ public class OntopMaterializeTest {
         Ontop.main(argv);
     }
 
+    /**
+     * The triples of the same subject are written into the same shard
+     */
+    @Test
+    public void testOntopMaterializeParallelShards () throws IOException {
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples", "-o", "src/test/resources/output/exampleBooks.materialized.nt",
+                "--threads", "4", "--shards", "3"
+        };
+        Ontop.main(argv);
+
+        Set<String> subjects = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Set<String> shardSubjects = Files.readAllLines(
+                    Paths.get("src/test/resources/output/exampleBooks.materialized-" + i + ".nt")).stream()
+                    .filter(l -> !l.isEmpty())
+                    .map(l -> l.substring(0, l.indexOf(' ')))
+                    .collect(Collectors.toSet());
+            for (String subject : shardSubjects)
+                assertTrue("Subject in several shards: " + subject, subjects.add(subject));
+        }
+        assertFalse(subjects.isEmpty());
+    }
+
+    /**
+     * System.out remains usable after the triples have been written
+     */
+    @Test
+    public void testOntopMaterializeNTriplesToStandardOutput () {
+        String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-f", "ntriples"
+        };
+        PrintStream standardOutput = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(output, true);
+        System.setOut(printStream);
+        try {
+            Ontop.main(argv);
+        } finally {
+            System.setOut(standardOutput);
+        }
+        assertFalse(printStream.checkError());
+        String content = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(content.contains("> ."));
+        assertTrue(content.contains("Elapsed time to materialize"));
+    }
+
     @Test
     public void testOntopMaterializeSeparatefiles (){
         String[] argv = {"materialize", "-m", "src/test/resources/books/exampleBooks.obda",
@@ -0,0 +1,50 @@
+package it.unibz.inf.ontop.endpoint;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QuerySize;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the durations of the stages (timer "ontop.query.stage", tagged by stage, step and query type)
+ * and the sizes (summary "ontop.query.size", tagged by size and query type) in a Micrometer registry.
+ *
+ * With Spring Boot Actuator, they are exposed under /actuator/metrics.
+ */
+public class MicrometerQueryLifecycleListener implements QueryLifecycleListener {
+
+    private static final String STAGE_METRIC = "ontop.query.stage";
+    private static final String SIZE_METRIC = "ontop.query.size";
+
+    private final MeterRegistry registry;
+
+    public MicrometerQueryLifecycleListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onStageCompleted(QueryStageEvent event) {
+        String queryType = event.getQueryType().name();
+        Timer.builder(STAGE_METRIC)
+                .tag("stage", event.getStage().name())
+                .tag("step", event.getStep().orElse(""))
+                .tag("queryType", queryType)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(event.getDurationNanos(), TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<QuerySize, Long> size : event.getSizes().entrySet()) {
+            DistributionSummary.builder(SIZE_METRIC)
+                    .tag("size", size.getKey().name())
+                    .tag("queryType", queryType)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(size.getValue());
+        }
+    }
+}
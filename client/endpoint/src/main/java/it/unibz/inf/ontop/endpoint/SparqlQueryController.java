@@ -1,16 +1,23 @@
 package it.unibz.inf.ontop.endpoint;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.utils.VersionInfo;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.Query;
 import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResult;
+import org.eclipse.rdf4j.query.QueryResultHandler;
+import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.Update;
-import org.eclipse.rdf4j.query.resultio.BooleanQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLBooleanJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLBooleanXMLWriter;
@@ -22,6 +29,7 @@ import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.rdfxml.RDFXMLWriter;
 import org.eclipse.rdf4j.rio.turtle.TurtleWriter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,11 +41,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
-import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Function;
 
 import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
@@ -49,18 +64,58 @@ public class SparqlQueryController {
     private final Repository repository;
 
     @Autowired
-    public SparqlQueryController(@Value("${ontology}") String owlFile,
-                                 @Value("${mapping}") String mappingFile,
-                                 @Value("${properties}") String propertiesFile) {
-        this.repository = setupVirtualRepository(mappingFile, owlFile, propertiesFile);
+    public SparqlQueryController(@Value("${ontology:}") String owlFile,
+                                 @Value("${mapping:}") String mappingFile,
+                                 @Value("${properties:}") String propertiesFile,
+                                 @Value("${compiled:}") String compiledFile,
+                                 MeterRegistry meterRegistry) {
+        QueryLifecycleListener lifecycleListener = new MicrometerQueryLifecycleListener(meterRegistry);
+        this.repository = compiledFile.isEmpty()
+                ? setupVirtualRepository(mappingFile, owlFile, propertiesFile, lifecycleListener)
+                : setupVirtualRepository(compiledFile, propertiesFile, lifecycleListener);
     }
 
-    private static Repository setupVirtualRepository(String mappings, String ontology, String properties) throws RepositoryException {
+    private static Repository setupVirtualRepository(String mappings, String ontology, String properties,
+                                                     QueryLifecycleListener lifecycleListener)
+            throws RepositoryException {
         OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
                 .nativeOntopMappingFile(mappings)
                 .ontologyFile(ontology)
                 .propertyFile(properties)
+                .queryLifecycleListener(lifecycleListener)
                 .build();
+        return initializeRepository(configuration);
+    }
+
+    /**
+     * Specification compiled by "ontop compile" (the DB metadata is not extracted).
+     *
+     * The JDBC credentials are not stored in the archive: they are taken from the properties file, if any.
+     */
+    private static Repository setupVirtualRepository(String compiledFile, String properties,
+                                                     QueryLifecycleListener lifecycleListener)
+            throws RepositoryException {
+        OntopSQLOWLAPIConfiguration.Builder<?> builder = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .compiledSpecificationFile(compiledFile)
+                .queryLifecycleListener(lifecycleListener);
+
+        if (!properties.isEmpty()) {
+            Properties credentials = new Properties();
+            try (Reader reader = new FileReader(properties)) {
+                credentials.load(reader);
+            }
+            catch (IOException e) {
+                throw new RepositoryException("Cannot read the properties file " + properties, e);
+            }
+            Optional.ofNullable(credentials.getProperty(OntopSQLCredentialSettings.JDBC_USER))
+                    .ifPresent(builder::jdbcUser);
+            Optional.ofNullable(credentials.getProperty(OntopSQLCredentialSettings.JDBC_PASSWORD))
+                    .ifPresent(builder::jdbcPassword);
+        }
+        return initializeRepository(builder.build());
+    }
+
+    private static Repository initializeRepository(OntopSQLOWLAPIConfiguration configuration) throws RepositoryException {
         OntopRepository repository = OntopRepository.defaultRepository(configuration);
 
         repository.initialize();
@@ -81,7 +136,7 @@ public class SparqlQueryController {
             method = {RequestMethod.GET}
     )
     @ResponseBody
-    public HttpEntity<String> query_get(
+    public HttpEntity<StreamingResponseBody> query_get(
             @RequestHeader(ACCEPT) String accept,
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -93,7 +148,7 @@ public class SparqlQueryController {
             method = RequestMethod.POST,
             consumes = APPLICATION_FORM_URLENCODED_VALUE)
     @ResponseBody
-    public HttpEntity<String> query_post_URL_encoded(
+    public HttpEntity<StreamingResponseBody> query_post_URL_encoded(
             @RequestHeader(ACCEPT) String accept,
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -105,7 +160,7 @@ public class SparqlQueryController {
             method = RequestMethod.POST,
             consumes = "application/sparql-query")
     @ResponseBody
-    public HttpEntity<String> query_post_directly(
+    public HttpEntity<StreamingResponseBody> query_post_directly(
             @RequestHeader(ACCEPT) String accept,
             @RequestBody String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
@@ -113,96 +168,150 @@ public class SparqlQueryController {
         return execQuery(accept, query, defaultGraphUri, namedGraphUri);
     }
 
-    private ResponseEntity<String> execQuery(String accept,
-                                             String query, String[] defaultGraphUri, String[] namedGraphUri) {
+    /**
+     * The query is prepared (and therefore parsed) and evaluated up to its first result before the response is
+     * committed, so that malformed queries, unsupported formats and evaluation errors (e.g. SQL errors)
+     * are reported with a proper HTTP status.
+     *
+     * The results are then streamed to the client while being read from the DB: an error occurring afterwards
+     * can only interrupt the response.
+     * The connection is closed once the response has been written.
+     */
+    private ResponseEntity<StreamingResponseBody> execQuery(String accept,
+                                                            String query, String[] defaultGraphUri, String[] namedGraphUri) {
 
         HttpHeaders headers = new HttpHeaders();
-        HttpStatus status = HttpStatus.OK;
 
         RepositoryConnection connection = repository.getConnection();
-        Query q = connection.prepareQuery(QueryLanguage.SPARQL, query);
-        ByteArrayOutputStream bao = new ByteArrayOutputStream();
-        final String result;
+        final ResultWriter resultWriter;
+        try {
+            Query q = connection.prepareQuery(QueryLanguage.SPARQL, query);
+            if (q instanceof Update) {
+                connection.close();
+                return new ResponseEntity<>(headers, HttpStatus.NOT_IMPLEMENTED);
+            }
+            Optional<ResultEvaluator> resultEvaluator = createResultEvaluator(q, accept, headers);
+            if (!resultEvaluator.isPresent()) {
+                connection.close();
+                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                return new ResponseEntity<>(headers, HttpStatus.BAD_REQUEST);
+            }
+            resultWriter = resultEvaluator.get().evaluate();
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                resultWriter.write(outputStream);
+            } finally {
+                connection.close();
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Evaluates the query up to its first result
+     */
+    @FunctionalInterface
+    private interface ResultEvaluator {
+        ResultWriter evaluate();
+    }
+
+    /**
+     * Writes all the results and releases them
+     */
+    @FunctionalInterface
+    private interface ResultWriter {
+        void write(OutputStream outputStream);
+    }
 
+    /**
+     * Sets the content type according to the accepted format.
+     * Returns empty if the format is not supported for this type of query.
+     */
+    private static Optional<ResultEvaluator> createResultEvaluator(Query q, String accept, HttpHeaders headers) {
         if (q instanceof TupleQuery) {
             TupleQuery selectQuery = (TupleQuery) q;
 
             if ("*/*".equals(accept) || accept.contains("json")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
-                selectQuery.evaluate(new SPARQLResultsJSONWriter(bao));
-                result = bao.toString();
+                return Optional.of(() -> startTupleQuery(selectQuery, SPARQLResultsJSONWriter::new));
             } else if (accept.contains("xml")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
-                selectQuery.evaluate(new SPARQLResultsXMLWriter(bao));
-                result = bao.toString();
+                return Optional.of(() -> startTupleQuery(selectQuery, SPARQLResultsXMLWriter::new));
             } else if (accept.contains("csv")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+csv");
-                selectQuery.evaluate(new SPARQLResultsCSVWriter(bao));
-                result = bao.toString();
+                return Optional.of(() -> startTupleQuery(selectQuery, SPARQLResultsCSVWriter::new));
             } else if (accept.contains("tsv")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "text/sparql-results+tsv");
-                selectQuery.evaluate(new SPARQLResultsTSVWriter(bao));
-                result = bao.toString();
-            } else {
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                return Optional.of(() -> startTupleQuery(selectQuery, SPARQLResultsTSVWriter::new));
             }
 
         } else if (q instanceof BooleanQuery) {
             BooleanQuery askQuery = (BooleanQuery) q;
-            boolean b = askQuery.evaluate();
 
             if ("*/*".equals(accept) || accept.contains("json")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+json");
-                BooleanQueryResultWriter writer = new SPARQLBooleanJSONWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
+                return Optional.of(() -> startBooleanQuery(askQuery, SPARQLBooleanJSONWriter::new));
             } else if (accept.contains("xml")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/sparql-results+xml");
-                BooleanQueryResultWriter writer = new SPARQLBooleanXMLWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
+                return Optional.of(() -> startBooleanQuery(askQuery, SPARQLBooleanXMLWriter::new));
             } else if (accept.contains("text")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "text/boolean");
-                BooleanQueryResultWriter writer = new BooleanTextWriter(bao);
-                writer.handleBoolean(b);
-                result = bao.toString();
-            } else {
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
+                return Optional.of(() -> startBooleanQuery(askQuery, BooleanTextWriter::new));
             }
+
         } else if (q instanceof GraphQuery) {
             GraphQuery graphQuery = (GraphQuery) q;
+
             if ("*/*".equals(accept) || accept.contains("turtle")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "text/turtle");
-                graphQuery.evaluate(new TurtleWriter(bao));
-                result = bao.toString();
+                return Optional.of(() -> startGraphQuery(graphQuery, TurtleWriter::new));
             } else if (accept.contains("json")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
-                graphQuery.evaluate(new org.eclipse.rdf4j.rio.rdfjson.RDFJSONWriter(bao, RDFFormat.JSONLD));
-                result = bao.toString();
+                return Optional.of(() -> startGraphQuery(graphQuery,
+                        out -> new org.eclipse.rdf4j.rio.rdfjson.RDFJSONWriter(out, RDFFormat.JSONLD)));
             } else if (accept.contains("xml")) {
                 headers.set(HttpHeaders.CONTENT_TYPE, "application/rdf+xml");
-                graphQuery.evaluate(new RDFXMLWriter(bao));
-                result = bao.toString();
-            } else {
-                //throw new IllegalArgumentException("unsupported ACCEPT : " + accept);
-                result = "";
-                status = HttpStatus.BAD_REQUEST;
+                return Optional.of(() -> startGraphQuery(graphQuery, RDFXMLWriter::new));
             }
-        } else if (q instanceof Update) {
-            //else if (q instanceof Update)
-            result = "";
-            status = HttpStatus.NOT_IMPLEMENTED;
-        } else {
-            result = "";
-            status = HttpStatus.BAD_REQUEST;
         }
-        return new ResponseEntity<>(result, headers, status);
+        return Optional.empty();
     }
 
+    private static ResultWriter startTupleQuery(TupleQuery query,
+                                                Function<OutputStream, QueryResultHandler> handlerFactory) {
+        TupleQueryResult result = query.evaluate();
+        fetchFirstResult(result);
+        return out -> QueryResults.report(result, handlerFactory.apply(out));
+    }
+
+    private static ResultWriter startGraphQuery(GraphQuery query, Function<OutputStream, RDFHandler> handlerFactory) {
+        GraphQueryResult result = query.evaluate();
+        fetchFirstResult(result);
+        return out -> QueryResults.report(result, handlerFactory.apply(out));
+    }
+
+    private static ResultWriter startBooleanQuery(BooleanQuery query,
+                                                  Function<OutputStream, QueryResultHandler> handlerFactory) {
+        boolean result = query.evaluate();
+        return out -> handlerFactory.apply(out).handleBoolean(result);
+    }
+
+    /**
+     * The native query is executed and its first result decoded before the HTTP status is committed.
+     */
+    private static void fetchFirstResult(QueryResult<?> result) {
+        try {
+            result.hasNext();
+        } catch (RuntimeException e) {
+            result.close();
+            throw e;
+        }
+    }
 
     @ExceptionHandler({MalformedQueryException.class})
     public ResponseEntity<String> handleMalformedQueryException(Exception ex) {
@@ -0,0 +1,118 @@
+package it.unibz.inf.ontop.endpoint;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The results are streamed once the query has been evaluated up to its first result
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "mapping=src/test/resources/streaming/streaming.obda",
+        "ontology=src/test/resources/streaming/streaming.owl",
+        "properties=src/test/resources/streaming/streaming.properties"})
+@AutoConfigureMockMvc
+public class SparqlQueryControllerTest {
+
+    private static final String URL = "jdbc:h2:mem:streaming";
+    private static final String PREFIX = "PREFIX : <http://example.org/> ";
+
+    private static Connection sqlConnection;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        // Kept open until the end, so that the in-memory DB is not dropped
+        sqlConnection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement st = sqlConnection.createStatement();
+             Scanner sqlFile = new Scanner(new File("src/test/resources/streaming/streaming.sql"))) {
+            st.executeUpdate(sqlFile.useDelimiter("\\A").next());
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        sqlConnection.close();
+    }
+
+    @Test
+    public void testStreamedSelect() throws Exception {
+        MvcResult result = mockMvc.perform(get("/sparql")
+                .header("Accept", "text/csv")
+                .param("query", PREFIX + "SELECT ?n WHERE { ?p a :Person ; :name ?n }"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/sparql-results+csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.trim().split("\r?\n");
+        // Header and one line per person, over several fetches
+        assertEquals(101, lines.length);
+        assertTrue(content.contains("person100"));
+    }
+
+    @Test
+    public void testStreamedConstruct() throws Exception {
+        MvcResult result = mockMvc.perform(get("/sparql")
+                .header("Accept", "text/turtle")
+                .param("query", PREFIX + "CONSTRUCT { ?p :name ?n } WHERE { ?p :name ?n }"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(content.contains("person42"));
+    }
+
+    /**
+     * The SQL error is raised before the response is committed
+     */
+    @Test
+    public void testEvaluationError() throws Exception {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.executeUpdate("DROP TABLE \"broken\"");
+        }
+        mockMvc.perform(get("/sparql")
+                .header("Accept", "application/sparql-results+json")
+                .param("query", PREFIX + "SELECT ?b WHERE { ?b a :Broken }"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    public void testMalformedQuery() throws Exception {
+        mockMvc.perform(get("/sparql")
+                .header("Accept", "application/sparql-results+json")
+                .param("query", "SELECT ?x WHERE { ?x "))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+}
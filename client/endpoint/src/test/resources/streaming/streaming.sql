@@ -0,0 +1,8 @@
+CREATE TABLE "person" (
+    id integer NOT NULL PRIMARY KEY,
+    name character varying(20) NOT NULL
+);
+INSERT INTO "person" SELECT X, 'person' || X FROM SYSTEM_RANGE(1, 100);
+CREATE TABLE "broken" (
+    id integer NOT NULL PRIMARY KEY
+);
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.protege.core;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.owlapi.OntopOWLFactory;
 import it.unibz.inf.ontop.owlapi.OntopOWLReasoner;
@@ -119,6 +120,11 @@ public class OntopProtegeReasoner extends OWLReasonerBase implements AutoCloseab
         return reasoner.getInconsistentAxiom();
     }
 
+    //all the axioms found inconsistent during the check in isQuestConsistent
+    public ImmutableList<Object> getInconsistentAxioms() {
+        return reasoner.getInconsistentAxioms();
+    }
+
     @Override
     public boolean isSatisfiable(@Nonnull OWLClassExpression classExpression) {
         return reasoner.isSatisfiable(classExpression);
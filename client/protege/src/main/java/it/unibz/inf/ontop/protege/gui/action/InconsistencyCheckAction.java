@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
+import java.util.stream.Collectors;
 
 public class InconsistencyCheckAction extends ProtegeAction {
 	
@@ -65,8 +66,10 @@ public class InconsistencyCheckAction extends ProtegeAction {
 				if (isConsistent) {
 					JOptionPane.showMessageDialog(getWorkspace(), "Your ontology is consistent! Great job!");
 				} else {
-					JOptionPane.showMessageDialog(getWorkspace(), "Your ontology is not consistent. The axiom creating inconsistency is: \n"
-							+questReasoner.getInconsistentAxiom().toString());
+					JOptionPane.showMessageDialog(getWorkspace(), "Your ontology is not consistent. The axioms creating inconsistency are: \n"
+							+questReasoner.getInconsistentAxioms().stream()
+							.map(Object::toString)
+							.collect(Collectors.joining("\n")));
 				}
 				
 			}catch(Exception ex){
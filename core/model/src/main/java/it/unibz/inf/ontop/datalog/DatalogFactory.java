@@ -42,6 +42,12 @@ public interface DatalogFactory {
     AlgebraOperatorPredicate getSparqlGroupPredicate();
     AlgebraOperatorPredicate getSparqlHavingPredicate();
 
+    /**
+     * Marks the body of a rule as the transitive closure (reflexive or not) of the binary relation
+     * given by the other atom of the body. The arguments are the source and target variables.
+     */
+    AlgebraOperatorPredicate getTransitiveClosurePredicate(boolean isReflexive);
+
     AtomPredicate getSubqueryPredicate(String suffix, int arity);
 
     /**
@@ -355,10 +355,17 @@ public class ExpressionEvaluator {
 			case SQL_LIKE:
 			case QUEST_CAST:
 			case AVG:
+			case AVG_DISTINCT:
 			case SUM:
+			case SUM_DISTINCT:
 			case MAX:
 			case MIN:
 			case COUNT:
+			case COUNT_DISTINCT:
+			case COUNT_ALL:
+			case SAMPLE:
+			case GROUP_CONCAT:
+			case GROUP_CONCAT_DISTINCT:
 				return term;
 			default:
 					throw new RuntimeException(
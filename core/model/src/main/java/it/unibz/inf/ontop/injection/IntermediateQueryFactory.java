@@ -12,6 +12,7 @@ import it.unibz.inf.ontop.model.atom.DataAtom;
 import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.model.atom.RelationPredicate;
 import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.NonGroundTerm;
 import it.unibz.inf.ontop.model.term.Variable;
@@ -60,6 +61,13 @@ public interface IntermediateQueryFactory {
     OrderByNode createOrderByNode(ImmutableList<OrderByNode.OrderComparator> comparators);
     OrderByNode.OrderComparator createOrderComparator(NonGroundTerm term, boolean isAscending);
 
+    AggregationNode createAggregationNode(ImmutableSet<Variable> groupingVariables,
+                                          ImmutableSubstitution<ImmutableFunctionalTerm> aggregationSubstitution);
+
+    TransitiveClosureNode createTransitiveClosureNode(@Assisted("source") Variable sourceVariable,
+                                                      @Assisted("target") Variable targetVariable,
+                                                      boolean isReflexive);
+
     UnaryIQTree createUnaryIQTree(UnaryOperatorNode rootNode, IQTree child);
     UnaryIQTree createUnaryIQTree(UnaryOperatorNode rootNode, IQTree child, IQProperties properties);
 
@@ -12,6 +12,12 @@ public interface OntopModelSettings {
 
     boolean isTestModeEnabled();
 
+    /**
+     * Shares the structurally identical variables, constants and ground functional terms
+     * (weakly referenced), so that their equality is mostly a reference check
+     */
+    boolean isTermInterningEnabled();
+
     /**
      * Not for end-users!
      *
@@ -44,4 +50,5 @@ public interface OntopModelSettings {
 
     String CARDINALITY_MODE = "ontop.cardinalityMode";
     String TEST_MODE = "ontop.testMode";
+    String TERM_INTERNING = "ontop.termInterning";
 }
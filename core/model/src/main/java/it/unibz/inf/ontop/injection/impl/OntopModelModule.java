@@ -73,6 +73,8 @@ public class OntopModelModule extends OntopAbstractModule {
                 SliceNode.class,
                 OrderByNode.class,
                 OrderByNode.OrderComparator.class,
+                AggregationNode.class,
+                TransitiveClosureNode.class,
                 UnaryIQTree.class,
                 BinaryNonCommutativeIQTree.class,
                 NaryIQTree.class,
@@ -110,6 +110,23 @@ public class QueryNodeRenamer implements HomogeneousQueryNodeTransformer {
         return iqFactory.createOrderByNode(newComparators);
     }
 
+    @Override
+    public AggregationNode transform(AggregationNode aggregationNode) {
+        return iqFactory.createAggregationNode(
+                aggregationNode.getGroupingVariables().stream()
+                        .map(renamingSubstitution::applyToVariable)
+                        .collect(ImmutableCollectors.toSet()),
+                renamingSubstitution.applyRenaming(aggregationNode.getSubstitution()));
+    }
+
+    @Override
+    public TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) {
+        return iqFactory.createTransitiveClosureNode(
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getSourceVariable()),
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getTargetVariable()),
+                transitiveClosureNode.isReflexive());
+    }
+
     private ImmutableExpression renameBooleanExpression(ImmutableExpression booleanExpression) {
         return renamingSubstitution.applyToBooleanExpression(booleanExpression);
     }
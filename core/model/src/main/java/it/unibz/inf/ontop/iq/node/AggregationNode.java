@@ -0,0 +1,36 @@
+package it.unibz.inf.ontop.iq.node;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+
+/**
+ * Groups the tuples of its child by the grouping variables
+ * and computes one aggregate (COUNT, SUM, AVG, MIN, MAX, SAMPLE, GROUP_CONCAT) per aggregation variable.
+ *
+ * Projects the grouping variables and the aggregation variables.
+ *
+ * Acts as a barrier: bindings are not lifted above it and filters are not pushed below it.
+ */
+public interface AggregationNode extends ExplicitVariableProjectionNode, UnaryOperatorNode {
+
+    /**
+     * Variables the tuples are grouped by (possibly empty: a single group)
+     */
+    ImmutableSet<Variable> getGroupingVariables();
+
+    /**
+     * Aggregation variable --> aggregate function (over the variables of the child)
+     */
+    ImmutableSubstitution<ImmutableFunctionalTerm> getSubstitution();
+
+    @Override
+    AggregationNode clone();
+
+    @Override
+    AggregationNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException;
+}
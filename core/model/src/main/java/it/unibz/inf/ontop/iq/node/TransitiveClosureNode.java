@@ -0,0 +1,31 @@
+package it.unibz.inf.ontop.iq.node;
+
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.Variable;
+
+/**
+ * Transitive closure of the binary relation (source, target) computed by its child:
+ * (s, t) is in the closure if t can be reached from s in one or more steps (SPARQL path p+).
+ *
+ * When reflexive, the pairs (v, v) are also included for the nodes v of the relation (SPARQL path p*).
+ *
+ * Projects the source and target variables.
+ *
+ * Acts as a barrier: bindings are not lifted above it and filters are not pushed below it.
+ */
+public interface TransitiveClosureNode extends ExplicitVariableProjectionNode, UnaryOperatorNode {
+
+    Variable getSourceVariable();
+
+    Variable getTargetVariable();
+
+    boolean isReflexive();
+
+    @Override
+    TransitiveClosureNode clone();
+
+    @Override
+    TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException;
+}
@@ -0,0 +1,329 @@
+package it.unibz.inf.ontop.iq.node.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQProperties;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.impl.IQTreeTools;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HeterogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
+import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
+import it.unibz.inf.ontop.model.term.impl.ImmutabilityTools;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation.EQ;
+
+
+@SuppressWarnings({"OptionalUsedAsFieldOrParameterType", "BindingAnnotationWithoutInject"})
+public class AggregationNodeImpl extends CompositeQueryNodeImpl implements AggregationNode {
+
+    private static final String AGGREGATION_NODE_STR = "AGGREGATE";
+
+    private final ImmutableSet<Variable> groupingVariables;
+    private final ImmutableSubstitution<ImmutableFunctionalTerm> substitution;
+    private final ImmutableSet<Variable> projectedVariables;
+    private final TermFactory termFactory;
+    private final ImmutabilityTools immutabilityTools;
+    private final IQTreeTools iqTreeTools;
+
+    @AssistedInject
+    private AggregationNodeImpl(@Assisted ImmutableSet<Variable> groupingVariables,
+                                @Assisted ImmutableSubstitution<ImmutableFunctionalTerm> substitution,
+                                SubstitutionFactory substitutionFactory, IntermediateQueryFactory iqFactory,
+                                TermFactory termFactory, ImmutabilityTools immutabilityTools,
+                                IQTreeTools iqTreeTools) {
+        super(substitutionFactory, iqFactory);
+        this.groupingVariables = groupingVariables;
+        this.substitution = substitution;
+        this.projectedVariables = Sets.union(groupingVariables, substitution.getDomain()).immutableCopy();
+        this.termFactory = termFactory;
+        this.immutabilityTools = immutabilityTools;
+        this.iqTreeTools = iqTreeTools;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getGroupingVariables() {
+        return groupingVariables;
+    }
+
+    @Override
+    public ImmutableSubstitution<ImmutableFunctionalTerm> getSubstitution() {
+        return substitution;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getVariables() {
+        return projectedVariables;
+    }
+
+    /**
+     * The bindings of the child are not lifted: the aggregates are computed over the child values
+     */
+    @Override
+    public IQTree liftBinding(IQTree child, VariableGenerator variableGenerator, IQProperties currentIQProperties) {
+        IQTree newChild = child.liftBinding(variableGenerator);
+
+        // No group at all (when there are no grouping variables, a single group is produced)
+        if (newChild.isDeclaredAsEmpty() && !groupingVariables.isEmpty())
+            return iqFactory.createEmptyNode(projectedVariables);
+
+        return iqFactory.createUnaryIQTree(this, newChild, currentIQProperties.declareLifted());
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                              Optional<ImmutableExpression> constraint, IQTree child) {
+        return applyDescendingSubstitution(descendingSubstitution, child,
+                (c, s, groupingVars) -> c.applyDescendingSubstitution(s,
+                        constraint.filter(e -> groupingVars.containsAll(e.getVariables()))));
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitutionWithoutOptimizing(
+            ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution, IQTree child) {
+        return applyDescendingSubstitution(descendingSubstitution, child,
+                (c, s, groupingVars) -> c.applyDescendingSubstitutionWithoutOptimizing(s));
+    }
+
+    /**
+     * The entries only concerning grouping variables are propagated to the child.
+     *
+     * The other ones (involving aggregation variables) cannot: aggregation variables are renamed when possible,
+     * otherwise a filter is inserted above the aggregation node.
+     */
+    private IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                               IQTree child, ChildUpdateFunction childUpdateFunction) {
+        ImmutableSet<Variable> aggregationVariables = substitution.getDomain();
+
+        ImmutableMap<Boolean, ImmutableMap<Variable, VariableOrGroundTerm>> partition =
+                descendingSubstitution.getImmutableMap().entrySet().stream()
+                        .collect(ImmutableCollectors.partitioningBy(
+                                e -> groupingVariables.contains(e.getKey())
+                                        && !aggregationVariables.contains(e.getValue()),
+                                ImmutableCollectors.toMap(Map.Entry::getKey, e -> (VariableOrGroundTerm) e.getValue())));
+
+        ImmutableSubstitution<VariableOrGroundTerm> childSubstitution = substitutionFactory.getSubstitution(
+                Optional.ofNullable(partition.get(true)).orElseGet(ImmutableMap::of));
+
+        ImmutableSet<Variable> newGroupingVariables = groupingVariables.stream()
+                .map(childSubstitution::applyToVariable)
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t)
+                .collect(ImmutableCollectors.toSet());
+
+        IQTree newChild = childSubstitution.isEmpty()
+                ? child
+                : childUpdateFunction.apply(child, childSubstitution, newGroupingVariables);
+
+        Map<Variable, Variable> renaming = new HashMap<>();
+        ImmutableList.Builder<ImmutableExpression> equalityBuilder = ImmutableList.builder();
+        for (Map.Entry<Variable, VariableOrGroundTerm> e : Optional.ofNullable(partition.get(false))
+                .orElseGet(ImmutableMap::of).entrySet()) {
+            ImmutableTerm newValue = childSubstitution.apply(e.getValue());
+            if (aggregationVariables.contains(e.getKey())
+                    && (newValue instanceof Variable)
+                    && !projectedVariables.contains(newValue)
+                    && !newGroupingVariables.contains(newValue)
+                    && !renaming.containsValue(newValue))
+                renaming.put(e.getKey(), (Variable) newValue);
+            else
+                equalityBuilder.add(termFactory.getImmutableExpression(EQ, e.getKey(), newValue));
+        }
+
+        ImmutableSubstitution<ImmutableFunctionalTerm> newSubstitution = substitutionFactory.getSubstitution(
+                substitution.getImmutableMap().entrySet().stream()
+                        .collect(ImmutableCollectors.toMap(
+                                e -> Optional.ofNullable(renaming.get(e.getKey())).orElseGet(e::getKey),
+                                e -> childSubstitution.applyToFunctionalTerm(e.getValue()))));
+
+        IQTree aggregationTree = iqFactory.createUnaryIQTree(
+                iqFactory.createAggregationNode(newGroupingVariables, newSubstitution), newChild);
+
+        IQTree filteredTree = immutabilityTools.foldBooleanExpressions(equalityBuilder.build())
+                .map(c -> (IQTree) iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), aggregationTree))
+                .orElse(aggregationTree);
+
+        ImmutableSet<Variable> newProjectedVariables = iqTreeTools.computeNewProjectedVariables(descendingSubstitution,
+                projectedVariables);
+
+        return filteredTree.getVariables().equals(newProjectedVariables)
+                ? filteredTree
+                : iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(newProjectedVariables), filteredTree);
+    }
+
+    @Override
+    public VariableNullability getVariableNullability(IQTree child) {
+        ImmutableSet<ImmutableSet<Variable>> nullableGroups = Stream.concat(
+                child.getVariableNullability().getNullableGroups().stream()
+                        .map(g -> g.stream()
+                                .filter(groupingVariables::contains)
+                                .collect(ImmutableCollectors.toSet()))
+                        .filter(g -> !g.isEmpty()),
+                substitution.getImmutableMap().entrySet().stream()
+                        .filter(e -> isNullable(e.getValue()))
+                        .map(e -> ImmutableSet.of(e.getKey())))
+                .collect(ImmutableCollectors.toSet());
+
+        return new VariableNullabilityImpl(nullableGroups);
+    }
+
+    @Override
+    public boolean isVariableNullable(IntermediateQuery query, Variable variable) {
+        if (substitution.isDefining(variable))
+            return isNullable(substitution.get(variable));
+
+        if (!groupingVariables.contains(variable))
+            throw new IllegalArgumentException("The variable " + variable + " is not projected by " + this);
+
+        return query.getFirstChild(this)
+                .map(c -> c.isVariableNullable(query, variable))
+                .orElseThrow(() -> new InvalidIntermediateQueryException("An aggregation node must have a child"));
+    }
+
+    /**
+     * Counts are never null (even for the empty group)
+     */
+    private static boolean isNullable(ImmutableFunctionalTerm aggregate) {
+        Predicate functionSymbol = aggregate.getFunctionSymbol();
+        return functionSymbol != ExpressionOperation.COUNT
+                && functionSymbol != ExpressionOperation.COUNT_DISTINCT
+                && functionSymbol != ExpressionOperation.COUNT_ALL;
+    }
+
+    @Override
+    public boolean isConstructed(Variable variable, IQTree child) {
+        return substitution.isDefining(variable) || child.isConstructed(variable);
+    }
+
+    @Override
+    public IQTree liftIncompatibleDefinitions(Variable variable, IQTree child) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    /**
+     * Only constraints on the grouping variables can be propagated
+     */
+    @Override
+    public IQTree propagateDownConstraint(ImmutableExpression constraint, IQTree child) {
+        return groupingVariables.containsAll(constraint.getVariables())
+                ? iqFactory.createUnaryIQTree(this, child.propagateDownConstraint(constraint))
+                : iqFactory.createUnaryIQTree(this, child);
+    }
+
+    @Override
+    public IQTree acceptTransformer(IQTree tree, IQTreeVisitingTransformer transformer, IQTree child) {
+        return transformer.transformAggregation(tree, this, child);
+    }
+
+    @Override
+    public void validateNode(IQTree child) throws InvalidIntermediateQueryException {
+        if (!Sets.intersection(groupingVariables, substitution.getDomain()).isEmpty())
+            throw new InvalidIntermediateQueryException("The grouping variables and the aggregation variables " +
+                    "of an AGGREGATION node must be disjoint\n" + this);
+
+        ImmutableSet<Variable> childVariables = child.getVariables();
+        if (!childVariables.containsAll(getLocallyRequiredVariables()))
+            throw new InvalidIntermediateQueryException("This child " + child
+                    + " does not project all the variables " +
+                    "required by the AGGREGATION node (" + getLocallyRequiredVariables() + ")\n" + this);
+    }
+
+    @Override
+    public ImmutableSet<ImmutableSubstitution<NonVariableTerm>> getPossibleVariableDefinitions(IQTree child) {
+        return child.getPossibleVariableDefinitions().stream()
+                .map(s -> s.reduceDomainToIntersectionWith(groupingVariables))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public void acceptVisitor(QueryNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public AggregationNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public NodeTransformationProposal acceptNodeTransformer(HeterogeneousQueryNodeTransformer transformer) {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocalVariables() {
+        return Sets.union(projectedVariables, getLocallyRequiredVariables()).immutableCopy();
+    }
+
+    @Override
+    public boolean isSyntacticallyEquivalentTo(QueryNode node) {
+        return isEquivalentTo(node);
+    }
+
+    /**
+     * Grouping variables and variables used by the aggregates
+     */
+    @Override
+    public ImmutableSet<Variable> getLocallyRequiredVariables() {
+        return Stream.concat(
+                groupingVariables.stream(),
+                substitution.getImmutableMap().values().stream()
+                        .flatMap(ImmutableTerm::getVariableStream))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public ImmutableSet<Variable> getRequiredVariables(IntermediateQuery query) {
+        return getLocallyRequiredVariables();
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyDefinedVariables() {
+        return substitution.getDomain();
+    }
+
+    @Override
+    public boolean isEquivalentTo(QueryNode queryNode) {
+        if (!(queryNode instanceof AggregationNode))
+            return false;
+        AggregationNode node = (AggregationNode) queryNode;
+
+        return groupingVariables.equals(node.getGroupingVariables())
+                && substitution.equals(node.getSubstitution());
+    }
+
+    @Override
+    public String toString() {
+        return AGGREGATION_NODE_STR + " " + groupingVariables + " " + "[" + substitution + "]";
+    }
+
+    @Override
+    public AggregationNode clone() {
+        return iqFactory.createAggregationNode(groupingVariables, substitution);
+    }
+
+    @FunctionalInterface
+    private interface ChildUpdateFunction {
+        IQTree apply(IQTree child, ImmutableSubstitution<VariableOrGroundTerm> childSubstitution,
+                     ImmutableSet<Variable> newGroupingVariables);
+    }
+}
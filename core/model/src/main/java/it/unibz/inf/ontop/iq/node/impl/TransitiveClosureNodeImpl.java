@@ -0,0 +1,296 @@
+package it.unibz.inf.ontop.iq.node.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQProperties;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.impl.IQTreeTools;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HeterogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.impl.ImmutabilityTools;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation.EQ;
+
+
+@SuppressWarnings({"OptionalUsedAsFieldOrParameterType", "BindingAnnotationWithoutInject"})
+public class TransitiveClosureNodeImpl extends CompositeQueryNodeImpl implements TransitiveClosureNode {
+
+    private static final String TRANSITIVE_CLOSURE_NODE_STR = "TRANSITIVE_CLOSURE";
+    private static final String REFLEXIVE_TRANSITIVE_CLOSURE_NODE_STR = "REFLEXIVE_TRANSITIVE_CLOSURE";
+
+    private final Variable sourceVariable;
+    private final Variable targetVariable;
+    private final boolean isReflexive;
+    private final ImmutableSet<Variable> projectedVariables;
+    private final TermFactory termFactory;
+    private final ImmutabilityTools immutabilityTools;
+    private final IQTreeTools iqTreeTools;
+
+    @AssistedInject
+    private TransitiveClosureNodeImpl(@Assisted("source") Variable sourceVariable,
+                                      @Assisted("target") Variable targetVariable,
+                                      @Assisted boolean isReflexive,
+                                      SubstitutionFactory substitutionFactory, IntermediateQueryFactory iqFactory,
+                                      TermFactory termFactory, ImmutabilityTools immutabilityTools,
+                                      IQTreeTools iqTreeTools) {
+        super(substitutionFactory, iqFactory);
+        this.sourceVariable = sourceVariable;
+        this.targetVariable = targetVariable;
+        this.isReflexive = isReflexive;
+        this.projectedVariables = ImmutableSet.of(sourceVariable, targetVariable);
+        this.termFactory = termFactory;
+        this.immutabilityTools = immutabilityTools;
+        this.iqTreeTools = iqTreeTools;
+    }
+
+    @Override
+    public Variable getSourceVariable() {
+        return sourceVariable;
+    }
+
+    @Override
+    public Variable getTargetVariable() {
+        return targetVariable;
+    }
+
+    @Override
+    public boolean isReflexive() {
+        return isReflexive;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getVariables() {
+        return projectedVariables;
+    }
+
+    /**
+     * The bindings of the child are not lifted: they only describe one step
+     */
+    @Override
+    public IQTree liftBinding(IQTree child, VariableGenerator variableGenerator, IQProperties currentIQProperties) {
+        IQTree newChild = child.liftBinding(variableGenerator);
+
+        if (newChild.isDeclaredAsEmpty())
+            return iqFactory.createEmptyNode(projectedVariables);
+
+        return iqFactory.createUnaryIQTree(this, newChild, currentIQProperties.declareLifted());
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                              Optional<ImmutableExpression> constraint, IQTree child) {
+        return applyDescendingSubstitution(descendingSubstitution, child,
+                (c, r) -> c.applyDescendingSubstitution(r, Optional.empty()));
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitutionWithoutOptimizing(
+            ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution, IQTree child) {
+        return applyDescendingSubstitution(descendingSubstitution, child,
+                IQTree::applyDescendingSubstitutionWithoutOptimizing);
+    }
+
+    /**
+     * The constants and the equalities between the source and the target cannot be propagated to the child
+     * (they only hold for the end points of the paths): a filter is inserted above the closure instead.
+     *
+     * The source and target variables are renamed when possible.
+     */
+    private IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                               IQTree child,
+                                               BiFunction<IQTree, ImmutableSubstitution<Variable>, IQTree> childUpdateFunction) {
+        Map<Variable, Variable> renaming = new HashMap<>();
+        ImmutableList.Builder<ImmutableExpression> equalityBuilder = ImmutableList.builder();
+        for (Map.Entry<Variable, ? extends VariableOrGroundTerm> e : descendingSubstitution.getImmutableMap().entrySet()) {
+            if (!projectedVariables.contains(e.getKey()))
+                continue;
+
+            VariableOrGroundTerm newValue = e.getValue();
+            if ((newValue instanceof Variable)
+                    && !projectedVariables.contains(newValue)
+                    && !renaming.containsValue(newValue))
+                renaming.put(e.getKey(), (Variable) newValue);
+            else
+                equalityBuilder.add(termFactory.getImmutableExpression(EQ, e.getKey(), newValue));
+        }
+
+        ImmutableSubstitution<Variable> renamingSubstitution = substitutionFactory.getSubstitution(
+                ImmutableMap.copyOf(renaming));
+
+        IQTree newChild = renamingSubstitution.isEmpty()
+                ? child
+                : childUpdateFunction.apply(child, renamingSubstitution);
+
+        IQTree closureTree = iqFactory.createUnaryIQTree(
+                iqFactory.createTransitiveClosureNode(
+                        renaming.getOrDefault(sourceVariable, sourceVariable),
+                        renaming.getOrDefault(targetVariable, targetVariable),
+                        isReflexive),
+                newChild);
+
+        IQTree filteredTree = immutabilityTools.foldBooleanExpressions(equalityBuilder.build())
+                .map(c -> (IQTree) iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), closureTree))
+                .orElse(closureTree);
+
+        ImmutableSet<Variable> newProjectedVariables = iqTreeTools.computeNewProjectedVariables(descendingSubstitution,
+                projectedVariables);
+
+        return filteredTree.getVariables().equals(newProjectedVariables)
+                ? filteredTree
+                : iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(newProjectedVariables), filteredTree);
+    }
+
+    /**
+     * The end points of the paths are values of the child
+     */
+    @Override
+    public VariableNullability getVariableNullability(IQTree child) {
+        ImmutableSet<ImmutableSet<Variable>> nullableGroups = child.getVariableNullability().getNullableGroups().stream()
+                .map(g -> g.stream()
+                        .filter(projectedVariables::contains)
+                        .collect(ImmutableCollectors.toSet()))
+                .filter(g -> !g.isEmpty())
+                .collect(ImmutableCollectors.toSet());
+
+        return new VariableNullabilityImpl(nullableGroups);
+    }
+
+    @Override
+    public boolean isVariableNullable(IntermediateQuery query, Variable variable) {
+        if (!projectedVariables.contains(variable))
+            throw new IllegalArgumentException("The variable " + variable + " is not projected by " + this);
+
+        QueryNode child = query.getFirstChild(this)
+                .orElseThrow(() -> new InvalidIntermediateQueryException("A transitive closure node must have a child"));
+
+        // The reflexive pairs take their values from both columns
+        return isReflexive
+                ? child.isVariableNullable(query, sourceVariable) || child.isVariableNullable(query, targetVariable)
+                : child.isVariableNullable(query, variable);
+    }
+
+    @Override
+    public boolean isConstructed(Variable variable, IQTree child) {
+        return child.isConstructed(variable);
+    }
+
+    @Override
+    public IQTree liftIncompatibleDefinitions(Variable variable, IQTree child) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    /**
+     * Constraints on the end points do not hold for the intermediate steps: not propagated
+     */
+    @Override
+    public IQTree propagateDownConstraint(ImmutableExpression constraint, IQTree child) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    @Override
+    public IQTree acceptTransformer(IQTree tree, IQTreeVisitingTransformer transformer, IQTree child) {
+        return transformer.transformTransitiveClosure(tree, this, child);
+    }
+
+    @Override
+    public void validateNode(IQTree child) throws InvalidIntermediateQueryException {
+        if (sourceVariable.equals(targetVariable))
+            throw new InvalidIntermediateQueryException("The source and the target variables " +
+                    "of a TRANSITIVE_CLOSURE node must be distinct\n" + this);
+
+        if (!child.getVariables().containsAll(projectedVariables))
+            throw new InvalidIntermediateQueryException("This child " + child
+                    + " does not project all the variables " +
+                    "required by the TRANSITIVE_CLOSURE node (" + projectedVariables + ")\n" + this);
+    }
+
+    /**
+     * The number of steps is unknown: no definition
+     */
+    @Override
+    public ImmutableSet<ImmutableSubstitution<NonVariableTerm>> getPossibleVariableDefinitions(IQTree child) {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public void acceptVisitor(QueryNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public NodeTransformationProposal acceptNodeTransformer(HeterogeneousQueryNodeTransformer transformer) {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocalVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public boolean isSyntacticallyEquivalentTo(QueryNode node) {
+        return isEquivalentTo(node);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyRequiredVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getRequiredVariables(IntermediateQuery query) {
+        return projectedVariables;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyDefinedVariables() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public boolean isEquivalentTo(QueryNode queryNode) {
+        if (!(queryNode instanceof TransitiveClosureNode))
+            return false;
+        TransitiveClosureNode node = (TransitiveClosureNode) queryNode;
+
+        return sourceVariable.equals(node.getSourceVariable())
+                && targetVariable.equals(node.getTargetVariable())
+                && isReflexive == node.isReflexive();
+    }
+
+    @Override
+    public String toString() {
+        return (isReflexive ? REFLEXIVE_TRANSITIVE_CLOSURE_NODE_STR : TRANSITIVE_CLOSURE_NODE_STR)
+                + " " + sourceVariable + " -> " + targetVariable;
+    }
+
+    @Override
+    public TransitiveClosureNode clone() {
+        return iqFactory.createTransitiveClosureNode(sourceVariable, targetVariable, isReflexive);
+    }
+}
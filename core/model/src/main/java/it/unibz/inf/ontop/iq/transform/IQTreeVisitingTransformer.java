@@ -24,6 +24,8 @@ public interface IQTreeVisitingTransformer extends IQTreeTransformer {
     IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child);
     IQTree transformSlice(IQTree tree, SliceNode rootNode, IQTree child);
     IQTree transformOrderBy(IQTree tree, OrderByNode rootNode, IQTree child);
+    IQTree transformAggregation(IQTree tree, AggregationNode rootNode, IQTree child);
+    IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child);
     IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child);
 
     IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild);
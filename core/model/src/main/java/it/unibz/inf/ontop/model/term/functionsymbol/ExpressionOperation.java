@@ -121,10 +121,19 @@ public enum ExpressionOperation implements OperationPredicate {
 	*/
 
 	AVG("AVG", TermTypeInferenceRules.NON_INTEGER_NUMERIC_RULE, RDF_TERM_TYPE),
+	AVG_DISTINCT("AVG_DISTINCT", TermTypeInferenceRules.NON_INTEGER_NUMERIC_RULE, RDF_TERM_TYPE),
 	SUM("SUM", TermTypeInferenceRules.STANDARD_NUMERIC_RULE, RDF_TERM_TYPE),
-	MAX("MAX", TermTypeInferenceRules.STANDARD_NUMERIC_RULE, RDF_TERM_TYPE),
-	MIN("MIN", TermTypeInferenceRules.STANDARD_NUMERIC_RULE, RDF_TERM_TYPE),
+	SUM_DISTINCT("SUM_DISTINCT", TermTypeInferenceRules.STANDARD_NUMERIC_RULE, RDF_TERM_TYPE),
+	MAX("MAX", TermTypeInferenceRules.FIRST_ARG_RULE, RDF_TERM_TYPE),
+	MIN("MIN", TermTypeInferenceRules.FIRST_ARG_RULE, RDF_TERM_TYPE),
 	COUNT("COUNT", TermTypeInferenceRules.PREDEFINED_INTEGER_RULE, RDF_TERM_TYPE),
+	COUNT_DISTINCT("COUNT_DISTINCT", TermTypeInferenceRules.PREDEFINED_INTEGER_RULE, RDF_TERM_TYPE),
+	/* COUNT(*) */
+	COUNT_ALL("COUNT_ALL", TermTypeInferenceRules.PREDEFINED_INTEGER_RULE),
+	SAMPLE("SAMPLE", TermTypeInferenceRules.FIRST_ARG_RULE, RDF_TERM_TYPE),
+	/* Second argument: separator */
+	GROUP_CONCAT("GROUP_CONCAT", TermTypeInferenceRules.PREDEFINED_STRING_RULE, RDF_TERM_TYPE, XSD_STRING_DT),
+	GROUP_CONCAT_DISTINCT("GROUP_CONCAT_DISTINCT", TermTypeInferenceRules.PREDEFINED_STRING_RULE, RDF_TERM_TYPE, XSD_STRING_DT),
 
 	/*
  	 * Conditional
@@ -221,6 +230,29 @@ public enum ExpressionOperation implements OperationPredicate {
 	}
 
 
+	/**
+	 * Set functions, only allowed in aggregation nodes
+	 */
+	public boolean isAggregate() {
+		switch (this) {
+			case AVG:
+			case AVG_DISTINCT:
+			case SUM:
+			case SUM_DISTINCT:
+			case MAX:
+			case MIN:
+			case COUNT:
+			case COUNT_DISTINCT:
+			case COUNT_ALL:
+			case SAMPLE:
+			case GROUP_CONCAT:
+			case GROUP_CONCAT_DISTINCT:
+				return true;
+			default:
+				return false;
+		}
+	}
+
 	/**
 	 * TODO: IMPLEMENT IT SERIOUSLY
 	 */
@@ -50,6 +50,9 @@ public class BNodeConstantImpl implements BNode {
 
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
 		if (obj == null || !(obj instanceof BNodeConstantImpl)) {
 			return false;
 		}
@@ -46,6 +46,9 @@ public class IRIConstantImpl implements IRIConstant {
 	
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
 		if (obj == null || !(obj instanceof IRIConstantImpl)) {
 			return false;
 		}
@@ -103,7 +103,13 @@ public abstract class ImmutableFunctionalTermImpl implements ImmutableFunctional
      */
     @Override
     public boolean equals(Object other) {
+        // Interned terms
+        if (this == other)
+            return true;
         if (other instanceof ImmutableFunctionalTerm) {
+            // Cheap rejection (the string hash codes are cached)
+            if ((other instanceof ImmutableFunctionalTermImpl) && hashCode() != other.hashCode())
+                return false;
             return toString().equals(other.toString());
         }
         else {
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.model.term.impl;
  */
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.exception.OntopInternalBugException;
@@ -35,7 +36,9 @@ import org.apache.commons.rdf.api.IRI;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static it.unibz.inf.ontop.model.vocabulary.RDF.LANGSTRING;
@@ -53,6 +56,19 @@ public class TermFactoryImpl implements TermFactory {
 	private final boolean isTestModeEnabled;
 	private final AtomicInteger templateCounter;
 	private final Map<String, String> templateSuffix;
+	// Shared function symbols (stateless)
+	private final ConcurrentMap<Integer, BNodePredicate> bnodePredicates;
+	private final ConcurrentMap<String, URITemplatePredicate> uriTemplatePredicates;
+	/*
+	 * Interning tables (weak values), only used when term interning is enabled.
+	 * The arguments of the ground functional terms are compared by reference (they are interned too).
+	 */
+	private final boolean isTermInterningEnabled;
+	private final ConcurrentMap<String, Variable> variables;
+	private final ConcurrentMap<String, IRIConstant> iriConstants;
+	private final ConcurrentMap<List<Object>, ValueConstant> valueConstants;
+	private final ConcurrentMap<String, BNode> bnodes;
+	private final ConcurrentMap<GroundFunctionalTermKey, GroundFunctionalTerm> groundFunctionalTerms;
 
 	@Inject
 	private TermFactoryImpl(TypeFactory typeFactory, OntopModelSettings settings) {
@@ -68,21 +84,50 @@ public class TermFactoryImpl implements TermFactory {
 		this.isTestModeEnabled = settings.isTestModeEnabled();
 		this.templateCounter = new AtomicInteger();
 		this.templateSuffix = new ConcurrentHashMap<>();
+		this.bnodePredicates = new ConcurrentHashMap<>();
+		this.uriTemplatePredicates = new ConcurrentHashMap<>();
+		this.isTermInterningEnabled = settings.isTermInterningEnabled();
+		this.variables = createInterningTable();
+		this.iriConstants = createInterningTable();
+		this.valueConstants = createInterningTable();
+		this.bnodes = createInterningTable();
+		this.groundFunctionalTerms = createInterningTable();
+	}
+
+	private static <K, T> ConcurrentMap<K, T> createInterningTable() {
+		return new MapMaker()
+				.weakValues()
+				.makeMap();
+	}
+
+	/**
+	 * Returns the term already created for the key, if any (and still referenced)
+	 */
+	private <K, T> T intern(ConcurrentMap<K, T> table, K key, Supplier<T> constructor) {
+		if (!isTermInterningEnabled)
+			return constructor.get();
+
+		T term = table.get(key);
+		if (term != null)
+			return term;
+		T newTerm = constructor.get();
+		T previousTerm = table.putIfAbsent(key, newTerm);
+		return previousTerm == null ? newTerm : previousTerm;
 	}
 
 	@Override
 	public IRIConstant getConstantIRI(IRI iri) {
-		return new IRIConstantImpl(iri, typeFactory);
+		return intern(iriConstants, iri.getIRIString(), () -> new IRIConstantImpl(iri, typeFactory));
 	}
 	
 	@Override
 	public ValueConstant getConstantLiteral(String value) {
-		return new ValueConstantImpl(value, typeFactory.getXsdStringDatatype());
+		return getConstantLiteral(value, typeFactory.getXsdStringDatatype());
 	}
 
 	@Override
 	public ValueConstant getConstantLiteral(String value, RDFDatatype type) {
-		return new ValueConstantImpl(value, type);
+		return intern(valueConstants, Arrays.asList(value, type), () -> new ValueConstantImpl(value, type));
 	}
 
 	@Override
@@ -102,7 +147,9 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public ValueConstant getConstantLiteral(String value, String language) {
-		return new ValueConstantImpl(value, language.toLowerCase(), typeFactory);
+		String languageTag = language.toLowerCase();
+		return intern(valueConstants, Arrays.asList(value, languageTag),
+				() -> new ValueConstantImpl(value, languageTag, typeFactory));
 	}
 
 	@Override
@@ -132,7 +179,7 @@ public class TermFactoryImpl implements TermFactory {
 
 	@Override
 	public Variable getVariable(String name) {
-		return new VariableImpl(name);
+		return intern(variables, name, () -> new VariableImpl(name));
 	}
 
 	@Override
@@ -210,7 +257,9 @@ public class TermFactoryImpl implements TermFactory {
 		}
 
 		if (GroundTermTools.areGroundTerms(terms)) {
-			return new GroundFunctionalTermImpl((ImmutableList<? extends GroundTerm>)terms, functor);
+			ImmutableList<? extends GroundTerm> groundTerms = (ImmutableList<? extends GroundTerm>) terms;
+			return intern(groundFunctionalTerms, new GroundFunctionalTermKey(functor, groundTerms),
+					() -> new GroundFunctionalTermImpl(groundTerms, functor));
 		}
 		else {
 			// Default constructor
@@ -267,25 +316,25 @@ public class TermFactoryImpl implements TermFactory {
 	
 	@Override
 	public Function getBNodeTemplate(Term... terms) {
-		FunctionSymbol pred = new BNodePredicateImpl(terms.length, typeFactory);
+		FunctionSymbol pred = getBNodePredicate(terms.length);
 		return getFunction(pred, terms);
 	}
 
 	@Override
 	public ImmutableFunctionalTerm getImmutableBNodeTemplate(ImmutableTerm... terms) {
-		FunctionSymbol pred = new BNodePredicateImpl(terms.length, typeFactory);
+		FunctionSymbol pred = getBNodePredicate(terms.length);
 		return getImmutableFunctionalTerm(pred, terms);
 	}
 
 	@Override
 	public ImmutableFunctionalTerm getImmutableBNodeTemplate(ImmutableList<ImmutableTerm> terms) {
-		FunctionSymbol pred = new BNodePredicateImpl(terms.size(), typeFactory);
+		FunctionSymbol pred = getBNodePredicate(terms.size());
 		return getImmutableFunctionalTerm(pred, terms);
 	}
 
 	@Override
 	public Function getBNodeTemplate(List<Term> terms) {
-		FunctionSymbol pred = new BNodePredicateImpl(terms.size(), typeFactory);
+		FunctionSymbol pred = getBNodePredicate(terms.size());
 		return getFunction(pred, terms);
 	}
 
@@ -365,7 +414,7 @@ public class TermFactoryImpl implements TermFactory {
 	
 	@Override
 	public BNode getConstantBNode(String name) {
-		return new BNodeConstantImpl(name, typeFactory);
+		return intern(bnodes, name, () -> new BNodeConstantImpl(name, typeFactory));
 	}
 
 	@Override
@@ -432,7 +481,7 @@ public class TermFactoryImpl implements TermFactory {
 				.filter(t -> t instanceof Constant)
 				.map(t -> (Constant) t));
 
-		return new URITemplatePredicateImpl(arity, suffix, typeFactory);
+		return getURITemplatePredicate(arity, suffix);
 	}
 
 	private String computeSuffix(Optional<Constant> optionalConstant) {
@@ -449,7 +498,57 @@ public class TermFactoryImpl implements TermFactory {
 				.findFirst()
 				.filter(t -> t instanceof Constant)
 				.map(t -> (Constant) t));
-		return new URITemplatePredicateImpl(terms.size(), suffix, typeFactory);
+		return getURITemplatePredicate(terms.size(), suffix);
+	}
+
+	private URITemplatePredicate getURITemplatePredicate(int arity, String suffix) {
+		return uriTemplatePredicates.computeIfAbsent(arity + suffix,
+				k -> new URITemplatePredicateImpl(arity, suffix, typeFactory));
+	}
+
+	private BNodePredicate getBNodePredicate(int arity) {
+		return bnodePredicates.computeIfAbsent(arity, a -> new BNodePredicateImpl(a, typeFactory));
+	}
+
+	/**
+	 * Function symbol and arguments of a ground functional term, the arguments being compared by reference.
+	 *
+	 * The function symbols are compared by name (not by the hash of their name, as in their equals() method).
+	 */
+	private static class GroundFunctionalTermKey {
+		private final FunctionSymbol functionSymbol;
+		private final ImmutableList<? extends GroundTerm> terms;
+		private final int hashCode;
+
+		private GroundFunctionalTermKey(FunctionSymbol functionSymbol, ImmutableList<? extends GroundTerm> terms) {
+			this.functionSymbol = functionSymbol;
+			this.terms = terms;
+			int hash = functionSymbol.getName().hashCode();
+			for (GroundTerm term : terms)
+				hash = 31 * hash + System.identityHashCode(term);
+			this.hashCode = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof GroundFunctionalTermKey)) return false;
+			GroundFunctionalTermKey other = (GroundFunctionalTermKey) o;
+			if (hashCode != other.hashCode || functionSymbol.getClass() != other.functionSymbol.getClass()
+					|| !functionSymbol.getName().equals(other.functionSymbol.getName())
+					|| terms.size() != other.terms.size())
+				return false;
+			for (int i = 0; i < terms.size(); i++) {
+				if (terms.get(i) != other.terms.get(i))
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
 	}
 
 	private static class NoConstructionFunctionException extends OntopInternalBugException {
@@ -58,6 +58,9 @@ public class ValueConstantImpl implements ValueConstant {
 	
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
 		if (obj == null || !(obj instanceof ValueConstantImpl)) {
 			return false;
 		}
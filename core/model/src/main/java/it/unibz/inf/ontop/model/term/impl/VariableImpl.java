@@ -40,6 +40,9 @@ public class VariableImpl implements Variable, Comparable<Variable> {
 
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
 		if (obj == null || !(obj instanceof Variable)) {
 			return false;
 		}
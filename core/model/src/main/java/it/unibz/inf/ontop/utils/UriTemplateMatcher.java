@@ -27,163 +27,238 @@ import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
 import it.unibz.inf.ontop.model.term.*;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+/**
+ * Matches IRI constants against the IRI templates of the mapping.
+ *
+ * The templates are indexed in a prefix trie over their leading constant part
+ * (the part before the first placeholder). For a given IRI, the candidate templates
+ * are collected by a single walk of the trie, in time linear in the length of the IRI.
+ * Only these candidates are then matched, without regular expressions.
+ *
+ * When several templates match, the longest one is chosen (placeholders being counted as 4 characters,
+ * as in the former regular expressions). Ties are broken by the lexicographic order of the templates.
+ */
 public class UriTemplateMatcher {
 
+    private static final String PLACEHOLDER = "{}";
+    // used for the IRIs directly taken from a column: uri(x)
+    private static final String COLUMN_TEMPLATE = PLACEHOLDER;
+
     private final TermFactory termFactory;
+    // template string -> functional term
+    private final ImmutableMap<String, ImmutableFunctionalTerm> templateMap;
+    private final TrieNode root;
 
-    private UriTemplateMatcher(TermFactory termFactory) {
+    private UriTemplateMatcher(ImmutableMap<String, ImmutableFunctionalTerm> templateMap, TermFactory termFactory) {
         this.termFactory = termFactory;
+        this.templateMap = templateMap;
+        this.root = new TrieNode();
+        for (Map.Entry<String, ImmutableFunctionalTerm> e : templateMap.entrySet())
+            root.insert(new IRITemplate(e.getKey(), e.getValue()));
     }
 
-    private final Map<Pattern, ImmutableFunctionalTerm> uriTemplateMatcher = new HashMap<>();
-
-    /**
-     * TODO: refactor using streaming.
-     */
     public static UriTemplateMatcher create(Stream<? extends ImmutableFunctionalTerm> targetAtomStream,
                                             TermFactory termFactory) {
-        Set<String> templateStrings = new HashSet<>();
-
-        UriTemplateMatcher uriTemplateMatcher = new UriTemplateMatcher(termFactory);
-
-        ImmutableList<? extends ImmutableFunctionalTerm> targetAtoms = targetAtomStream.collect(ImmutableCollectors.toList());
 
-        for (ImmutableFunctionalTerm fun : targetAtoms) {
+        Map<String, ImmutableFunctionalTerm> templateMap = new LinkedHashMap<>();
 
-            // Collecting URI templates and making pattern matchers for them.
-            if (!(fun.getFunctionSymbol() instanceof URITemplatePredicate)) {
-                continue;
-            }
-            /*
-			 * This is a URI function, so it can generate pattern matchers
-			 * for the URIs. We have two cases, one where the arity is 1,
-			 * and there is a constant/variable. The second case is
-			 * where the first element is a string template of the URI, and
-			 * the rest of the terms are variables/constants
-			 */
-            if (fun.getTerms().size() == 1) {
-				/*
-				 * URI without template, we get it directly from the column
-				 * of the table, and the function is only f(x)
-				 */
-                if (templateStrings.contains("(.+)")) {
-                    continue;
-                }
-
-                ImmutableFunctionalTerm templateFunction = termFactory.getImmutableUriTemplate(termFactory.getVariable("x"));
-                Pattern matcher = Pattern.compile("(.+)");
-                uriTemplateMatcher.uriTemplateMatcher.put(matcher, templateFunction);
-                templateStrings.add("(.+)");
-            } else {
-                ValueConstant template = (ValueConstant) fun.getTerms().get(0);
-                String templateString = template.getValue();
-                templateString = templateString.replace("{}", "(.+)");
-
-                if (templateStrings.contains(templateString)) {
-                    continue;
-                }
-
-                Pattern matcher = Pattern.compile(templateString);
-                uriTemplateMatcher.uriTemplateMatcher.put(matcher, fun);
-                templateStrings.add(templateString);
+        targetAtomStream
+                // Collecting URI templates
+                .filter(fun -> fun.getFunctionSymbol() instanceof URITemplatePredicate)
+                .forEach(fun -> {
+                    /*
+                     * We have two cases, one where the arity is 1, and there is a constant/variable.
+                     * The second case is where the first element is a string template of the URI, and
+                     * the rest of the terms are variables/constants
+                     */
+                    if (fun.getTerms().size() == 1) {
+                        /*
+                         * URI without template, we get it directly from the column
+                         * of the table, and the function is only f(x)
+                         */
+                        templateMap.putIfAbsent(COLUMN_TEMPLATE,
+                                termFactory.getImmutableUriTemplate(termFactory.getVariable("x")));
+                    }
+                    else {
+                        ValueConstant template = (ValueConstant) fun.getTerms().get(0);
+                        templateMap.putIfAbsent(template.getValue(), fun);
+                    }
+                });
 
-            }
-        }
-        return uriTemplateMatcher;
+        return new UriTemplateMatcher(ImmutableMap.copyOf(templateMap), termFactory);
     }
 
     public static UriTemplateMatcher merge(Stream<UriTemplateMatcher> uriTemplateMatchers, TermFactory termFactory) {
 
-        ImmutableMap<Pattern, Collection<ImmutableFunctionalTerm>> pattern2Terms = uriTemplateMatchers
-                .flatMap(m -> m.getMap().entrySet().stream())
+        ImmutableMap<String, Collection<ImmutableFunctionalTerm>> template2Terms = uriTemplateMatchers
+                .flatMap(m -> m.templateMap.entrySet().stream())
                 .collect(ImmutableCollectors.toMultimap())
                 .asMap();
 
-        ImmutableMap<Pattern, ImmutableFunctionalTerm> pattern2Term = pattern2Terms.entrySet().stream()
+        ImmutableMap<String, ImmutableFunctionalTerm> template2Term = template2Terms.entrySet().stream()
                 .collect(ImmutableCollectors.toMap(
                         e -> e.getKey(),
                         e -> flatten(e.getKey(), e.getValue())
                 ));
-        UriTemplateMatcher uriTemplateMatcher = new UriTemplateMatcher(termFactory);
-        uriTemplateMatcher.uriTemplateMatcher.putAll(pattern2Term);
-        return uriTemplateMatcher;
+        return new UriTemplateMatcher(template2Term, termFactory);
     }
 
-    private static ImmutableFunctionalTerm flatten(Pattern pattern, Collection<ImmutableFunctionalTerm> collection) {
+    private static ImmutableFunctionalTerm flatten(String template, Collection<ImmutableFunctionalTerm> collection) {
         if (ImmutableSet.copyOf(collection).size() == 1) {
             return collection.iterator().next();
         }
-        throw new IllegalArgumentException("Conflicting term for pattern" + pattern + ": " + collection);
+        throw new IllegalArgumentException("Conflicting term for template " + template + ": " + collection);
     }
 
     /***
-     * We will try to match the URI to one of our patterns, if this happens, we
+     * We will try to match the URI to one of our templates, if this happens, we
      * have a corresponding function, and the parameters for this function. The
-     * parameters are the values for the groups of the pattern.
+     * parameters are the values of the placeholders of the template.
      */
     public ImmutableFunctionalTerm generateURIFunction(String uriString) {
-        ImmutableFunctionalTerm functionURI = null;
-
-        List<Pattern> patternsMatched = new LinkedList<>();
-        for (Pattern pattern : uriTemplateMatcher.keySet()) {
-
-            Matcher matcher = pattern.matcher(uriString);
-            boolean match = matcher.matches();
-            if (!match) {
-                continue;
-            }
-            patternsMatched.add(pattern);
-        }
-        Comparator<Pattern> comparator = new Comparator<Pattern>() {
-            public int compare(Pattern c1, Pattern c2) {
-                return c2.pattern().length() - c1.pattern().length(); // use your logic
-            }
-        };
 
-        Collections.sort(patternsMatched, comparator);
-        for (Pattern pattern : patternsMatched) {
-            ImmutableFunctionalTerm matchingFunction = uriTemplateMatcher.get(pattern);
-            ImmutableTerm baseParameter = matchingFunction.getTerm(0);
+        for (IRITemplate template : getCandidates(uriString)) {
+            ImmutableTerm baseParameter = template.term.getTerm(0);
             if (baseParameter instanceof Constant) {
-				/*
-				 * This is a general template function of the form
-				 * uri("http://....", var1, var2,...) <p> we need to match var1,
-				 * var2, etc with substrings from the subjectURI
-				 */
-                Matcher matcher = pattern.matcher(uriString);
-                if (matcher.matches()) {
-                    ImmutableList.Builder<ImmutableTerm> values = ImmutableList.builder();
-                    values.add(baseParameter);
-                    for (int i = 0; i < matcher.groupCount(); i++) {
-                        String value = matcher.group(i + 1);
-                        values.add(termFactory.getConstantLiteral(value));
-                    }
-                    functionURI = termFactory.getImmutableUriTemplate(values.build());
+                /*
+                 * This is a general template function of the form
+                 * uri("http://....", var1, var2,...) <p> we need to match var1,
+                 * var2, etc with substrings from the subjectURI
+                 */
+                Optional<ImmutableList<String>> values = template.match(uriString);
+                if (values.isPresent()) {
+                    ImmutableList.Builder<ImmutableTerm> arguments = ImmutableList.builder();
+                    arguments.add(baseParameter);
+                    values.get().forEach(v -> arguments.add(termFactory.getConstantLiteral(v)));
+                    return termFactory.getImmutableUriTemplate(arguments.build());
                 }
-            } else if (baseParameter instanceof Variable) {
-				/*
-				 * This is a direct mapping to a column, uri(x)
-				 * we need to match x with the subjectURI
-				 */
-                functionURI = termFactory.getImmutableUriTemplate(termFactory.getConstantLiteral(uriString));
             }
-            break;
+            else if (baseParameter instanceof Variable) {
+                /*
+                 * This is a direct mapping to a column, uri(x)
+                 * we need to match x with the subjectURI
+                 */
+                if (template.match(uriString).isPresent())
+                    return termFactory.getImmutableUriTemplate(termFactory.getConstantLiteral(uriString));
+            }
         }
-        if (functionURI == null) {
-			/* If we cannot match against a template, we try to match against the most general template (which will
-			 * generate empty queries later in the query answering process
-			 */
-            functionURI = termFactory.getImmutableUriTemplate(termFactory.getConstantLiteral(uriString));
+        /* If we cannot match against a template, we try to match against the most general template (which will
+         * generate empty queries later in the query answering process
+         */
+        return termFactory.getImmutableUriTemplate(termFactory.getConstantLiteral(uriString));
+    }
+
+    /**
+     * Templates that match the IRI, in the order of preference.
+     * More than one template means that the IRI is ambiguous.
+     */
+    public ImmutableList<ImmutableFunctionalTerm> getMatchingTemplates(String uriString) {
+        return getCandidates(uriString).stream()
+                .filter(t -> t.match(uriString).isPresent())
+                .map(t -> t.term)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Templates whose constant prefix is a prefix of the IRI, in the order of preference
+     */
+    private List<IRITemplate> getCandidates(String uriString) {
+        List<IRITemplate> candidates = new ArrayList<>();
+        TrieNode node = root;
+        candidates.addAll(node.templates);
+        for (int i = 0; i < uriString.length(); i++) {
+            node = node.children.get(uriString.charAt(i));
+            if (node == null)
+                break;
+            candidates.addAll(node.templates);
         }
+        candidates.sort(IRITemplate.PREFERENCE_ORDER);
+        return candidates;
+    }
 
-        return functionURI;
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<IRITemplate> templates = new ArrayList<>();
+
+        void insert(IRITemplate template) {
+            TrieNode node = this;
+            for (int i = 0; i < template.prefix.length(); i++)
+                node = node.children.computeIfAbsent(template.prefix.charAt(i), c -> new TrieNode());
+            node.templates.add(template);
+        }
     }
 
-    private ImmutableMap<Pattern, ImmutableFunctionalTerm> getMap() {
-        return ImmutableMap.copyOf(uriTemplateMatcher);
+    /**
+     * IRI template split into a constant prefix and the constant separators following each placeholder
+     * (the last separator being the constant suffix, possibly empty).
+     *
+     * Placeholders match non-empty strings, the leftmost ones being greedy.
+     */
+    private static final class IRITemplate {
+
+        static final Comparator<IRITemplate> PREFERENCE_ORDER = Comparator
+                .comparingInt((IRITemplate t) -> t.patternLength).reversed()
+                .thenComparing(t -> t.template);
+
+        private final String template;
+        private final ImmutableFunctionalTerm term;
+        private final String prefix;
+        private final String[] separators;
+        private final int patternLength;
+
+        IRITemplate(String template, ImmutableFunctionalTerm term) {
+            this.template = template;
+            this.term = term;
+            List<String> parts = new ArrayList<>();
+            int start = 0, index;
+            while ((index = template.indexOf(PLACEHOLDER, start)) >= 0) {
+                parts.add(template.substring(start, index));
+                start = index + PLACEHOLDER.length();
+            }
+            parts.add(template.substring(start));
+            this.prefix = parts.get(0);
+            this.separators = parts.subList(1, parts.size()).toArray(new String[0]);
+            // length of the former regular expression, where each placeholder was (.+)
+            this.patternLength = template.length() + 2 * separators.length;
+        }
+
+        /**
+         * Values of the placeholders, if the IRI matches the template
+         */
+        Optional<ImmutableList<String>> match(String iri) {
+            if (!iri.startsWith(prefix))
+                return Optional.empty();
+            String[] values = new String[separators.length];
+            return match(iri, prefix.length(), 0, values)
+                    ? Optional.of(ImmutableList.copyOf(values))
+                    : Optional.empty();
+        }
+
+        private boolean match(String iri, int position, int placeholderIndex, String[] values) {
+            if (placeholderIndex == separators.length)
+                return position == iri.length();
+
+            String separator = separators[placeholderIndex];
+            // last placeholder: the separator is the suffix
+            if (placeholderIndex == separators.length - 1) {
+                int end = iri.length() - separator.length();
+                if (end <= position || !iri.startsWith(separator, end))
+                    return false;
+                values[placeholderIndex] = iri.substring(position, end);
+                return true;
+            }
+            // longest value first
+            for (int end = iri.lastIndexOf(separator, iri.length() - separator.length());
+                 end > position; end = iri.lastIndexOf(separator, end - 1)) {
+                if (match(iri, end + separator.length(), placeholderIndex + 1, values)) {
+                    values[placeholderIndex] = iri.substring(position, end);
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
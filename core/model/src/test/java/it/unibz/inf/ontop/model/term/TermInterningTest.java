@@ -0,0 +1,75 @@
+package it.unibz.inf.ontop.model.term;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.injection.OntopModelSettings;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.TERM_FACTORY;
+import static org.junit.Assert.*;
+
+public class TermInterningTest {
+
+    private static final OntopModelConfiguration INTERNING_CONFIGURATION;
+    private static final TermFactory INTERNING_TERM_FACTORY;
+    private static final RDF RDF_FACTORY;
+
+    static {
+        Properties properties = new Properties();
+        properties.setProperty(OntopModelSettings.TERM_INTERNING, "true");
+        INTERNING_CONFIGURATION = OntopModelConfiguration.defaultBuilder()
+                .properties(properties)
+                .build();
+        INTERNING_TERM_FACTORY = INTERNING_CONFIGURATION.getTermFactory();
+        RDF_FACTORY = INTERNING_CONFIGURATION.getRdfFactory();
+    }
+
+    @Test
+    public void testInterning() {
+        TermFactory f = INTERNING_TERM_FACTORY;
+        assertSame(f.getVariable("x"), f.getVariable("x"));
+        assertSame(f.getConstantLiteral("1"), f.getConstantLiteral("1"));
+        assertSame(f.getConstantLiteral("a", "en"), f.getConstantLiteral("a", "EN"));
+        assertSame(f.getConstantIRI(RDF_FACTORY.createIRI("http://example.org/a")),
+                f.getConstantIRI(RDF_FACTORY.createIRI("http://example.org/a")));
+        assertSame(f.getConstantBNode("b0"), f.getConstantBNode("b0"));
+        assertSame(createGroundTemplate(f, "1"), createGroundTemplate(f, "1"));
+        assertSame(f.getImmutableBNodeTemplate(f.getVariable("x")).getFunctionSymbol(),
+                f.getImmutableBNodeTemplate(f.getVariable("y")).getFunctionSymbol());
+    }
+
+    /**
+     * Same lexical value, different datatypes
+     */
+    @Test
+    public void testDistinctDatatypes() {
+        TermFactory f = INTERNING_TERM_FACTORY;
+        ValueConstant integer = f.getConstantLiteral("1", XSD.INTEGER);
+        ValueConstant intConstant = f.getConstantLiteral("1", XSD.INT);
+        assertNotSame(integer, intConstant);
+        assertEquals(XSD.INTEGER, integer.getType().getIRI());
+        assertEquals(XSD.INT, intConstant.getType().getIRI());
+
+        ImmutableFunctionalTerm integerTerm = f.getImmutableTypedTerm(integer, XSD.INTEGER);
+        ImmutableFunctionalTerm intTerm = f.getImmutableTypedTerm(intConstant, XSD.INTEGER);
+        assertNotSame(integerTerm, intTerm);
+        assertSame(intConstant, intTerm.getTerm(0));
+    }
+
+    @Test
+    public void testNoInterningByDefault() {
+        assertNotSame(TERM_FACTORY.getVariable("x"), TERM_FACTORY.getVariable("x"));
+        assertEquals(TERM_FACTORY.getVariable("x"), TERM_FACTORY.getVariable("x"));
+        assertNotSame(createGroundTemplate(TERM_FACTORY, "1"), createGroundTemplate(TERM_FACTORY, "1"));
+        assertEquals(createGroundTemplate(TERM_FACTORY, "1"), createGroundTemplate(TERM_FACTORY, "1"));
+    }
+
+    private static ImmutableFunctionalTerm createGroundTemplate(TermFactory f, String value) {
+        return f.getImmutableUriTemplate(ImmutableList.of(
+                f.getConstantLiteral("http://example.org/{}"), f.getConstantLiteral(value)));
+    }
+}
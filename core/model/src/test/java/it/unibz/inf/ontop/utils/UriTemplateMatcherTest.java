@@ -0,0 +1,127 @@
+package it.unibz.inf.ontop.utils;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.ValueConstant;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.junit.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.TERM_FACTORY;
+import static org.junit.Assert.assertEquals;
+
+public class UriTemplateMatcherTest {
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+
+    private static final ImmutableFunctionalTerm PERSON = template("http://example.org/person/{}", X);
+    private static final ImmutableFunctionalTerm PERSON_ADDRESS = template("http://example.org/person/{}/address/{}", X, Y);
+    private static final ImmutableFunctionalTerm PAIR = template("http://example.org/pair/{}/{}", X, Y);
+    private static final ImmutableFunctionalTerm PAIR_ = template("http://example.org/pair/{}_{}", X, Y);
+    private static final ImmutableFunctionalTerm COLUMN = TERM_FACTORY.getImmutableUriTemplate(X);
+
+    private static final UriTemplateMatcher MATCHER = UriTemplateMatcher.create(
+            Stream.of(PERSON, PERSON_ADDRESS, PAIR, PAIR_, COLUMN), TERM_FACTORY);
+
+    @Test
+    public void testSimpleTemplate() {
+        assertEquals(expected(PERSON, "1"), MATCHER.generateURIFunction("http://example.org/person/1"));
+    }
+
+    @Test
+    public void testLongestTemplateFirst() {
+        assertEquals(expected(PERSON_ADDRESS, "1", "2"),
+                MATCHER.generateURIFunction("http://example.org/person/1/address/2"));
+    }
+
+    @Test
+    public void testGreedyPlaceholders() {
+        assertEquals(expected(PAIR, "a/b", "c"), MATCHER.generateURIFunction("http://example.org/pair/a/b/c"));
+    }
+
+    @Test
+    public void testNoTemplate() {
+        String iri = "http://other.org/1";
+        assertEquals(TERM_FACTORY.getImmutableUriTemplate(TERM_FACTORY.getConstantLiteral(iri)),
+                MATCHER.generateURIFunction(iri));
+        assertEquals(ImmutableList.of(COLUMN), MATCHER.getMatchingTemplates(iri));
+    }
+
+    @Test
+    public void testEmptyPlaceholder() {
+        assertEquals(ImmutableList.of(COLUMN), MATCHER.getMatchingTemplates("http://example.org/person/"));
+    }
+
+    /**
+     * Ambiguous IRI: both pair templates match, they have the same length
+     */
+    @Test
+    public void testAmbiguousMatches() {
+        String iri = "http://example.org/pair/a_b/c";
+        assertEquals(ImmutableList.of(PAIR, PAIR_, COLUMN), MATCHER.getMatchingTemplates(iri));
+        assertEquals(expected(PAIR, "a_b", "c"), MATCHER.generateURIFunction(iri));
+    }
+
+    @Test
+    public void testMerge() {
+        UriTemplateMatcher merged = UriTemplateMatcher.merge(Stream.of(
+                UriTemplateMatcher.create(Stream.of(PERSON), TERM_FACTORY),
+                UriTemplateMatcher.create(Stream.of(PERSON, PERSON_ADDRESS), TERM_FACTORY)), TERM_FACTORY);
+        assertEquals(ImmutableList.of(PERSON_ADDRESS, PERSON),
+                merged.getMatchingTemplates("http://example.org/person/1/address/2"));
+    }
+
+    /**
+     * Same values as the regular expressions previously used
+     */
+    @Test
+    public void testSameValuesAsRegex() {
+        String[] iris = {
+                "http://example.org/person/1/address/2/address/3",
+                "http://example.org/person/address/address/x",
+                "http://example.org/pair/1/2/3/4",
+                "http://example.org/pair//",
+                "http://example.org/pair/a/"
+        };
+        for (String iri : iris) {
+            for (ImmutableFunctionalTerm template : ImmutableList.of(PERSON_ADDRESS, PAIR)) {
+                String templateString = ((ValueConstant) template.getTerm(0)).getValue();
+                Matcher matcher = Pattern.compile(templateString.replace("{}", "(.+)")).matcher(iri);
+                ImmutableList.Builder<String> regexValues = ImmutableList.builder();
+                if (matcher.matches()) {
+                    for (int i = 1; i <= matcher.groupCount(); i++)
+                        regexValues.add(matcher.group(i));
+                }
+                UriTemplateMatcher matcher2 = UriTemplateMatcher.create(Stream.of(template), TERM_FACTORY);
+                ImmutableFunctionalTerm result = matcher2.generateURIFunction(iri);
+                ImmutableList<String> values = matcher2.getMatchingTemplates(iri).isEmpty()
+                        ? ImmutableList.of()
+                        : result.getTerms().stream()
+                            .skip(1)
+                            .map(t -> ((ValueConstant) t).getValue())
+                            .collect(ImmutableCollectors.toList());
+                assertEquals(iri, regexValues.build(), values);
+            }
+        }
+    }
+
+    private static ImmutableFunctionalTerm template(String template, ImmutableTerm... arguments) {
+        return TERM_FACTORY.getImmutableUriTemplate(ImmutableList.<ImmutableTerm>builder()
+                .add(TERM_FACTORY.getConstantLiteral(template))
+                .add(arguments)
+                .build());
+    }
+
+    private static ImmutableFunctionalTerm expected(ImmutableFunctionalTerm template, String... values) {
+        ImmutableList.Builder<ImmutableTerm> arguments = ImmutableList.builder();
+        arguments.add(template.getTerm(0));
+        for (String value : values)
+            arguments.add(TERM_FACTORY.getConstantLiteral(value));
+        return TERM_FACTORY.getImmutableUriTemplate(arguments.build());
+    }
+}
@@ -34,4 +34,12 @@ public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
 	 * @return equivalence sets for all super-descriptions (including v)
 	 */
 	Set<Equivalences<T>> getSuper(Equivalences<T> v);
+
+	/**
+	 * Reflexive and transitive closure of the sub-description relation
+	 * @return true if sub is a sub-description of sup (or if they are equivalent)
+	 */
+	default boolean isSubsumed(Equivalences<T> sub, Equivalences<T> sup) {
+		return getSuper(sub).contains(sup);
+	}
 }
\ No newline at end of file
@@ -21,16 +21,19 @@ package it.unibz.inf.ontop.spec.ontology.impl;
  */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.Equivalences;
 import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.traverse.BreadthFirstIterator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -52,8 +55,30 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	// maps all Ts (even from the non-reduced DAG) to the vertices of the possibly reduced  DAG
 	private final ImmutableMap<T, Equivalences<T>> fullVertexIndex;   
 
-	private final Map<Equivalences<T>, Set<Equivalences<T>>> cacheSub;
-	private final Map<T, Set<T>> cacheSubRep;
+	/*
+	 * Reachability index (interval labelling), computed once for all at construction time
+	 * (the DAG is not modified afterwards). Immutable, therefore safe to share between threads.
+	 *
+	 * The vertices are numbered in the post-order of a depth-first traversal of a spanning forest
+	 * of the DAG, going from the super-descriptions to the sub-descriptions. The sub-descriptions
+	 * of a vertex in the spanning forest form the interval of numbers ending with its own.
+	 * The sub-descriptions reached by the other edges are given by additional intervals.
+	 * For hierarchies that are almost trees, the index is therefore linear in the number of vertices
+	 * (instead of quadratic for the transitive closure).
+	 */
+	private final ImmutableMap<Equivalences<T>, Integer> vertexIds;
+	private final ImmutableList<Equivalences<T>> vertices;
+	private final int[][] directSubIds;
+	private final int[][] directSuperIds;
+	private final int[] postOrderNumbers;
+	// sorted and disjoint intervals of post-order numbers (start and end, both inclusive)
+	private final int[][] subIntervals;
+	// lazy: sub-descriptions listed in the breadth-first order
+	private final ConcurrentMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> cacheSub;
+	// lazy: super-descriptions listed in the breadth-first order
+	private final ConcurrentMap<Equivalences<T>, ImmutableSet<Equivalences<T>>> cacheSuper;
+	// lazy: the representatives are chosen after the construction of the DAG
+	private final ConcurrentMap<T, ImmutableSet<T>> cacheSubRep;
 
 	private DefaultDirectedGraph<T,DefaultEdge> graph; // used in tests only
 	
@@ -63,8 +88,132 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		this.vertexIndex = vertexIndex;
 		this.fullVertexIndex = fullVertexIndex;
 
-		this.cacheSub = new HashMap<>();
-		this.cacheSubRep = new HashMap<>();
+		this.vertices = ImmutableList.copyOf(dag.vertexSet());
+		ImmutableMap.Builder<Equivalences<T>, Integer> vertexIdBuilder = ImmutableMap.builder();
+		for (int i = 0; i < vertices.size(); i++)
+			vertexIdBuilder.put(vertices.get(i), i);
+		this.vertexIds = vertexIdBuilder.build();
+
+		this.directSubIds = new int[vertices.size()][];
+		this.directSuperIds = new int[vertices.size()][];
+		for (int i = 0; i < vertices.size(); i++) {
+			Equivalences<T> v = vertices.get(i);
+			directSubIds[i] = dag.incomingEdgesOf(v).stream()
+					.mapToInt(e -> vertexIds.get(dag.getEdgeSource(e)))
+					.toArray();
+			directSuperIds[i] = dag.outgoingEdgesOf(v).stream()
+					.mapToInt(e -> vertexIds.get(dag.getEdgeTarget(e)))
+					.toArray();
+		}
+
+		this.postOrderNumbers = new int[vertices.size()];
+		this.subIntervals = new int[vertices.size()][];
+		computeIntervals();
+
+		this.cacheSub = new ConcurrentHashMap<>();
+		this.cacheSuper = new ConcurrentHashMap<>();
+		this.cacheSubRep = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Iterative depth-first traversal from the vertices without super-description.
+	 *
+	 * When a vertex is finished, so are all its sub-descriptions (no cycle), whose intervals are merged into its own.
+	 */
+	private void computeIntervals() {
+		int n = vertices.size();
+		int[] lowNumbers = new int[n];
+		int[] stack = new int[n];
+		int[] nextChild = new int[n];
+		BitSet visited = new BitSet(n);
+		int counter = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (directSuperIds[root].length > 0)
+				continue;
+			int top = 0;
+			stack[top] = root;
+			visited.set(root);
+			lowNumbers[root] = counter;
+			while (top >= 0) {
+				int u = stack[top];
+				if (nextChild[u] < directSubIds[u].length) {
+					int child = directSubIds[u][nextChild[u]++];
+					if (!visited.get(child)) {
+						visited.set(child);
+						lowNumbers[child] = counter;
+						stack[++top] = child;
+					}
+				}
+				else {
+					top--;
+					postOrderNumbers[u] = counter++;
+					subIntervals[u] = mergeIntervals(lowNumbers[u], postOrderNumbers[u], directSubIds[u]);
+				}
+			}
+		}
+	}
+
+	private int[] mergeIntervals(int low, int post, int[] subIds) {
+		int count = 1;
+		for (int sub : subIds)
+			count += subIntervals[sub].length / 2;
+
+		// start in the high bits, end in the low bits: sorted by start
+		long[] intervals = new long[count];
+		int k = 0;
+		intervals[k++] = ((long) low << 32) | post;
+		for (int sub : subIds) {
+			int[] subInterval = subIntervals[sub];
+			for (int i = 0; i < subInterval.length; i += 2)
+				intervals[k++] = ((long) subInterval[i] << 32) | subInterval[i + 1];
+		}
+		Arrays.sort(intervals);
+
+		int[] merged = new int[2 * count];
+		int m = 0;
+		for (long interval : intervals) {
+			int start = (int) (interval >>> 32);
+			int end = (int) interval;
+			if (m > 0 && start <= merged[m - 1] + 1) {
+				if (end > merged[m - 1])
+					merged[m - 1] = end;
+			}
+			else {
+				merged[m++] = start;
+				merged[m++] = end;
+			}
+		}
+		return Arrays.copyOf(merged, m);
+	}
+
+	/**
+	 * @return the vertices reachable from the start vertex (including it), in the breadth-first order
+	 */
+	private ImmutableSet<Equivalences<T>> traverse(int start, int[][] successors) {
+		ImmutableSet.Builder<Equivalences<T>> builder = ImmutableSet.builder();
+		BitSet visited = new BitSet(vertices.size());
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		queue.add(start);
+		visited.set(start);
+		while (!queue.isEmpty()) {
+			int current = queue.poll();
+			builder.add(vertices.get(current));
+			for (int next : successors[current]) {
+				if (!visited.get(next)) {
+					visited.set(next);
+					queue.add(next);
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private int getId(Equivalences<T> v) {
+		Integer id = vertexIds.get(v);
+		if (id == null)
+			throw new IllegalArgumentException("graph must contain the start vertex");
+		return id;
 	}
 
 	
@@ -104,23 +253,7 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public Set<Equivalences<T>> getSub(Equivalences<T> v) {
-
-		Set<Equivalences<T>> result = cacheSub.get(v);
-		if (result == null) {
-			result = new LinkedHashSet<>();
-
-			BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator = 
-						new BreadthFirstIterator<Equivalences<T>, DefaultEdge>(
-								new EdgeReversedGraph<>(dag), v);
-
-			while (iterator.hasNext()) {
-				Equivalences<T> child = iterator.next();
-				result.add(child);
-			}
-			result = Collections.unmodifiableSet(result);
-			cacheSub.put(v, result);
-		}
-		return result; 
+		return cacheSub.computeIfAbsent(v, k -> traverse(getId(k), directSubIds));
 	}
 
 	/** 
@@ -132,23 +265,10 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		
 		if (eq == null)
 			return Collections.singleton(v);
-		
-		Set<T> result = cacheSubRep.get(eq.getRepresentative());
-		if (result == null) {
-			result = new LinkedHashSet<T>();
-
-			BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator = 
-						new BreadthFirstIterator<Equivalences<T>, DefaultEdge>(
-								new EdgeReversedGraph<>(dag), eq);
 
-			while (iterator.hasNext()) {
-				Equivalences<T> child = iterator.next();
-				result.add(child.getRepresentative());
-			}
-			result = Collections.unmodifiableSet(result);
-			cacheSubRep.put(eq.getRepresentative(), result);
-		}
-		return result; 
+		return cacheSubRep.computeIfAbsent(v, k -> getSub(eq).stream()
+				.map(Equivalences::getRepresentative)
+				.collect(ImmutableCollectors.toSet()));
 	}
 	
 
@@ -172,17 +292,30 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public Set<Equivalences<T>> getSuper(Equivalences<T> v) {
+		return cacheSuper.computeIfAbsent(v, k -> traverse(getId(k), directSuperIds));
+	}
 
-		Set<Equivalences<T>> result = new LinkedHashSet<>();
-
-		BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator = 
-				new BreadthFirstIterator<Equivalences<T>, DefaultEdge>(dag, v);
-
-		while (iterator.hasNext()) {
-			Equivalences<T> parent = iterator.next();
-			result.add(parent);
+	/**
+	 * Binary search over the intervals of sup: O(log k) where k is the number of intervals
+	 */
+	@Override
+	public boolean isSubsumed(Equivalences<T> sub, Equivalences<T> sup) {
+		Integer supId = vertexIds.get(sup);
+		if (supId == null)
+			return false;
+		int number = postOrderNumbers[getId(sub)];
+		int[] intervals = subIntervals[supId];
+		int low = 0, high = intervals.length / 2 - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (number < intervals[2 * middle])
+				high = middle - 1;
+			else if (number > intervals[2 * middle + 1])
+				low = middle + 1;
+			else
+				return true;
 		}
-		return Collections.unmodifiableSet(result);
+		return false;
 	}
 
 	@Override
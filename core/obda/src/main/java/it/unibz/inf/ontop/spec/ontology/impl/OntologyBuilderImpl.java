@@ -92,6 +92,22 @@ public class OntologyBuilderImpl implements OntologyBuilder {
         };
     }
 
+    /**
+     * For creating many assertions of the same class or property
+     * (e.g., from a CONSTRUCT template) without rebuilding it each time
+     */
+    public static OClass createClass(IRI iri) {
+        return new ClassImpl(iri);
+    }
+
+    public static ObjectPropertyExpression createObjectPropertyExpression(IRI iri) {
+        return new ObjectPropertyExpressionImpl(iri);
+    }
+
+    public static DataPropertyExpression createDataPropertyExpression(IRI iri) {
+        return new DataPropertyExpressionImpl(iri);
+    }
+
 
 
 
@@ -98,7 +98,11 @@ public class DatalogNormalizer {
 
     public void addMinimalEqualityToLeftOrNestedInnerJoin(CQIE query) {
         for (Function f : query.getBody()) {
-            if (f.isAlgebraFunction()) {
+            // GROUP and the transitive closures have variables as arguments (not atoms)
+            if (f.isAlgebraFunction()
+                    && !f.getFunctionSymbol().equals(datalogFactory.getSparqlGroupPredicate())
+                    && !f.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(false))
+                    && !f.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(true))) {
                 addMinimalEqualityToLeftOrNestedInnerJoin(f);
             }
         }
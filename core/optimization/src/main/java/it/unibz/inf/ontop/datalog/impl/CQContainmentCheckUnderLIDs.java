@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.datalog.impl;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
@@ -20,7 +21,8 @@ public class CQContainmentCheckUnderLIDs {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CQContainmentCheckUnderLIDs.class);
 	
-	private final Map<CQIE,IndexedCQ> indexedCQcache = new HashMap<>();
+	// Concurrent: the T-mapping saturation checks containment from several threads
+	private final Map<CQIE,IndexedCQ> indexedCQcache = new ConcurrentHashMap<>();
 	
 	private final ImmutableMultimap<Predicate, LinearInclusionDependency> dependencies;
 	private final DatalogFactory datalogFactory;
@@ -63,7 +65,9 @@ public class CQContainmentCheckUnderLIDs {
 		for (Function fact : atoms) {
 			derivedAtoms.add(fact);
 			for (LinearInclusionDependency d : dependencies.get(fact.getFunctionSymbol())) {
-				CQIE rule = datalogFactory.getFreshCQIECopy(datalogFactory.getCQIE(d.getHead(), d.getBody()));
+				// the dependency atoms are cloned: they are shared by the threads that check containment
+				CQIE rule = datalogFactory.getFreshCQIECopy(datalogFactory.getCQIE(
+						(Function) d.getHead().clone(), (Function) d.getBody().clone()));
 				Function ruleBody = rule.getBody().get(0);
 				Substitution theta = unifierUtilities.getMGU(ruleBody, fact);
 				if (theta != null && !theta.isEmpty()) {
@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.datalog.impl;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import fj.P2;
 import fj.data.List;
@@ -18,12 +20,17 @@ import it.unibz.inf.ontop.model.term.functionsymbol.Predicate;
 import it.unibz.inf.ontop.model.term.Function;
 import it.unibz.inf.ontop.model.term.ImmutableExpression;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation;
 import it.unibz.inf.ontop.iq.*;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 
 /**
  * Converts a Datalog rule into an intermediate query.
@@ -78,17 +85,20 @@ public class DatalogRule2QueryConverter {
     private final DatalogConversionTools datalogConversionTools;
     private final DatalogTools datalogTools;
     private final PullOutEqualityNormalizer pullOutEqualityNormalizer;
+    private final SubstitutionFactory substitutionFactory;
 
     @Inject
     private DatalogRule2QueryConverter(TermFactory termFactory, DatalogFactory datalogFactory,
                                        DatalogConversionTools datalogConversionTools,
                                        DatalogTools datalogTools,
-                                       PullOutEqualityNormalizerImpl pullOutEqualityNormalizer) {
+                                       PullOutEqualityNormalizerImpl pullOutEqualityNormalizer,
+                                       SubstitutionFactory substitutionFactory) {
         this.termFactory = termFactory;
         this.datalogFactory = datalogFactory;
         this.datalogConversionTools = datalogConversionTools;
         this.datalogTools = datalogTools;
         this.pullOutEqualityNormalizer = pullOutEqualityNormalizer;
+        this.substitutionFactory = substitutionFactory;
     }
 
     /**
@@ -102,10 +112,27 @@ public class DatalogRule2QueryConverter {
 
         DistinctVariableOnlyDataAtom projectionAtom = targetAtom.getProjectionAtom();
 
+        List<Function> bodyAtoms = List.iterableList(datalogRule.getBody());
+
+        Optional<Function> optionalGroupAtom = datalogRule.getBody().stream()
+                .filter(this::isGroupAtom)
+                .findFirst();
+        if (optionalGroupAtom.isPresent()) {
+            return createAggregationDefinition(targetAtom, optionalGroupAtom.get(), optionalModifiers, tablePredicates,
+                    bodyAtoms.filter(a -> !isGroupAtom(a)), iqFactory);
+        }
+
+        Optional<Function> optionalClosureAtom = datalogRule.getBody().stream()
+                .filter(this::isTransitiveClosureAtom)
+                .findFirst();
+        if (optionalClosureAtom.isPresent()) {
+            return createTransitiveClosureDefinition(targetAtom, optionalClosureAtom.get(), optionalModifiers,
+                    tablePredicates, bodyAtoms.filter(a -> !isTransitiveClosureAtom(a)), iqFactory);
+        }
+
         ConstructionNode topConstructionNode = iqFactory.createConstructionNode(projectionAtom.getVariables(),
                 targetAtom.getSubstitution());
 
-        List<Function> bodyAtoms = List.iterableList(datalogRule.getBody());
         if (bodyAtoms.isEmpty()) {
             return createFact(topConstructionNode, optionalModifiers, projectionAtom, iqFactory);
         }
@@ -115,6 +142,101 @@ public class DatalogRule2QueryConverter {
         }
     }
 
+    private boolean isGroupAtom(Function atom) {
+        return atom.getFunctionSymbol().equals(datalogFactory.getSparqlGroupPredicate());
+    }
+
+    /**
+     * The aggregates of the head are computed by an AggregationNode
+     * (grouping by the variables of the GROUP atom) below the top construction node.
+     */
+    private IQ createAggregationDefinition(TargetAtom targetAtom, Function groupAtom,
+                                           Optional<ImmutableQueryModifiers> optionalModifiers,
+                                           Collection<Predicate> tablePredicates, List<Function> bodyAtoms,
+                                           IntermediateQueryFactory iqFactory)
+            throws DatalogProgram2QueryConverterImpl.InvalidDatalogProgramException {
+
+        ImmutableSet<Variable> groupingVariables = groupAtom.getTerms().stream()
+                .map(t -> (Variable) t)
+                .collect(ImmutableCollectors.toSet());
+
+        ImmutableMap<Variable, ImmutableTerm> bindings = targetAtom.getSubstitution().getImmutableMap();
+        ImmutableMap<Variable, ImmutableFunctionalTerm> aggregates = bindings.entrySet().stream()
+                .filter(e -> isAggregate(e.getValue()))
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> (ImmutableFunctionalTerm) e.getValue()));
+
+        AggregationNode aggregationNode = iqFactory.createAggregationNode(groupingVariables,
+                substitutionFactory.getSubstitution(aggregates));
+
+        DistinctVariableOnlyDataAtom projectionAtom = targetAtom.getProjectionAtom();
+        ConstructionNode topConstructionNode = iqFactory.createConstructionNode(projectionAtom.getVariables(),
+                substitutionFactory.getSubstitution(bindings.entrySet().stream()
+                        .filter(e -> !aggregates.containsKey(e.getKey()))
+                        .collect(ImmutableCollectors.toMap())));
+
+        try {
+            IQTree aggregationTree = iqFactory.createUnaryIQTree(aggregationNode,
+                    convertAtoms(bodyAtoms, tablePredicates, iqFactory));
+            IQTree constructionTree = iqFactory.createUnaryIQTree(topConstructionNode, aggregationTree);
+
+            IQTree tree = optionalModifiers
+                    .map(m -> m.insertAbove(constructionTree, iqFactory))
+                    .orElse(constructionTree);
+
+            return iqFactory.createIQ(projectionAtom, tree);
+        }
+        catch (IntermediateQueryBuilderException e) {
+            throw new DatalogProgram2QueryConverterImpl.InvalidDatalogProgramException(e.getMessage());
+        }
+    }
+
+    private boolean isTransitiveClosureAtom(Function atom) {
+        return atom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(false))
+                || atom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(true));
+    }
+
+    /**
+     * The other atoms of the body describe one step (from the source to the target variable of the closure atom)
+     */
+    private IQ createTransitiveClosureDefinition(TargetAtom targetAtom, Function closureAtom,
+                                                 Optional<ImmutableQueryModifiers> optionalModifiers,
+                                                 Collection<Predicate> tablePredicates, List<Function> bodyAtoms,
+                                                 IntermediateQueryFactory iqFactory)
+            throws DatalogProgram2QueryConverterImpl.InvalidDatalogProgramException {
+
+        TransitiveClosureNode closureNode = iqFactory.createTransitiveClosureNode(
+                (Variable) closureAtom.getTerm(0),
+                (Variable) closureAtom.getTerm(1),
+                closureAtom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(true)));
+
+        DistinctVariableOnlyDataAtom projectionAtom = targetAtom.getProjectionAtom();
+        ConstructionNode topConstructionNode = iqFactory.createConstructionNode(projectionAtom.getVariables(),
+                targetAtom.getSubstitution());
+
+        try {
+            IQTree closureTree = iqFactory.createUnaryIQTree(closureNode,
+                    convertAtoms(bodyAtoms, tablePredicates, iqFactory));
+            IQTree constructionTree = iqFactory.createUnaryIQTree(topConstructionNode, closureTree);
+
+            IQTree tree = optionalModifiers
+                    .map(m -> m.insertAbove(constructionTree, iqFactory))
+                    .orElse(constructionTree);
+
+            return iqFactory.createIQ(projectionAtom, tree);
+        }
+        catch (IntermediateQueryBuilderException e) {
+            throw new DatalogProgram2QueryConverterImpl.InvalidDatalogProgramException(e.getMessage());
+        }
+    }
+
+    private static boolean isAggregate(ImmutableTerm term) {
+        return (term instanceof ImmutableFunctionalTerm)
+                && (((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof ExpressionOperation)
+                && ((ExpressionOperation) ((ImmutableFunctionalTerm) term).getFunctionSymbol()).isAggregate();
+    }
+
     private static IQ createFact(ConstructionNode topConstructionNode,
                                  Optional<ImmutableQueryModifiers> optionalModifiers,
                                  DistinctVariableOnlyDataAtom projectionAtom, IntermediateQueryFactory iqFactory) {
@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.datalog.impl;
 
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.datalog.*;
@@ -65,11 +66,19 @@ public class IQ2DatalogTranslatorImpl implements IQ2DatalogTranslator {
 		public final ImmutableSubstitution<ImmutableTerm> substitution;
 		public final DataAtom atom;
 		public final Optional<IQTree> optionalChildNode;
+		// Appended to the body after the atoms of the child (e.g. GROUP)
+		public final ImmutableList<Function> additionalBodyAtoms;
 
 		private RuleHead(ImmutableSubstitution<ImmutableTerm> substitution, DataAtom atom, Optional<IQTree> optionalChildNode) {
+			this(substitution, atom, optionalChildNode, ImmutableList.of());
+		}
+
+		private RuleHead(ImmutableSubstitution<ImmutableTerm> substitution, DataAtom atom, Optional<IQTree> optionalChildNode,
+						 ImmutableList<Function> additionalBodyAtoms) {
 			this.atom = atom;
             this.substitution = substitution;
             this.optionalChildNode = optionalChildNode;
+            this.additionalBodyAtoms = additionalBodyAtoms;
         }
 	}
 
@@ -287,6 +296,7 @@ public class IQ2DatalogTranslatorImpl implements IQ2DatalogTranslator {
                 List<Function> uAtoms = getAtomFrom(t, heads, subQueryProjectionAtoms, false);
                 newrule.getBody().addAll(uAtoms);
             });
+			newrule.getBody().addAll(head.additionalBodyAtoms);
 
 		}
 	}
@@ -321,6 +331,44 @@ public class IQ2DatalogTranslatorImpl implements IQ2DatalogTranslator {
 			body.add(mutAt);
 			return body;
 			
+		} else if (node instanceof AggregationNode) {
+			/*
+			 * Always a separate rule: the grouping only applies to the body of this rule
+			 */
+			AggregationNode aggregationNode = (AggregationNode) node;
+			DataAtom projectionAtom = generateProjectionAtom(aggregationNode.getVariables());
+
+			Function groupAtom = termFactory.getFunction(datalogFactory.getSparqlGroupPredicate(),
+					new ArrayList<>(aggregationNode.getGroupingVariables()));
+
+			heads.add(new RuleHead(
+					substitutionFactory.getSubstitution(
+							ImmutableMap.<Variable, ImmutableTerm>copyOf(aggregationNode.getSubstitution().getImmutableMap())),
+					projectionAtom, Optional.of(((UnaryIQTree)tree).getChild()), ImmutableList.of(groupAtom)));
+			body.add(immutabilityTools.convertToMutableFunction(projectionAtom));
+			return body;
+
+		} else if (node instanceof TransitiveClosureNode) {
+			/*
+			 * Two rules: one for a step (the child) and one for its closure
+			 */
+			TransitiveClosureNode closureNode = (TransitiveClosureNode) node;
+			ImmutableSet<Variable> endPoints = ImmutableSet.of(closureNode.getSourceVariable(),
+					closureNode.getTargetVariable());
+			DataAtom stepAtom = generateProjectionAtom(endPoints);
+			DataAtom closureAtom = generateProjectionAtom(endPoints);
+
+			Function closureMarker = termFactory.getFunction(
+					datalogFactory.getTransitiveClosurePredicate(closureNode.isReflexive()),
+					closureNode.getSourceVariable(), closureNode.getTargetVariable());
+
+			heads.add(new RuleHead(substitutionFactory.getSubstitution(), stepAtom,
+					Optional.of(((UnaryIQTree)tree).getChild())));
+			heads.add(new RuleHead(substitutionFactory.getSubstitution(), closureAtom, Optional.empty(),
+					ImmutableList.of(immutabilityTools.convertToMutableFunction(stepAtom), closureMarker)));
+			body.add(immutabilityTools.convertToMutableFunction(closureAtom));
+			return body;
+
 		} else if (node instanceof FilterNode) {
 			ImmutableExpression filter = ((FilterNode) node).getFilterCondition();
 			List<IQTree> children =  tree.getChildren();
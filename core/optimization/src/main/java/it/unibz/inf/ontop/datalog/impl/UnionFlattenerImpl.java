@@ -103,6 +103,7 @@ public class UnionFlattenerImpl implements UnionFlattener {
                     query.getTree().acceptTransformer(treeTransformer)
             );
         } while (!prev.equals(query));
-        return query;
+        // Returns the input query when nothing has been flattened
+        return prev;
     }
 }
\ No newline at end of file
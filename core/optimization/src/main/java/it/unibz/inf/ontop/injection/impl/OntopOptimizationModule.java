@@ -53,6 +53,8 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bindFromSettings(InnerJoinOptimizer.class);
         bindFromSettings(JoinLikeOptimizer.class);
         bindFromSettings(LeftJoinOptimizer.class);
+        bindFromSettings(InnerJoinIQOptimizer.class);
+        bindFromSettings(LeftJoinIQOptimizer.class);
         bindFromSettings(BindingLiftOptimizer.class);
         bindFromSettings(IQ2DatalogTranslator.class);
         bindFromSettings(LeftJoinRightChildNormalizationAnalyzer.class);
@@ -0,0 +1,8 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+/**
+ * Optimizes the inner joins directly on the IQ
+ */
+public interface InnerJoinIQOptimizer extends IQOptimizer {
+
+}
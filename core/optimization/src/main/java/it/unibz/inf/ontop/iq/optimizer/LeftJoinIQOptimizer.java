@@ -0,0 +1,8 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+/**
+ * Optimizes the left joins directly on the IQ
+ */
+public interface LeftJoinIQOptimizer extends IQOptimizer {
+
+}
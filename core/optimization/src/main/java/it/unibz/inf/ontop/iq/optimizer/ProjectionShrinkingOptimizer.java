@@ -47,6 +47,11 @@ public class ProjectionShrinkingOptimizer implements IntermediateQueryOptimizer
             retainedVariables = updateRetainedVariables((JoinOrFilterNode) focusNode, query, retainedVariables);
         } else if (focusNode instanceof ConstructionNode) {
             retainedVariables = updateRetainedVariables((ConstructionNode) focusNode);
+        } else if (focusNode instanceof AggregationNode) {
+            retainedVariables = updateRetainedVariables((AggregationNode) focusNode);
+        } else if (focusNode instanceof TransitiveClosureNode) {
+            // The closure only needs the two end points of a step
+            retainedVariables = ((TransitiveClosureNode) focusNode).getVariables();
         }
 
 
@@ -146,4 +151,16 @@ public class ProjectionShrinkingOptimizer implements IntermediateQueryOptimizer
                 .addAll(variablesRequiredBySubstitution)
                 .build();
     }
+
+    /**
+     * Retains only the grouping variables and the variables required by the aggregates
+     */
+    private ImmutableSet<Variable> updateRetainedVariables(AggregationNode aggregationNode) {
+        return ImmutableSet.<Variable>builder()
+                .addAll(aggregationNode.getGroupingVariables())
+                .addAll(aggregationNode.getSubstitution().getImmutableMap().values().stream()
+                        .flatMap(ImmutableTerm::getVariableStream)
+                        .iterator())
+                .build();
+    }
 }
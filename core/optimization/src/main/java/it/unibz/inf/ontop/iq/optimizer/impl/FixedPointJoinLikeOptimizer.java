@@ -5,8 +5,10 @@ import com.google.inject.Singleton;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.optimizer.InnerJoinIQOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.InnerJoinOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.JoinLikeOptimizer;
+import it.unibz.inf.ontop.iq.optimizer.LeftJoinIQOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.LeftJoinOptimizer;
 import it.unibz.inf.ontop.iq.tools.IQConverter;
 import org.slf4j.Logger;
@@ -23,22 +25,26 @@ public class FixedPointJoinLikeOptimizer implements JoinLikeOptimizer {
     private static final Logger log = LoggerFactory.getLogger(FixedPointJoinLikeOptimizer.class);
     private final InnerJoinOptimizer joinOptimizer;
     private final LeftJoinOptimizer leftJoinOptimizer;
+    private final InnerJoinIQOptimizer joinIQOptimizer;
+    private final LeftJoinIQOptimizer leftJoinIQOptimizer;
     private final IQConverter iqConverter;
 
     @Inject
     private FixedPointJoinLikeOptimizer(InnerJoinOptimizer joinOptimizer, LeftJoinOptimizer leftJoinOptimizer,
+                                        InnerJoinIQOptimizer joinIQOptimizer, LeftJoinIQOptimizer leftJoinIQOptimizer,
                                         IQConverter iqConverter){
         this.joinOptimizer = joinOptimizer;
         this.leftJoinOptimizer = leftJoinOptimizer;
+        this.joinIQOptimizer = joinIQOptimizer;
+        this.leftJoinIQOptimizer = leftJoinIQOptimizer;
         this.iqConverter = iqConverter;
     }
 
     @Override
     public IntermediateQuery optimize(IntermediateQuery query) throws EmptyQueryException {
-        UUID conversionVersion = UUID.randomUUID();
-        boolean converged;
-        do {
-
+        boolean isLifted = false;
+        while (true) {
+            UUID initialVersionNumber = query.getVersionNumber();
             UUID oldVersionNumber;
             do {
                 oldVersionNumber = query.getVersionNumber();
@@ -50,18 +56,31 @@ public class FixedPointJoinLikeOptimizer implements JoinLikeOptimizer {
 
             } while (oldVersionNumber != query.getVersionNumber());
 
-            converged = (conversionVersion == query.getVersionNumber());
-            if (!converged) {
-                query = liftBinding(query);
-                conversionVersion = query.getVersionNumber();
+            /*
+             * The query comes from a lifted IQ and the join optimizers have not changed it:
+             * the fixed point is reached without converting it again.
+             */
+            if (isLifted && (initialVersionNumber == query.getVersionNumber()))
+                return query;
+
+            /*
+             * The binding lifting and the IQ join and left join optimizations are done on the IQ.
+             * When they do not change the tree, the fixed point is reached: no need to convert the IQ back
+             * and to run the join optimizers again.
+             */
+            IQ iq = iqConverter.convert(query);
+            IQ liftedIQ = iq.liftBinding();
+            IQ optimizedIQ = leftJoinIQOptimizer.optimize(joinIQOptimizer.optimize(liftedIQ));
+            if (optimizedIQ != liftedIQ) {
+                log.debug("New query after IQ join optimization: \n" + optimizedIQ);
+                optimizedIQ = optimizedIQ.liftBinding();
             }
 
-        } while (!converged);
-        return query;
-    }
+            if ((optimizedIQ == iq) || optimizedIQ.equals(iq))
+                return query;
 
-    private IntermediateQuery liftBinding(IntermediateQuery query) throws EmptyQueryException {
-        IQ iq = iqConverter.convert(query);
-        return iqConverter.convert(iq.liftBinding(), query.getDBMetadata(), query.getExecutorRegistry());
+            query = iqConverter.convert(optimizedIQ, query.getDBMetadata(), query.getExecutorRegistry());
+            isLifted = true;
+        }
     }
 }
@@ -0,0 +1,93 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.executor.leftjoin.LeftJoinRightChildNormalizationAnalyzer;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
+import it.unibz.inf.ontop.iq.optimizer.LeftJoinIQOptimizer;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Optional;
+
+/**
+ * IQ counterpart of LeftToInnerJoinExecutor for its main case: a left join without condition
+ * whose right child is a data node matching a unique constraint or a foreign key of the left data nodes,
+ * without any conflicting argument. Such a left join is replaced by an inner join.
+ *
+ * The other cases (joining condition, construction or filter node on the right) are left to LeftToInnerJoinExecutor.
+ */
+@Singleton
+public class LeftToInnerJoinIQOptimizer implements LeftJoinIQOptimizer {
+
+    private final LeftJoinRightChildNormalizationAnalyzer analyzer;
+    private final IntermediateQueryFactory iqFactory;
+
+    @Inject
+    private LeftToInnerJoinIQOptimizer(LeftJoinRightChildNormalizationAnalyzer analyzer,
+                                       IntermediateQueryFactory iqFactory) {
+        this.analyzer = analyzer;
+        this.iqFactory = iqFactory;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = tree.acceptTransformer(new LeftToInnerJoinTransformer(query.getVariableGenerator()));
+        return newTree.equals(tree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+
+    private class LeftToInnerJoinTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final VariableGenerator variableGenerator;
+
+        LeftToInnerJoinTransformer(VariableGenerator variableGenerator) {
+            super(LeftToInnerJoinIQOptimizer.this.iqFactory);
+            this.variableGenerator = variableGenerator;
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            IQTree newLeftChild = leftChild.acceptTransformer(this);
+            IQTree newRightChild = rightChild.acceptTransformer(this);
+
+            if (rootNode.getOptionalFilterCondition().isPresent() || !(newRightChild instanceof ExtensionalDataNode))
+                return iqFactory.createBinaryNonCommutativeIQTree(rootNode, newLeftChild, newRightChild);
+
+            return extractLeftDataNodes(newLeftChild)
+                    .map(ds -> analyzer.analyze(newLeftChild.getVariables(), ds,
+                            (ExtensionalDataNode) newRightChild, variableGenerator))
+                    // Without additional expression, the right data node is kept as it is
+                    .filter(a -> a.isMatchingAConstraint() && !a.getAdditionalExpression().isPresent())
+                    .map(a -> (IQTree) iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(),
+                            ImmutableList.of(newLeftChild, newRightChild)))
+                    .orElseGet(() -> iqFactory.createBinaryNonCommutativeIQTree(rootNode, newLeftChild, newRightChild));
+        }
+
+        /**
+         * Same restriction as LeftToInnerJoinExecutor: a data node or an inner join of data nodes
+         */
+        private Optional<ImmutableList<ExtensionalDataNode>> extractLeftDataNodes(IQTree leftChild) {
+            if (leftChild instanceof ExtensionalDataNode)
+                return Optional.of(ImmutableList.of((ExtensionalDataNode) leftChild));
+
+            if ((leftChild.getRootNode() instanceof InnerJoinNode)
+                    && leftChild.getChildren().stream().allMatch(c -> c instanceof ExtensionalDataNode))
+                return Optional.of(leftChild.getChildren().stream()
+                        .map(c -> (ExtensionalDataNode) c)
+                        .collect(ImmutableCollectors.toList()));
+
+            return Optional.empty();
+        }
+    }
+}
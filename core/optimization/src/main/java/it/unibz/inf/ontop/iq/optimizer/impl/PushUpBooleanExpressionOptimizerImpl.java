@@ -166,6 +166,14 @@ public class PushUpBooleanExpressionOptimizerImpl implements PushUpBooleanExpres
             if (currentParentNode == query.getRootNode()) {
                 break;
             }
+            if (currentParentNode instanceof AggregationNode) {
+                /* the expression cannot be evaluated on the groups */
+                break;
+            }
+            if (currentParentNode instanceof TransitiveClosureNode) {
+                /* the expression only holds for one step */
+                break;
+            }
             if (currentParentNode instanceof ConstructionNode) {
                 /* keep track of Construction nodes on the path between provider and recipient */
                 inbetweenProjectorsBuilder.add((ConstructionNode) currentParentNode);
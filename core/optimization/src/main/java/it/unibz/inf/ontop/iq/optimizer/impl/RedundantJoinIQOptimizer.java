@@ -0,0 +1,260 @@
+package it.unibz.inf.ontop.iq.optimizer.impl;
+
+import com.google.common.collect.*;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.ForeignKeyConstraint;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.optimizer.InnerJoinIQOptimizer;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.substitution.impl.ImmutableUnificationTools;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * IQ counterpart of UCRedundantSelfJoinExecutor and RedundantJoinFKExecutor for their main cases,
+ * on the data nodes that are direct children of an inner join:
+ *   - two data nodes of the same relation agreeing on the arguments of a non-nullable unique constraint
+ *     are unified (the inner join is declared empty when they cannot be unified);
+ *   - a data node referenced by a non-nullable foreign key of another data node is removed
+ *     when its other arguments are not used anywhere else.
+ *
+ * The unifying substitution is kept in a construction node above the join, to be lifted by the binding lift.
+ * The other cases (loose functional dependencies, nullable constraints) are left to the executors.
+ */
+@Singleton
+public class RedundantJoinIQOptimizer implements InnerJoinIQOptimizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final ImmutableUnificationTools unificationTools;
+
+    @Inject
+    private RedundantJoinIQOptimizer(IntermediateQueryFactory iqFactory, SubstitutionFactory substitutionFactory,
+                                     ImmutableUnificationTools unificationTools) {
+        this.iqFactory = iqFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.unificationTools = unificationTools;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree selfJoinFreeTree = tree.acceptTransformer(new SelfJoinTransformer());
+
+        /*
+         * The occurrences are counted after the self-join elimination, which may rename some variables
+         */
+        Multiset<Variable> occurrences = HashMultiset.create(query.getProjectionAtom().getArguments());
+        countOccurrences(selfJoinFreeTree, occurrences);
+        IQTree newTree = selfJoinFreeTree.acceptTransformer(new ForeignKeyTransformer(occurrences));
+
+        return newTree.equals(tree)
+                ? query
+                : iqFactory.createIQ(query.getProjectionAtom(), newTree);
+    }
+
+    private static void countOccurrences(IQTree tree, Multiset<Variable> occurrences) {
+        occurrences.addAll(tree.getRootNode().getLocalVariables());
+        tree.getChildren().forEach(c -> countOccurrences(c, occurrences));
+    }
+
+    private IQTree buildJoinTree(InnerJoinNode joinNode, ImmutableList<IQTree> children) {
+        if (children.size() > 1)
+            return iqFactory.createNaryIQTree(joinNode, children);
+
+        IQTree child = children.get(0);
+        return joinNode.getOptionalFilterCondition()
+                .map(c -> (IQTree) iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), child))
+                .orElse(child);
+    }
+
+
+    private class SelfJoinTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        SelfJoinTransformer() {
+            super(RedundantJoinIQOptimizer.this.iqFactory);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            // Non-final
+            List<IQTree> newChildren = children.stream()
+                    .map(c -> c.acceptTransformer(this))
+                    .collect(ImmutableCollectors.toList());
+            InnerJoinNode newJoinNode = rootNode;
+            List<ImmutableSubstitution<VariableOrGroundTerm>> substitutions = new ArrayList<>();
+
+            /*
+             * One pair of redundant data nodes is unified at each iteration: the number of children decreases.
+             */
+            Optional<ImmutableList<Integer>> redundantPair;
+            while ((redundantPair = findRedundantPair(newChildren)).isPresent()) {
+                int keptIndex = redundantPair.get().get(0);
+                int removedIndex = redundantPair.get().get(1);
+
+                Optional<ImmutableSubstitution<VariableOrGroundTerm>> unifier = unificationTools.computeAtomMGU(
+                        ((ExtensionalDataNode) newChildren.get(keptIndex)).getProjectionAtom(),
+                        ((ExtensionalDataNode) newChildren.get(removedIndex)).getProjectionAtom());
+                if (!unifier.isPresent())
+                    return iqFactory.createEmptyNode(tree.getVariables());
+
+                ImmutableSubstitution<VariableOrGroundTerm> substitution = unifier.get();
+                substitutions.add(substitution);
+                List<IQTree> currentChildren = newChildren;
+                newChildren = IntStream.range(0, currentChildren.size())
+                        .filter(i -> i != removedIndex)
+                        .mapToObj(currentChildren::get)
+                        .map(c -> c.applyDescendingSubstitution(substitution, Optional.empty()))
+                        .collect(ImmutableCollectors.toList());
+                newJoinNode = newJoinNode.getOptionalFilterCondition()
+                        .map(c -> iqFactory.createInnerJoinNode(substitution.applyToBooleanExpression(c)))
+                        .orElse(newJoinNode);
+            }
+
+            if (substitutions.isEmpty())
+                return iqFactory.createNaryIQTree(rootNode, ImmutableList.copyOf(newChildren));
+
+            IQTree joinTree = buildJoinTree(newJoinNode, ImmutableList.copyOf(newChildren));
+            ImmutableMap<Variable, ImmutableTerm> bindings = tree.getVariables().stream()
+                    .map(v -> Maps.immutableEntry(v, applySubstitutions(v, substitutions)))
+                    .filter(e -> !e.getKey().equals(e.getValue()))
+                    .collect(ImmutableCollectors.toMap());
+
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createConstructionNode(tree.getVariables(), substitutionFactory.getSubstitution(bindings)),
+                    joinTree);
+        }
+
+        private ImmutableTerm applySubstitutions(Variable variable,
+                                                 List<ImmutableSubstitution<VariableOrGroundTerm>> substitutions) {
+            // Non-final
+            ImmutableTerm term = variable;
+            for (ImmutableSubstitution<VariableOrGroundTerm> substitution : substitutions) {
+                term = substitution.apply(term);
+            }
+            return term;
+        }
+
+        /**
+         * Indexes of two data nodes of the same relation having the same arguments
+         * for a unique constraint without nullable attribute
+         */
+        private Optional<ImmutableList<Integer>> findRedundantPair(List<IQTree> children) {
+            for (int i = 0; i < children.size(); i++) {
+                if (!(children.get(i) instanceof ExtensionalDataNode))
+                    continue;
+                DataAtom<RelationPredicate> atom = ((ExtensionalDataNode) children.get(i)).getProjectionAtom();
+                RelationDefinition relation = atom.getPredicate().getRelationDefinition();
+
+                for (int j = i + 1; j < children.size(); j++) {
+                    if (!(children.get(j) instanceof ExtensionalDataNode))
+                        continue;
+                    DataAtom<RelationPredicate> otherAtom = ((ExtensionalDataNode) children.get(j)).getProjectionAtom();
+                    if (!otherAtom.getPredicate().equals(atom.getPredicate()))
+                        continue;
+
+                    for (UniqueConstraint constraint : relation.getUniqueConstraints()) {
+                        if (constraint.getAttributes().stream()
+                                .allMatch(a -> !a.canNull()
+                                        && atom.getTerm(a.getIndex() - 1).equals(otherAtom.getTerm(a.getIndex() - 1))))
+                            return Optional.of(ImmutableList.of(i, j));
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+
+    private class ForeignKeyTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final Multiset<Variable> occurrences;
+
+        ForeignKeyTransformer(Multiset<Variable> occurrences) {
+            super(RedundantJoinIQOptimizer.this.iqFactory);
+            this.occurrences = occurrences;
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(c -> c.acceptTransformer(this))
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableList<ExtensionalDataNode> dataNodes = newChildren.stream()
+                    .filter(c -> c instanceof ExtensionalDataNode)
+                    .map(c -> (ExtensionalDataNode) c)
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableSet<IQTree> redundantNodes = dataNodes.stream()
+                    .flatMap(s -> s.getProjectionAtom().getPredicate().getRelationDefinition().getForeignKeys().stream()
+                            .filter(fk -> fk.getComponents().stream().noneMatch(c -> c.getAttribute().canNull()))
+                            .flatMap(fk -> dataNodes.stream()
+                                    .filter(t -> t != s)
+                                    .filter(t -> t.getProjectionAtom().getPredicate().getRelationDefinition()
+                                            .equals(fk.getReferencedRelation()))
+                                    .filter(t -> areMatching(s, t, fk))
+                                    .filter(t -> areNonFKColumnsUnused(t, fk))))
+                    .collect(ImmutableCollectors.toSet());
+
+            if (redundantNodes.isEmpty())
+                return iqFactory.createNaryIQTree(rootNode, newChildren);
+
+            return buildJoinTree(rootNode, newChildren.stream()
+                    .filter(c -> !redundantNodes.contains(c))
+                    .collect(ImmutableCollectors.toList()));
+        }
+
+        private boolean areMatching(ExtensionalDataNode sourceDataNode, ExtensionalDataNode targetDataNode,
+                                    ForeignKeyConstraint constraint) {
+            DataAtom<RelationPredicate> sourceAtom = sourceDataNode.getProjectionAtom();
+            DataAtom<RelationPredicate> targetAtom = targetDataNode.getProjectionAtom();
+
+            return constraint.getComponents().stream()
+                    .allMatch(c -> sourceAtom.getTerm(c.getAttribute().getIndex() - 1)
+                            .equals(targetAtom.getTerm(c.getReference().getIndex() - 1)));
+        }
+
+        /**
+         * Same conditions as RedundantJoinFKExecutor: the non-FK arguments are distinct variables,
+         * different from the FK arguments and only appearing in the target data node
+         */
+        private boolean areNonFKColumnsUnused(ExtensionalDataNode targetDataNode, ForeignKeyConstraint constraint) {
+            ImmutableList<? extends VariableOrGroundTerm> targetArguments = targetDataNode.getProjectionAtom().getArguments();
+
+            ImmutableSet<Integer> fkTargetIndexes = constraint.getComponents().stream()
+                    .map(ForeignKeyConstraint.Component::getReference)
+                    .map(Attribute::getIndex)
+                    .map(i -> i - 1)
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableList<VariableOrGroundTerm> remainingTerms = IntStream.range(0, targetArguments.size())
+                    .filter(i -> !fkTargetIndexes.contains(i))
+                    .mapToObj(targetArguments::get)
+                    .collect(ImmutableCollectors.toList());
+
+            return remainingTerms.stream().allMatch(t -> t instanceof Variable)
+                    && (ImmutableSet.copyOf(remainingTerms).size() == remainingTerms.size())
+                    && fkTargetIndexes.stream()
+                        .map(targetArguments::get)
+                        .noneMatch(remainingTerms::contains)
+                    && remainingTerms.stream()
+                        .allMatch(v -> occurrences.count(v) == 1);
+        }
+    }
+}
@@ -52,6 +52,8 @@ public class OptimizationTestingTools {
     public static final IQConverter IQ_CONVERTER;
     public static final ValueConstant NULL, TRUE, FALSE;
     public static final UnionAndBindingLiftOptimizer UNION_AND_BINDING_LIFT_OPTIMIZER;
+    public static final InnerJoinIQOptimizer JOIN_IQ_OPTIMIZER;
+    public static final LeftJoinIQOptimizer LEFT_JOIN_IQ_OPTIMIZER;
     public static final UnionBasedQueryMerger UNION_BASED_QUERY_MERGER;
     public static final RDF RDF_FACTORY;
     private static final DummyBasicDBMetadata DEFAULT_DUMMY_DB_METADATA;
@@ -82,6 +84,8 @@ public class OptimizationTestingTools {
         IQ_CONVERTER = injector.getInstance(IQConverter.class);
         DEFAULT_EXPRESSION_EVALUATOR = injector.getInstance(ExpressionEvaluator.class);
         UNION_AND_BINDING_LIFT_OPTIMIZER = injector.getInstance(UnionAndBindingLiftOptimizer.class);
+        JOIN_IQ_OPTIMIZER = injector.getInstance(InnerJoinIQOptimizer.class);
+        LEFT_JOIN_IQ_OPTIMIZER = injector.getInstance(LeftJoinIQOptimizer.class);
         PUSH_DOWN_BOOLEAN_EXPRESSION_OPTIMIZER = injector.getInstance(PushDownBooleanExpressionOptimizer.class);
         TRANSFORMER_FACTORY = injector.getInstance(QueryTransformerFactory.class);
         OPTIMIZER_FACTORY = injector.getInstance(OptimizerFactory.class);
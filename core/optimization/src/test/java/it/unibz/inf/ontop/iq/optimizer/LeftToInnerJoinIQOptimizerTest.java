@@ -0,0 +1,102 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static it.unibz.inf.ontop.model.term.functionsymbol.ExpressionOperation.EQ;
+import static junit.framework.TestCase.assertEquals;
+
+public class LeftToInnerJoinIQOptimizerTest {
+
+    private final static RelationPredicate TABLE1_PREDICATE;
+    private final static RelationPredicate TABLE2_PREDICATE;
+    private final static AtomPredicate ANS1_ARITY_3_PREDICATE = ATOM_FACTORY.getRDFAnswerPredicate(3);
+
+    private final static Variable M = TERM_FACTORY.getVariable("m");
+    private final static Variable N = TERM_FACTORY.getVariable("n");
+    private final static Variable O = TERM_FACTORY.getVariable("o");
+
+    static {
+        BasicDBMetadata dbMetadata = createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        /*
+         * Table 1: non-composite unique constraint and regular field
+         */
+        DatabaseRelationDefinition table1Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "TABLE1"));
+        Attribute table1Col1 = table1Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table1Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(table1Col1));
+        TABLE1_PREDICATE = table1Def.getAtomPredicate();
+
+        /*
+         * Table 2: non-composite unique constraint and non-nullable foreign key to table 1
+         */
+        DatabaseRelationDefinition table2Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "TABLE2"));
+        Attribute table2Col1 = table2Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        Attribute table2Col2 = table2Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table2Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(table2Col1));
+        table2Def.addForeignKeyConstraint(ForeignKeyConstraint.of("fk2-1", table2Col2, table1Col1));
+        TABLE2_PREDICATE = table2Def.getAtomPredicate();
+
+        dbMetadata.freeze();
+    }
+
+    @Test
+    public void testForeignKey() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, N, O));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(), dataNode1, dataNode2));
+
+        IQ expectedIQ = buildIQ(IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2)));
+
+        assertEquals(expectedIQ, LEFT_JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    /**
+     * The right data node shares a variable with the left that is not involved in the foreign key:
+     * left to LeftToInnerJoinExecutor
+     */
+    @Test
+    public void testConflictingRightVariable() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, N, M));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(), dataNode1, dataNode2));
+
+        assertEquals(initialIQ, LEFT_JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    @Test
+    public void testLeftJoinCondition() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, N, O));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createBinaryNonCommutativeIQTree(
+                IQ_FACTORY.createLeftJoinNode(TERM_FACTORY.getImmutableExpression(EQ, M, O)), dataNode1, dataNode2));
+
+        assertEquals(initialIQ, LEFT_JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    private static IQ buildIQ(IQTree joinTree) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_ARITY_3_PREDICATE, M, N, O);
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        return IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode, joinTree));
+    }
+}
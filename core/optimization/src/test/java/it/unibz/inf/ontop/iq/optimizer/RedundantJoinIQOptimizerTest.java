@@ -0,0 +1,125 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.atom.RelationPredicate;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static junit.framework.TestCase.assertEquals;
+
+public class RedundantJoinIQOptimizerTest {
+
+    private final static RelationPredicate TABLE1_PREDICATE;
+    private final static RelationPredicate TABLE2_PREDICATE;
+    private final static AtomPredicate ANS1_ARITY_2_PREDICATE = ATOM_FACTORY.getRDFAnswerPredicate(2);
+    private final static AtomPredicate ANS1_ARITY_3_PREDICATE = ATOM_FACTORY.getRDFAnswerPredicate(3);
+
+    private final static Variable M = TERM_FACTORY.getVariable("m");
+    private final static Variable N = TERM_FACTORY.getVariable("n");
+    private final static Variable O = TERM_FACTORY.getVariable("o");
+    private final static Constant ONE = TERM_FACTORY.getConstantLiteral("1");
+    private final static Constant TWO = TERM_FACTORY.getConstantLiteral("2");
+
+    static {
+        BasicDBMetadata dbMetadata = createDummyMetadata();
+        QuotedIDFactory idFactory = dbMetadata.getQuotedIDFactory();
+
+        /*
+         * Table 1: non-composite unique constraint and regular field
+         */
+        DatabaseRelationDefinition table1Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "TABLE1"));
+        Attribute table1Col1 = table1Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        table1Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table1Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(table1Col1));
+        TABLE1_PREDICATE = table1Def.getAtomPredicate();
+
+        /*
+         * Table 2: non-composite unique constraint and non-nullable foreign key to table 1
+         */
+        DatabaseRelationDefinition table2Def = dbMetadata.createDatabaseRelation(idFactory.createRelationID(null, "TABLE2"));
+        Attribute table2Col1 = table2Def.addAttribute(idFactory.createAttributeID("col1"), Types.INTEGER, null, false);
+        Attribute table2Col2 = table2Def.addAttribute(idFactory.createAttributeID("col2"), Types.INTEGER, null, false);
+        table2Def.addUniqueConstraint(UniqueConstraint.primaryKeyOf(table2Col1));
+        table2Def.addForeignKeyConstraint(ForeignKeyConstraint.of("fk2-1", table2Col2, table1Col1));
+        TABLE2_PREDICATE = table2Def.getAtomPredicate();
+
+        dbMetadata.freeze();
+    }
+
+    @Test
+    public void testSelfJoinElimination() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, M, ONE));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2)), M, N);
+
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(M, N),
+                SUBSTITUTION_FACTORY.getSubstitution(N, ONE));
+        IQ expectedIQ = buildIQ(IQ_FACTORY.createUnaryIQTree(constructionNode,
+                IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, M, ONE))), M, N);
+
+        assertEquals(expectedIQ, JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    @Test
+    public void testSelfJoinConflict() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, M, ONE));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, M, TWO));
+        ExtensionalDataNode dataNode3 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, N, M));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2, dataNode3)), M, N);
+
+        IQ expectedIQ = buildIQ(IQ_FACTORY.createEmptyNode(ImmutableSet.of(M, N)), M, N);
+
+        assertEquals(expectedIQ, JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    @Test
+    public void testForeignKey() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, N, O));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2)), M, N);
+
+        IQ expectedIQ = buildIQ(dataNode1, M, N);
+
+        assertEquals(expectedIQ, JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    /**
+     * The non-FK column of the referenced data node is projected
+     */
+    @Test
+    public void testForeignKeyUsedColumn() {
+        ExtensionalDataNode dataNode1 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE2_PREDICATE, M, N));
+        ExtensionalDataNode dataNode2 = IQ_FACTORY.createExtensionalDataNode(ATOM_FACTORY.getDataAtom(TABLE1_PREDICATE, N, O));
+
+        IQ initialIQ = buildIQ(IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2)), M, N, O);
+
+        assertEquals(initialIQ, JOIN_IQ_OPTIMIZER.optimize(initialIQ));
+    }
+
+    private static IQ buildIQ(IQTree joinTree, Variable... variables) {
+        AtomPredicate predicate = variables.length == 2 ? ANS1_ARITY_2_PREDICATE : ANS1_ARITY_3_PREDICATE;
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(predicate,
+                ImmutableList.copyOf(variables));
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(projectionAtom.getVariables());
+        return IQ_FACTORY.createIQ(projectionAtom, IQ_FACTORY.createUnaryIQTree(constructionNode, joinTree));
+    }
+}
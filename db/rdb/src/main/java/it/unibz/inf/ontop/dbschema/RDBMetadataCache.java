@@ -0,0 +1,466 @@
+package it.unibz.inf.ontop.dbschema;
+
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk snapshot of the database relations extracted by RDBMetadataExtractionTools
+ *    (attributes, unique constraints and foreign keys).
+ *
+ * There is one file per JDBC URL and user. An existing snapshot is reused without querying the schema
+ *    (no per-table metadata call). Revalidation is opt-in: when a revalidation period is given, a snapshot
+ *    validated longer ago than the period is only reused if the schema fingerprint has not changed.
+ *    The fingerprint covers the columns, primary keys, unique indexes and foreign keys of the tables referenced
+ *    by the mapping (all the tables outside the system schemas when none is given), that is, everything
+ *    the snapshot restores. Computing it costs about as much as extracting the metadata.
+ *
+ * Reading or writing errors are not fatal: the metadata is simply extracted again.
+ */
+public class RDBMetadataCache {
+
+	private static final Logger log = LoggerFactory.getLogger(RDBMetadataCache.class);
+
+	private static final int FORMAT_VERSION = 1;
+	private static final String FILE_EXTENSION = ".dbmetadata";
+
+	private final File file;
+	private final String jdbcUrl;
+	@Nullable
+	private final Duration revalidationPeriod;
+
+	/**
+	 * Without revalidation: the snapshot is reused until it is deleted
+	 */
+	public RDBMetadataCache(File directory, String jdbcUrl, @Nullable String jdbcUser) {
+		this(directory, jdbcUrl, jdbcUser, null);
+	}
+
+	public RDBMetadataCache(File directory, String jdbcUrl, @Nullable String jdbcUser,
+							@Nullable Duration revalidationPeriod) {
+		this.jdbcUrl = jdbcUrl;
+		this.file = new File(directory, hash(jdbcUrl + "\n" + Objects.toString(jdbcUser, "")) + FILE_EXTENSION);
+		this.revalidationPeriod = revalidationPeriod;
+	}
+
+	/**
+	 * Adds the relations to the metadata, from the snapshot if it can be reused,
+	 *    otherwise by extracting them (see RDBMetadataExtractionTools.loadMetadata) and storing a new snapshot.
+	 */
+	public void loadOrExtract(RDBMetadata metadata, Connection conn, @Nullable Set<RelationID> realTables,
+							  @Nullable RDBMetadataExtractionTools.ConnectionFactory connectionFactory,
+							  int parallelism) throws SQLException {
+		if (isValidated() && load(metadata, null))
+			return;
+
+		String fingerprint = computeFingerprint(conn, metadata.getQuotedIDFactory(), realTables,
+				connectionFactory, parallelism);
+		if (load(metadata, fingerprint)) {
+			// revalidated
+			if (!file.setLastModified(System.currentTimeMillis()))
+				log.debug("Cannot update the validation time of the DB metadata snapshot {}", file);
+			return;
+		}
+
+		ImmutableList<DatabaseRelationDefinition> relations = RDBMetadataExtractionTools.loadMetadata(metadata,
+				conn, realTables, connectionFactory, parallelism);
+		store(relations, fingerprint);
+	}
+
+	/**
+	 * True if the snapshot can be reused without checking the fingerprint
+	 *    (the time of the last validation is the modification time of the file)
+	 */
+	private boolean isValidated() {
+		if (!file.exists())
+			return false;
+		return revalidationPeriod == null
+				|| System.currentTimeMillis() - file.lastModified() < revalidationPeriod.toMillis();
+	}
+
+	/**
+	 * Same as below, with a single connection
+	 */
+	public String computeFingerprint(Connection conn, QuotedIDFactory idfac,
+									 @Nullable Set<RelationID> realTables) throws SQLException {
+		return computeFingerprint(conn, idfac, realTables, null, 1);
+	}
+
+	/**
+	 * Fingerprint of the schema: DBMS version, tables of interest (as for the extraction of the metadata),
+	 *    their columns, primary keys, unique indexes and foreign keys.
+	 *
+	 * The per-table metadata calls are spread over parallelism connections, as in
+	 *    RDBMetadataExtractionTools.loadMetadata. The fingerprint does not depend on the parallelism.
+	 */
+	public String computeFingerprint(Connection conn, QuotedIDFactory idfac, @Nullable Set<RelationID> realTables,
+									 @Nullable RDBMetadataExtractionTools.ConnectionFactory connectionFactory,
+									 int parallelism) throws SQLException {
+		StringBuilder sb = new StringBuilder();
+		DatabaseMetaData md = conn.getMetaData();
+		sb.append(md.getDatabaseProductName()).append('\n')
+				.append(md.getDatabaseProductVersion()).append('\n')
+				.append(md.getDriverVersion()).append('\n');
+
+		// sorted, so that the fingerprint does not depend on the order of the set or of the database records
+		List<RelationID> tables = RDBMetadataExtractionTools.getSeedRelationIds(conn, realTables, idfac).stream()
+				.sorted(Comparator.comparing(RelationID::getSQLRendering))
+				.collect(Collectors.toList());
+		tables.forEach(t -> sb.append(t.getSQLRendering()).append('\n'));
+
+		List<String> descriptions;
+		List<Connection> connections = RDBMetadataExtractionTools.openConnections(conn, connectionFactory, parallelism);
+		try {
+			descriptions = RDBMetadataExtractionTools.runOnConnections(connections, tables,
+					RDBMetadataCache::describeTable);
+		}
+		finally {
+			RDBMetadataExtractionTools.closeAdditionalConnections(connections);
+		}
+
+		MessageDigest digest = getDigest();
+		digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+		for (String description : descriptions)
+			digest.update(description.getBytes(StandardCharsets.UTF_8));
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Everything the snapshot restores about the table: the same (schema and table) patterns
+	 *    and the same MySQL workarounds as in the extraction of the metadata.
+	 *    The index statistics (cardinality and pages) are left out: they change with the data.
+	 */
+	private static String describeTable(DatabaseMetaData md, RelationID table) throws SQLException {
+		String schema = table.getSchemaName(), name = table.getTableName();
+		StringBuilder sb = new StringBuilder();
+		try (ResultSet rs = md.getColumns(null, schema, name, null)) {
+			append(sb, "C", rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE",
+					"TYPE_NAME", "NULLABLE");
+		}
+		try (ResultSet rs = md.getPrimaryKeys(null, schema, name)) {
+			append(sb, "P", rs, "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME");
+		}
+		catch (SQLException e) {
+			try (ResultSet rs = md.getPrimaryKeys(schema, null, name)) {
+				append(sb, "P", rs, "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME");
+			}
+		}
+		try (ResultSet rs = md.getIndexInfo(null, schema, name, true, true)) {
+			append(sb, "U", rs, "TABLE_SCHEM", "TABLE_NAME", "INDEX_NAME", "TYPE", "NON_UNIQUE",
+					"ORDINAL_POSITION", "COLUMN_NAME");
+		}
+		catch (SQLException e) {
+			try (ResultSet rs = md.getIndexInfo(schema, null, name, true, true)) {
+				append(sb, "U", rs, "TABLE_SCHEM", "TABLE_NAME", "INDEX_NAME", "TYPE", "NON_UNIQUE",
+						"ORDINAL_POSITION", "COLUMN_NAME");
+			}
+		}
+		try (ResultSet rs = md.getImportedKeys(null, schema, name)) {
+			append(sb, "F", rs, "FK_NAME", "KEY_SEQ", "FKTABLE_SCHEM", "FKTABLE_NAME", "FKCOLUMN_NAME",
+					"PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME");
+		}
+		catch (SQLException e) {
+			try (ResultSet rs = md.getImportedKeys(schema, null, name)) {
+				append(sb, "F", rs, "FK_NAME", "KEY_SEQ", "FKTABLE_SCHEM", "FKTABLE_NAME", "FKCOLUMN_NAME",
+						"PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME");
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void append(StringBuilder sb, String kind, ResultSet rs, String... columns) throws SQLException {
+		while (rs.next()) {
+			sb.append(kind);
+			for (String column : columns)
+				sb.append('\t').append(rs.getString(column));
+			sb.append('\n');
+		}
+	}
+
+	/**
+	 * Adds the relations of the snapshot to the metadata
+	 *
+	 * @param fingerprint null if the fingerprint of the snapshot is not checked
+	 * @return false if there is no snapshot for the fingerprint (the metadata is then left unchanged)
+	 */
+	public boolean load(RDBMetadata metadata, @Nullable String fingerprint) {
+		if (!file.exists())
+			return false;
+
+		List<Snapshot.Relation> relations;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION
+					|| !in.readUTF().equals(jdbcUrl)
+					|| !(in.readUTF().equals(fingerprint) || fingerprint == null)) {
+				log.debug("Outdated DB metadata snapshot {}", file);
+				return false;
+			}
+			relations = Snapshot.read(in);
+		}
+		catch (IOException e) {
+			log.warn("Cannot read the DB metadata snapshot " + file + ": " + e.getMessage());
+			return false;
+		}
+
+		Snapshot.addTo(metadata, relations);
+		log.debug("DB metadata loaded from the snapshot {}", file);
+		return true;
+	}
+
+	/**
+	 * Stores the snapshot (atomically replacing the previous one)
+	 */
+	public void store(Collection<DatabaseRelationDefinition> relations, String fingerprint) {
+		try {
+			Path directory = file.getParentFile().toPath();
+			Files.createDirectories(directory);
+			Path tmp = Files.createTempFile(directory, file.getName(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(jdbcUrl);
+				out.writeUTF(fingerprint);
+				Snapshot.write(out, relations);
+			}
+			catch (IOException | RuntimeException e) {
+				Files.deleteIfExists(tmp);
+				throw e;
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			log.warn("Cannot store the DB metadata snapshot " + file + ": " + e.getMessage());
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Writes the relations in the snapshot format (without any header)
+	 */
+	public static void writeRelations(DataOutputStream out, Collection<DatabaseRelationDefinition> relations) throws IOException {
+		Snapshot.write(out, relations);
+	}
+
+	/**
+	 * Reads relations written by writeRelations and adds them to the metadata
+	 *   (the metadata is left unchanged if the input cannot be read)
+	 */
+	public static void readRelations(DataInputStream in, RDBMetadata metadata) throws IOException {
+		Snapshot.addTo(metadata, Snapshot.read(in));
+	}
+
+	/**
+	 * Serialized form: names are stored as they are in the database records,
+	 *     attributes are referred to by their index (starting at 1)
+	 */
+	private static final class Snapshot {
+
+		private static final class Relation {
+			private final String schema, table;
+			private final List<Column> columns = new ArrayList<>();
+			private final List<Key> uniqueConstraints = new ArrayList<>();
+			private final List<ForeignKey> foreignKeys = new ArrayList<>();
+
+			Relation(String schema, String table) {
+				this.schema = schema;
+				this.table = table;
+			}
+		}
+
+		private static final class Column {
+			private final String name, typeName;
+			private final int type;
+			private final boolean isNullable;
+
+			Column(String name, int type, String typeName, boolean isNullable) {
+				this.name = name;
+				this.type = type;
+				this.typeName = typeName;
+				this.isNullable = isNullable;
+			}
+		}
+
+		private static final class Key {
+			private final String name;
+			private final boolean isPrimaryKey;
+			private final int[] attributes;
+
+			Key(String name, boolean isPrimaryKey, int[] attributes) {
+				this.name = name;
+				this.isPrimaryKey = isPrimaryKey;
+				this.attributes = attributes;
+			}
+		}
+
+		private static final class ForeignKey {
+			private final String name, refSchema, refTable;
+			private final int[] attributes, refAttributes;
+
+			ForeignKey(String name, String refSchema, String refTable, int[] attributes, int[] refAttributes) {
+				this.name = name;
+				this.refSchema = refSchema;
+				this.refTable = refTable;
+				this.attributes = attributes;
+				this.refAttributes = refAttributes;
+			}
+		}
+
+		static void write(DataOutputStream out, Collection<DatabaseRelationDefinition> relations) throws IOException {
+			out.writeInt(relations.size());
+			for (DatabaseRelationDefinition relation : relations) {
+				writeString(out, relation.getID().getSchemaName());
+				writeString(out, relation.getID().getTableName());
+
+				List<Attribute> attributes = relation.getAttributes();
+				out.writeInt(attributes.size());
+				for (Attribute attribute : attributes) {
+					writeString(out, attribute.getID().getName());
+					out.writeInt(attribute.getType());
+					writeString(out, attribute.getSQLTypeName());
+					out.writeBoolean(attribute.canNull());
+				}
+
+				ImmutableList<UniqueConstraint> ucs = relation.getUniqueConstraints();
+				out.writeInt(ucs.size());
+				for (UniqueConstraint uc : ucs) {
+					writeString(out, uc.getName());
+					out.writeBoolean(uc.isPrimaryKey());
+					writeIndexes(out, uc.getAttributes().stream().mapToInt(Attribute::getIndex).toArray());
+				}
+
+				ImmutableList<ForeignKeyConstraint> fks = relation.getForeignKeys();
+				out.writeInt(fks.size());
+				for (ForeignKeyConstraint fk : fks) {
+					writeString(out, fk.getName());
+					writeString(out, fk.getReferencedRelation().getID().getSchemaName());
+					writeString(out, fk.getReferencedRelation().getID().getTableName());
+					writeIndexes(out, fk.getComponents().stream().mapToInt(c -> c.getAttribute().getIndex()).toArray());
+					writeIndexes(out, fk.getComponents().stream().mapToInt(c -> c.getReference().getIndex()).toArray());
+				}
+			}
+		}
+
+		static List<Relation> read(DataInputStream in) throws IOException {
+			int relationCount = in.readInt();
+			List<Relation> relations = new ArrayList<>(relationCount);
+			for (int i = 0; i < relationCount; i++) {
+				Relation relation = new Relation(readString(in), readString(in));
+
+				int columnCount = in.readInt();
+				for (int j = 0; j < columnCount; j++)
+					relation.columns.add(new Column(readString(in), in.readInt(), readString(in), in.readBoolean()));
+
+				int ucCount = in.readInt();
+				for (int j = 0; j < ucCount; j++)
+					relation.uniqueConstraints.add(new Key(readString(in), in.readBoolean(), readIndexes(in)));
+
+				int fkCount = in.readInt();
+				for (int j = 0; j < fkCount; j++)
+					relation.foreignKeys.add(new ForeignKey(readString(in), readString(in), readString(in),
+							readIndexes(in), readIndexes(in)));
+
+				relations.add(relation);
+			}
+			return relations;
+		}
+
+		static void addTo(RDBMetadata metadata, List<Relation> relations) {
+			QuotedIDFactory idfac = metadata.getQuotedIDFactory();
+			Map<Relation, DatabaseRelationDefinition> definitions = new LinkedHashMap<>();
+			for (Relation relation : relations) {
+				DatabaseRelationDefinition definition = metadata.createDatabaseRelation(
+						RelationID.createRelationIdFromDatabaseRecord(idfac, relation.schema, relation.table));
+				for (Column column : relation.columns)
+					definition.addAttribute(QuotedID.createIdFromDatabaseRecord(idfac, column.name),
+							column.type, column.typeName, column.isNullable);
+				for (Key key : relation.uniqueConstraints) {
+					UniqueConstraint.Builder builder = UniqueConstraint.builder(definition);
+					for (int index : key.attributes)
+						builder.add(definition.getAttribute(index));
+					definition.addUniqueConstraint(builder.build(key.name, key.isPrimaryKey));
+				}
+				definitions.put(relation, definition);
+			}
+			// the referenced relations have all been created
+			for (Map.Entry<Relation, DatabaseRelationDefinition> e : definitions.entrySet()) {
+				DatabaseRelationDefinition definition = e.getValue();
+				for (ForeignKey fk : e.getKey().foreignKeys) {
+					DatabaseRelationDefinition ref = metadata.getDatabaseRelation(
+							RelationID.createRelationIdFromDatabaseRecord(idfac, fk.refSchema, fk.refTable));
+					if (ref == null) {
+						log.warn("Cannot find table: " + fk.refTable + " for FK " + fk.name);
+						continue;
+					}
+					ForeignKeyConstraint.Builder builder = ForeignKeyConstraint.builder(definition, ref);
+					for (int i = 0; i < fk.attributes.length; i++)
+						builder.add(definition.getAttribute(fk.attributes[i]), ref.getAttribute(fk.refAttributes[i]));
+					definition.addForeignKeyConstraint(builder.build(fk.name));
+				}
+			}
+		}
+
+		private static void writeString(DataOutputStream out, @Nullable String s) throws IOException {
+			out.writeBoolean(s != null);
+			if (s != null)
+				out.writeUTF(s);
+		}
+
+		@Nullable
+		private static String readString(DataInputStream in) throws IOException {
+			return in.readBoolean() ? in.readUTF() : null;
+		}
+
+		private static void writeIndexes(DataOutputStream out, int[] indexes) throws IOException {
+			out.writeInt(indexes.length);
+			for (int index : indexes)
+				out.writeInt(index);
+		}
+
+		private static int[] readIndexes(DataInputStream in) throws IOException {
+			int[] indexes = new int[in.readInt()];
+			for (int i = 0; i < indexes.length; i++)
+				indexes[i] = in.readInt();
+			return indexes;
+		}
+	}
+
+	private static MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			// SHA-256 is required by the Java platform specification
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hash(String s) {
+		return toHex(getDigest().digest(s.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes)
+			sb.append(String.format("%02x", b));
+		return sb.toString();
+	}
+}
@@ -21,13 +21,21 @@ package it.unibz.inf.ontop.dbschema;
 */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Retrieves the database metadata (table schema and database constraints)
@@ -182,6 +190,23 @@ public class RDBMetadataExtractionTools {
 	 */
 
 	public static void loadMetadata(RDBMetadata metadata, Connection conn, Set<RelationID> realTables) throws SQLException {
+		loadMetadata(metadata, conn, realTables, null, 1);
+	}
+
+	/**
+	 * Same as above, but the per-relation metadata calls (columns, keys, indexes) are spread over
+	 *    parallelism connections: the given one and (parallelism - 1) connections
+	 *    created by the factory (and closed at the end)
+	 *
+	 * The result does not depend on the parallelism.
+	 *
+	 * @return the extracted database relations
+	 */
+
+	public static ImmutableList<DatabaseRelationDefinition> loadMetadata(RDBMetadata metadata, Connection conn,
+																		 Set<RelationID> realTables,
+																		 @Nullable ConnectionFactory connectionFactory,
+																		 int parallelism) throws SQLException {
 
 		if (printouts)
 			System.out.println("GETTING METADATA WITH " + conn + " ON " + realTables);
@@ -189,8 +214,80 @@ public class RDBMetadataExtractionTools {
 		final DatabaseMetaData md = conn.getMetaData();
 		String productName = md.getDatabaseProductName();
 
-		List<RelationID> seedRelationIds;
 		QuotedIDFactory idfac =  metadata.getQuotedIDFactory();
+		List<RelationID> seedRelationIds = getSeedRelationIds(conn, realTables, idfac);
+
+		DatatypeNormalizer dt = DefaultTypeFixer;
+		if (productName.contains("Oracle"))
+			dt = OracleTypeFixer;
+		else if (productName.contains("MySQL"))
+			dt = MySQLTypeFixer;
+		else if (productName.contains("Microsoft SQL Server"))
+			dt = SQLServerTypeFixer;
+		final DatatypeNormalizer datatypeNormalizer = dt;
+
+		List<DatabaseRelationDefinition> extractedRelations = new LinkedList<>();
+
+        String catalog = getCatalog(metadata, conn);
+
+		List<Connection> connections = openConnections(conn, connectionFactory, parallelism);
+		try {
+			// the columns are first retrieved (possibly in parallel) and then added in the order of the seeds
+			List<List<ColumnRecord>> seedColumns = runOnConnections(connections, seedRelationIds,
+					(md2, seedId) -> getColumns(md2, catalog, seedId, idfac, datatypeNormalizer));
+
+			for (List<ColumnRecord> columns : seedColumns) {
+				// the same seedId can be mapped to many tables (if the seedId has no schema)
+				// we collect attributes from all of them
+				DatabaseRelationDefinition currentRelation = null;
+
+				for (ColumnRecord column : columns) {
+					if (currentRelation == null || !currentRelation.getID().equals(column.relationId)) {
+						// switch to the next database relation
+						currentRelation = metadata.createDatabaseRelation(column.relationId);
+						extractedRelations.add(currentRelation);
+					}
+					currentRelation.addAttribute(column.attributeId, column.dataType, column.typeName, column.isNullable);
+				}
+			}
+
+			// each relation is completed by a single connection; the other relations are only read
+			runOnConnections(connections, extractedRelations, (md2, relation) -> {
+				getPrimaryKey(md2, relation, metadata.getQuotedIDFactory());
+				getUniqueAttributes(md2, relation, metadata.getQuotedIDFactory());
+				getForeignKeys(md2, relation, metadata);
+				return relation;
+			});
+		}
+		finally {
+			closeAdditionalConnections(connections);
+		}
+
+		if (printouts) {
+			for (DatabaseRelationDefinition relation : extractedRelations) {
+				System.out.println(relation + ";");
+				for (UniqueConstraint uc : relation.getUniqueConstraints())
+					System.out.println(uc + ";");
+				for (ForeignKeyConstraint fk : relation.getForeignKeys())
+					System.out.println(fk +  ";");
+				System.out.println("");
+			}
+			System.out.println("RESULTING METADATA:\n" + metadata);
+			System.out.println("DBMetadataExtractor END OF REPORT\n=================================");
+		}
+		return ImmutableList.copyOf(extractedRelations);
+	}
+
+	/**
+	 * The relations (possibly without schema) whose columns and constraints are extracted:
+	 *    either the given tables or, if there are none, all the tables and views outside the system schemas
+	 */
+	static List<RelationID> getSeedRelationIds(Connection conn, @Nullable Set<RelationID> realTables,
+											   QuotedIDFactory idfac) throws SQLException {
+		final DatabaseMetaData md = conn.getMetaData();
+		String productName = md.getDatabaseProductName();
+
+		List<RelationID> seedRelationIds;
 
 		if (productName.contains("Oracle")) {
 			String defaultSchema = getOracleDefaultOwner(conn);
@@ -217,72 +314,167 @@ public class RDBMetadataExtractionTools {
 			else
 				seedRelationIds = getTableList(null, realTables, idfac);
 		}
+		return seedRelationIds;
+	}
 
-		DatatypeNormalizer dt = DefaultTypeFixer;
-		if (productName.contains("Oracle"))
-			dt = OracleTypeFixer;
-		else if (productName.contains("MySQL"))
-			dt = MySQLTypeFixer;
-		else if (productName.contains("Microsoft SQL Server"))
-			dt = SQLServerTypeFixer;
-
-		List<DatabaseRelationDefinition> extractedRelations = new LinkedList<>();
-
-        String catalog = getCatalog(metadata, conn);
+	/**
+	 * Creates the additional connections used for extracting the metadata in parallel
+	 */
+	@FunctionalInterface
+	public interface ConnectionFactory {
+		Connection createConnection() throws SQLException;
+	}
 
-        for (RelationID seedId : seedRelationIds) {
-			// the same seedId can be mapped to many tables (if the seedId has no schema)
-			// we collect attributes from all of them
-			DatabaseRelationDefinition currentRelation = null;
-
-			// catalog is ignored for now (rs.getString("TABLE_CAT"))
-            try (ResultSet rs = md.getColumns(catalog, seedId.getSchemaName(), seedId.getTableName(), null)) {
-				while (rs.next()) {
-					String schema = rs.getString("TABLE_SCHEM");
-					// MySQL workaround
-					if (schema == null)
-						schema = rs.getString("TABLE_CAT");
-
-					RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, schema,
-										rs.getString("TABLE_NAME"));
-					QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
-					if (printouts)
-						System.out.println("         " + relationId + "." + attributeId);
-
-					if (currentRelation == null || !currentRelation.getID().equals(relationId)) {
-						// switch to the next database relation
-						currentRelation = metadata.createDatabaseRelation(relationId);
-						extractedRelations.add(currentRelation);
-					}
+	private static final class ColumnRecord {
+		private final RelationID relationId;
+		private final QuotedID attributeId;
+		private final int dataType;
+		private final String typeName;
+		private final boolean isNullable;
+
+		private ColumnRecord(RelationID relationId, QuotedID attributeId, int dataType, String typeName, boolean isNullable) {
+			this.relationId = relationId;
+			this.attributeId = attributeId;
+			this.dataType = dataType;
+			this.typeName = typeName;
+			this.isNullable = isNullable;
+		}
+	}
 
-					// columnNoNulls, columnNullable, columnNullableUnknown
-					boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-					String typeName = rs.getString("TYPE_NAME");
-					int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
+	private static List<ColumnRecord> getColumns(DatabaseMetaData md, String catalog, RelationID seedId,
+												 QuotedIDFactory idfac, DatatypeNormalizer dt) throws SQLException {
+		List<ColumnRecord> columns = new ArrayList<>();
+		// catalog is ignored for now (rs.getString("TABLE_CAT"))
+		try (ResultSet rs = md.getColumns(catalog, seedId.getSchemaName(), seedId.getTableName(), null)) {
+			while (rs.next()) {
+				String schema = rs.getString("TABLE_SCHEM");
+				// MySQL workaround
+				if (schema == null)
+					schema = rs.getString("TABLE_CAT");
+
+				RelationID relationId = RelationID.createRelationIdFromDatabaseRecord(idfac, schema,
+									rs.getString("TABLE_NAME"));
+				QuotedID attributeId = QuotedID.createIdFromDatabaseRecord(idfac, rs.getString("COLUMN_NAME"));
+				if (printouts)
+					System.out.println("         " + relationId + "." + attributeId);
+
+				// columnNoNulls, columnNullable, columnNullableUnknown
+				boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+				String typeName = rs.getString("TYPE_NAME");
+				int dataType = dt.getCorrectedDatatype(rs.getInt("DATA_TYPE"), typeName);
+
+				columns.add(new ColumnRecord(relationId, attributeId, dataType, typeName, isNullable));
+			}
+		}
+		return columns;
+	}
 
-					currentRelation.addAttribute(attributeId, dataType, typeName, isNullable);
+	/**
+	 * The first connection is the given one. If an additional connection cannot be created,
+	 *    the extraction proceeds with fewer connections.
+	 */
+	static List<Connection> openConnections(Connection conn, @Nullable ConnectionFactory connectionFactory,
+											int parallelism) {
+		List<Connection> connections = new ArrayList<>();
+		connections.add(conn);
+		if (connectionFactory != null) {
+			for (int i = 1; i < parallelism; i++) {
+				try {
+					connections.add(connectionFactory.createConnection());
+				}
+				catch (SQLException e) {
+					log.warn("Cannot open an additional connection for extracting the metadata: " + e.getMessage());
+					break;
 				}
 			}
 		}
+		return connections;
+	}
 
-		for (DatabaseRelationDefinition relation : extractedRelations)	{
-			getPrimaryKey(md, relation, metadata.getQuotedIDFactory());
-			getUniqueAttributes(md, relation, metadata.getQuotedIDFactory());
-			getForeignKeys(md, relation, metadata);
-			if (printouts) {
-				System.out.println(relation + ";");
-				for (UniqueConstraint uc : relation.getUniqueConstraints())
-					System.out.println(uc + ";");
-				for (ForeignKeyConstraint fk : relation.getForeignKeys())
-					System.out.println(fk +  ";");
-				System.out.println("");
+	static void closeAdditionalConnections(List<Connection> connections) {
+		for (Connection connection : connections.subList(1, connections.size())) {
+			try {
+				connection.close();
+			}
+			catch (SQLException e) {
+				log.warn("Cannot close a connection used for extracting the metadata: " + e.getMessage());
 			}
 		}
+	}
 
-		if (printouts) {
-			System.out.println("RESULTING METADATA:\n" + metadata);
-			System.out.println("DBMetadataExtractor END OF REPORT\n=================================");
+	@FunctionalInterface
+	interface MetadataTask<T, R> {
+		R run(DatabaseMetaData md, T item) throws SQLException;
+	}
+
+	/**
+	 * Applies the task to all the items, each connection being used by one thread only
+	 *
+	 * @return the results in the order of the items
+	 */
+	static <T, R> List<R> runOnConnections(List<Connection> connections, List<T> items,
+										   MetadataTask<T, R> task) throws SQLException {
+		if (connections.size() == 1 || items.size() <= 1) {
+			DatabaseMetaData md = connections.get(0).getMetaData();
+			List<R> results = new ArrayList<>(items.size());
+			for (T item : items)
+				results.add(task.run(md, item));
+			return results;
 		}
+
+		List<T> itemList = new ArrayList<>(items);
+		AtomicReferenceArray<R> results = new AtomicReferenceArray<>(itemList.size());
+		AtomicInteger next = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(connections.size(), r -> {
+			Thread thread = new Thread(r, "ontop-metadata-extraction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for (Connection connection : connections) {
+				futures.add(executor.submit(() -> {
+					DatabaseMetaData md = connection.getMetaData();
+					int i;
+					while ((i = next.getAndIncrement()) < itemList.size()) {
+						try {
+							results.set(i, task.run(md, itemList.get(i)));
+						}
+						catch (SQLException | RuntimeException e) {
+							// stops the other threads
+							next.set(itemList.size());
+							throw e;
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures)
+				future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while extracting the metadata", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException)
+				throw (SQLException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new SQLException(cause);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		List<R> resultList = new ArrayList<>(itemList.size());
+		for (int i = 0; i < itemList.size(); i++)
+			resultList.add(results.get(i));
+		return resultList;
 	}
 
     private static String getCatalog(RDBMetadata metadata, Connection conn) throws SQLException {
@@ -0,0 +1,21 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+/**
+ * Notified at the end of each stage of the answering of a query (see QueryStage).
+ *
+ * Can be called concurrently by different threads: the stages of the same query may
+ * be reported from different threads (e.g. the reformulation and the decoding of the results).
+ *
+ * Given to the configuration builder, or enabled through the settings for the bundled JMX exporter.
+ */
+public interface QueryLifecycleListener {
+
+    void onStageCompleted(QueryStageEvent event);
+
+    /**
+     * When false, the sizes (that are costly to compute) are not measured and no event is sent
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
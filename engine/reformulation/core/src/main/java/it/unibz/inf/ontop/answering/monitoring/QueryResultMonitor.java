@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Reports the FIRST_ROW and RESULT_DECODING stages of a result set.
+ *
+ * Used by a single result set (not thread-safe).
+ */
+public class QueryResultMonitor {
+
+    private final QueryLifecycleListener listener;
+    private final QueryType queryType;
+    private final long executionStart;
+    private long firstRowTime;
+    private long rowCount;
+    private long characterCount;
+    private boolean ended;
+
+    /**
+     * executionStart: System.nanoTime() at the beginning of the execution of the native query
+     */
+    public QueryResultMonitor(QueryLifecycleListener listener, QueryType queryType, long executionStart) {
+        this.listener = listener;
+        this.queryType = queryType;
+        this.executionStart = executionStart;
+        this.ended = !listener.isEnabled();
+    }
+
+    /**
+     * When false, the characters do not need to be counted
+     */
+    public boolean isEnabled() {
+        return !ended;
+    }
+
+    public void onRow() {
+        if (ended)
+            return;
+        if (rowCount == 0) {
+            firstRowTime = System.nanoTime();
+            listener.onStageCompleted(new QueryStageEvent(QueryStage.FIRST_ROW, queryType,
+                    firstRowTime - executionStart));
+        }
+        rowCount++;
+    }
+
+    public void onDecodedCharacters(long count) {
+        characterCount += count;
+    }
+
+    /**
+     * Idempotent: called when the last row has been read and when the result set is closed
+     */
+    public void onEnd() {
+        if (ended)
+            return;
+        ended = true;
+        long duration = rowCount == 0 ? 0 : System.nanoTime() - firstRowTime;
+        listener.onStageCompleted(new QueryStageEvent(QueryStage.RESULT_DECODING, Optional.empty(),
+                queryType, duration, ImmutableMap.of(
+                        QuerySize.ROW_COUNT, rowCount,
+                        QuerySize.DECODED_CHARACTERS, characterCount)));
+    }
+}
@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+/**
+ * Sizes that may be attached to a QueryStageEvent
+ */
+public enum QuerySize {
+    /**
+     * Largest number of children of a union of the optimized query
+     */
+    UNION_ARITY,
+    /**
+     * Number of (inner and left) joins of the optimized query
+     */
+    JOIN_COUNT,
+    /**
+     * Length of the native query string
+     */
+    NATIVE_QUERY_LENGTH,
+    /**
+     * Number of rows read from the result set
+     */
+    ROW_COUNT,
+    /**
+     * Number of characters of the string values read from the result set
+     */
+    DECODED_CHARACTERS
+}
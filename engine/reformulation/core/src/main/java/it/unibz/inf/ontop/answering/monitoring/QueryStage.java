@@ -0,0 +1,44 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+/**
+ * Stages of the answering of a query, as reported to the QueryLifecycleListener
+ */
+public enum QueryStage {
+    /**
+     * Parsing of the SPARQL query string
+     */
+    PARSING,
+    /**
+     * Translation of the SPARQL query into an IQ
+     */
+    TRANSLATION,
+    /**
+     * Rewriting w.r.t. the TBox
+     */
+    REWRITING,
+    /**
+     * Unfolding w.r.t. the mapping
+     */
+    UNFOLDING,
+    /**
+     * One of the optimizers of the chain (the step is the name of the optimizer)
+     */
+    OPTIMIZATION,
+    /**
+     * Generation of the native (e.g. SQL) query
+     */
+    NATIVE_QUERY_GENERATION,
+    /**
+     * Execution of the native query by the data source (e.g. JDBC executeQuery)
+     */
+    EXECUTION,
+    /**
+     * From the beginning of the execution to the first row
+     */
+    FIRST_ROW,
+    /**
+     * From the first row to the end (or the closing) of the result set.
+     * Includes the time spent by the consumer of the results.
+     */
+    RESULT_DECODING
+}
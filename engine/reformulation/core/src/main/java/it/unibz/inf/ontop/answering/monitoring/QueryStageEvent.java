@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Completion of a stage of the answering of a query
+ */
+public class QueryStageEvent {
+
+    private final QueryStage stage;
+    private final Optional<String> step;
+    private final QueryType queryType;
+    private final long durationNanos;
+    private final ImmutableMap<QuerySize, Long> sizes;
+
+    public QueryStageEvent(QueryStage stage, Optional<String> step, QueryType queryType, long durationNanos,
+                           ImmutableMap<QuerySize, Long> sizes) {
+        this.stage = stage;
+        this.step = step;
+        this.queryType = queryType;
+        this.durationNanos = durationNanos;
+        this.sizes = sizes;
+    }
+
+    public QueryStageEvent(QueryStage stage, QueryType queryType, long durationNanos) {
+        this(stage, Optional.empty(), queryType, durationNanos, ImmutableMap.of());
+    }
+
+    public QueryStage getStage() {
+        return stage;
+    }
+
+    /**
+     * For the stages made of several steps (e.g. the name of the optimizer)
+     */
+    public Optional<String> getStep() {
+        return step;
+    }
+
+    public QueryType getQueryType() {
+        return queryType;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public ImmutableMap<QuerySize, Long> getSizes() {
+        return sizes;
+    }
+
+    @Override
+    public String toString() {
+        return stage + step.map(s -> "(" + s + ")").orElse("") + " " + queryType + " " + durationNanos + " ns"
+                + (sizes.isEmpty() ? "" : " " + sizes);
+    }
+}
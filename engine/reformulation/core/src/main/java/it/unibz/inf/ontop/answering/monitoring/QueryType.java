@@ -0,0 +1,38 @@
+package it.unibz.inf.ontop.answering.monitoring;
+
+import it.unibz.inf.ontop.answering.reformulation.input.*;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+
+/**
+ * Form of the query. Used as the shape of the query by the listeners (few distinct values).
+ */
+public enum QueryType {
+    SELECT,
+    ASK,
+    CONSTRUCT,
+    DESCRIBE,
+    OTHER;
+
+    public static QueryType of(InputQuery<?> inputQuery) {
+        if (inputQuery instanceof SelectQuery)
+            return SELECT;
+        else if (inputQuery instanceof AskQuery)
+            return ASK;
+        else if (inputQuery instanceof ConstructQuery)
+            return CONSTRUCT;
+        else if (inputQuery instanceof DescribeQuery)
+            return DESCRIBE;
+        return OTHER;
+    }
+
+    public static QueryType of(ParsedQuery parsedQuery, String queryString) {
+        if (parsedQuery instanceof ParsedTupleQuery)
+            return SELECT;
+        else if (parsedQuery instanceof ParsedBooleanQuery)
+            return ASK;
+        else
+            return SPARQLQueryUtility.isConstructQuery(queryString) ? CONSTRUCT : DESCRIBE;
+    }
+}
@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+
+public class CompositeQueryLifecycleListener implements QueryLifecycleListener {
+
+    private final ImmutableList<QueryLifecycleListener> listeners;
+
+    public CompositeQueryLifecycleListener(ImmutableList<QueryLifecycleListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void onStageCompleted(QueryStageEvent event) {
+        for (QueryLifecycleListener listener : listeners) {
+            if (listener.isEnabled())
+                listener.onStageCompleted(event);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return listeners.stream().anyMatch(QueryLifecycleListener::isEnabled);
+    }
+}
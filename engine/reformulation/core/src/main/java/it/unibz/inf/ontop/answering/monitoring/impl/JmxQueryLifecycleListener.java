@@ -0,0 +1,65 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QuerySize;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exports the statistics of the stages (per query type and step) and of the sizes (per query type)
+ * as MXBeans of the platform MBean server, under the domain "it.unibz.inf.ontop".
+ *
+ * Shared by all the configurations of the JVM.
+ */
+public class JmxQueryLifecycleListener implements QueryLifecycleListener {
+
+    private static final String DOMAIN = "it.unibz.inf.ontop";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmxQueryLifecycleListener.class);
+    private static final JmxQueryLifecycleListener INSTANCE = new JmxQueryLifecycleListener(
+            ManagementFactory.getPlatformMBeanServer());
+
+    private final MBeanServer server;
+    private final Map<String, QueryStatistics> statistics = new ConcurrentHashMap<>();
+
+    JmxQueryLifecycleListener(MBeanServer server) {
+        this.server = server;
+    }
+
+    public static JmxQueryLifecycleListener getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void onStageCompleted(QueryStageEvent event) {
+        String queryType = event.getQueryType().name();
+        String stageName = "type=QueryStage,queryType=" + queryType + ",stage=" + event.getStage()
+                + event.getStep().map(s -> ",step=" + ObjectName.quote(s)).orElse("");
+        getStatistics(stageName, NANOS_PER_MILLI, "ms").record(event.getDurationNanos());
+
+        for (Map.Entry<QuerySize, Long> size : event.getSizes().entrySet()) {
+            getStatistics("type=QuerySize,queryType=" + queryType + ",size=" + size.getKey(), 1, "")
+                    .record(size.getValue());
+        }
+    }
+
+    private QueryStatistics getStatistics(String name, double scale, String unit) {
+        return statistics.computeIfAbsent(name, n -> {
+            QueryStatistics s = new QueryStatistics(scale, unit);
+            try {
+                server.registerMBean(s, new ObjectName(DOMAIN + ":" + n));
+            } catch (JMException e) {
+                LOGGER.warn("Cannot register the MBean " + n + ": " + e.getMessage());
+            }
+            return s;
+        });
+    }
+}
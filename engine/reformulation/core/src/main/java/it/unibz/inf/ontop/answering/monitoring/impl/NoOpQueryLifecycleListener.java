@@ -0,0 +1,19 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+
+/**
+ * Default listener
+ */
+public class NoOpQueryLifecycleListener implements QueryLifecycleListener {
+
+    @Override
+    public void onStageCompleted(QueryStageEvent event) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, with 8 buckets per power of two
+ * (the percentiles are over-estimated by at most 12.5%).
+ */
+class QueryStatistics implements QueryStatisticsMXBean {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    // Divides the recorded values (e.g. nanoseconds -> milliseconds)
+    private final double scale;
+    private final String unit;
+
+    QueryStatistics(double scale, String unit) {
+        this.scale = scale;
+        this.unit = unit;
+    }
+
+    void record(long value) {
+        if (value < 0)
+            value = 0;
+        buckets.incrementAndGet(getBucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS
+                + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Largest value of the bucket
+     */
+    static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    long getPercentileValue(double percentile) {
+        long total = count.sum();
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank)
+                return Math.min(getUpperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : sum.sum() / scale / total;
+    }
+
+    @Override
+    public double getMax() {
+        return max.get() / scale;
+    }
+
+    @Override
+    public double get50thPercentile() {
+        return getPercentileValue(0.5) / scale;
+    }
+
+    @Override
+    public double get95thPercentile() {
+        return getPercentileValue(0.95) / scale;
+    }
+
+    @Override
+    public double get99thPercentile() {
+        return getPercentileValue(0.99) / scale;
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+}
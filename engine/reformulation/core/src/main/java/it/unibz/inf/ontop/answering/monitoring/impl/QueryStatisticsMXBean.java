@@ -0,0 +1,24 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+/**
+ * Statistics of a stage (durations in milliseconds) or of a size, exported through JMX
+ */
+public interface QueryStatisticsMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    double getMax();
+
+    double get50thPercentile();
+
+    double get95thPercentile();
+
+    double get99thPercentile();
+
+    /**
+     * "ms" for the durations, empty for the sizes
+     */
+    String getUnit();
+}
@@ -11,4 +11,10 @@ public interface ExecutableQuery {
      * TODO: is it needed in general?
      */
     ImmutableList<String> getSignature();
+
+    /**
+     * True when the query is known to return no result,
+     * without having to be evaluated by the data source
+     */
+    boolean isEmpty();
 }
@@ -13,5 +13,35 @@ public interface QueryCache {
 
     void put(InputQuery inputQuery, ExecutableQuery executableQuery);
 
+    /**
+     * Reformulation time (in ms) of the executable query, so that the cache can take the cost
+     * of recomputing the entry into account.
+     *
+     * By default, ignores it.
+     */
+    default void put(InputQuery inputQuery, ExecutableQuery executableQuery, long reformulationTime) {
+        put(inputQuery, executableQuery);
+    }
+
     void clear();
+
+    /**
+     * False when the entries are never kept
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * True when the memory used by the entries is limited
+     */
+    default boolean isBounded() {
+        return false;
+    }
+
+    /**
+     * Releases the resources held by the cache (e.g. its JMX registration)
+     */
+    default void close() {
+    }
 }
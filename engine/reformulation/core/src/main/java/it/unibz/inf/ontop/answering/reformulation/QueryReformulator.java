@@ -15,4 +15,10 @@ public interface QueryReformulator {
     String getRewritingRendering(InputQuery query) throws OntopReformulationException;
 
     InputQueryFactory getInputQueryFactory();
+
+    /**
+     * Releases the resources held by the reformulator (e.g. its query cache)
+     */
+    default void close() {
+    }
 }
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation;
  */
 
 import java.io.Serializable;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
@@ -42,4 +43,17 @@ public interface NativeQueryGenerator extends Serializable {
 			throws OntopReformulationException;
 
 	ExecutableQuery generateEmptyQuery(ImmutableList<String> signature);
+
+	/**
+	 * Turns the occurrences of the placeholders in the native query into parameters.
+	 *
+	 * Returns empty if some occurrences cannot be safely replaced.
+	 */
+	Optional<ExecutableQuery> generateTemplate(ExecutableQuery executableQuery, ImmutableList<String> placeholders);
+
+	/**
+	 * Binds the parameters of a template produced by generateTemplate(...).
+	 * The values are given in the same order as the placeholders.
+	 */
+	ExecutableQuery instantiateTemplate(ExecutableQuery template, ImmutableList<String> values);
 }
@@ -0,0 +1,319 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.cache.CacheStats;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache, either by number of entries or by total weight.
+ *
+ * The weight of an entry is the length of its native query (a proxy for its memory footprint).
+ * Queries that are cheaper to reformulate than the configured threshold are not cached.
+ *
+ * Cost-aware eviction (GreedyDual-Size): the priority of an entry is its reformulation time divided by its weight,
+ * plus an inflation value that grows with each eviction (the priority of the last evicted entry).
+ * The entry of lowest priority is evicted first, so expensive reformulations are kept longer than cheap ones
+ * of the same weight, while entries that are not accessed anymore age out.
+ * Among entries of the same priority, the least recently used one is evicted first.
+ *
+ * Hits do not take the lock: they only update the priority of the entry, and the eviction order is updated lazily
+ * (an entry whose priority has changed since it was ordered is re-inserted instead of being evicted).
+ * This is correct because the priority of an entry never decreases (the inflation only grows).
+ *
+ * Records hits, misses, evictions and rejections, which are exported through JMX when the JMX monitoring is enabled
+ * (until the cache is closed).
+ */
+public class BoundedQueryCache implements QueryCache, BoundedQueryCacheMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedQueryCache.class);
+    private static final String DOMAIN = "it.unibz.inf.ontop";
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+    // In ms, for the entries put without reformulation time
+    private static final long DEFAULT_COST = 1;
+
+    private final long maxSize;
+    private final long maxWeight;
+    private final long minReformulationTime;
+
+    // Modified under the lock, read without it
+    private final Map<InputQuery, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong accessCounter = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    // Only grows, except when the cache is cleared
+    private volatile double inflation;
+
+    // Guarded by this
+    private final TreeSet<OrderKey> evictionOrder = new TreeSet<>(Comparator
+            .comparingDouble((OrderKey k) -> k.priority)
+            .thenComparingLong(k -> k.lastAccess));
+    private long totalWeight;
+    private long evictionCount;
+    private long rejectionCount;
+    private MBeanServer mBeanServer;
+    private ObjectName mBeanName;
+
+    @Inject
+    private BoundedQueryCache(OntopReformulationSettings settings) {
+        this(settings.getQueryCacheMaxSize(), settings.getQueryCacheMaxWeight(),
+                settings.getQueryCacheMinReformulationTime());
+        if (settings.isJmxMonitoringEnabled())
+            registerMBean(ManagementFactory.getPlatformMBeanServer(), INSTANCE_COUNTER.getAndIncrement());
+    }
+
+    /**
+     * When maxWeight is positive, it takes precedence over maxSize.
+     */
+    BoundedQueryCache(long maxSize, long maxWeight, long minReformulationTime) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.minReformulationTime = minReformulationTime;
+    }
+
+    /**
+     * Registered as "it.unibz.inf.ontop:type=QueryCache,id=...", the id distinguishing the configurations of the JVM
+     */
+    synchronized void registerMBean(MBeanServer server, int id) {
+        String name = DOMAIN + ":type=QueryCache,id=" + id;
+        try {
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(this, objectName);
+            mBeanServer = server;
+            mBeanName = objectName;
+        } catch (JMException e) {
+            log.warn("Cannot register the MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters the MBean (if any)
+     */
+    @Override
+    public synchronized void close() {
+        if (mBeanName == null)
+            return;
+        try {
+            mBeanServer.unregisterMBean(mBeanName);
+        } catch (JMException e) {
+            log.warn("Cannot unregister the MBean " + mBeanName + ": " + e.getMessage());
+        }
+        mBeanServer = null;
+        mBeanName = null;
+    }
+
+    /**
+     * Lock-free: the eviction order is updated lazily
+     */
+    @Override
+    public ExecutableQuery get(InputQuery inputQuery) {
+        Entry entry = entries.get(inputQuery);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        entry.touch(computePriority(entry.cost, entry.weight), accessCounter.incrementAndGet());
+        return entry.executableQuery;
+    }
+
+    @Override
+    public void put(InputQuery inputQuery, ExecutableQuery executableQuery) {
+        insert(inputQuery, executableQuery, DEFAULT_COST);
+    }
+
+    @Override
+    public void put(InputQuery inputQuery, ExecutableQuery executableQuery, long reformulationTime) {
+        if (reformulationTime < minReformulationTime) {
+            log.debug("Not caching a query reformulated in {} ms", reformulationTime);
+            synchronized (this) {
+                rejectionCount++;
+            }
+            return;
+        }
+        insert(inputQuery, executableQuery, Math.max(DEFAULT_COST, reformulationTime));
+        if (log.isDebugEnabled())
+            log.debug("Query cache (reformulated in {} ms): {}", reformulationTime, getStatistics());
+    }
+
+    private synchronized void insert(InputQuery inputQuery, ExecutableQuery executableQuery, long cost) {
+        Entry previous = entries.remove(inputQuery);
+        if (previous != null)
+            remove(previous);
+
+        long weight = computeWeight(executableQuery);
+        if (weight > getCapacity()) {
+            rejectionCount++;
+            return;
+        }
+
+        Entry entry = new Entry(inputQuery, executableQuery, weight, cost,
+                computePriority(cost, weight), accessCounter.incrementAndGet());
+        entries.put(inputQuery, entry);
+        order(entry);
+        totalWeight += weight;
+
+        while (totalWeight > getCapacity()) {
+            OrderKey first = evictionOrder.pollFirst();
+            Entry candidate = first.entry;
+            // Accessed since it was ordered: its priority is higher now
+            if (!first.isCurrent()) {
+                order(candidate);
+                continue;
+            }
+            entries.remove(candidate.inputQuery);
+            totalWeight -= candidate.weight;
+            inflation = first.priority;
+            evictionCount++;
+        }
+    }
+
+    private void order(Entry entry) {
+        entry.orderKey = entry.lastTouch;
+        evictionOrder.add(entry.orderKey);
+    }
+
+    private void remove(Entry entry) {
+        evictionOrder.remove(entry.orderKey);
+        totalWeight -= entry.weight;
+    }
+
+    private double computePriority(long cost, long weight) {
+        return inflation + ((double) cost) / weight;
+    }
+
+    /**
+     * Number of entries or total weight
+     */
+    private long getCapacity() {
+        return maxWeight > 0 ? maxWeight : maxSize;
+    }
+
+    private long computeWeight(ExecutableQuery executableQuery) {
+        return maxWeight > 0
+                ? Math.max(1, executableQuery.toString().length())
+                : 1;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        evictionOrder.clear();
+        totalWeight = 0;
+        inflation = 0;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return true;
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Hit, miss and eviction counters
+     */
+    public synchronized CacheStats getStatistics() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), 0, 0, 0, evictionCount);
+    }
+
+    @Override
+    public long getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getWeight() {
+        return totalWeight;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long requestCount = hits + missCount.sum();
+        return requestCount == 0 ? 1.0 : ((double) hits) / requestCount;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized long getRejectionCount() {
+        return rejectionCount;
+    }
+
+
+    private static final class Entry {
+        private final InputQuery inputQuery;
+        private final ExecutableQuery executableQuery;
+        private final long weight;
+        // Reformulation time (ms)
+        private final long cost;
+        // Priority and last access, updated together by the hits
+        private volatile OrderKey lastTouch;
+        // Position in the eviction order. Guarded by the cache
+        private OrderKey orderKey;
+
+        private Entry(InputQuery inputQuery, ExecutableQuery executableQuery, long weight, long cost,
+                      double priority, long lastAccess) {
+            this.inputQuery = inputQuery;
+            this.executableQuery = executableQuery;
+            this.weight = weight;
+            this.cost = cost;
+            this.lastTouch = new OrderKey(this, priority, lastAccess);
+        }
+
+        private void touch(double priority, long lastAccess) {
+            lastTouch = new OrderKey(this, priority, lastAccess);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the priority of an entry
+     */
+    private static final class OrderKey {
+        private final Entry entry;
+        private final double priority;
+        private final long lastAccess;
+
+        private OrderKey(Entry entry, double priority, long lastAccess) {
+            this.entry = entry;
+            this.priority = priority;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isCurrent() {
+            return entry.lastTouch == this;
+        }
+    }
+}
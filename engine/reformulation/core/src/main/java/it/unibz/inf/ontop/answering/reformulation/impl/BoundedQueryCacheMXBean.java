@@ -0,0 +1,33 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+/**
+ * Statistics of the query cache, exported through JMX
+ */
+public interface BoundedQueryCacheMXBean {
+
+    /**
+     * Number of entries
+     */
+    long getSize();
+
+    /**
+     * Total weight of the entries (the number of entries when the cache is bounded by size)
+     */
+    long getWeight();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    /**
+     * 1 when the cache has not been queried yet
+     */
+    double getHitRate();
+
+    long getEvictionCount();
+
+    /**
+     * Queries not admitted because too cheap to reformulate or too heavy
+     */
+    long getRejectionCount();
+}
@@ -21,4 +21,14 @@ public class DummyQueryCache implements QueryCache {
     @Override
     public void clear() {
     }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return true;
+    }
 }
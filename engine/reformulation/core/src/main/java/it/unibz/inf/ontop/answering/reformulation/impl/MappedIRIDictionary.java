@@ -0,0 +1,313 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only IRI dictionary stored in a file, which is memory-mapped (off-heap) on first access.
+ * The file is written once (e.g. by the semantic-index loader) and can be shared by several processes.
+ *
+ * The ids are dense: the IRI of the id i is the i-th one.
+ *
+ * File layout:
+ *   - the IRIs in id order, front-coded by blocks of BLOCK_SIZE IRIs: the first IRI of a block is complete,
+ *     the following ones are encoded as (length of the common prefix with the previous one, remaining suffix),
+ *     the lengths being variable-length integers and the strings in UTF-8;
+ *   - the offsets of the blocks (longs);
+ *   - the ids sorted by IRI (ints), for looking up an IRI by binary search;
+ *   - a footer: position of the block offsets, position of the sorted ids, number of IRIs, block size,
+ *     version and magic number.
+ */
+public class MappedIRIDictionary implements IRIDictionary {
+
+    private static final long MAGIC = 0x4f4e544f50495249L; // ONTOPIRI
+    private static final int VERSION = 1;
+    private static final int BLOCK_SIZE = 16;
+    private static final int FOOTER_SIZE = 2 * Long.BYTES + 3 * Integer.BYTES + Long.BYTES;
+    private static final int ABSENT_ID = -2;
+
+    private final Path path;
+    // Lazily mapped
+    private volatile Mapping mapping;
+
+    public MappedIRIDictionary(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public int getId(String uri) {
+        Mapping m = getMapping();
+        int low = 0;
+        int high = m.count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = m.getSortedId(middle);
+            int comparison = m.getIRI(id).compareTo(uri);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return id;
+        }
+        return ABSENT_ID;
+    }
+
+    /**
+     * Null if the id is unknown (like SemanticIndexURIMap)
+     */
+    @Override
+    public String getURI(Integer id) {
+        Mapping m = getMapping();
+        if (id == null || id < 0 || id >= m.count)
+            return null;
+        return m.getIRI(id);
+    }
+
+    public int size() {
+        return getMapping().count;
+    }
+
+    private Mapping getMapping() {
+        Mapping m = mapping;
+        if (m == null) {
+            synchronized (this) {
+                m = mapping;
+                if (m == null) {
+                    try {
+                        m = new Mapping(path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot load the IRI dictionary " + path, e);
+                    }
+                    mapping = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Writes the IRIs, the index of an IRI being its id
+     */
+    public static void write(List<String> iris, Path path) throws IOException {
+        int count = iris.size();
+        CountingOutputStream counter = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        try (DataOutputStream output = new DataOutputStream(counter)) {
+
+            long[] blockOffsets = new long[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+            byte[] previous = new byte[0];
+            for (int id = 0; id < count; id++) {
+                byte[] bytes = iris.get(id).getBytes(StandardCharsets.UTF_8);
+                if (id % BLOCK_SIZE == 0) {
+                    blockOffsets[id / BLOCK_SIZE] = counter.position;
+                    writeVarInt(output, bytes.length);
+                    output.write(bytes);
+                }
+                else {
+                    int prefix = commonPrefixLength(previous, bytes);
+                    writeVarInt(output, prefix);
+                    writeVarInt(output, bytes.length - prefix);
+                    output.write(bytes, prefix, bytes.length - prefix);
+                }
+                previous = bytes;
+            }
+
+            long blockOffsetsPosition = counter.position;
+            for (long offset : blockOffsets)
+                output.writeLong(offset);
+
+            long sortedIdsPosition = counter.position;
+            int[] sortedIds = IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparing(iris::get))
+                    .mapToInt(i -> i)
+                    .toArray();
+            for (int id : sortedIds)
+                output.writeInt(id);
+
+            output.writeLong(blockOffsetsPosition);
+            output.writeLong(sortedIdsPosition);
+            output.writeInt(count);
+            output.writeInt(BLOCK_SIZE);
+            output.writeInt(VERSION);
+            output.writeLong(MAGIC);
+        }
+    }
+
+    private static int commonPrefixLength(byte[] previous, byte[] bytes) {
+        int max = Math.min(previous.length, bytes.length);
+        int i = 0;
+        while (i < max && previous[i] == bytes[i])
+            i++;
+        return i;
+    }
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long position;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+
+    /**
+     * Read-only mapping of the file, by chunks of at most 1 GB.
+     *
+     * Only absolute reads are used, so it can be shared by concurrent threads.
+     */
+    private static class Mapping {
+        private static final int CHUNK_BITS = 30;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+        private final MappedByteBuffer[] chunks;
+        private final int count;
+        private final int blockSize;
+        private final long blockOffsetsPosition;
+        private final long sortedIdsPosition;
+
+        Mapping(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long length = channel.size();
+                if (length < FOOTER_SIZE)
+                    throw new IOException("Not an IRI dictionary: " + path);
+                int chunkCount = (int) ((length + CHUNK_MASK) >>> CHUNK_BITS);
+                chunks = new MappedByteBuffer[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    long start = (long) i << CHUNK_BITS;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(CHUNK_MASK + 1, length - start));
+                }
+
+                long footer = length - FOOTER_SIZE;
+                if (getLong(footer + FOOTER_SIZE - Long.BYTES) != MAGIC)
+                    throw new IOException("Not an IRI dictionary: " + path);
+                int version = getInt(footer + 2 * Long.BYTES + 2 * Integer.BYTES);
+                if (version != VERSION)
+                    throw new IOException("Unsupported version of the IRI dictionary " + path + ": " + version);
+                blockOffsetsPosition = getLong(footer);
+                sortedIdsPosition = getLong(footer + Long.BYTES);
+                count = getInt(footer + 2 * Long.BYTES);
+                blockSize = getInt(footer + 2 * Long.BYTES + Integer.BYTES);
+            }
+        }
+
+        int getSortedId(int index) {
+            return getInt(sortedIdsPosition + (long) index * Integer.BYTES);
+        }
+
+        String getIRI(int id) {
+            long position = getLong(blockOffsetsPosition + (long) (id / blockSize) * Long.BYTES);
+            int[] cursor = new int[1];
+
+            int length = readVarInt(position, cursor);
+            position += cursor[0];
+            byte[] bytes = new byte[Math.max(length, 64)];
+            readBytes(position, bytes, 0, length);
+            position += length;
+
+            for (int i = id % blockSize; i > 0; i--) {
+                int prefix = readVarInt(position, cursor);
+                position += cursor[0];
+                int suffix = readVarInt(position, cursor);
+                position += cursor[0];
+                length = prefix + suffix;
+                if (length > bytes.length) {
+                    byte[] newBytes = new byte[Math.max(length, 2 * bytes.length)];
+                    System.arraycopy(bytes, 0, newBytes, 0, prefix);
+                    bytes = newBytes;
+                }
+                readBytes(position, bytes, prefix, suffix);
+                position += suffix;
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * The number of bytes read is stored in the cursor
+         */
+        private int readVarInt(long position, int[] cursor) {
+            int value = 0;
+            int shift = 0;
+            int read = 0;
+            byte b;
+            do {
+                b = getByte(position + read++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            cursor[0] = read;
+            return value;
+        }
+
+        private byte getByte(long position) {
+            return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK));
+        }
+
+        private void readBytes(long position, byte[] destination, int offset, int length) {
+            while (length > 0) {
+                ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+                int start = (int) (position & CHUNK_MASK);
+                int n = Math.min(length, chunk.limit() - start);
+                // Absolute bulk reads are not available in Java 8
+                ByteBuffer view = chunk.duplicate();
+                view.position(start);
+                view.get(destination, offset, n);
+                position += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        private int getInt(long position) {
+            int start = (int) (position & CHUNK_MASK);
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+            if (start + Integer.BYTES <= chunk.limit())
+                return chunk.getInt(start);
+            byte[] bytes = new byte[Integer.BYTES];
+            readBytes(position, bytes, 0, Integer.BYTES);
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+
+        private long getLong(long position) {
+            int start = (int) (position & CHUNK_MASK);
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+            if (start + Long.BYTES <= chunk.limit())
+                return chunk.getLong(start);
+            byte[] bytes = new byte[Long.BYTES];
+            readBytes(position, bytes, 0, Long.BYTES);
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+    }
+}
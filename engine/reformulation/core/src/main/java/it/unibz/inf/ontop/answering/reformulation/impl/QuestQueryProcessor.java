@@ -1,15 +1,21 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.monitoring.*;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.SameAsRewriter;
@@ -21,11 +27,21 @@ import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.IntermediateQuery;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.DataNode;
+import it.unibz.inf.ontop.iq.node.JoinLikeNode;
+import it.unibz.inf.ontop.iq.node.JoinOrFilterNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
 import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
 import it.unibz.inf.ontop.iq.tools.IQConverter;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.ValueConstant;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
@@ -33,6 +49,9 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * TODO: rename it QueryTranslatorImpl ?
  */
@@ -59,6 +78,14 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer;
 	private final IQConverter iqConverter;
     private final DatalogProgram2QueryConverter datalogConverter;
+	private final QueryLifecycleListener lifecycleListener;
+	/**
+	 * Lexical values of the constants appearing in the mapping: they may influence the unfolding,
+	 * so they are never turned into parameters.
+	 */
+	private final ImmutableSet<String> mappingLexicalValues;
+	private final Cache<InputQuery, Boolean> nonParameterizableShapes;
+	private final boolean isParameterizationEnabled;
 
 	@AssistedInject
 	private QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
@@ -73,7 +100,8 @@ public class QuestQueryProcessor implements QueryReformulator {
                                 FlattenUnionOptimizer flattenUnionOptimizer,
                                 EQNormalizer eqNormalizer,
                                 PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer,
-                                IQConverter iqConverter, DatalogProgram2QueryConverter datalogConverter) {
+                                IQConverter iqConverter, DatalogProgram2QueryConverter datalogConverter,
+                                QueryLifecycleListener lifecycleListener) {
 		this.bindingLiftOptimizer = bindingLiftOptimizer;
 		this.settings = settings;
 		this.joinLikeOptimizer = joinLikeOptimizer;
@@ -85,6 +113,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 		this.iqConverter = iqConverter;
 		this.rewriter = queryRewriter;
         this.datalogConverter = datalogConverter;
+        this.lifecycleListener = lifecycleListener;
 
         this.rewriter.setTBox(obdaSpecification.getSaturatedTBox());
 
@@ -98,6 +127,13 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 
 		this.queryUnfolder = translationFactory.create(saturatedMapping);
+		this.isParameterizationEnabled = settings.isQueryParameterizationEnabled() && checkQueryCache(queryCache);
+		this.mappingLexicalValues = isParameterizationEnabled
+				? extractLexicalValues(saturatedMapping)
+				: ImmutableSet.of();
+		this.nonParameterizableShapes = CacheBuilder.newBuilder()
+				.maximumSize(settings.getQueryCacheMaxSize())
+				.build();
 
 		this.dbMetadata = obdaSpecification.getDBMetadata();
 		this.datasourceQueryGenerator = translationFactory.create(dbMetadata);
@@ -110,6 +146,43 @@ public class QuestQueryProcessor implements QueryReformulator {
 		log.info("Ontop has completed the setup and it is ready for query answering!");
 	}
 
+	private static ImmutableSet<String> extractLexicalValues(Mapping mapping) {
+		return mapping.getRDFAtomPredicates().stream()
+				.flatMap(p -> mapping.getQueries(p).stream())
+				.flatMap(q -> extractTerms(q.getTree()))
+				.flatMap(QuestQueryProcessor::extractLexicalValues)
+				.collect(ImmutableCollectors.toSet());
+	}
+
+	private static Stream<ImmutableTerm> extractTerms(IQTree tree) {
+		QueryNode node = tree.getRootNode();
+		Stream<? extends ImmutableTerm> localTerms;
+		if (node instanceof ConstructionNode)
+			localTerms = ((ConstructionNode) node).getSubstitution().getImmutableMap().values().stream();
+		else if (node instanceof DataNode)
+			localTerms = ((DataNode<?>) node).getProjectionAtom().getArguments().stream();
+		else if (node instanceof JoinOrFilterNode)
+			localTerms = ((JoinOrFilterNode) node).getOptionalFilterCondition()
+					.map(Stream::of)
+					.orElseGet(Stream::empty);
+		else
+			localTerms = Stream.empty();
+
+		return Stream.concat(localTerms,
+				tree.getChildren().stream()
+						.flatMap(QuestQueryProcessor::extractTerms));
+	}
+
+	private static Stream<String> extractLexicalValues(ImmutableTerm term) {
+		if (term instanceof ValueConstant)
+			return Stream.of(((ValueConstant) term).getValue());
+		else if (term instanceof ImmutableFunctionalTerm)
+			return ((ImmutableFunctionalTerm) term).getTerms().stream()
+					.flatMap(QuestQueryProcessor::extractLexicalValues);
+		else
+			return Stream.empty();
+	}
+
 	private IQ preProcess(InternalSparqlQuery translation) throws OntopInvalidInputQueryException, EmptyQueryException {
 		DatalogProgram program = translation.getProgram();
 		log.debug("Datalog program translated from the SPARQL query: \n{}", program);
@@ -147,20 +220,85 @@ public class QuestQueryProcessor implements QueryReformulator {
 		if (cachedQuery != null)
 			return cachedQuery;
 
+		if (isParameterizationEnabled) {
+			Optional<ParameterizedInputQuery> parameterizedQuery = inputQuery.parameterize(
+					v -> !mappingLexicalValues.contains(v));
+			if (parameterizedQuery.isPresent()) {
+				Optional<ExecutableQuery> executableQuery = reformulateParameterizedQuery(parameterizedQuery.get());
+				if (executableQuery.isPresent())
+					return executableQuery.get();
+			}
+		}
+
+		long beginning = System.currentTimeMillis();
+		ExecutableQuery executableQuery = reformulate(inputQuery);
+		queryCache.put(inputQuery, executableQuery, System.currentTimeMillis() - beginning);
+		return executableQuery;
+	}
+
+	/**
+	 * The templates are only re-used if they are kept by the query cache
+	 */
+	private static boolean checkQueryCache(QueryCache queryCache) {
+		if (!queryCache.isEnabled()) {
+			log.warn("The query parameterization is disabled: it requires a query cache keeping the templates " +
+					"(e.g. " + BoundedQueryCache.class.getName() + ")");
+			return false;
+		}
+		if (!queryCache.isBounded())
+			log.warn("The query parameterization is used with an unbounded query cache: " +
+					"the templates and the queries that cannot be parameterized are never evicted");
+		return true;
+	}
+
+	/**
+	 * The shape of the query is reformulated once into a template, which is then cached and instantiated
+	 * with the values of the constants.
+	 *
+	 * Returns empty if the constants cannot be turned into parameters of the native query.
+	 */
+	private Optional<ExecutableQuery> reformulateParameterizedQuery(ParameterizedInputQuery parameterizedQuery)
+			throws OntopReformulationException {
+		InputQuery shape = parameterizedQuery.getShape();
+		if (nonParameterizableShapes.getIfPresent(shape) != null)
+			return Optional.empty();
+
+		ExecutableQuery template = queryCache.get(shape);
+		if (template == null) {
+			long beginning = System.currentTimeMillis();
+			Optional<ExecutableQuery> newTemplate = datasourceQueryGenerator.generateTemplate(reformulate(shape),
+					parameterizedQuery.getPlaceholders());
+			if (!newTemplate.isPresent()) {
+				log.debug("The constants of the query cannot be turned into parameters");
+				nonParameterizableShapes.put(shape, Boolean.TRUE);
+				return Optional.empty();
+			}
+			template = newTemplate.get();
+			queryCache.put(shape, template, System.currentTimeMillis() - beginning);
+		}
+		return Optional.of(datasourceQueryGenerator.instantiateTemplate(template, parameterizedQuery.getValues()));
+	}
+
+	private ExecutableQuery reformulate(InputQuery inputQuery) throws OntopReformulationException {
+		QueryType queryType = QueryType.of(inputQuery);
 		try {
+			long start = System.nanoTime();
             InternalSparqlQuery translation = inputQuery.translate(inputQueryTranslator);
 
             try {
                 IQ convertedIQ = preProcess(translation);
+                start = notifyStage(QueryStage.TRANSLATION, queryType, start);
 
                 log.debug("Start the rewriting process...");
                 IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
+                start = notifyStage(QueryStage.REWRITING, queryType, start);
 
                 log.debug("Directly translated (SPARQL) IQ: \n" + rewrittenIQ.toString());
 
                 log.debug("Start the unfolding...");
 
                 IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+                start = notifyStage(QueryStage.UNFOLDING, queryType, start);
                 if (unfoldedIQ.getTree().isDeclaredAsEmpty())
                     throw new EmptyQueryException();
                 log.debug("Unfolded query: \n" + unfoldedIQ.toString());
@@ -170,26 +308,35 @@ public class QuestQueryProcessor implements QueryReformulator {
 
                 //lift bindings and union when it is possible
                 intermediateQuery = bindingLiftOptimizer.optimize(intermediateQuery);
+                start = notifyOptimization(bindingLiftOptimizer, queryType, start);
                 log.debug("New query after substitution lift optimization: \n" + intermediateQuery.toString());
 
                 log.debug("New lifted query: \n" + intermediateQuery.toString());
 
                 intermediateQuery = pullUpExpressionOptimizer.optimize(intermediateQuery);
+                start = notifyOptimization(pullUpExpressionOptimizer, queryType, start);
                 log.debug("After pushing up boolean expressions: \n" + intermediateQuery.toString());
 
-                intermediateQuery = new ProjectionShrinkingOptimizer().optimize(intermediateQuery);
+                ProjectionShrinkingOptimizer projectionShrinkingOptimizer = new ProjectionShrinkingOptimizer();
+                intermediateQuery = projectionShrinkingOptimizer.optimize(intermediateQuery);
+                start = notifyOptimization(projectionShrinkingOptimizer, queryType, start);
 
                 log.debug("After projection shrinking: \n" + intermediateQuery.toString());
 
 
                 intermediateQuery = joinLikeOptimizer.optimize(intermediateQuery);
+                start = notifyOptimization(joinLikeOptimizer, queryType, start);
                 log.debug("New query after fixed point join optimization: \n" + intermediateQuery.toString());
 
                 intermediateQuery = flattenUnionOptimizer.optimize(intermediateQuery);
+                start = notifyOptimization(flattenUnionOptimizer, queryType, start);
                 log.debug("New query after flattening Unions: \n" + intermediateQuery.toString());
 
                 ExecutableQuery executableQuery = generateExecutableQuery(intermediateQuery);
-                queryCache.put(inputQuery, executableQuery);
+                if (lifecycleListener.isEnabled())
+                    lifecycleListener.onStageCompleted(new QueryStageEvent(QueryStage.NATIVE_QUERY_GENERATION,
+                            Optional.empty(), queryType, System.nanoTime() - start,
+                            computeSizes(intermediateQuery, executableQuery)));
                 return executableQuery;
 
             }
@@ -201,7 +348,6 @@ public class QuestQueryProcessor implements QueryReformulator {
 								.collect(ImmutableCollectors.toList()));
 
                 log.debug("Empty query --> no solution.");
-                queryCache.put(inputQuery, emptyQuery);
                 return emptyQuery;
             }
             catch (OntopReformulationException e) {
@@ -219,6 +365,38 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	/**
+	 * Returns the end of the stage (i.e. the beginning of the next one)
+	 */
+	private long notifyStage(QueryStage stage, QueryType queryType, long start) {
+		long end = System.nanoTime();
+		if (lifecycleListener.isEnabled())
+			lifecycleListener.onStageCompleted(new QueryStageEvent(stage, queryType, end - start));
+		return end;
+	}
+
+	private long notifyOptimization(Object optimizer, QueryType queryType, long start) {
+		long end = System.nanoTime();
+		if (lifecycleListener.isEnabled())
+			lifecycleListener.onStageCompleted(new QueryStageEvent(QueryStage.OPTIMIZATION,
+					Optional.of(optimizer.getClass().getSimpleName()), queryType, end - start, ImmutableMap.of()));
+		return end;
+	}
+
+	private static ImmutableMap<QuerySize, Long> computeSizes(IntermediateQuery query, ExecutableQuery executableQuery) {
+		ImmutableList<QueryNode> nodes = query.getNodesInTopDownOrder();
+		return ImmutableMap.of(
+				QuerySize.UNION_ARITY, nodes.stream()
+						.filter(n -> n instanceof UnionNode)
+						.mapToLong(n -> query.getChildren(n).size())
+						.max()
+						.orElse(0),
+				QuerySize.JOIN_COUNT, nodes.stream()
+						.filter(n -> n instanceof JoinLikeNode)
+						.count(),
+				QuerySize.NATIVE_QUERY_LENGTH, (long) executableQuery.toString().length());
+	}
+
 	private ExecutableQuery generateExecutableQuery(IntermediateQuery intermediateQuery)
 			throws OntopReformulationException {
 		log.debug("Producing the native query string...");
@@ -248,6 +426,11 @@ public class QuestQueryProcessor implements QueryReformulator {
 		return "EMPTY REWRITING";
 	}
 
+	@Override
+	public void close() {
+		queryCache.close();
+	}
+
 	@Override
 	public InputQueryFactory getInputQueryFactory() {
 		return inputQueryFactory;
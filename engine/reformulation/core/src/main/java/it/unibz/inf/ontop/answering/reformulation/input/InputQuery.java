@@ -7,6 +7,9 @@ import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.datalog.InternalSparqlQuery;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 /**
  * Must throw an OntopInvalidInputQueryException at CONSTRUCTION time if the input query is invalid.
  *
@@ -21,4 +24,14 @@ public interface InputQuery<R extends OBDAResultSet> {
      * TODO: return an IntermediateQuery instead!
      */
     InternalSparqlQuery translate(InputQueryTranslator translator) throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException;
+
+    /**
+     * Replaces the string literals of the triple patterns accepted by isParameterizable by placeholders,
+     * so that queries differing only by these constants share the same shape.
+     *
+     * Returns empty if no constant can be parameterized or if the query does not support parameterization.
+     */
+    default Optional<ParameterizedInputQuery> parameterize(Predicate<String> isParameterizable) {
+        return Optional.empty();
+    }
 }
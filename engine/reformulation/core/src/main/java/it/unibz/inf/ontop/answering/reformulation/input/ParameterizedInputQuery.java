@@ -0,0 +1,27 @@
+package it.unibz.inf.ontop.answering.reformulation.input;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Input query where some constants have been replaced by placeholders.
+ *
+ * Queries that only differ by the values of these constants have the same shape,
+ * and can therefore share the same reformulation.
+ */
+public interface ParameterizedInputQuery {
+
+    /**
+     * Query where the constants are replaced by the placeholders
+     */
+    InputQuery getShape();
+
+    /**
+     * Lexical values of the placeholders (as they appear in the shape)
+     */
+    ImmutableList<String> getPlaceholders();
+
+    /**
+     * Lexical values of the original constants, in the same order as the placeholders
+     */
+    ImmutableList<String> getValues();
+}
@@ -25,6 +25,10 @@ import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
 
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public class SPARQLQueryUtility {
 	
 	private static final String ASK_KEYWORD = "ask";
@@ -127,6 +131,22 @@ public class SPARQLQueryUtility {
 				+ constant + "> ?p ?o}";
 	}
 
+	/**
+	 * Triples having one of the resources as subject or as object (one query for a batch of resources).
+	 *
+	 * Each resource appears as a constant in its own triple patterns, so that the mapping definitions
+	 * can be pruned by IRI template.
+	 */
+	public static String getConstructDescribeQuery(Collection<String> constants) {
+		String branches = constants.stream()
+				.map(c -> "<" + c + ">")
+				.flatMap(c -> Stream.of(
+						"{ " + c + " ?p ?o BIND(" + c + " AS ?s) }",
+						"{ ?s ?p " + c + " BIND(" + c + " AS ?o) }"))
+				.collect(Collectors.joining(" UNION "));
+		return "CONSTRUCT { ?s ?p ?o } WHERE { " + branches + " }";
+	}
+
 	public static String getSelectFromConstruct(String strquery){
 		String strlower = strquery.toLowerCase();
 		// Let's assume it IS Construct query and we don't need to check
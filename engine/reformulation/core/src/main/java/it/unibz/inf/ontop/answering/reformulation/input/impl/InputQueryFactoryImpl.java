@@ -1,6 +1,10 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
 import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.QueryStage;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+import it.unibz.inf.ontop.answering.monitoring.QueryType;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.exception.OntopInvalidInputQueryException;
 import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
@@ -13,10 +17,12 @@ import org.eclipse.rdf4j.query.parser.*;
 public class InputQueryFactoryImpl implements InputQueryFactory {
 
     private final RDF4JInputQueryFactory rdf4jFactory;
+    private final QueryLifecycleListener lifecycleListener;
 
     @Inject
-    private InputQueryFactoryImpl(RDF4JInputQueryFactory rdf4jFactory) {
+    private InputQueryFactoryImpl(RDF4JInputQueryFactory rdf4jFactory, QueryLifecycleListener lifecycleListener) {
         this.rdf4jFactory = rdf4jFactory;
+        this.lifecycleListener = lifecycleListener;
     }
 
     @Override
@@ -89,9 +95,14 @@ public class InputQueryFactoryImpl implements InputQueryFactory {
             throw new OntopUnsupportedInputQueryException("Unsupported query: " + queryString);
     }
 
-    private static ParsedQuery parseQueryString(String queryString) throws OntopInvalidInputQueryException {
+    private ParsedQuery parseQueryString(String queryString) throws OntopInvalidInputQueryException {
         try {
-            return QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, null);
+            long start = System.nanoTime();
+            ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, null);
+            if (lifecycleListener.isEnabled())
+                lifecycleListener.onStageCompleted(new QueryStageEvent(QueryStage.PARSING,
+                        QueryType.of(parsedQuery, queryString), System.nanoTime() - start));
+            return parsedQuery;
         } catch (MalformedQueryException e) {
             throw new OntopInvalidInputQueryException(e);
         }
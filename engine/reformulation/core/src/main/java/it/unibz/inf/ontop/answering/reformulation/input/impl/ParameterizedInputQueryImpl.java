@@ -0,0 +1,34 @@
+package it.unibz.inf.ontop.answering.reformulation.input.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
+
+
+class ParameterizedInputQueryImpl implements ParameterizedInputQuery {
+
+    private final InputQuery shape;
+    private final ImmutableList<String> placeholders;
+    private final ImmutableList<String> values;
+
+    ParameterizedInputQueryImpl(InputQuery shape, ImmutableList<String> placeholders, ImmutableList<String> values) {
+        this.shape = shape;
+        this.placeholders = placeholders;
+        this.values = values;
+    }
+
+    @Override
+    public InputQuery getShape() {
+        return shape;
+    }
+
+    @Override
+    public ImmutableList<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    @Override
+    public ImmutableList<String> getValues() {
+        return values;
+    }
+}
@@ -1,9 +1,14 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
 import it.unibz.inf.ontop.answering.reformulation.input.AskQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 
 class RDF4JAskQuery extends RDF4JInputQuery<BooleanResultSet>  implements AskQuery {
 
@@ -18,11 +23,16 @@ class RDF4JAskQuery extends RDF4JInputQuery<BooleanResultSet>  implements AskQue
 
         RDF4JAskQuery that = (RDF4JAskQuery) o;
 
-        return getParsedQuery().equals(that.getParsedQuery());
+        return hasSameParsedQuery(that);
     }
 
     @Override
     public int hashCode() {
-        return getParsedQuery().hashCode();
+        return hashParsedQuery();
+    }
+
+    @Override
+    public Optional<ParameterizedInputQuery> parameterize(Predicate<String> isParameterizable) {
+        return parameterize(isParameterizable, ParsedBooleanQuery::new, RDF4JAskQuery::new);
     }
 }
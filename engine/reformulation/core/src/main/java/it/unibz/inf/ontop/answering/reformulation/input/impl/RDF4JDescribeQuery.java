@@ -17,11 +17,11 @@ class RDF4JDescribeQuery extends RDF4JInputQuery<SimpleGraphResultSet> implement
 
         RDF4JDescribeQuery that = (RDF4JDescribeQuery) o;
 
-        return getParsedQuery().equals(that.getParsedQuery());
+        return hasSameParsedQuery(that);
     }
 
     @Override
     public int hashCode() {
-        return getParsedQuery().hashCode();
+        return hashParsedQuery();
     }
 }
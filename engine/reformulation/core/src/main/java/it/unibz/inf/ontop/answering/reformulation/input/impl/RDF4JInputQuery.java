@@ -1,17 +1,38 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.input.translation.RDF4JInputQueryTranslator;
 import it.unibz.inf.ontop.exception.OntopInvalidInputQueryException;
 import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.datalog.InternalSparqlQuery;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 
 class RDF4JInputQuery<R extends OBDAResultSet> implements InputQuery<R> {
 
+    /**
+     * Random part of the placeholders, to prevent any collision with actual constants
+     */
+    private static final String PLACEHOLDER_PREFIX = "ontopparam" + UUID.randomUUID().toString().replace("-", "");
+
     private final ParsedQuery parsedQuery;
     private final String inputQueryString;
 
@@ -40,4 +61,77 @@ class RDF4JInputQuery<R extends OBDAResultSet> implements InputQuery<R> {
     protected ParsedQuery getParsedQuery() {
         return parsedQuery;
     }
+
+    /**
+     * Structural comparison (the parsed queries do not override equals())
+     */
+    protected boolean hasSameParsedQuery(RDF4JInputQuery<?> other) {
+        return parsedQuery.getTupleExpr().equals(other.parsedQuery.getTupleExpr())
+                && Objects.equals(parsedQuery.getDataset(), other.parsedQuery.getDataset());
+    }
+
+    protected int hashParsedQuery() {
+        return parsedQuery.getTupleExpr().hashCode();
+    }
+
+    /**
+     * Replaces the string literals found in object position of the triple patterns.
+     * Equal constants share the same placeholder.
+     *
+     * The shape is built by the constructors from the parameterized copy of the algebra expression.
+     */
+    protected Optional<ParameterizedInputQuery> parameterize(Predicate<String> isParameterizable,
+                                                             Function<TupleExpr, ParsedQuery> parsedQueryConstructor,
+                                                             BiFunction<ParsedQuery, String, InputQuery> shapeConstructor) {
+        TupleExpr newTupleExpr = parsedQuery.getTupleExpr().clone();
+        ConstantParameterizer parameterizer = new ConstantParameterizer(isParameterizable);
+        newTupleExpr.visit(parameterizer);
+
+        if (parameterizer.placeholders.isEmpty())
+            return Optional.empty();
+
+        ParsedQuery newParsedQuery = parsedQueryConstructor.apply(newTupleExpr);
+        newParsedQuery.setDataset(parsedQuery.getDataset());
+
+        return Optional.of(new ParameterizedInputQueryImpl(
+                shapeConstructor.apply(newParsedQuery, inputQueryString),
+                ImmutableList.copyOf(parameterizer.placeholders.values()),
+                ImmutableList.copyOf(parameterizer.placeholders.keySet())));
+    }
+
+    private static class ConstantParameterizer extends AbstractQueryModelVisitor<RuntimeException> {
+
+        private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
+        private final Predicate<String> isParameterizable;
+        // Original value -> placeholder (insertion order)
+        private final Map<String, String> placeholders = new LinkedHashMap<>();
+
+        ConstantParameterizer(Predicate<String> isParameterizable) {
+            this.isParameterizable = isParameterizable;
+        }
+
+        @Override
+        public void meet(StatementPattern node) {
+            Var objectVar = node.getObjectVar();
+            Value value = objectVar.getValue();
+            if (!(value instanceof Literal))
+                return;
+            Literal literal = (Literal) value;
+            if (!(literal.getLanguage().isPresent() || literal.getDatatype().equals(XMLSchema.STRING)))
+                return;
+
+            String label = literal.getLabel();
+            if (!isParameterizable.test(label))
+                return;
+
+            String placeholder = placeholders.computeIfAbsent(label,
+                    l -> PLACEHOLDER_PREFIX + placeholders.size() + "x");
+
+            objectVar.setName("_const_" + placeholder);
+            objectVar.setValue(literal.getLanguage()
+                    .map(lang -> VALUE_FACTORY.createLiteral(placeholder, lang))
+                    .orElseGet(() -> VALUE_FACTORY.createLiteral(placeholder)));
+        }
+    }
 }
@@ -1,9 +1,14 @@
 package it.unibz.inf.ontop.answering.reformulation.input.impl;
 
+import it.unibz.inf.ontop.answering.reformulation.input.ParameterizedInputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 
+import java.util.Optional;
+import java.util.function.Predicate;
+
 class RDF4JSelectQuery extends RDF4JInputQuery<TupleResultSet> implements SelectQuery {
 
     /**
@@ -20,11 +25,16 @@ class RDF4JSelectQuery extends RDF4JInputQuery<TupleResultSet> implements Select
 
         RDF4JSelectQuery that = (RDF4JSelectQuery) o;
 
-        return getParsedQuery().equals(that.getParsedQuery());
+        return hasSameParsedQuery(that);
     }
 
     @Override
     public int hashCode() {
-        return getParsedQuery().hashCode();
+        return hashParsedQuery();
+    }
+
+    @Override
+    public Optional<ParameterizedInputQuery> parameterize(Predicate<String> isParameterizable) {
+        return parameterize(isParameterizable, ParsedTupleQuery::new, RDF4JSelectQuery::new);
     }
 }
@@ -47,6 +47,7 @@ import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
@@ -353,12 +354,16 @@ public class SparqlAlgebraToDatalogTranslator {
             TranslationResult sub = translate(projection.getArg());
 
             List<ProjectionElem> pes = projection.getProjectionElemList().getElements();
+            ImmutableSet<String> constantNames = getConstantNames(projection.getArg());
             // the two lists are required to synchronise the order of variables
             List<Term> sVars = new ArrayList<>(pes.size());
             List<Term> tVars = new ArrayList<>(pes.size());
             boolean noRenaming = true;
             for (ProjectionElem pe : pes) {
                 Variable sVar = termFactory.getVariable(pe.getSourceName());
+                // constants projected by the parser (e.g., for the property path p?) are not variables
+                if (!sub.variables.contains(sVar) && constantNames.contains(pe.getSourceName()))
+                    continue;
                 if (!sub.variables.contains(sVar))
                     throw new IllegalArgumentException("Projection source of " + pe
                             + " not found in " + projection.getArg());
@@ -391,7 +396,10 @@ public class SparqlAlgebraToDatalogTranslator {
             TranslationResult sub = translate(extension.getArg());
             final Stream<ExtensionElem> nontrivialBindings = extension.getElements().stream()
                     // ignore EXTEND(P, v, v), which is sometimes introduced by Sesame SPARQL parser
-                    .filter(ee -> !(ee.getExpr() instanceof Var && ee.getName().equals(((Var) ee.getExpr()).getName())));
+                    .filter(ee -> !(ee.getExpr() instanceof Var && ee.getName().equals(((Var) ee.getExpr()).getName())))
+                    // ignore the aggregates, which are already computed by the GROUP below
+                    .filter(ee -> !(ee.getExpr() instanceof AggregateOperator
+                            && sub.variables.contains(termFactory.getVariable(ee.getName()))));
             return sub.extendWithBindings(
                     nontrivialBindings,
                     ee -> termFactory.getVariable(ee.getName()),
@@ -418,12 +426,190 @@ public class SparqlAlgebraToDatalogTranslator {
                     appendRule(res.atoms.get(0), p.getAtomsExtendedWithNulls(allVars)));
             return res;
         }
-        else if (node instanceof Group) {
-            throw new OntopUnsupportedInputQueryException("GROUP BY is not supported yet");
+        else if (node instanceof Group) {   // GROUP algebra operation (with the aggregates)
+            Group group = (Group) node;
+            TranslationResult sub = translate(group.getArg());
+
+            ImmutableSet<Variable> groupingVars = group.getGroupBindingNames().stream()
+                    .map(termFactory::getVariable)
+                    .collect(ImmutableCollectors.toSet());
+            if (!sub.variables.containsAll(groupingVars))
+                throw new OntopUnsupportedInputQueryException("Grouping by unbound variables is not supported: "
+                        + Sets.difference(groupingVars, sub.variables));
+
+            // the grouping variables first, then the aggregates
+            List<Term> headTerms = new ArrayList<>(groupingVars);
+            List<Term> vars = new ArrayList<>(groupingVars);
+            for (GroupElem ge : group.getGroupElements()) {
+                headTerms.add(getAggregate(ge.getOperator(), sub.variables));
+                vars.add(termFactory.getVariable(ge.getName()));
+            }
+            Function head = getFreshHead(headTerms);
+            appendRule(head, sub.getAtomsExtended(Stream.of(
+                    termFactory.getFunction(datalogFactory.getSparqlGroupPredicate(), new ArrayList<>(groupingVars)))));
+
+            Function atom = termFactory.getFunction(head.getFunctionSymbol(), vars);
+            return new TranslationResult(ImmutableList.of(atom),
+                    vars.stream().map(t -> (Variable) t).collect(ImmutableCollectors.toSet()), false);
+        }
+        else if (node instanceof ArbitraryLengthPath) {  // property paths p+ and p* (Sec 18.4)
+            return translateArbitraryLengthPath((ArbitraryLengthPath) node);
+        }
+        else if (node instanceof ZeroLengthPath) {  // property path p? (together with p)
+            return translateZeroLengthPath((ZeroLengthPath) node);
         }
         throw new OntopUnsupportedInputQueryException("Not supported: " + node);
     }
 
+    /**
+     * One step of the path is translated into a separate rule (over two fresh variables)
+     * and its transitive closure is marked by a TransitiveClosure atom.
+     */
+    private TranslationResult translateArbitraryLengthPath(ArbitraryLengthPath path)
+            throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException {
+
+        if (path.getMinLength() > 1)
+            throw new OntopUnsupportedInputQueryException("Paths of minimal length " + path.getMinLength()
+                    + " are not supported");
+
+        Var subjectVar = path.getSubjectVar();
+        Var objectVar = path.getObjectVar();
+        // the parser introduces a fresh object variable (and a filter) for ?x p+ ?x
+        if (subjectVar.getName().equals(objectVar.getName()))
+            throw new OntopUnsupportedInputQueryException("Not supported: " + path);
+
+        Variable source = termFactory.getVariable("pathSource" + predicateIdx);
+        Variable target = termFactory.getVariable("pathTarget" + predicateIdx);
+
+        TupleExpr stepExpression = path.getPathExpression().clone();
+        stepExpression.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var var) {
+                if (var.getName().equals(subjectVar.getName()))
+                    replace(var, source);
+                else if (var.getName().equals(objectVar.getName()))
+                    replace(var, target);
+            }
+
+            private void replace(Var var, Variable variable) {
+                var.setName(variable.getName());
+                var.setValue(null);
+                var.setAnonymous(false);
+            }
+        });
+
+        TranslationResult step = translate(stepExpression);
+        if (!step.variables.contains(source) || !step.variables.contains(target))
+            throw new OntopUnsupportedInputQueryException("Not supported: " + path);
+
+        Function stepHead = getFreshHead(ImmutableList.of(source, target));
+        appendRule(stepHead, step.atoms);
+
+        Function closureHead = getFreshHead(ImmutableList.of(source, target));
+        appendRule(closureHead, ImmutableList.of(stepHead,
+                termFactory.getFunction(datalogFactory.getTransitiveClosurePredicate(path.getMinLength() == 0),
+                        source, target)));
+
+        ImmutableSet.Builder<Variable> variables = ImmutableSet.builder();
+        Term subjectTerm = getTermForVarOrConstant(subjectVar, variables);
+        Term objectTerm = getTermForVarOrConstant(objectVar, variables);
+        return new TranslationResult(
+                ImmutableList.of(termFactory.getFunction(closureHead.getFunctionSymbol(), subjectTerm, objectTerm)),
+                variables.build(), false);
+    }
+
+    /**
+     * Only supported when at least one end is a constant
+     */
+    private TranslationResult translateZeroLengthPath(ZeroLengthPath path)
+            throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException {
+
+        Var subjectVar = path.getSubjectVar();
+        Var objectVar = path.getObjectVar();
+        if (subjectVar.hasValue() == objectVar.hasValue())
+            throw new OntopUnsupportedInputQueryException("Zero-length paths are only supported " +
+                    "between a constant and a variable: " + path);
+
+        Var constant = subjectVar.hasValue() ? subjectVar : objectVar;
+        Var variable = subjectVar.hasValue() ? objectVar : subjectVar;
+        TranslationResult empty = new TranslationResult(ImmutableList.of(), ImmutableSet.of(), false);
+        return empty.extendWithBindings(Stream.of(variable),
+                v -> termFactory.getVariable(v.getName()),
+                (v, vars) -> getTermForLiteralOrIri(constant.getValue()));
+    }
+
+    private static ImmutableSet<String> getConstantNames(TupleExpr expression) {
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        expression.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var var) {
+                if (var.hasValue())
+                    names.add(var.getName());
+            }
+        });
+        return names.build();
+    }
+
+    private Term getTermForVarOrConstant(Var v, ImmutableSet.Builder<Variable> variables)
+            throws OntopUnsupportedInputQueryException {
+        return v.hasValue() ? getTermForLiteralOrIri(v.getValue()) : getTermForVariable(v, variables);
+    }
+
+    /**
+     * COUNT, SUM, AVG, MIN, MAX, SAMPLE and GROUP_CONCAT (Sec 18.5.1)
+     *
+     * @param variables the set of variables that can occur in the argument
+     */
+    private Function getAggregate(AggregateOperator operator, ImmutableSet<Variable> variables)
+            throws OntopUnsupportedInputQueryException, OntopInvalidInputQueryException {
+
+        if (operator instanceof Count && ((Count) operator).getArg() == null) {
+            if (operator.isDistinct())
+                throw new OntopUnsupportedInputQueryException("COUNT(DISTINCT *) is not supported yet");
+            return termFactory.getFunction(ExpressionOperation.COUNT_ALL);
+        }
+        if (!(operator instanceof UnaryValueOperator))
+            throw new OntopUnsupportedInputQueryException("Not supported: " + operator);
+
+        Term arg = getExpression(((UnaryValueOperator) operator).getArg(), variables);
+        boolean distinct = operator.isDistinct();
+
+        if (operator instanceof Count) {
+            return termFactory.getFunction(distinct ? ExpressionOperation.COUNT_DISTINCT : ExpressionOperation.COUNT, arg);
+        }
+        else if (operator instanceof Sum) {
+            return termFactory.getFunction(distinct ? ExpressionOperation.SUM_DISTINCT : ExpressionOperation.SUM, arg);
+        }
+        else if (operator instanceof Avg) {
+            return termFactory.getFunction(distinct ? ExpressionOperation.AVG_DISTINCT : ExpressionOperation.AVG, arg);
+        }
+        // DISTINCT makes no difference
+        else if (operator instanceof Min) {
+            return termFactory.getFunction(ExpressionOperation.MIN, arg);
+        }
+        else if (operator instanceof Max) {
+            return termFactory.getFunction(ExpressionOperation.MAX, arg);
+        }
+        else if (operator instanceof Sample) {
+            return termFactory.getFunction(ExpressionOperation.SAMPLE, arg);
+        }
+        else if (operator instanceof GroupConcat) {
+            ValueExpr separatorExpr = ((GroupConcat) operator).getSeparator();
+            final String separator;
+            if (separatorExpr == null)
+                separator = " ";
+            else if (separatorExpr instanceof ValueConstant)
+                separator = ((ValueConstant) separatorExpr).getValue().stringValue();
+            else
+                throw new OntopInvalidInputQueryException("The separator of GROUP_CONCAT must be a string: " + separatorExpr);
+
+            return termFactory.getFunction(
+                    distinct ? ExpressionOperation.GROUP_CONCAT_DISTINCT : ExpressionOperation.GROUP_CONCAT,
+                    arg, termFactory.getConstantLiteral(separator));
+        }
+        throw new OntopUnsupportedInputQueryException("Not supported: " + operator);
+    }
+
     /**
      *
      * @param expr  expression
@@ -1,7 +1,9 @@
 package it.unibz.inf.ontop.answering.reformulation.unfolding.impl;
 
 
+import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -10,23 +12,31 @@ import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.QueryTransformerFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
-import it.unibz.inf.ontop.iq.node.IntensionalDataNode;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.iq.optimizer.impl.AbstractIntensionalQueryMerger;
 import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.DataAtom;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
 import it.unibz.inf.ontop.model.vocabulary.RDF;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.URITemplates;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+/**
+ * The mapping definitions (or union branches of definitions) whose subject or object IRI template
+ * cannot produce the IRI constant of the triple pattern are discarded before being merged.
+ */
 public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implements QueryUnfolder {
 
     private final Mapping mapping;
@@ -34,6 +44,11 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
     private final QueryTransformerFactory transformerFactory;
     private final UnionBasedQueryMerger queryMerger;
     private final CoreUtilsFactory coreUtilsFactory;
+    // For the triple patterns whose property is not a constant
+    private final ImmutableMap<RDFAtomPredicate, IRITemplatePrefixIndex> subjectIndexes;
+    private final ImmutableMap<RDFAtomPredicate, IRITemplatePrefixIndex> objectIndexes;
+    // For the rdf:type triple patterns whose class is not a constant
+    private final ImmutableMap<RDFAtomPredicate, IRITemplatePrefixIndex> classSubjectIndexes;
 
     @AssistedInject
     private BasicQueryUnfolder(@Assisted Mapping mapping, IntermediateQueryFactory iqFactory,
@@ -45,6 +60,31 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
         this.transformerFactory = transformerFactory;
         this.queryMerger = queryMerger;
         this.coreUtilsFactory = coreUtilsFactory;
+        this.subjectIndexes = createIndexes(mapping::getQueries, RDFAtomPredicate::getSubject);
+        this.objectIndexes = createIndexes(mapping::getQueries, RDFAtomPredicate::getObject);
+        this.classSubjectIndexes = createIndexes(p -> getClassDefinitions(mapping, p), RDFAtomPredicate::getSubject);
+    }
+
+    private ImmutableMap<RDFAtomPredicate, IRITemplatePrefixIndex> createIndexes(
+            Function<RDFAtomPredicate, ImmutableCollection<IQ>> definitionExtractor, ArgumentExtractor argumentExtractor) {
+        return mapping.getRDFAtomPredicates().stream()
+                .collect(ImmutableCollectors.toMap(
+                        p -> p,
+                        p -> new IRITemplatePrefixIndex(definitionExtractor.apply(p),
+                                d -> argumentExtractor.extract(p, d.getProjectionAtom().getArguments()))));
+    }
+
+    private static ImmutableCollection<IQ> getClassDefinitions(Mapping mapping, RDFAtomPredicate predicate) {
+        return mapping.getRDFClasses(predicate).stream()
+                .flatMap(i -> mapping.getRDFClassDefinition(predicate, i)
+                        .map(Stream::of)
+                        .orElseGet(Stream::empty))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface ArgumentExtractor {
+        Variable extract(RDFAtomPredicate predicate, ImmutableList<Variable> arguments);
     }
 
     @Override
@@ -70,30 +110,131 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
 
         private Optional<IQ> getDefinition(RDFAtomPredicate predicate,
                                            ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            Optional<String> subjectIRI = getIRIString(predicate.getSubject(arguments));
+            Optional<String> objectIRI = getIRIString(predicate.getObject(arguments));
             return predicate.getPropertyIRI(arguments)
                     .map(i -> i.equals(RDF.TYPE)
-                            ? getRDFClassDefinition(predicate, arguments)
-                            : mapping.getRDFPropertyDefinition(predicate, i))
-                    .orElseGet(() -> getStarDefinition(predicate));
+                            ? getRDFClassDefinition(predicate, arguments, subjectIRI)
+                            : mapping.getRDFPropertyDefinition(predicate, i)
+                                    .flatMap(d -> prune(d, predicate, subjectIRI, objectIRI)))
+                    .orElseGet(() -> getStarDefinition(predicate, subjectIRI, objectIRI));
         }
 
         private Optional<IQ> getRDFClassDefinition(RDFAtomPredicate predicate,
-                                                   ImmutableList<? extends VariableOrGroundTerm> arguments) {
+                                                   ImmutableList<? extends VariableOrGroundTerm> arguments,
+                                                   Optional<String> subjectIRI) {
             return predicate.getClassIRI(arguments)
-                    .map(i -> mapping.getRDFClassDefinition(predicate, i))
-                    .orElseGet(() -> getStarClassDefinition(predicate));
+                    .map(i -> mapping.getRDFClassDefinition(predicate, i)
+                            .flatMap(d -> prune(d, predicate, subjectIRI, Optional.empty())))
+                    .orElseGet(() -> getStarClassDefinition(predicate, subjectIRI));
+        }
+
+        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate, Optional<String> subjectIRI) {
+            ImmutableCollection<IQ> definitions = getCandidates(classSubjectIndexes, predicate, subjectIRI)
+                    .orElseGet(() -> getClassDefinitions(mapping, predicate));
+            return mergePrunedDefinitions(definitions, predicate, subjectIRI, Optional.empty());
+        }
+
+        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate, Optional<String> subjectIRI,
+                                               Optional<String> objectIRI) {
+            Optional<ImmutableCollection<IQ>> subjectCandidates = getCandidates(subjectIndexes, predicate, subjectIRI);
+            ImmutableCollection<IQ> definitions = subjectCandidates.isPresent()
+                    ? subjectCandidates.get()
+                    : getCandidates(objectIndexes, predicate, objectIRI)
+                            .orElseGet(() -> mapping.getQueries(predicate));
+            return mergePrunedDefinitions(definitions, predicate, subjectIRI, objectIRI);
+        }
+
+        private Optional<ImmutableCollection<IQ>> getCandidates(
+                ImmutableMap<RDFAtomPredicate, IRITemplatePrefixIndex> indexes, RDFAtomPredicate predicate,
+                Optional<String> iri) {
+            return iri.flatMap(i -> Optional.ofNullable(indexes.get(predicate))
+                    .map(index -> index.getCompatibleDefinitions(i)));
         }
 
-        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getRDFClasses(predicate).stream()
-                    .flatMap(i -> mapping.getRDFClassDefinition(predicate, i)
+        private Optional<IQ> mergePrunedDefinitions(ImmutableCollection<IQ> definitions, RDFAtomPredicate predicate,
+                                                    Optional<String> subjectIRI, Optional<String> objectIRI) {
+            return queryMerger.mergeDefinitions(definitions.stream()
+                    .flatMap(d -> prune(d, predicate, subjectIRI, objectIRI)
                             .map(Stream::of)
                             .orElseGet(Stream::empty))
                     .collect(ImmutableCollectors.toList()));
         }
 
-        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getQueries(predicate));
+        /**
+         * Removes the union branches that cannot produce the subject and object IRIs.
+         *
+         * Returns empty if none is left.
+         */
+        private Optional<IQ> prune(IQ definition, RDFAtomPredicate predicate, Optional<String> subjectIRI,
+                                   Optional<String> objectIRI) {
+            ImmutableList<Variable> projectedArguments = definition.getProjectionAtom().getArguments();
+            Optional<IQTree> tree = Optional.of(definition.getTree());
+            if (subjectIRI.isPresent())
+                tree = tree.flatMap(t -> prune(t, predicate.getSubject(projectedArguments), subjectIRI.get()));
+            if (objectIRI.isPresent())
+                tree = tree.flatMap(t -> prune(t, predicate.getObject(projectedArguments), objectIRI.get()));
+
+            return tree.map(t -> t == definition.getTree()
+                    ? definition
+                    : iqFactory.createIQ(definition.getProjectionAtom(), t));
+        }
+
+        private Optional<IQTree> prune(IQTree tree, Variable variable, String iri) {
+            QueryNode rootNode = tree.getRootNode();
+            if (rootNode instanceof ConstructionNode) {
+                ImmutableTerm definition = ((ConstructionNode) rootNode).getSubstitution().get(variable);
+                if (definition != null)
+                    return IRITemplatePrefixIndex.isCompatible(definition, iri)
+                            ? Optional.of(tree)
+                            : Optional.empty();
+
+                IQTree child = ((UnaryIQTree) tree).getChild();
+                return prune(child, variable, iri)
+                        .map(c -> c == child
+                                ? tree
+                                : iqFactory.createUnaryIQTree((ConstructionNode) rootNode, c));
+            }
+            else if (rootNode instanceof UnionNode) {
+                ImmutableList<IQTree> children = tree.getChildren().stream()
+                        .flatMap(c -> prune(c, variable, iri)
+                                .map(Stream::of)
+                                .orElseGet(Stream::empty))
+                        .collect(ImmutableCollectors.toList());
+
+                if (children.isEmpty())
+                    return Optional.empty();
+                else if (children.size() == 1)
+                    return Optional.of(children.get(0));
+                else if (children.equals(tree.getChildren()))
+                    return Optional.of(tree);
+                else
+                    return Optional.of(iqFactory.createNaryIQTree((UnionNode) rootNode, children));
+            }
+            return Optional.of(tree);
+        }
+
+        /**
+         * IRI constants are represented by ground IRI templates (or by a single argument holding the whole IRI)
+         */
+        private Optional<String> getIRIString(VariableOrGroundTerm term) {
+            if (term instanceof IRIConstant)
+                return Optional.of(((IRIConstant) term).getIRI().getIRIString());
+
+            if (!(term instanceof GroundFunctionalTerm)
+                    || !(((GroundFunctionalTerm) term).getFunctionSymbol() instanceof URITemplatePredicate))
+                return Optional.empty();
+
+            ImmutableList<? extends ImmutableTerm> terms = ((GroundFunctionalTerm) term).getTerms();
+            if (!terms.stream().allMatch(t -> t instanceof ValueConstant))
+                return Optional.empty();
+
+            String template = ((ValueConstant) terms.get(0)).getValue();
+            return Optional.of(terms.size() == 1
+                    ? template
+                    : URITemplates.format(template, terms.subList(1, terms.size()).stream()
+                            .map(t -> ((ValueConstant) t).getValue())
+                            .collect(ImmutableCollectors.toList())));
         }
 
         @Override
@@ -0,0 +1,142 @@
+package it.unibz.inf.ontop.answering.reformulation.unfolding.impl;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.BNodePredicate;
+import it.unibz.inf.ontop.model.term.functionsymbol.DatatypePredicate;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.URITemplatePredicate;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Indexes mapping definitions by the constant prefixes of the IRI templates of one of their variables
+ * (e.g. the subject), in a prefix trie.
+ *
+ * For a given IRI, the definitions that may produce it are collected by a single walk of the trie.
+ * The definitions whose variable is not necessarily built from an IRI template are always returned.
+ */
+class IRITemplatePrefixIndex {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private final ImmutableList<IQ> definitions;
+    private final TrieNode root;
+    // Indexes of the definitions that may produce any IRI
+    private final ImmutableList<Integer> unconstrainedDefinitions;
+
+    IRITemplatePrefixIndex(ImmutableCollection<IQ> definitions, Function<IQ, Variable> variableExtractor) {
+        this.definitions = definitions.asList();
+        this.root = new TrieNode();
+        ImmutableList.Builder<Integer> unconstrainedBuilder = ImmutableList.builder();
+        for (int i = 0; i < this.definitions.size(); i++) {
+            IQ definition = this.definitions.get(i);
+            Optional<ImmutableSet<String>> prefixes = extractPrefixes(definition.getTree(),
+                    variableExtractor.apply(definition));
+            if (prefixes.isPresent()) {
+                for (String prefix : prefixes.get())
+                    root.insert(prefix, i);
+            }
+            else
+                unconstrainedBuilder.add(i);
+        }
+        this.unconstrainedDefinitions = unconstrainedBuilder.build();
+    }
+
+    /**
+     * Definitions that may produce the IRI (in their original order)
+     */
+    ImmutableCollection<IQ> getCompatibleDefinitions(String iri) {
+        SortedSet<Integer> indexes = new TreeSet<>(unconstrainedDefinitions);
+        TrieNode node = root;
+        indexes.addAll(node.definitions);
+        for (int i = 0; i < iri.length(); i++) {
+            node = node.children.get(iri.charAt(i));
+            if (node == null)
+                break;
+            indexes.addAll(node.definitions);
+        }
+        return indexes.stream()
+                .map(definitions::get)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Constant prefixes of the IRIs that the variable may take in the tree.
+     *
+     * Empty if the variable is not necessarily built from an IRI template (unconstrained).
+     * The empty set means that the variable is never an IRI.
+     */
+    static Optional<ImmutableSet<String>> extractPrefixes(IQTree tree, Variable variable) {
+        QueryNode rootNode = tree.getRootNode();
+        if (rootNode instanceof ConstructionNode) {
+            ImmutableTerm definition = ((ConstructionNode) rootNode).getSubstitution().get(variable);
+            return definition == null
+                    ? extractPrefixes(((UnaryIQTree) tree).getChild(), variable)
+                    : extractPrefixes(definition);
+        }
+        else if (rootNode instanceof UnionNode) {
+            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (IQTree child : tree.getChildren()) {
+                Optional<ImmutableSet<String>> childPrefixes = extractPrefixes(child, variable);
+                if (!childPrefixes.isPresent())
+                    return Optional.empty();
+                builder.addAll(childPrefixes.get());
+            }
+            return Optional.of(builder.build());
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ImmutableSet<String>> extractPrefixes(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return Optional.empty();
+
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+        if (functionSymbol instanceof URITemplatePredicate) {
+            ImmutableTerm template = functionalTerm.getTerm(0);
+            // IRI directly taken from a column
+            if (!(template instanceof ValueConstant))
+                return Optional.of(ImmutableSet.of(""));
+            String templateString = ((ValueConstant) template).getValue();
+            int index = templateString.indexOf(PLACEHOLDER);
+            return Optional.of(ImmutableSet.of(index < 0 ? templateString : templateString.substring(0, index)));
+        }
+        else if (functionSymbol instanceof BNodePredicate || functionSymbol instanceof DatatypePredicate)
+            return Optional.of(ImmutableSet.of());
+        return Optional.empty();
+    }
+
+    /**
+     * False if the term cannot be the IRI
+     */
+    static boolean isCompatible(ImmutableTerm term, String iri) {
+        return extractPrefixes(term)
+                .map(prefixes -> prefixes.stream().anyMatch(iri::startsWith))
+                .orElse(true);
+    }
+
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<Integer> definitions = new ArrayList<>();
+
+        void insert(String prefix, int definitionIndex) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++)
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TrieNode());
+            node.definitions.add(definitionIndex);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.injection;
 
 
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
@@ -16,6 +17,8 @@ public interface OntopReformulationConfiguration extends OntopOBDAConfiguration,
 
     Optional<IRIDictionary> getIRIDictionary();
 
+    Optional<QueryLifecycleListener> getQueryLifecycleListener();
+
     /**
      * To call ONLY when interested by query REFORMULATION, not FULL query ANSWERING
      * (no query evaluation).
@@ -38,6 +41,11 @@ public interface OntopReformulationConfiguration extends OntopOBDAConfiguration,
          * Not for end-users!
          */
         B iriDictionary(@Nonnull IRIDictionary iriDictionary);
+
+        /**
+         * Notified at each stage of the answering of the queries (e.g. for exporting metrics)
+         */
+        B queryLifecycleListener(@Nonnull QueryLifecycleListener listener);
     }
 
     interface Builder<B extends Builder<B>> extends OntopReformulationBuilderFragment<B>, OntopOBDAConfiguration.Builder<B>,
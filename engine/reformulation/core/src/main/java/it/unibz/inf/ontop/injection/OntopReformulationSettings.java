@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.injection;
 
+import java.util.Optional;
 
 public interface OntopReformulationSettings extends OntopOBDASettings, OntopOptimizationSettings {
 
@@ -12,6 +13,41 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     boolean isDistinctPostProcessingEnabled();
 
+    /**
+     * Maximum number of entries of the bounded query cache
+     */
+    long getQueryCacheMaxSize();
+
+    /**
+     * Maximum total weight (length of the native queries) of the bounded query cache.
+     * When positive, takes precedence over the maximum size.
+     */
+    long getQueryCacheMaxWeight();
+
+    /**
+     * Queries reformulated faster than this duration (in ms) are not cached by the bounded query cache
+     */
+    long getQueryCacheMinReformulationTime();
+
+    /**
+     * Replaces the string constants of the queries by parameters, so that the queries of the same shape
+     * share the same cached native query.
+     *
+     * Ignored when the query cache does not keep its entries.
+     */
+    boolean isQueryParameterizationEnabled();
+
+    /**
+     * File of a memory-mapped IRI dictionary (e.g. written by the semantic-index loader).
+     * Ignored when an IRI dictionary is given to the configuration builder.
+     */
+    Optional<String> getIRIDictionaryFile();
+
+    /**
+     * Exports the statistics of the stages of query answering and of the bounded query cache through JMX
+     */
+    boolean isJmxMonitoringEnabled();
+
 
     //--------------------------
     // Keys
@@ -20,4 +56,10 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String SQL_GENERATE_REPLACE = "ontop.iriSafeEncoding";
     String EXISTENTIAL_REASONING = "ontop.existentialReasoning";
     String DISTINCT_RESULTSET = "ontop.distinctResultSet";
+    String QUERY_CACHE_MAX_SIZE = "ontop.queryCache.maxSize";
+    String QUERY_CACHE_MAX_WEIGHT = "ontop.queryCache.maxWeight";
+    String QUERY_CACHE_MIN_REFORMULATION_TIME = "ontop.queryCache.minReformulationTime";
+    String QUERY_PARAMETERIZATION = "ontop.queryCache.parameterization";
+    String IRI_DICTIONARY_FILE = "ontop.iriDictionary.file";
+    String JMX_MONITORING = "ontop.monitoring.jmx";
 }
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
@@ -99,6 +100,11 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
         return options.iriDictionary;
     }
 
+    @Override
+    public Optional<QueryLifecycleListener> getQueryLifecycleListener() {
+        return options.queryLifecycleListener;
+    }
+
     @Override
     public QueryReformulator loadQueryReformulator() throws OBDASpecificationException {
         ReformulationFactory reformulationFactory = getInjector().getInstance(ReformulationFactory.class);
@@ -115,12 +121,15 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
 
     static class OntopReformulationOptions {
         private final Optional<IRIDictionary> iriDictionary;
+        private final Optional<QueryLifecycleListener> queryLifecycleListener;
         final OntopOBDAOptions obdaOptions;
         final OntopOptimizationOptions optimizationOptions;
 
-        OntopReformulationOptions(Optional<IRIDictionary> iriDictionary, OntopOBDAOptions obdaOptions,
-                                  OntopOptimizationOptions optimizationOptions) {
+        OntopReformulationOptions(Optional<IRIDictionary> iriDictionary,
+                                  Optional<QueryLifecycleListener> queryLifecycleListener,
+                                  OntopOBDAOptions obdaOptions, OntopOptimizationOptions optimizationOptions) {
             this.iriDictionary = iriDictionary;
+            this.queryLifecycleListener = queryLifecycleListener;
             this.obdaOptions = obdaOptions;
             this.optimizationOptions = optimizationOptions;
         }
@@ -133,6 +142,7 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
         private Optional<Boolean> encodeIRISafely = Optional.empty();
         private Optional<Boolean> existentialReasoning = Optional.empty();
         private Optional<IRIDictionary> iriDictionary = Optional.empty();
+        private Optional<QueryLifecycleListener> queryLifecycleListener = Optional.empty();
 
         DefaultOntopReformulationBuilderFragment(B builder) {
             this.builder = builder;
@@ -157,6 +167,12 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
             return builder;
         }
 
+        @Override
+        public B queryLifecycleListener(@Nonnull QueryLifecycleListener listener) {
+            this.queryLifecycleListener = Optional.of(listener);
+            return builder;
+        }
+
         Properties generateProperties() {
             Properties p = new Properties();
 
@@ -168,7 +184,8 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
 
         final OntopReformulationOptions generateReformulationOptions(OntopOBDAOptions obdaOptions,
                                                                      OntopOptimizationOptions optimizationOptions) {
-            return new OntopReformulationOptions(iriDictionary, obdaOptions, optimizationOptions);
+            return new OntopReformulationOptions(iriDictionary, queryLifecycleListener, obdaOptions,
+                    optimizationOptions);
         }
     }
 
@@ -200,6 +217,11 @@ public class OntopReformulationConfigurationImpl extends OntopOBDAConfigurationI
             return localBuilderFragment.iriDictionary(iriDictionary);
         }
 
+        @Override
+        public B queryLifecycleListener(@Nonnull QueryLifecycleListener listener) {
+            return localBuilderFragment.queryLifecycleListener(listener);
+        }
+
         @Override
         protected Properties generateProperties() {
             Properties properties = super.generateProperties();
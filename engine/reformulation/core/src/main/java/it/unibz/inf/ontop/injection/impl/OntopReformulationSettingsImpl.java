@@ -4,6 +4,7 @@ import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implements OntopReformulationSettings {
@@ -41,4 +42,34 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
     public boolean isDistinctPostProcessingEnabled() {
         return getRequiredBoolean(DISTINCT_RESULTSET);
     }
+
+    @Override
+    public long getQueryCacheMaxSize() {
+        return getRequiredInteger(QUERY_CACHE_MAX_SIZE);
+    }
+
+    @Override
+    public long getQueryCacheMaxWeight() {
+        return getRequiredInteger(QUERY_CACHE_MAX_WEIGHT);
+    }
+
+    @Override
+    public long getQueryCacheMinReformulationTime() {
+        return getRequiredInteger(QUERY_CACHE_MIN_REFORMULATION_TIME);
+    }
+
+    @Override
+    public boolean isQueryParameterizationEnabled() {
+        return getRequiredBoolean(QUERY_PARAMETERIZATION);
+    }
+
+    @Override
+    public Optional<String> getIRIDictionaryFile() {
+        return getProperty(IRI_DICTIONARY_FILE);
+    }
+
+    @Override
+    public boolean isJmxMonitoringEnabled() {
+        return getRequiredBoolean(JMX_MONITORING);
+    }
 }
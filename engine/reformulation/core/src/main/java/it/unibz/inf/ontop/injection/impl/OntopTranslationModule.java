@@ -1,13 +1,20 @@
 package it.unibz.inf.ontop.injection.impl;
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.util.Providers;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.impl.CompositeQueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.impl.JmxQueryLifecycleListener;
+import it.unibz.inf.ontop.answering.monitoring.impl.NoOpQueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.injection.OntopReformulationConfiguration;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+import it.unibz.inf.ontop.answering.reformulation.impl.MappedIRIDictionary;
 
+import java.nio.file.Paths;
 import java.util.Optional;
 
 /**
@@ -28,7 +35,10 @@ public class OntopTranslationModule extends OntopAbstractModule {
         bindFromSettings(RDF4JInputQueryFactory.class);
         bindFromSettings(InputQueryFactory.class);
 
-        Optional<IRIDictionary> iriDictionary = configuration.getIRIDictionary();
+        Optional<IRIDictionary> iriDictionary = configuration.getIRIDictionary()
+                .map(Optional::of)
+                .orElseGet(() -> configuration.getSettings().getIRIDictionaryFile()
+                        .map(f -> new MappedIRIDictionary(Paths.get(f))));
         if (iriDictionary.isPresent()) {
             bind(IRIDictionary.class).toInstance(iriDictionary.get());
         }
@@ -36,6 +46,25 @@ public class OntopTranslationModule extends OntopAbstractModule {
             bind(IRIDictionary.class).toProvider(Providers.of(null));
         }
 
+        bind(QueryLifecycleListener.class).toInstance(createQueryLifecycleListener());
+
         configuration = null;
     }
+
+    private QueryLifecycleListener createQueryLifecycleListener() {
+        ImmutableList.Builder<QueryLifecycleListener> listenerBuilder = ImmutableList.builder();
+        configuration.getQueryLifecycleListener().ifPresent(listenerBuilder::add);
+        if (configuration.getSettings().isJmxMonitoringEnabled())
+            listenerBuilder.add(JmxQueryLifecycleListener.getInstance());
+
+        ImmutableList<QueryLifecycleListener> listeners = listenerBuilder.build();
+        switch (listeners.size()) {
+            case 0:
+                return new NoOpQueryLifecycleListener();
+            case 1:
+                return listeners.get(0);
+            default:
+                return new CompositeQueryLifecycleListener(listeners);
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package it.unibz.inf.ontop.answering.monitoring.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.monitoring.QuerySize;
+import it.unibz.inf.ontop.answering.monitoring.QueryStage;
+import it.unibz.inf.ontop.answering.monitoring.QueryStageEvent;
+import it.unibz.inf.ontop.answering.monitoring.QueryType;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class JmxQueryLifecycleListenerTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = QueryStatistics.getBucket(value);
+            assertTrue(value <= QueryStatistics.getUpperBound(bucket));
+            if (bucket > 0)
+                assertTrue(value > QueryStatistics.getUpperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        QueryStatistics statistics = new QueryStatistics(1, "");
+        for (int i = 1; i <= 1000; i++)
+            statistics.record(i);
+
+        assertEquals(1000, statistics.getCount());
+        assertEquals(500.5, statistics.getMean(), 0.001);
+        assertEquals(1000, statistics.getMax(), 0.001);
+        assertEquals(500, statistics.get50thPercentile(), 500 * 0.125);
+        assertEquals(990, statistics.get99thPercentile(), 990 * 0.125);
+        assertTrue(statistics.get99thPercentile() <= statistics.getMax());
+    }
+
+    @Test
+    public void testRegistration() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JmxQueryLifecycleListener listener = new JmxQueryLifecycleListener(server);
+
+        listener.onStageCompleted(new QueryStageEvent(QueryStage.UNFOLDING, QueryType.SELECT, 2_000_000));
+        listener.onStageCompleted(new QueryStageEvent(QueryStage.UNFOLDING, QueryType.SELECT, 4_000_000));
+        listener.onStageCompleted(new QueryStageEvent(QueryStage.OPTIMIZATION, Optional.of("JoinLikeOptimizer"),
+                QueryType.ASK, 1_000_000, ImmutableMap.of(QuerySize.JOIN_COUNT, 3L)));
+
+        ObjectName unfolding = new ObjectName("it.unibz.inf.ontop:type=QueryStage,queryType=SELECT,stage=UNFOLDING");
+        assertEquals(2L, server.getAttribute(unfolding, "Count"));
+        assertEquals(3.0, (double) server.getAttribute(unfolding, "Mean"), 0.001);
+        assertEquals("ms", server.getAttribute(unfolding, "Unit"));
+
+        ObjectName optimization = new ObjectName("it.unibz.inf.ontop:type=QueryStage,queryType=ASK,stage=OPTIMIZATION,"
+                + "step=\"JoinLikeOptimizer\"");
+        assertEquals(1L, server.getAttribute(optimization, "Count"));
+
+        ObjectName joins = new ObjectName("it.unibz.inf.ontop:type=QuerySize,queryType=ASK,size=JOIN_COUNT");
+        assertEquals(3.0, (double) server.getAttribute(joins, "Max"), 0.001);
+    }
+}
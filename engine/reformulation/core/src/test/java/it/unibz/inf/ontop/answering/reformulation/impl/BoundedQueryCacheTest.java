@@ -0,0 +1,219 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.datalog.InternalSparqlQuery;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BoundedQueryCacheTest {
+
+    @Test
+    public void testMaxSize() {
+        BoundedQueryCache cache = new BoundedQueryCache(10, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            cache.put(new FakeInputQuery("q" + i), new FakeExecutableQuery("SELECT " + i), 10);
+        }
+        assertTrue(cache.size() <= 10);
+        assertEquals(100 - cache.size(), cache.getStatistics().evictionCount());
+    }
+
+    @Test
+    public void testMaxWeight() {
+        // Each native query is 10 characters long
+        BoundedQueryCache cache = new BoundedQueryCache(1000, 100, 0);
+        for (int i = 0; i < 50; i++) {
+            cache.put(new FakeInputQuery("q" + i), new FakeExecutableQuery(String.format("SELECT %03d", i)), 10);
+        }
+        assertTrue(cache.size() <= 10);
+        assertEquals(50 - cache.size(), cache.getStatistics().evictionCount());
+
+        char[] longQuery = new char[200];
+        Arrays.fill(longQuery, 'a');
+        cache.put(new FakeInputQuery("long"), new FakeExecutableQuery(new String(longQuery)), 10);
+        assertNull(cache.get(new FakeInputQuery("long")));
+    }
+
+    @Test
+    public void testMinReformulationTime() {
+        BoundedQueryCache cache = new BoundedQueryCache(10, 0, 5);
+        cache.put(new FakeInputQuery("q1"), new FakeExecutableQuery("SELECT 1"), 2);
+        cache.put(new FakeInputQuery("q2"), new FakeExecutableQuery("SELECT 2"), 8);
+
+        assertNull(cache.get(new FakeInputQuery("q1")));
+        assertNotNull(cache.get(new FakeInputQuery("q2")));
+        assertEquals(1, cache.getStatistics().hitCount());
+        assertEquals(1, cache.getStatistics().missCount());
+    }
+
+    @Test
+    public void testCostAwareEviction() {
+        BoundedQueryCache cache = new BoundedQueryCache(2, 0, 0);
+        cache.put(new FakeInputQuery("expensive"), new FakeExecutableQuery("SELECT 1"), 100);
+        cache.put(new FakeInputQuery("cheap1"), new FakeExecutableQuery("SELECT 2"), 1);
+        // Evicts cheap1, although expensive is the least recently used
+        cache.put(new FakeInputQuery("cheap2"), new FakeExecutableQuery("SELECT 3"), 1);
+
+        assertNotNull(cache.get(new FakeInputQuery("expensive")));
+        assertNull(cache.get(new FakeInputQuery("cheap1")));
+        assertNotNull(cache.get(new FakeInputQuery("cheap2")));
+        assertEquals(1, cache.getStatistics().evictionCount());
+    }
+
+    @Test
+    public void testAging() {
+        BoundedQueryCache cache = new BoundedQueryCache(2, 0, 0);
+        cache.put(new FakeInputQuery("expensive"), new FakeExecutableQuery("SELECT 1"), 10);
+        // Each eviction inflates the priority of the new entries: the expensive one ends up evicted if never used
+        for (int i = 0; i < 20; i++)
+            cache.put(new FakeInputQuery("q" + i), new FakeExecutableQuery("SELECT " + i), 1);
+
+        assertNull(cache.get(new FakeInputQuery("expensive")));
+        assertNotNull(cache.get(new FakeInputQuery("q19")));
+    }
+
+    @Test
+    public void testCostPerWeight() {
+        BoundedQueryCache cache = new BoundedQueryCache(1000, 30, 0);
+        // Same cost, but the long query frees more space
+        cache.put(new FakeInputQuery("long"), new FakeExecutableQuery("SELECT 0123456789"), 10);
+        cache.put(new FakeInputQuery("short"), new FakeExecutableQuery("SELECT 1"), 10);
+        cache.put(new FakeInputQuery("other"), new FakeExecutableQuery("SELECT 2"), 10);
+
+        assertNull(cache.get(new FakeInputQuery("long")));
+        assertNotNull(cache.get(new FakeInputQuery("short")));
+        assertNotNull(cache.get(new FakeInputQuery("other")));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        BoundedQueryCache cache = new BoundedQueryCache(1, 0, 5);
+        cache.registerMBean(server, 0);
+
+        cache.put(new FakeInputQuery("q1"), new FakeExecutableQuery("SELECT 1"), 10);
+        cache.put(new FakeInputQuery("q2"), new FakeExecutableQuery("SELECT 2"), 10);
+        cache.put(new FakeInputQuery("q3"), new FakeExecutableQuery("SELECT 3"), 1);
+        cache.get(new FakeInputQuery("q1"));
+        cache.get(new FakeInputQuery("q2"));
+
+        ObjectName name = new ObjectName("it.unibz.inf.ontop:type=QueryCache,id=0");
+        assertEquals(1L, server.getAttribute(name, "Size"));
+        assertEquals(1L, server.getAttribute(name, "HitCount"));
+        assertEquals(1L, server.getAttribute(name, "MissCount"));
+        assertEquals(0.5, (double) server.getAttribute(name, "HitRate"), 0.001);
+        assertEquals(1L, server.getAttribute(name, "EvictionCount"));
+        assertEquals(1L, server.getAttribute(name, "RejectionCount"));
+    }
+
+    @Test
+    public void testMBeanUnregistration() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        BoundedQueryCache cache = new BoundedQueryCache(1, 0, 5);
+        cache.registerMBean(server, 0);
+
+        ObjectName name = new ObjectName("it.unibz.inf.ontop:type=QueryCache,id=0");
+        assertTrue(server.isRegistered(name));
+        cache.close();
+        assertFalse(server.isRegistered(name));
+        // Idempotent
+        cache.close();
+    }
+
+    @Test
+    public void testEvictionAfterHits() {
+        BoundedQueryCache cache = new BoundedQueryCache(2, 0, 0);
+        cache.put(new FakeInputQuery("q1"), new FakeExecutableQuery("SELECT 1"), 10);
+        cache.put(new FakeInputQuery("q2"), new FakeExecutableQuery("SELECT 2"), 10);
+        // Same priority: the hit makes q1 the most recently used one
+        assertNotNull(cache.get(new FakeInputQuery("q1")));
+        cache.put(new FakeInputQuery("q3"), new FakeExecutableQuery("SELECT 3"), 10);
+
+        assertNotNull(cache.get(new FakeInputQuery("q1")));
+        assertNull(cache.get(new FakeInputQuery("q2")));
+        assertNotNull(cache.get(new FakeInputQuery("q3")));
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    public void testConcurrentHits() throws Exception {
+        BoundedQueryCache cache = new BoundedQueryCache(10, 0, 0);
+        for (int i = 0; i < 10; i++)
+            cache.put(new FakeInputQuery("q" + i), new FakeExecutableQuery("SELECT " + i), 10);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++)
+                    cache.get(new FakeInputQuery("q" + (i % 10)));
+            });
+            threads[t].start();
+        }
+        for (int i = 10; i < 100; i++)
+            cache.put(new FakeInputQuery("q" + i), new FakeExecutableQuery("SELECT " + i), 10);
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(10, cache.getSize());
+        assertEquals(4000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    private static class FakeInputQuery implements InputQuery {
+        private final String queryString;
+
+        FakeInputQuery(String queryString) {
+            this.queryString = queryString;
+        }
+
+        @Override
+        public String getInputString() {
+            return queryString;
+        }
+
+        @Override
+        public InternalSparqlQuery translate(InputQueryTranslator translator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof FakeInputQuery) && ((FakeInputQuery) o).queryString.equals(queryString);
+        }
+
+        @Override
+        public int hashCode() {
+            return queryString.hashCode();
+        }
+    }
+
+    private static class FakeExecutableQuery implements ExecutableQuery {
+        private final String nativeQuery;
+
+        FakeExecutableQuery(String nativeQuery) {
+            this.nativeQuery = nativeQuery;
+        }
+
+        @Override
+        public ImmutableList<String> getSignature() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return nativeQuery;
+        }
+    }
+}
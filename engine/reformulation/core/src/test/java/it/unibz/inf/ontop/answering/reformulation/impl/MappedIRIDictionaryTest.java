@@ -0,0 +1,61 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedIRIDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLookups() throws Exception {
+        List<String> iris = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Not in the lexicographic order
+            iris.add("http://example.org/person/" + (i * 7919 % 1000));
+            iris.add("http://example.org/" + i + "/été");
+        }
+        iris.add("");
+        MappedIRIDictionary dictionary = write(iris);
+
+        assertEquals(iris.size(), dictionary.size());
+        for (int id = 0; id < iris.size(); id++) {
+            assertEquals(iris.get(id), dictionary.getURI(id));
+            assertEquals(id, dictionary.getId(iris.get(id)));
+        }
+    }
+
+    @Test
+    public void testUnknown() throws Exception {
+        MappedIRIDictionary dictionary = write(ImmutableList.of("http://example.org/b", "http://example.org/a"));
+
+        assertEquals(-2, dictionary.getId("http://example.org/c"));
+        assertEquals(-2, dictionary.getId("http://example.org/"));
+        assertNull(dictionary.getURI(2));
+        assertNull(dictionary.getURI(-1));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        MappedIRIDictionary dictionary = write(ImmutableList.of());
+
+        assertEquals(0, dictionary.size());
+        assertEquals(-2, dictionary.getId("http://example.org/a"));
+        assertNull(dictionary.getURI(0));
+    }
+
+    private MappedIRIDictionary write(List<String> iris) throws Exception {
+        Path file = folder.newFile().toPath();
+        MappedIRIDictionary.write(iris, file);
+        return new MappedIRIDictionary(file);
+    }
+}
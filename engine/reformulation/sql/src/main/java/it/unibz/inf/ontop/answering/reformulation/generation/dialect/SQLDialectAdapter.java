@@ -27,6 +27,7 @@ import it.unibz.inf.ontop.model.term.Variable;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface SQLDialectAdapter {
@@ -74,6 +75,36 @@ public interface SQLDialectAdapter {
 	public String strConcat(String[] strings);
 
 	public String strReplace(String str, String oldstr, String newstr);
+
+	/**
+	 * String aggregation (GROUP_CONCAT in SPARQL)
+	 *
+	 * @param separator SQL string literal
+	 */
+	public String strGroupConcat(String str, String separator, boolean distinct);
+
+	/**
+	 * False if strGroupConcat cannot eliminate the duplicates (the query is then rejected)
+	 */
+	boolean isDistinctGroupConcatSupported();
+
+	/**
+	 * AVG over integers or decimals, as a decimal (not truncated to the scale of the argument)
+	 */
+	String exactNumericAvg(String number, boolean distinct);
+
+	/**
+	 * Keyword introducing the recursive common table expressions (property paths),
+	 * empty if they are not supported
+	 */
+	Optional<String> getRecursiveCTEKeyword();
+
+	/**
+	 * False if only UNION ALL is allowed between the anchor and the recursive member
+	 * of a recursive common table expression
+	 */
+	boolean isUnionAllowedInRecursiveCTE();
+
 	
 	/*
 	 * Table/Column name functions
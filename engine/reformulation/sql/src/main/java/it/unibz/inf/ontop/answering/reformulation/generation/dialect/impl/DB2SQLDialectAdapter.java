@@ -23,6 +23,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
 import java.sql.Types;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 public class DB2SQLDialectAdapter extends SQL99DialectAdapter {
 	private static Map<Integer, String> SqlDatatypes;
@@ -200,5 +201,24 @@ public class DB2SQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
-	
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH");
+	}
+
+	/**
+	 * Recursive common table expressions must use UNION ALL
+	 */
+	@Override
+	public boolean isUnionAllowedInRecursiveCTE() {
+		return false;
+	}
+
+	/**
+	 * DECFLOAT: the precision of DECIMAL is at most 31
+	 */
+	@Override
+	public String exactNumericAvg(String number, boolean distinct) {
+		return String.format("AVG(%sCAST(%s AS DECFLOAT))", distinct ? "DISTINCT " : "", number);
+	}
 }
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
  * #L%
  */
 
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public class H2SQLDialectAdapter extends SQL99DialectAdapter {
@@ -148,5 +149,22 @@ public class H2SQLDialectAdapter extends SQL99DialectAdapter {
 		
 		return bf.toString();
 	}
-	
+
+	@Override
+	public String strGroupConcat(String str, String separator, boolean distinct) {
+		return String.format("GROUP_CONCAT(%s%s SEPARATOR %s)", distinct ? "DISTINCT " : "", str, separator);
+	}
+
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
+
+	/**
+	 * Recursive common table expressions must use UNION ALL
+	 */
+	@Override
+	public boolean isUnionAllowedInRecursiveCTE() {
+		return false;
+	}
 }
@@ -24,6 +24,7 @@ import it.unibz.inf.ontop.datalog.OrderCondition;
 
 import java.sql.Types;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public class HSQLDBDialectAdapter extends SQL99DialectAdapter {
@@ -234,5 +235,14 @@ public class HSQLDBDialectAdapter extends SQL99DialectAdapter {
 		
 		return bf.toString();
 	}
-	
+
+	@Override
+	public String strGroupConcat(String str, String separator, boolean distinct) {
+		return String.format("GROUP_CONCAT(%s%s SEPARATOR %s)", distinct ? "DISTINCT " : "", str, separator);
+	}
+
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
 }
@@ -262,4 +262,17 @@ public class Mysql2SQLDialectAdapter extends SQL99DialectAdapter {
         return "'" + constant.replace("\\", "\\\\").replace("'", "\\'") + "'";
         //return super.getSQLLexicalFormString(constant).replace("\\", "\\\\");
     }
+
+	@Override
+	public String strGroupConcat(String str, String separator, boolean distinct) {
+		return String.format("GROUP_CONCAT(%s%s SEPARATOR %s)", distinct ? "DISTINCT " : "", str, separator);
+	}
+
+	/**
+	 * AVG over integers is already a decimal
+	 */
+	@Override
+	public String exactNumericAvg(String number, boolean distinct) {
+		return String.format("AVG(%s%s)", distinct ? "DISTINCT " : "", number);
+	}
 }
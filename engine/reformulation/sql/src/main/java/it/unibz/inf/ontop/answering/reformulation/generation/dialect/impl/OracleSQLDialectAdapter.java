@@ -412,4 +412,25 @@ public class OracleSQLDialectAdapter extends SQL99DialectAdapter {
 		throw new RuntimeException("Impossible to create a new variable/view " + prefix + shortenIntermediateNamePrefix
 				+ "???" + suffix + " : already " + Math.pow(10, NAME_NUMBER_LENGTH) + " of them.");
 	}
+
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH");
+	}
+
+	/**
+	 * Recursive common table expressions must use UNION ALL
+	 */
+	@Override
+	public boolean isUnionAllowedInRecursiveCTE() {
+		return false;
+	}
+
+	/**
+	 * AVG over integers is already a NUMBER with the required scale
+	 */
+	@Override
+	public String exactNumericAvg(String number, boolean distinct) {
+		return String.format("AVG(%s%s)", distinct ? "DISTINCT " : "", number);
+	}
 }
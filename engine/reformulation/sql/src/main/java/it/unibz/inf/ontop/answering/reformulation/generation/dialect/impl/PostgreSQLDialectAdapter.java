@@ -215,4 +215,22 @@ public class PostgreSQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
+	@Override
+	public String strGroupConcat(String str, String separator, boolean distinct) {
+		// STRING_AGG only accepts text values
+		return String.format("STRING_AGG(%sCAST(%s AS TEXT), %s)", distinct ? "DISTINCT " : "", str, separator);
+	}
+
+	/**
+	 * AVG over integers is already a decimal
+	 */
+	@Override
+	public String exactNumericAvg(String number, boolean distinct) {
+		return String.format("AVG(%s%s)", distinct ? "DISTINCT " : "", number);
+	}
+
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH RECURSIVE");
+	}
 }
@@ -30,6 +30,7 @@ import java.sql.Types;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -601,5 +602,38 @@ public class SQL99DialectAdapter implements SQLDialectAdapter {
         return bf.toString();
     }
 
+    /**
+     * LISTAGG (SQL:2016)
+     */
+    @Override
+    public String strGroupConcat(String str, String separator, boolean distinct) {
+        return String.format("LISTAGG(%s%s, %s) WITHIN GROUP (ORDER BY %s)",
+                distinct ? "DISTINCT " : "", str, separator, str);
+    }
+
+    @Override
+    public boolean isDistinctGroupConcatSupported() {
+        return true;
+    }
 
+    /**
+     * AVG keeps the scale of its argument in several DBMSs (e.g. H2, SQL Server and HSQLDB): cast to a decimal first
+     */
+    @Override
+    public String exactNumericAvg(String number, boolean distinct) {
+        return String.format("AVG(%sCAST(%s AS DECIMAL(38,10)))", distinct ? "DISTINCT " : "", number);
+    }
+
+    /**
+     * Recursive common table expressions are optional in SQL:1999
+     */
+    @Override
+    public Optional<String> getRecursiveCTEKeyword() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isUnionAllowedInRecursiveCTE() {
+        return true;
+    }
 }
@@ -21,11 +21,13 @@ package it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl;
  */
 
 import it.unibz.inf.ontop.datalog.OrderCondition;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 
 import java.sql.Types;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class SQLServerSQLDialectAdapter extends SQL99DialectAdapter {
 	
@@ -311,5 +313,32 @@ public class SQLServerSQLDialectAdapter extends SQL99DialectAdapter {
 		return bf.toString();
 	}
 
+	/**
+	 * STRING_AGG (SQL Server 2017+) does not support DISTINCT
+	 */
+	@Override
+	public String strGroupConcat(String str, String separator, boolean distinct) {
+		if (distinct)
+			throw new MinorOntopInternalBugException("GROUP_CONCAT(DISTINCT ...) should have been rejected " +
+					"before the SQL generation (see isDistinctGroupConcatSupported)");
+		return String.format("STRING_AGG(CAST(%s AS NVARCHAR(MAX)), %s)", str, separator);
+	}
+
+	@Override
+	public boolean isDistinctGroupConcatSupported() {
+		return false;
+	}
 
+	@Override
+	public Optional<String> getRecursiveCTEKeyword() {
+		return Optional.of("WITH");
+	}
+
+	/**
+	 * Recursive common table expressions must use UNION ALL
+	 */
+	@Override
+	public boolean isUnionAllowedInRecursiveCTE() {
+		return false;
+	}
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQueryTemplate;
 import it.unibz.inf.ontop.datalog.DatalogFactory;
 import it.unibz.inf.ontop.datalog.DatalogNormalizer;
 import it.unibz.inf.ontop.datalog.IQ2DatalogTranslator;
@@ -27,6 +28,10 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 
 import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Wrapper over a non thread-safe implementation
@@ -72,4 +77,64 @@ public class LegacySQLGenerator implements NativeQueryGenerator {
         // Empty string query
         return new SQLExecutableQuery(signatureContainer);
     }
+
+    /**
+     * Only the occurrences appearing as complete SQL string literals are replaced.
+     * Each placeholder must appear at least once.
+     */
+    @Override
+    public Optional<ExecutableQuery> generateTemplate(ExecutableQuery executableQuery,
+                                                      ImmutableList<String> placeholders) {
+        SQLExecutableQuery sqlQuery = checkAndConvertQuery(executableQuery);
+        String sql = sqlQuery.getSQL();
+        ImmutableList<String> signature = sqlQuery.getSignature();
+
+        // No solution, whatever the values of the parameters
+        if (sql.isEmpty())
+            return Optional.of(new SQLExecutableQueryTemplate(sql, signature, ImmutableList.of(),
+                    sqlQuery.getStaticTypeLangValues(), sqlQuery.isDistinctPostProcessed()));
+
+        Pattern pattern = Pattern.compile(placeholders.stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|", "(?<![\\w'])'(", ")'(?!')")));
+
+        ImmutableList.Builder<Integer> indexBuilder = ImmutableList.builder();
+        int[] counts = new int[placeholders.size()];
+        StringBuffer sb = new StringBuffer();
+        Matcher matcher = pattern.matcher(sql);
+        while (matcher.find()) {
+            int index = placeholders.indexOf(matcher.group(1));
+            indexBuilder.add(index);
+            counts[index]++;
+            matcher.appendReplacement(sb, "?");
+        }
+        matcher.appendTail(sb);
+
+        for (int i = 0; i < counts.length; i++) {
+            if ((counts[i] == 0) || (counts[i] != countOccurrences(sql, placeholders.get(i))))
+                return Optional.empty();
+        }
+        return Optional.of(new SQLExecutableQueryTemplate(sb.toString(), signature, indexBuilder.build(),
+                sqlQuery.getStaticTypeLangValues(), sqlQuery.isDistinctPostProcessed()));
+    }
+
+    @Override
+    public ExecutableQuery instantiateTemplate(ExecutableQuery template, ImmutableList<String> values) {
+        if (!(template instanceof SQLExecutableQueryTemplate))
+            throw new IllegalArgumentException("A SQLExecutableQueryTemplate was expected");
+        return ((SQLExecutableQueryTemplate) template).instantiate(values);
+    }
+
+    private static SQLExecutableQuery checkAndConvertQuery(ExecutableQuery executableQuery) {
+        if (!(executableQuery instanceof SQLExecutableQuery))
+            throw new IllegalArgumentException("A SQLExecutableQuery was expected");
+        return (SQLExecutableQuery) executableQuery;
+    }
+
+    private static int countOccurrences(String string, String substring) {
+        int count = 0;
+        for (int i = string.indexOf(substring); i >= 0; i = string.indexOf(substring, i + substring.length()))
+            count++;
+        return count;
+    }
 }
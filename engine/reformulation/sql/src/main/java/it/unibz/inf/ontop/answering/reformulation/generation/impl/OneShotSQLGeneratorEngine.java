@@ -24,6 +24,7 @@ package it.unibz.inf.ontop.answering.reformulation.generation.impl;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
@@ -33,12 +34,14 @@ import it.unibz.inf.ontop.answering.reformulation.generation.dialect.impl.DB2SQL
 import it.unibz.inf.ontop.answering.reformulation.generation.utils.COL_TYPE;
 import it.unibz.inf.ontop.answering.reformulation.generation.utils.XsdDatatypeConverter;
 import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.impl.StaticTypeLangValues;
 import it.unibz.inf.ontop.datalog.*;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.exception.IncompatibleTermException;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.exception.OntopTypingException;
+import it.unibz.inf.ontop.exception.OntopUnsupportedInputQueryException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.injection.OptimizerFactory;
@@ -66,6 +69,8 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static it.unibz.inf.ontop.answering.reformulation.generation.utils.COL_TYPE.*;
 
@@ -104,6 +109,8 @@ public class OneShotSQLGeneratorEngine {
 
 	private final boolean distinctResultSet;
 	private final boolean isIRISafeEncodingEnabled;
+	private final int maxPropertyPathLength;
+	private final int maxPropertyPathRecursionDepth;
 
 	@Nullable
 	private final IRIDictionary uriRefIds;
@@ -128,6 +135,12 @@ public class OneShotSQLGeneratorEngine {
 	// the only two mutable (query-dependent) fields
 	private boolean isDistinct = false;
 	private boolean isOrderBy = false;
+	// Recursive common table expressions of the transitive closures (prepended to the query)
+	private final List<String> commonTableExpressions = new ArrayList<>();
+	// Type and language values of the top-level variables that are the same for all the rows (not projected)
+	private final Map<String, StaticTypeLangValues> staticTypeLangValues = new HashMap<>();
+	// DISTINCT applied to the result set instead of the SQL query
+	private boolean isDistinctPostProcessed = false;
 
 
 	OneShotSQLGeneratorEngine(DBMetadata metadata,
@@ -177,6 +190,8 @@ public class OneShotSQLGeneratorEngine {
 		this.distinctResultSet = settings.isDistinctPostProcessingEnabled();
 		this.iq2DatalogTranslator = iq2DatalogTranslator;
 		this.isIRISafeEncodingEnabled = settings.isIRISafeEncodingEnabled();
+		this.maxPropertyPathLength = settings.getMaxPropertyPathLength();
+		this.maxPropertyPathRecursionDepth = settings.getMaxPropertyPathRecursionDepth();
 		this.uriRefIds = iriDictionary;
 		this.jdbcTypeMapper = jdbcTypeMapper;
 	}
@@ -186,6 +201,7 @@ public class OneShotSQLGeneratorEngine {
 	 */
 	private OneShotSQLGeneratorEngine(RDBMetadata metadata, SQLDialectAdapter sqlAdapter,
 									  boolean isIRISafeEncodingEnabled, boolean distinctResultSet,
+									  int maxPropertyPathLength, int maxPropertyPathRecursionDepth,
 									  IRIDictionary uriRefIds, JdbcTypeMapper jdbcTypeMapper,
 									  ImmutableMap<ExpressionOperation, String> operations,
 									  IQ2DatalogTranslator iq2DatalogTranslator,
@@ -201,6 +217,8 @@ public class OneShotSQLGeneratorEngine {
 		this.operations = operations;
 		this.isIRISafeEncodingEnabled = isIRISafeEncodingEnabled;
 		this.distinctResultSet = distinctResultSet;
+		this.maxPropertyPathLength = maxPropertyPathLength;
+		this.maxPropertyPathRecursionDepth = maxPropertyPathRecursionDepth;
 		this.uriRefIds = uriRefIds;
 		this.jdbcTypeMapper = jdbcTypeMapper;
 		this.iq2DatalogTranslator = iq2DatalogTranslator;
@@ -271,7 +289,8 @@ public class OneShotSQLGeneratorEngine {
 	@Override
 	public OneShotSQLGeneratorEngine clone() {
 		return new OneShotSQLGeneratorEngine(metadata, sqladapter,
-				isIRISafeEncodingEnabled, distinctResultSet, uriRefIds, jdbcTypeMapper, operations, iq2DatalogTranslator,
+				isIRISafeEncodingEnabled, distinctResultSet, maxPropertyPathLength, maxPropertyPathRecursionDepth,
+				uriRefIds, jdbcTypeMapper, operations, iq2DatalogTranslator,
 				typeExtractor, relation2Predicate, datalogNormalizer, datalogFactory,
                 typeFactory, termFactory, iqFactory, iqConverter, unionFlattener, pushDownExpressionOptimizer,
 				optimizerFactory, pullUpExpressionOptimizer);
@@ -297,6 +316,13 @@ public class OneShotSQLGeneratorEngine {
 		}
 		log.debug("Program normalized for SQL translation:\n" + queryProgram);
 
+		if (!sqladapter.isDistinctGroupConcatSupported()
+				&& queryProgram.getRules().stream()
+				.flatMap(r -> Stream.concat(Stream.of(r.getHead()), r.getBody().stream()))
+				.anyMatch(OneShotSQLGeneratorEngine::containsDistinctGroupConcat))
+			throw new OntopUnsupportedInputQueryException("GROUP_CONCAT(DISTINCT ...) is not supported by "
+					+ metadata.getDbmsProductName());
+
 		MutableQueryModifiers queryModifiers = queryProgram.getQueryModifiers();
 		isDistinct = queryModifiers.hasModifiers() && queryModifiers.isDistinct();
 		isOrderBy = queryModifiers.hasModifiers() && !queryModifiers.getSortConditions().isEmpty();
@@ -310,7 +336,10 @@ public class OneShotSQLGeneratorEngine {
 				.map(Variable::getName)
 				.collect(ImmutableCollectors.toList());
 
-		final String resultingQuery;
+		String resultingQuery;
+		commonTableExpressions.clear();
+		staticTypeLangValues.clear();
+		isDistinctPostProcessed = isDistinct && distinctResultSet;
 		String queryString = generateQuery(signature, ruleIndex, predicatesInBottomUp, extensionalPredicates);
 		if (queryModifiers.hasModifiers()) {
 			//List<Variable> groupby = queryProgram.getQueryModifiers().getGroupConditions();
@@ -343,7 +372,13 @@ public class OneShotSQLGeneratorEngine {
 		else {
 			resultingQuery = queryString;
 		}
-		return new SQLExecutableQuery(resultingQuery, signature);
+		if (!commonTableExpressions.isEmpty()) {
+			resultingQuery = sqladapter.getRecursiveCTEKeyword().get() + " "
+					+ Joiner.on(",\n").join(commonTableExpressions) + "\n"
+					+ resultingQuery;
+		}
+		return new SQLExecutableQuery(resultingQuery, signature, ImmutableList.of(),
+				ImmutableMap.copyOf(staticTypeLangValues), isDistinctPostProcessed);
 	}
 
 	private IQ normalizeIQ(IntermediateQuery intermediateQuery) {
@@ -354,20 +389,32 @@ public class OneShotSQLGeneratorEngine {
 		IntermediateQuery pushedDownQuery = pushDownExpressionOptimizer.optimize(intermediateQuery);
 		log.debug("New query after pushing down the boolean expressions (temporary): \n" + pushedDownQuery);
 
-		IQ flattenIQ = unionFlattener.optimize(iqConverter.convert(pushedDownQuery));
+		IQ pushedDownIQ = iqConverter.convert(pushedDownQuery);
+		IQ flattenIQ = unionFlattener.optimize(pushedDownIQ);
 		log.debug("New query after flattening the union: \n" + flattenIQ);
 
 		IQTree treeAfterPullOut = optimizerFactory.createEETransformer(flattenIQ.getVariableGenerator()).transform(flattenIQ.getTree());
 		log.debug("Query tree after pulling out equalities: \n" + treeAfterPullOut);
 
+		// The conversions are only done for the trees that have been changed
+		IQ iqAfterPullOut = (flattenIQ == pushedDownIQ) && treeAfterPullOut.isEquivalentTo(pushedDownIQ.getTree())
+				? pushedDownIQ
+				: iqFactory.createIQ(flattenIQ.getProjectionAtom(), treeAfterPullOut);
+
 		// Pulling up is needed when filtering conditions appear above a data atom on the left
 		// (causes problems to the IQ2DatalogConverter)
 		try {
-			IntermediateQuery queryAfterPullUp = pullUpExpressionOptimizer.optimize(iqConverter.convert(
-					iqFactory.createIQ(flattenIQ.getProjectionAtom(), treeAfterPullOut),
-					intermediateQuery.getDBMetadata(), intermediateQuery.getExecutorRegistry()));
+			IntermediateQuery queryBeforePullUp = (iqAfterPullOut == pushedDownIQ)
+					? pushedDownQuery
+					: iqConverter.convert(iqAfterPullOut, intermediateQuery.getDBMetadata(),
+					intermediateQuery.getExecutorRegistry());
+			UUID versionBeforePullUp = queryBeforePullUp.getVersionNumber();
+
+			IntermediateQuery queryAfterPullUp = pullUpExpressionOptimizer.optimize(queryBeforePullUp);
 			log.debug("New query after pulling up the boolean expressions: \n" + queryAfterPullUp);
-			return iqConverter.convert(queryAfterPullUp);
+			return (queryAfterPullUp == queryBeforePullUp) && (versionBeforePullUp == queryAfterPullUp.getVersionNumber())
+					? iqAfterPullOut
+					: iqConverter.convert(queryAfterPullUp);
 
 		} catch (EmptyQueryException e) {
 			// Not expected
@@ -444,8 +491,12 @@ public class OneShotSQLGeneratorEngine {
 				ImmutableList<SignatureVariable> s = createSignature(varListBuilder.build(), castTypeMap.get(pred));
 
 				// Creates the body of the subquery
-				String subQuery = generateQueryFromRules(ruleIndex.get(pred), s,
-						subQueryDefinitionsBuilder.build(), termTypeMap, false, viewCounter);
+				ImmutableMap<Predicate, FromItem> subQueryDefinitions = subQueryDefinitionsBuilder.build();
+				Collection<CQIE> rules = ruleIndex.get(pred);
+				Optional<CQIE> closureRule = getTransitiveClosureRule(rules);
+				String subQuery = closureRule.isPresent()
+						? generateTransitiveClosure(closureRule.get(), s, subQueryDefinitions, termTypeMap, viewCounter)
+						: generateQueryFromRules(rules, s, subQueryDefinitions, termTypeMap, false, viewCounter);
 
 				RelationID subQueryAlias = createAlias(pred.getName(), VIEW_ANS_SUFFIX, usedAliases);
 				usedAliases.add(subQueryAlias);
@@ -466,9 +517,93 @@ public class OneShotSQLGeneratorEngine {
 		Predicate topLevelPredicate = predicatesInBottomUp.get(topLevel);
 		ImmutableList<SignatureVariable> topSignature = createSignature(signature, castTypeMap.get(topLevelPredicate));
 
-		return generateQueryFromRules(ruleIndex.get(topLevelPredicate), topSignature,
-				subQueryDefinitionsBuilder.build(), termTypeMap,
-				isDistinct && !distinctResultSet, viewCounter);
+		// The type and language columns are only projected when they are not statically known
+		ImmutableList<CQIE> topLevelRules = ImmutableList.copyOf(ruleIndex.get(topLevelPredicate));
+		ImmutableList<AliasIndex> indexes = createAliasIndexes(topLevelRules, subQueryDefinitionsBuilder.build(),
+				viewCounter);
+		staticTypeLangValues.putAll(extractStaticTypeLangValues(topLevelRules, indexes, topSignature, termTypeMap));
+		if (isDistinctPostProcessed)
+			isDistinctPostProcessed = !signature.stream()
+					.allMatch(v -> Optional.ofNullable(staticTypeLangValues.get(v))
+							.filter(t -> isInjectiveColType(t.getTypeValue()))
+							.isPresent());
+
+		return generateQueryFromRules(topLevelRules, indexes, topSignature, termTypeMap,
+				isDistinct && !isDistinctPostProcessed, staticTypeLangValues.keySet());
+	}
+
+	/**
+	 * When the lexical values of a type are in one-to-one correspondence with its RDF terms,
+	 * the DISTINCT of the SQL query is equivalent to the DISTINCT over the RDF terms.
+	 *
+	 * Not the case of the decimals (1.0 and 1.00 are equal in SQL but are distinct RDF terms), nor of
+	 * the other numbers, the booleans (e.g. 1 and true) and the temporal values (e.g. time zones),
+	 * whose lexical form is normalized when the RDF term is built.
+	 */
+	private static boolean isInjectiveColType(int typeValue) {
+		switch (COL_TYPE.getQuestType(typeValue)) {
+			case OBJECT:
+			case BNODE:
+			case STRING:
+			case LANG_STRING:
+			case INT:
+			case LONG:
+			case UNSIGNED_INT:
+			case YEAR:
+			case WKT:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private ImmutableList<AliasIndex> createAliasIndexes(ImmutableList<CQIE> cqs,
+														 ImmutableMap<Predicate, FromItem> subQueryDefinitions,
+														 AtomicInteger viewCounter) {
+		return cqs.stream()
+				.map(cq -> new AliasIndex(cq, subQueryDefinitions, viewCounter))
+				.collect(ImmutableCollectors.toList());
+	}
+
+	/**
+	 * A variable has static type and language values when they are neither taken from a view
+	 * nor differ from one rule to another.
+	 */
+	private ImmutableMap<String, StaticTypeLangValues> extractStaticTypeLangValues(
+			ImmutableList<CQIE> cqs, ImmutableList<AliasIndex> indexes, ImmutableList<SignatureVariable> signature,
+			ImmutableMap<CQIE, ImmutableList<Optional<TermType>>> termTypeMap) {
+
+		ImmutableMap.Builder<String, StaticTypeLangValues> builder = ImmutableMap.builder();
+		for (int i = 0; i < signature.size(); i++) {
+			Set<Optional<StaticTypeLangValues>> values = new HashSet<>();
+			for (int j = 0; j < cqs.size(); j++) {
+				CQIE cq = cqs.get(j);
+				values.add(getStaticTypeLangValues(signature.get(i), cq.getHead().getTerm(i),
+						termTypeMap.get(cq).get(i), indexes.get(j)));
+			}
+			Optional<StaticTypeLangValues> value = values.iterator().next();
+			if (values.size() == 1 && value.isPresent())
+				builder.put(signature.get(i).name, value.get());
+		}
+		return builder.build();
+	}
+
+	private Optional<StaticTypeLangValues> getStaticTypeLangValues(SignatureVariable var, Term term,
+																   Optional<TermType> termType, AliasIndex index) {
+		if (isAggregateOverVariable(term)
+				&& index.getTypeColumn((Variable) ((Function) term).getTerm(0)).isPresent())
+			return Optional.empty();
+
+		if (term instanceof Variable) {
+			Variable variable = (Variable) term;
+			return (index.getTypeColumn(variable).isPresent() || index.getLangColumn(variable).isPresent())
+					? Optional.empty()
+					: Optional.of(new StaticTypeLangValues(OBJECT.getQuestCode(), null));
+		}
+
+		Optional<TermType> rdfType = getRDFType(var, term, termType);
+		return Optional.of(new StaticTypeLangValues(getColType(rdfType).getQuestCode(),
+				getLanguageTag(rdfType).orElse(null)));
 	}
 
 
@@ -486,16 +621,31 @@ public class OneShotSQLGeneratorEngine {
 										  ImmutableList<SignatureVariable> signature,
 										  ImmutableMap<Predicate, FromItem> subQueryDefinitions,
 										  ImmutableMap<CQIE, ImmutableList<Optional<TermType>>> termTypeMap,
-										  boolean unionNoDuplicates, AtomicInteger viewCounter) {
+										  boolean unionNoDuplicates, AtomicInteger viewCounter)
+			throws OntopUnsupportedInputQueryException {
+		ImmutableList<CQIE> rules = ImmutableList.copyOf(cqs);
+		return generateQueryFromRules(rules, createAliasIndexes(rules, subQueryDefinitions, viewCounter), signature,
+				termTypeMap, unionNoDuplicates, ImmutableSet.of());
+	}
+
+	/**
+	 * Only the main column is projected for the variables having static type and language values
+	 */
+	private String generateQueryFromRules(ImmutableList<CQIE> cqs, ImmutableList<AliasIndex> indexes,
+										  ImmutableList<SignatureVariable> signature,
+										  ImmutableMap<CQIE, ImmutableList<Optional<TermType>>> termTypeMap,
+										  boolean unionNoDuplicates, Set<String> staticVariableNames)
+			throws OntopUnsupportedInputQueryException {
 
 		List<String> sqls = Lists.newArrayListWithExpectedSize(cqs.size());
-		for (CQIE cq : cqs) {
+		for (int j = 0; j < cqs.size(); j++) {
 		    /* Main loop, constructing the SPJ query for each CQ */
-			AliasIndex index = new AliasIndex(cq, subQueryDefinitions, viewCounter);
+			CQIE cq = cqs.get(j);
+			AliasIndex index = indexes.get(j);
 
 			StringBuilder sb = new StringBuilder();
 			sb.append("SELECT ");
-			if (isDistinct && !distinctResultSet) {
+			if (isDistinct && !isDistinctPostProcessed) {
 				sb.append("DISTINCT ");
 			}
 
@@ -505,7 +655,11 @@ public class OneShotSQLGeneratorEngine {
 				List<Optional<TermType>> termTypes = termTypeMap.get(cq);
 				select = Lists.newArrayListWithCapacity(signature.size());
 				for (int i = 0; i < signature.size(); i++) {
-					select.add(getSelectClauseFragment(signature.get(i), terms.get(i), termTypes.get(i), index));
+					SignatureVariable var = signature.get(i);
+					select.add(staticVariableNames.contains(var.name)
+							? "\n   " + getMainColumnForSELECT(terms.get(i), index, var.castType)
+								+ " AS " + var.columnAliases.get(2)
+							: getSelectClauseFragment(var, terms.get(i), termTypes.get(i), index));
 				}
 			}
 			else {
@@ -550,6 +704,179 @@ public class OneShotSQLGeneratorEngine {
 	}
 
 
+	private boolean isTransitiveClosureAtom(Function atom) {
+		return atom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(false))
+				|| atom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(true));
+	}
+
+	/**
+	 * A transitive closure is defined by a single rule: closure(s, t) :- step(s, t), TransitiveClosure(s, t)
+	 */
+	private Optional<CQIE> getTransitiveClosureRule(Collection<CQIE> rules) {
+		return rules.stream()
+				.filter(r -> r.getBody().stream().anyMatch(this::isTransitiveClosureAtom))
+				.findFirst()
+				.map(r -> {
+					if (rules.size() > 1)
+						throw new MinorOntopInternalBugException("A transitive closure must be defined by a single rule");
+					return r;
+				});
+	}
+
+	/**
+	 * The view of the step is replaced by the view of its transitive closure,
+	 * which has the same columns (type, language and main columns of the source and of the target).
+	 *
+	 * Each reachable (source, target) pair is produced once, whatever the number of paths between them:
+	 *   - recursive common table expression with UNION, when the DBMS allows it (complete);
+	 *   - otherwise with common table expressions, a chain of them, each one doubling the length of the paths
+	 *     (bounded by maxPropertyPathRecursionDepth);
+	 *   - otherwise nested unions, each one adding a step (bounded by maxPropertyPathLength).
+	 * Each common table expression or nested union is deduplicated, so the number of rows stays bounded
+	 * by the number of pairs (no path enumeration on diamonds).
+	 */
+	private String generateTransitiveClosure(CQIE closureRule, ImmutableList<SignatureVariable> signature,
+											 ImmutableMap<Predicate, FromItem> subQueryDefinitions,
+											 ImmutableMap<CQIE, ImmutableList<Optional<TermType>>> termTypeMap,
+											 AtomicInteger viewCounter) throws OntopUnsupportedInputQueryException {
+		Function closureAtom = closureRule.getBody().stream()
+				.filter(this::isTransitiveClosureAtom)
+				.findFirst()
+				.get();
+		Function stepAtom = closureRule.getBody().stream()
+				.filter(a -> !isTransitiveClosureAtom(a))
+				.findFirst()
+				.orElseThrow(() -> new MinorOntopInternalBugException("No step found for the closure " + closureRule));
+		FromItem step = subQueryDefinitions.get(stepAtom.getFunctionSymbol());
+		if (step == null || stepAtom.getArity() != 2)
+			throw new MinorOntopInternalBugException("The step of a closure must be a binary view: " + stepAtom);
+
+		// columns of the step: type, language and main column of the source, then of the target
+		int sourceOffset = 3 * stepAtom.getTerms().indexOf(closureAtom.getTerm(0));
+		int targetOffset = 3 * stepAtom.getTerms().indexOf(closureAtom.getTerm(1));
+		ImmutableList<String> columns = step.attributes.stream()
+				.map(a -> a.getAttribute().getSQLRendering())
+				.collect(ImmutableCollectors.toList());
+		ImmutableList<String> sourceColumns = columns.subList(sourceOffset, sourceOffset + 3);
+		ImmutableList<String> targetColumns = columns.subList(targetOffset, targetOffset + 3);
+
+		String stepTable = step.definition;
+		boolean isReflexive = closureAtom.getFunctionSymbol().equals(datalogFactory.getTransitiveClosurePredicate(true));
+
+		List<String> unionMembers = new ArrayList<>();
+		if (sqladapter.getRecursiveCTEKeyword().isPresent()) {
+			/*
+			 * Unquoted names for the common table expressions and their columns: some DBMSs (e.g. H2)
+			 * lose the quotes when a common table expression is referenced from a nested sub-query
+			 */
+			String name = "closure" + (commonTableExpressions.size() + 1);
+			ImmutableList<String> cteSourceColumns = ImmutableList.of("pathColumn0", "pathColumn1", "pathColumn2");
+			ImmutableList<String> cteTargetColumns = ImmutableList.of("pathColumn3", "pathColumn4", "pathColumn5");
+			String declaredColumns = inBrackets(Joiner.on(", ").join(cteSourceColumns) + ", "
+					+ Joiner.on(", ").join(cteTargetColumns));
+			String anchor = "SELECT " + select("b", sourceColumns, targetColumns)
+					+ " FROM " + sqladapter.sqlTableName(stepTable, "b");
+
+			String closureName;
+			if (sqladapter.isUnionAllowedInRecursiveCTE()) {
+				closureName = name;
+				String recursiveMember = "SELECT " + select("r", cteSourceColumns) + ", " + select("b", targetColumns)
+						+ " FROM " + name + " r, " + sqladapter.sqlTableName(stepTable, "b")
+						+ " WHERE " + getStepJoinCondition("r", cteTargetColumns, "b", sourceColumns);
+				commonTableExpressions.add(name + declaredColumns
+						+ " AS " + inBrackets("\n" + anchor + "\nUNION\n" + recursiveMember + "\n"));
+			}
+			else {
+				/*
+				 * UNION ALL in the recursion would produce one row per path (exponentially many on diamonds)
+				 * and would not terminate on cycles: the closure is computed by doubling instead.
+				 * The i-th common table expression has the pairs connected by a path of length up to 2^i.
+				 */
+				String previous = name + "l0";
+				commonTableExpressions.add(previous + declaredColumns
+						+ " AS " + inBrackets("\n" + anchor.replaceFirst("SELECT ", "SELECT DISTINCT ") + "\n"));
+				for (int level = 1, length = 2; length / 2 < maxPropertyPathRecursionDepth; level++, length *= 2) {
+					String current = name + "l" + level;
+					commonTableExpressions.add(current + declaredColumns + " AS " + inBrackets("\n"
+							+ "SELECT " + select("a", cteSourceColumns, cteTargetColumns) + " FROM " + previous + " a"
+							+ "\nUNION\n"
+							+ "SELECT " + select("a", cteSourceColumns) + ", " + select("b", cteTargetColumns)
+							+ " FROM " + previous + " a, " + previous + " b"
+							+ " WHERE " + getStepJoinCondition("a", cteTargetColumns, "b", cteSourceColumns) + "\n"));
+					previous = current;
+				}
+				closureName = previous;
+			}
+
+			ImmutableList<String> cteColumns = ImmutableList.<String>builder()
+					.addAll(cteSourceColumns).addAll(cteTargetColumns).build();
+			ImmutableList<String> closureColumns = ImmutableList.<String>builder()
+					.addAll(sourceColumns).addAll(targetColumns).build();
+			unionMembers.add("SELECT "
+					+ IntStream.range(0, cteColumns.size())
+						.mapToObj(i -> "c." + cteColumns.get(i) + " AS " + closureColumns.get(i))
+						.collect(Collectors.joining(", "))
+					+ " FROM " + closureName + " c");
+		}
+		else {
+			/*
+			 * Nested unions: the pairs connected by a path of length up to n are the step
+			 * and the step followed by the pairs connected by a path of length up to n-1.
+			 * The unions deduplicate the pairs at each level.
+			 */
+			String pathsUpToLength = "SELECT " + select("b", sourceColumns, targetColumns)
+					+ " FROM " + sqladapter.sqlTableName(stepTable, "b");
+			for (int length = 2; length <= maxPropertyPathLength; length++) {
+				pathsUpToLength = "SELECT " + select("b", sourceColumns, targetColumns)
+						+ " FROM " + sqladapter.sqlTableName(stepTable, "b")
+						+ "\nUNION\n"
+						+ "SELECT " + select("b", sourceColumns) + ", " + select("p", targetColumns)
+						+ " FROM " + sqladapter.sqlTableName(stepTable, "b") + ", " + inBrackets(pathsUpToLength) + " p"
+						+ " WHERE " + getStepJoinCondition("b", targetColumns, "p", sourceColumns);
+			}
+			unionMembers.add(pathsUpToLength);
+		}
+
+		if (isReflexive) {
+			// Zero-length paths (for the nodes of the step relation)
+			unionMembers.add("SELECT " + select("b", sourceColumns, sourceColumns)
+					+ " FROM " + sqladapter.sqlTableName(stepTable, "b"));
+			unionMembers.add("SELECT " + select("b", targetColumns, targetColumns)
+					+ " FROM " + sqladapter.sqlTableName(stepTable, "b"));
+		}
+
+		String closureTable = inBrackets(Joiner.on("\nUNION\n").join(unionMembers));
+
+		ImmutableMap<Predicate, FromItem> closureDefinitions = subQueryDefinitions.entrySet().stream()
+				.collect(ImmutableCollectors.toMap(
+						Map.Entry::getKey,
+						e -> e.getKey().equals(stepAtom.getFunctionSymbol())
+								? new FromItem(step.alias, closureTable, step.attributes)
+								: e.getValue()));
+
+		CQIE stepRule = closureRule.clone();
+		stepRule.getBody().removeIf(this::isTransitiveClosureAtom);
+		return generateQueryFromRules(ImmutableList.of(stepRule), signature, closureDefinitions,
+				ImmutableMap.of(stepRule, termTypeMap.get(closureRule)), false, viewCounter);
+	}
+
+	/**
+	 * The target of the first step is the source of the second one
+	 */
+	private static String getStepJoinCondition(String first, ImmutableList<String> firstTargetColumns,
+											   String second, ImmutableList<String> secondSourceColumns) {
+		return first + "." + firstTargetColumns.get(2) + " = " + second + "." + secondSourceColumns.get(2)
+				+ " AND " + first + "." + firstTargetColumns.get(0) + " = " + second + "." + secondSourceColumns.get(0);
+	}
+
+	@SafeVarargs
+	private static String select(String alias, ImmutableList<String>... columnLists) {
+		return Stream.of(columnLists)
+				.flatMap(Collection::stream)
+				.map(c -> alias + "." + c)
+				.collect(Collectors.joining(", "));
+	}
+
 	private ImmutableList<Function> convert(List<Term> terms) {
 		return terms.stream().map(c -> (Function)c).collect(ImmutableCollectors.toList());
 	}
@@ -563,13 +890,20 @@ public class OneShotSQLGeneratorEngine {
 		return ImmutableList.of();
 	}
 
+	/**
+	 * For the variables coming from a view, the type and language columns are also grouped
+	 */
 	private ImmutableList<QualifiedAttributeID> getGroupBy(List<Function> body, AliasIndex index) {
 		return body.stream()
 				.filter(a -> a.getFunctionSymbol().equals(datalogFactory.getSparqlGroupPredicate()))
 				.map(Function::getVariables)
 				.flatMap(Collection::stream)
-				.map(index::getColumns)
-				.flatMap(Collection::stream)
+				.flatMap(v -> Stream.concat(
+						index.getColumns(v).stream(),
+						Stream.of(index.getTypeColumn(v), index.getLangColumn(v))
+								.filter(Optional::isPresent)
+								.map(Optional::get)))
+				.distinct()
 				.collect(ImmutableCollectors.toList());
 	}
 
@@ -744,6 +1078,10 @@ public class OneShotSQLGeneratorEngine {
 
 		if (atom.isAlgebraFunction()) {
 			Predicate functionSymbol = atom.getFunctionSymbol();
+			// GROUP BY (see getGroupBy)
+			if (functionSymbol.equals(datalogFactory.getSparqlGroupPredicate()))
+				return null;
+
 			ImmutableList<Function> joinAtoms = convert(atom.getTerms());
 			if (functionSymbol.equals(datalogFactory.getSparqlJoinPredicate())) {
 				// nested joins we need to add parenthesis later
@@ -934,9 +1272,11 @@ public class OneShotSQLGeneratorEngine {
 	}
 
 	private static final class SignatureVariable {
+		private final String name;
 		private final ImmutableList<String> columnAliases;
 		private final TermType castType;
 		SignatureVariable(String name, ImmutableList<String> columnAliases, TermType castType) {
+			this.name = name;
 			this.columnAliases = columnAliases;
 			this.castType = castType;
 		}
@@ -950,7 +1290,7 @@ public class OneShotSQLGeneratorEngine {
 	private String getSelectClauseFragment(SignatureVariable var,
 										   Term term,
 										   Optional<TermType> termType,
-										   AliasIndex index) {
+										   AliasIndex index) throws OntopUnsupportedInputQueryException {
 		/*
 		 * Datatype for the main column (to which it is cast).
 		 * Beware, it may defer the RDF datatype (the one of the type column).
@@ -959,8 +1299,21 @@ public class OneShotSQLGeneratorEngine {
 		 * one datatype per column. If the sub-queries are producing results of different types,
 		 * them there will be a difference between the type in the main column and the RDF one.
 		 */
-		String typeColumn = getTypeColumnForSELECT(term, index, termType);
-		String langColumn = getLangColumnForSELECT(term, index, termType);
+		if (isAggregateOverVariable(term)) {
+			/*
+			 * MIN, MAX and SAMPLE return one of the values of the group: aggregating separately
+			 * the type, language and main columns could mix the components of different values.
+			 * Hence, only pushed down when the type and the language are statically known.
+			 */
+			Variable arg = (Variable) ((Function) term).getTerm(0);
+			if (index.getTypeColumn(arg).isPresent() || index.getLangColumn(arg).isPresent())
+				throw new OntopUnsupportedInputQueryException(((Function) term).getFunctionSymbol().getName()
+						+ " is only supported over values of a statically known datatype and language: " + arg);
+		}
+		Optional<TermType> rdfType = getRDFType(var, term, termType);
+
+		String typeColumn = getTypeColumnForSELECT(term, index, rdfType);
+		String langColumn = getLangColumnForSELECT(term, index, rdfType);
 		String mainColumn = getMainColumnForSELECT(term, index, var.castType);
 
 		return new StringBuffer().append("\n   ")
@@ -970,6 +1323,39 @@ public class OneShotSQLGeneratorEngine {
 				.toString();
 	}
 
+	/**
+	 * For the aggregates other than MIN, MAX and SAMPLE (e.g. SUM), the type may only be known
+	 * after unification (cast type)
+	 */
+	private static Optional<TermType> getRDFType(SignatureVariable var, Term term, Optional<TermType> termType) {
+		return (!termType.isPresent() && isAggregate(term))
+				? Optional.ofNullable(var.castType)
+				: termType;
+	}
+
+	private static boolean containsDistinctGroupConcat(Term term) {
+		return (term instanceof Function)
+				&& ((((Function) term).getFunctionSymbol() == ExpressionOperation.GROUP_CONCAT_DISTINCT)
+					|| ((Function) term).getTerms().stream()
+						.anyMatch(OneShotSQLGeneratorEngine::containsDistinctGroupConcat));
+	}
+
+	private static boolean isAggregate(Term term) {
+		return (term instanceof Function)
+				&& (((Function) term).getFunctionSymbol() instanceof ExpressionOperation)
+				&& ((ExpressionOperation) ((Function) term).getFunctionSymbol()).isAggregate();
+	}
+
+	private static boolean isAggregateOverVariable(Term term) {
+		if (!(term instanceof Function))
+			return false;
+		Predicate functionSymbol = ((Function) term).getFunctionSymbol();
+		return (functionSymbol == ExpressionOperation.MIN
+				|| functionSymbol == ExpressionOperation.MAX
+				|| functionSymbol == ExpressionOperation.SAMPLE)
+				&& ((Function) term).getTerm(0) instanceof Variable;
+	}
+
 	private ImmutableList<SignatureVariable> createSignature(List<String> names, ImmutableList<TermType> castTypes) {
 		/**
 		 * Set that contains all the variable names created on the top query.
@@ -1000,6 +1386,13 @@ public class OneShotSQLGeneratorEngine {
 
 	private String getMainColumnForSELECT(Term ht, AliasIndex index, TermType castDataType) {
 
+		if (isExactNumericAverage(ht, castDataType)) {
+			// not cast afterwards: the average would be truncated to the scale of the argument
+			Function average = (Function) ht;
+			return sqladapter.exactNumericAvg(getSQLString(average.getTerm(0), index, false),
+					average.getFunctionSymbol() == ExpressionOperation.AVG_DISTINCT);
+		}
+
 		String column = getSQLString(ht, index, false);
 		if (column.charAt(0) != '\'' && column.charAt(0) != '(' && castDataType != null) {
 			// a column that still needs a CAST to VARCHAR
@@ -1008,6 +1401,17 @@ public class OneShotSQLGeneratorEngine {
 		return column;
 	}
 
+	/**
+	 * AVG over integers or decimals (its type is then xsd:decimal)
+	 */
+	private boolean isExactNumericAverage(Term term, TermType castDataType) {
+		return (term instanceof Function)
+				&& (((Function) term).getFunctionSymbol() == ExpressionOperation.AVG
+					|| ((Function) term).getFunctionSymbol() == ExpressionOperation.AVG_DISTINCT)
+				&& castDataType != null
+				&& jdbcTypeMapper.getSQLType(castDataType) == Types.DECIMAL;
+	}
+
 	private String getLangColumnForSELECT(Term ht, AliasIndex index, Optional<TermType> optionalTermType) {
 
 		if (ht instanceof Variable) {
@@ -1016,15 +1420,20 @@ public class OneShotSQLGeneratorEngine {
 					.orElse(sqladapter.getNullForLang());
 		}
 		else {
-			return optionalTermType
-					.filter(t -> t instanceof RDFDatatype)
-					.map(t -> (RDFDatatype)t)
-					.flatMap(RDFDatatype::getLanguageTag)
-					.map(tag -> sqladapter.getSQLLexicalFormString(tag.getFullString()))
+			return getLanguageTag(optionalTermType)
+					.map(sqladapter::getSQLLexicalFormString)
 					.orElseGet(sqladapter::getNullForLang);
 		}
     }
 
+	private static Optional<String> getLanguageTag(Optional<TermType> optionalTermType) {
+		return optionalTermType
+				.filter(t -> t instanceof RDFDatatype)
+				.map(t -> (RDFDatatype)t)
+				.flatMap(RDFDatatype::getLanguageTag)
+				.map(LanguageTag::getFullString);
+	}
+
 	/**
 	 * Infers the type of a projected term.
 	 *
@@ -1046,15 +1455,17 @@ public class OneShotSQLGeneratorEngine {
 					.orElseGet(() -> String.valueOf(OBJECT.getQuestCode()));
 		}
 		else {
-			COL_TYPE colType = optionalTermType
-					.flatMap(this::extractColType)
-					// By default, we apply the "most" general COL_TYPE
-					.orElse(STRING);
-
-			return String.valueOf(colType.getQuestCode());
+			return String.valueOf(getColType(optionalTermType).getQuestCode());
 		}
 	}
 
+	private COL_TYPE getColType(Optional<TermType> optionalTermType) {
+		return optionalTermType
+				.flatMap(this::extractColType)
+				// By default, we apply the "most" general COL_TYPE
+				.orElse(STRING);
+	}
+
 	private Optional<COL_TYPE> extractColType(TermType termType) {
 		if (termType instanceof ObjectRDFType) {
 			COL_TYPE colType = ((ObjectRDFType)termType).isBlankNode() ? BNODE : OBJECT;
@@ -1432,24 +1843,52 @@ public class OneShotSQLGeneratorEngine {
 			String after = getSQLString(function.getTerm(1), index, false);
 			return sqladapter.strAfter(string, after);
 		}
+		if (functionSymbol == ExpressionOperation.COUNT_ALL) {
+			return "COUNT(*)";
+		}
 		if (functionSymbol == ExpressionOperation.COUNT) {
 			if (function.getTerm(0).toString().equals("*")) {
 				return "COUNT(*)";
 			}
 			String columnName = getSQLString(function.getTerm(0), index, false);
-			//havingCond = true;
 			return "COUNT(" + columnName + ")";
 		}
+		if (functionSymbol == ExpressionOperation.COUNT_DISTINCT) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			return "COUNT(DISTINCT " + columnName + ")";
+		}
 		if (functionSymbol == ExpressionOperation.AVG) {
 			String columnName = getSQLString(function.getTerm(0), index, false);
-			//havingCond = true;
 			return "AVG(" + columnName + ")";
 		}
+		if (functionSymbol == ExpressionOperation.AVG_DISTINCT) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			return "AVG(DISTINCT " + columnName + ")";
+		}
 		if (functionSymbol == ExpressionOperation.SUM) {
 			String columnName = getSQLString(function.getTerm(0), index, false);
-			//havingCond = true;
 			return "SUM(" + columnName + ")";
 		}
+		if (functionSymbol == ExpressionOperation.SUM_DISTINCT) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			return "SUM(DISTINCT " + columnName + ")";
+		}
+		if (functionSymbol == ExpressionOperation.MAX) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			return "MAX(" + columnName + ")";
+		}
+		// SQL has no SAMPLE: any value of the group will do
+		if (functionSymbol == ExpressionOperation.MIN || functionSymbol == ExpressionOperation.SAMPLE) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			return "MIN(" + columnName + ")";
+		}
+		if (functionSymbol == ExpressionOperation.GROUP_CONCAT
+				|| functionSymbol == ExpressionOperation.GROUP_CONCAT_DISTINCT) {
+			String columnName = getSQLString(function.getTerm(0), index, false);
+			String separator = getSQLString(function.getTerm(1), index, false);
+			return sqladapter.strGroupConcat(columnName, separator,
+					functionSymbol == ExpressionOperation.GROUP_CONCAT_DISTINCT);
+		}
 
 		throw new RuntimeException("Unexpected function in the query: " + functionSymbol);
 	}
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 
 /**
@@ -11,17 +12,47 @@ public class SQLExecutableQuery implements ExecutableQuery {
 
     private final String sqlQuery;
     private final ImmutableList<String> signature;
+    private final ImmutableList<String> parameters;
+    private final ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues;
+    private final boolean isDistinctPostProcessed;
 
     public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature) {
+        this(sqlQuery, signature, ImmutableList.of());
+    }
+
+    /**
+     * Prepared query: the parameters are given in the order of the question marks
+     */
+    public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature, ImmutableList<String> parameters) {
+        this(sqlQuery, signature, parameters, ImmutableMap.of());
+    }
+
+    /**
+     * The variables having static type and language values only have their main column in the SQL query
+     */
+    public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature, ImmutableList<String> parameters,
+                              ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues) {
+        this(sqlQuery, signature, parameters, staticTypeLangValues, false);
+    }
+
+    /**
+     * When isDistinctPostProcessed, the SQL query does not apply the DISTINCT: it is left to the result set
+     */
+    public SQLExecutableQuery(String sqlQuery, ImmutableList<String> signature, ImmutableList<String> parameters,
+                              ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues,
+                              boolean isDistinctPostProcessed) {
         this.sqlQuery = sqlQuery;
         this.signature = signature;
+        this.parameters = parameters;
+        this.staticTypeLangValues = staticTypeLangValues;
+        this.isDistinctPostProcessed = isDistinctPostProcessed;
     }
+
     /**
      * Empty SQL
      */
     public SQLExecutableQuery(ImmutableList<String> signature) {
-        this.sqlQuery = "";
-        this.signature = signature;
+        this("", signature);
     }
 
     @Override
@@ -33,6 +64,35 @@ public class SQLExecutableQuery implements ExecutableQuery {
         return sqlQuery;
     }
 
+    @Override
+    public boolean isEmpty() {
+        return sqlQuery.isEmpty();
+    }
+
+    /**
+     * String parameters of the prepared query (empty if the query is not to be prepared)
+     */
+    public ImmutableList<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Type and language values of the variables that are the same for all the rows (indexed by variable name).
+     *
+     * The other variables have a type, a language and a main column.
+     */
+    public ImmutableMap<String, StaticTypeLangValues> getStaticTypeLangValues() {
+        return staticTypeLangValues;
+    }
+
+    /**
+     * True when the rows of the SQL result set have to be deduplicated
+     * (the SPARQL query is DISTINCT but the SQL query is not)
+     */
+    public boolean isDistinctPostProcessed() {
+        return isDistinctPostProcessed;
+    }
+
     @Override
     public String toString() {
         return sqlQuery;
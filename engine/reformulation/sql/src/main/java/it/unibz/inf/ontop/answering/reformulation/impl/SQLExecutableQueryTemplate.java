@@ -0,0 +1,52 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+/**
+ * SQL query with question marks for the parameters, shared by all the queries of the same shape.
+ *
+ * Each question mark refers to the index of a value (a value may appear several times).
+ */
+public class SQLExecutableQueryTemplate implements ExecutableQuery {
+
+    private final String sqlQuery;
+    private final ImmutableList<String> signature;
+    private final ImmutableList<Integer> parameterIndexes;
+    private final ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues;
+    private final boolean isDistinctPostProcessed;
+
+    public SQLExecutableQueryTemplate(String sqlQuery, ImmutableList<String> signature,
+                                      ImmutableList<Integer> parameterIndexes,
+                                      ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues,
+                                      boolean isDistinctPostProcessed) {
+        this.sqlQuery = sqlQuery;
+        this.signature = signature;
+        this.parameterIndexes = parameterIndexes;
+        this.staticTypeLangValues = staticTypeLangValues;
+        this.isDistinctPostProcessed = isDistinctPostProcessed;
+    }
+
+    @Override
+    public ImmutableList<String> getSignature() {
+        return signature;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return sqlQuery.isEmpty();
+    }
+
+    public SQLExecutableQuery instantiate(ImmutableList<String> values) {
+        return new SQLExecutableQuery(sqlQuery, signature, parameterIndexes.stream()
+                .map(values::get)
+                .collect(ImmutableCollectors.toList()), staticTypeLangValues, isDistinctPostProcessed);
+    }
+
+    @Override
+    public String toString() {
+        return sqlQuery;
+    }
+}
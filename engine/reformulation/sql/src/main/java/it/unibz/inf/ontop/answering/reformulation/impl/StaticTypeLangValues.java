@@ -0,0 +1,49 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Type code and language tag of a projected variable that are the same for all the rows.
+ *
+ * Such a variable only has its main column in the SQL query (no type and language columns).
+ */
+public class StaticTypeLangValues {
+
+    private final int typeValue;
+
+    @Nullable
+    private final String langValue;
+
+    public StaticTypeLangValues(int typeValue, @Nullable String langValue) {
+        this.typeValue = typeValue;
+        this.langValue = langValue;
+    }
+
+    public int getTypeValue() {
+        return typeValue;
+    }
+
+    @Nullable
+    public String getLangValue() {
+        return langValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StaticTypeLangValues that = (StaticTypeLangValues) o;
+        return typeValue == that.typeValue && Objects.equals(langValue, that.langValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(typeValue, langValue);
+    }
+
+    @Override
+    public String toString() {
+        return typeValue + (langValue == null ? "" : "@" + langValue);
+    }
+}
@@ -3,4 +3,23 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * Maximal length of the property paths (p+, p*) when the DBMS does not support
+     * common table expressions: the paths are then evaluated by nested unions of joins.
+     */
+    int getMaxPropertyPathLength();
+
+    /**
+     * Maximal length of the property paths (p+, p*) when the DBMS only allows UNION ALL in recursive
+     * common table expressions (which would not terminate on cyclic data, and would not deduplicate the pairs).
+     * The paths are then evaluated by a chain of common table expressions, each doubling the length.
+     */
+    int getMaxPropertyPathRecursionDepth();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String MAX_PROPERTY_PATH_LENGTH = "ontop.propertyPath.maxLength";
+    String MAX_PROPERTY_PATH_RECURSION_DEPTH = "ontop.propertyPath.maxRecursionDepth";
 }
@@ -28,6 +28,16 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
         return loadDefaultPropertiesFromFile(OntopReformulationSQLSettings.class, DEFAULT_FILE);
     }
 
+    @Override
+    public int getMaxPropertyPathLength() {
+        return getRequiredInteger(MAX_PROPERTY_PATH_LENGTH);
+    }
+
+    @Override
+    public int getMaxPropertyPathRecursionDepth() {
+        return getRequiredInteger(MAX_PROPERTY_PATH_RECURSION_DEPTH);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
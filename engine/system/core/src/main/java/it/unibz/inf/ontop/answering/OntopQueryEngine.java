@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering;
 
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 
 public interface OntopQueryEngine extends AutoCloseable {
 
@@ -17,4 +18,9 @@ public interface OntopQueryEngine extends AutoCloseable {
      * Gets a OntopConnection usually coming from a connection pool.
      */
     OntopConnection getConnection() throws OntopConnectionException;
+
+    /**
+     * Reformulates the queries without requiring a connection
+     */
+    QueryReformulator getQueryReformulator();
 }
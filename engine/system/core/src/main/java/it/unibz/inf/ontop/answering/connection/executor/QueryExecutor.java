@@ -0,0 +1,44 @@
+package it.unibz.inf.ontop.answering.connection.executor;
+
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the evaluation of the native queries, shared by all the statements.
+ *
+ * Thread-safe.
+ */
+public interface QueryExecutor extends AutoCloseable {
+
+    /**
+     * Throws an OntopQueryEvaluationException if the query cannot be admitted
+     * (too many queries already waiting).
+     *
+     * Cancelling the returned future interrupts the evaluation.
+     */
+    <R> Future<R> submit(Callable<R> evaluation) throws OntopQueryEvaluationException;
+
+    /**
+     * Number of queries waiting for being executed
+     */
+    int getQueueDepth();
+
+    /**
+     * Number of queries being executed
+     */
+    int getActiveCount();
+
+    long getExecutedCount();
+
+    long getRejectedCount();
+
+    /**
+     * Cumulated time (in ms) spent by the queries in the queue
+     */
+    long getTotalWaitTime();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,219 @@
+package it.unibz.inf.ontop.answering.connection.executor.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.connection.executor.QueryExecutor;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes the queries either on a fixed pool of threads or, when enabled and supported by the JVM,
+ * on virtual threads.
+ *
+ * Admission control: at most maxThreads + queueSize queries are accepted at the same time.
+ * A query leaves the admission count when it completes or is cancelled, even before it has started.
+ *
+ * When JMX monitoring is enabled, the statistics are exported as an MBean.
+ */
+@Singleton
+public class BoundedQueryExecutor implements QueryExecutor, BoundedQueryExecutorMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedQueryExecutor.class);
+    private static final String DOMAIN = "it.unibz.inf.ontop";
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private final ExecutorService executorService;
+    private final Semaphore admissionPermits;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+
+    private MBeanServer mBeanServer;
+    private ObjectName mBeanName;
+
+    @Inject
+    private BoundedQueryExecutor(OntopSystemSettings settings) {
+        this(settings.getQueryExecutorMaxThreads(), settings.getQueryExecutorQueueSize(),
+                settings.isVirtualThreadExecutionEnabled());
+        if (settings.isJmxMonitoringEnabled())
+            registerMBean(ManagementFactory.getPlatformMBeanServer(), INSTANCE_COUNTER.getAndIncrement());
+    }
+
+    BoundedQueryExecutor(int maxThreads, int queueSize, boolean virtualThreads) {
+        this.admissionPermits = new Semaphore(maxThreads + queueSize);
+        Optional<ExecutorService> virtualThreadExecutor = virtualThreads
+                ? createVirtualThreadExecutor()
+                : Optional.empty();
+        if (virtualThreads && !virtualThreadExecutor.isPresent())
+            log.warn("Virtual threads are not supported by this JVM. Using a pool of {} threads instead.", maxThreads);
+
+        this.executorService = virtualThreadExecutor
+                .orElseGet(() -> Executors.newFixedThreadPool(maxThreads, new QueryThreadFactory()));
+    }
+
+    synchronized void registerMBean(MBeanServer server, int id) {
+        String name = DOMAIN + ":type=QueryExecutor,id=" + id;
+        try {
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(this, objectName);
+            mBeanServer = server;
+            mBeanName = objectName;
+        } catch (JMException e) {
+            log.warn("Cannot register the MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Virtual threads are only available from Java 21
+     */
+    private static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public <R> Future<R> submit(Callable<R> evaluation) throws OntopQueryEvaluationException {
+        if (!admissionPermits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new OntopQueryEvaluationException("Too many queries are waiting for being executed");
+        }
+        queueDepth.incrementAndGet();
+        Admission admission = new Admission();
+        QueryTask<R> task = new QueryTask<>(() -> {
+            admission.leaveQueue();
+            long waitTime = System.currentTimeMillis() - admission.submissionTime;
+            activeCount.incrementAndGet();
+            totalWaitTime.addAndGet(waitTime);
+            log.debug("Query started after waiting {} ms in the queue", waitTime);
+            try {
+                return evaluation.call();
+            } finally {
+                activeCount.decrementAndGet();
+                executedCount.incrementAndGet();
+                // before the result is made available
+                admission.release();
+            }
+        }, admission);
+        try {
+            executorService.execute(task);
+            return task;
+        } catch (RejectedExecutionException e) {
+            admission.leaveQueue();
+            admission.release();
+            rejectedCount.incrementAndGet();
+            throw new OntopQueryEvaluationException(e);
+        }
+    }
+
+    /**
+     * The queue slot and the admission permit of a query are given back exactly once
+     */
+    private final class Admission {
+        private final long submissionTime = System.currentTimeMillis();
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void leaveQueue() {
+            if (dequeued.compareAndSet(false, true))
+                queueDepth.decrementAndGet();
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true))
+                admissionPermits.release();
+        }
+    }
+
+    /**
+     * A query cancelled while still in the queue never runs: its permit is then released when it is done.
+     */
+    private static final class QueryTask<R> extends FutureTask<R> {
+        private final Admission admission;
+
+        QueryTask(Callable<R> callable, Admission admission) {
+            super(callable);
+            this.admission = admission;
+        }
+
+        @Override
+        protected void done() {
+            admission.leaveQueue();
+            admission.release();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    @Override
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getTotalWaitTime() {
+        return totalWaitTime.get();
+    }
+
+    /**
+     * Interrupts the running queries and unregisters the MBean (if any)
+     */
+    @Override
+    public synchronized void close() {
+        executorService.shutdownNow();
+        if (mBeanName == null)
+            return;
+        try {
+            mBeanServer.unregisterMBean(mBeanName);
+        } catch (JMException e) {
+            log.warn("Cannot unregister the MBean " + mBeanName + ": " + e.getMessage());
+        }
+        mBeanServer = null;
+        mBeanName = null;
+    }
+
+    /**
+     * Daemon threads, so that they do not prevent the JVM from exiting
+     */
+    private static class QueryThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ontop-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package it.unibz.inf.ontop.answering.connection.executor.impl;
+
+/**
+ * Statistics of the query executor, exported through JMX
+ */
+public interface BoundedQueryExecutorMXBean {
+
+    /**
+     * Number of queries waiting for being executed
+     */
+    int getQueueDepth();
+
+    /**
+     * Number of queries being executed
+     */
+    int getActiveCount();
+
+    long getExecutedCount();
+
+    /**
+     * Queries not admitted because too many queries were already waiting
+     */
+    long getRejectedCount();
+
+    /**
+     * Cumulated time (in ms) spent by the queries in the queue
+     */
+    long getTotalWaitTime();
+}
@@ -20,20 +20,31 @@ package it.unibz.inf.ontop.answering.connection.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.executor.QueryExecutor;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.*;
 import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.spec.ontology.Assertion;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.*;
 
 
 /**
@@ -45,16 +56,24 @@ public abstract class QuestStatement implements OntopStatement {
 	private final QueryReformulator engine;
 	private final InputQueryFactory inputQueryFactory;
 
-	private QueryExecutionThread executionThread;
-	private boolean canceled = false;
+	private final QueryExecutor queryExecutor;
+	private final int defaultQueryTimeout;
+	private final int describeBatchSize;
+
+	private volatile Future<?> executionFuture;
+	private volatile boolean canceled = false;
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory) {
+	public QuestStatement(QueryReformulator queryProcessor, InputQueryFactory inputQueryFactory,
+						  QueryExecutor queryExecutor, OntopSystemSettings settings) {
 		this.engine = queryProcessor;
 		this.inputQueryFactory = inputQueryFactory;
+		this.queryExecutor = queryExecutor;
+		this.defaultQueryTimeout = settings.getDefaultQueryTimeout();
+		this.describeBatchSize = settings.getDescribeBatchSize();
 	}
 
 	/**
@@ -67,79 +86,6 @@ public abstract class QuestStatement implements OntopStatement {
 				throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException;
 	}
 
-	/**
-	 * Execution thread
-	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> extends Thread {
-
-		private final Q inputQuery;
-		private final QuestStatement.Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
-		private final ExecutableQuery executableQuery;
-
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
-
-		QueryExecutionThread(Q inputQuery, ExecutableQuery executableQuery, Evaluator<R,Q> evaluator,
-							 CountDownLatch monitor) {
-			this.executableQuery = executableQuery;
-			this.inputQuery = inputQuery;
-			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
-		}
-
-		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
-			try {
-				/**
-				 * Executes the target query.
-				 */
-				log.debug("Executing the query and get the result...");
-				executingTargetQuery = true;
-				resultSet = evaluator.evaluate(inputQuery, executableQuery);
-				log.debug("Execution finished.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
-			} catch (Exception e) {
-				exception = e;
-				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
-			}
-		}
-	}
-
 	protected abstract TupleResultSet executeSelectQuery(ExecutableQuery executableQuery)
 			throws OntopQueryEvaluationException;
 
@@ -156,27 +102,18 @@ public abstract class QuestStatement implements OntopStatement {
 		return executeBooleanQuery(executableQuery);
 	}
 
-	/**
-	 * TODO: describe
-	 */
-	private SimpleGraphResultSet executeDescribeConstructQuery(ConstructQuery constructQuery, ExecutableQuery executableQuery)
-			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
-		return executeGraphQuery(constructQuery, executableQuery, true);
-	}
-
 	/**
 	 * TODO: describe
 	 */
 	private SimpleGraphResultSet executeConstructQuery(ConstructQuery constructQuery, ExecutableQuery executableQuery)
 			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
-		return executeGraphQuery(constructQuery, executableQuery, false);
+		return executeGraphQuery(constructQuery, executableQuery);
 	}
 
 	/**
 	 * TODO: refactor
 	 */
-	protected abstract SimpleGraphResultSet executeGraphQuery(ConstructQuery query, ExecutableQuery executableQuery,
-															  boolean collectResults)
+	protected abstract SimpleGraphResultSet executeGraphQuery(ConstructQuery query, ExecutableQuery executableQuery)
 			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException;
 
 	/**
@@ -209,8 +146,10 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * TODO: completely refactor this old-way of processing DESCRIBE.
-	 *  ---> should be converted into 1 CONSTRUCT query
+	 * The described resources are split into batches.
+	 * Each batch is evaluated by one CONSTRUCT query covering both the subject and the object positions.
+	 *
+	 * The first batch is evaluated right away, the next ones when the previous one has been consumed.
 	 */
 	private SimpleGraphResultSet executeDescribeQuery(DescribeQuery inputQuery)
 			throws OntopReformulationException, OntopResultConversionException, OntopConnectionException,
@@ -218,44 +157,22 @@ public abstract class QuestStatement implements OntopStatement {
 
 		ImmutableSet<String> constants = extractDescribeQueryConstants(inputQuery);
 
-		SimpleGraphResultSet describeResultSet = null;
-
+		ImmutableList.Builder<ConstructQuery> batchQueryBuilder = ImmutableList.builder();
 		try {
-			// execute describe <uriconst> in subject position
-			for (String constant : constants) {
-				// for each constant we execute a construct with
-				// the uri as subject, and collect the results
-				String str = SPARQLQueryUtility.getConstructSubjQuery(constant);
-				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
-
-				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery);
-				if (describeResultSet == null) { // just for the first time
-					describeResultSet = set;
-				} else if (set != null) {
-					// 2nd and manyth times execute, but collect result into one object
-					while (set.hasNext())
-						describeResultSet.addNewResult(set.next());
-				}
-			}
-			// execute describe <uriconst> in object position
-			for (String constant : constants) {
-				String str = SPARQLQueryUtility.getConstructObjQuery(constant);
-
-				ConstructQuery constructQuery = inputQueryFactory.createConstructQuery(str);
-				SimpleGraphResultSet set = executeInThread(constructQuery, this::executeDescribeConstructQuery);
-
-				if (describeResultSet == null) { // just for the first time
-					describeResultSet = set;
-				} else if (set != null) {
-					while (set.hasNext())
-						describeResultSet.addNewResult(set.next());
-				}
+			for (List<String> batch : Iterables.partition(constants, describeBatchSize)) {
+				String str = SPARQLQueryUtility.getConstructDescribeQuery(batch);
+				batchQueryBuilder.add(inputQueryFactory.createConstructQuery(str));
 			}
 			// Exception is re-cast because not due to the initial input query
 		} catch (OntopInvalidInputQueryException e) {
 			throw new OntopReformulationException(e);
 		}
-		return describeResultSet;
+
+		Iterator<ConstructQuery> batchQueryIterator = batchQueryBuilder.build().iterator();
+		SimpleGraphResultSet firstResultSet = batchQueryIterator.hasNext()
+				? executeInThread(batchQueryIterator.next(), this::executeConstructQuery)
+				: null;
+		return new DescribeGraphResultSet(firstResultSet, batchQueryIterator);
 	}
 
 	private ImmutableSet<String> extractDescribeQueryConstants(DescribeQuery inputQuery)
@@ -269,15 +186,16 @@ public abstract class QuestStatement implements OntopStatement {
 			String sel = SPARQLQueryUtility.getSelectVarDescribe(inputQueryString);
 			try {
 				SelectQuery selectQuery = inputQueryFactory.createSelectQuery(sel);
-				TupleResultSet resultSet = execute(selectQuery);
 
 				ImmutableSet.Builder<String> constantSetBuilder = ImmutableSet.builder();
-				while (resultSet.hasNext()) {
-                    final OntopBindingSet bindingSet = resultSet.next();
-                    Constant constant = bindingSet.getConstant(1);
-					if (constant instanceof IRIConstant) {
-						// collect constants in list
-						constantSetBuilder.add(((IRIConstant) constant).getIRI().getIRIString());
+				try (TupleResultSet resultSet = execute(selectQuery)) {
+					while (resultSet.hasNext()) {
+						final OntopBindingSet bindingSet = resultSet.next();
+						Constant constant = bindingSet.getConstant(1);
+						if (constant instanceof IRIConstant) {
+							// collect constants in list
+							constantSetBuilder.add(((IRIConstant) constant).getIRI().getIRIString());
+						}
 					}
 				}
 				return constantSetBuilder.build();
@@ -301,58 +219,85 @@ public abstract class QuestStatement implements OntopStatement {
 
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
+	 * Internal method to submit the query execution to the query executor. The type defines the
 	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 *
+	 * The reformulation takes place in the calling thread.
 	 */
 	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, Evaluator<R, Q> evaluator)
-			throws OntopReformulationException, OntopQueryEvaluationException {
+			throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException {
 
 		log.debug("Executing SPARQL query: \n{}", inputQuery);
 
-		CountDownLatch monitor = new CountDownLatch(1);
 		ExecutableQuery executableQuery = engine.reformulateIntoNativeQuery(inputQuery);
 
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, executableQuery, evaluator,
-				monitor);
+		Future<R> future = queryExecutor.submit(() -> evaluator.evaluate(inputQuery, executableQuery));
+		this.executionFuture = future;
+
+		int statementTimeout = getQueryTimeout();
+		int timeout = statementTimeout > 0 ? statementTimeout : defaultQueryTimeout;
 
-		this.executionThread = executionthread;
-		executionthread.start();
 		try {
-			monitor.await();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
+			R resultSet = timeout > 0
+					? future.get(timeout, TimeUnit.SECONDS)
+					: future.get();
+
+			if (canceled)
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+			return resultSet;
+
+		} catch (ExecutionException e) {
+			Throwable ex = e.getCause();
+			log.error(ex.getMessage(), ex);
 			if (ex instanceof OntopReformulationException) {
 				throw (OntopReformulationException) ex;
 			}
 			else if (ex instanceof OntopQueryEvaluationException) {
 				throw (OntopQueryEvaluationException) ex;
 			}
+			else if (ex instanceof Error) {
+				throw (Error) ex;
+			}
 			else {
-				throw new OntopQueryEvaluationException(ex);
+				throw new OntopQueryEvaluationException((Exception) ex);
 			}
-		}
-
-		if (canceled) {
-			canceled = false;
+		} catch (TimeoutException e) {
+			stopExecution(future);
+			throw new OntopQueryEvaluationException("Query execution timed out after " + timeout + " s");
+		} catch (CancellationException e) {
 			throw new OntopQueryEvaluationException("Query execution was cancelled");
+		} catch (InterruptedException e) {
+			stopExecution(future);
+			Thread.currentThread().interrupt();
+			throw new OntopQueryEvaluationException("Interrupted while waiting for the query execution");
+		} finally {
+			canceled = false;
+			this.executionFuture = null;
 		}
-		return executionthread.getResultSet();
 	}
 
 	
 	@Override
 	public void cancel() throws OntopConnectionException {
 		canceled = true;
+		Future<?> future = executionFuture;
+		if (future == null)
+			return;
 		try {
-			QuestStatement.this.executionThread.cancel();
+			stopExecution(future);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
 	}
 
+	/**
+	 * Cooperative: interrupts the executing thread and asks the DB to stop.
+	 */
+	private void stopExecution(Future<?> future) throws OntopQueryEvaluationException {
+		future.cancel(true);
+		cancelExecution();
+	}
+
 	/**
 	 * Called to check whether the statement was cancelled on purpose
 	 */
@@ -371,4 +316,70 @@ public abstract class QuestStatement implements OntopStatement {
 			return engine.reformulateIntoNativeQuery(inputQuery);
 	}
 
+	/**
+	 * Concatenates the results of the CONSTRUCT queries of a DESCRIBE query.
+	 *
+	 * A triple between two described resources is returned by both of their patterns,
+	 * possibly in different batches: the triples already returned are skipped.
+	 */
+	private class DescribeGraphResultSet implements SimpleGraphResultSet {
+
+		private final Iterator<ConstructQuery> remainingBatchQueries;
+		private final Set<Assertion> returnedAssertions = new HashSet<>();
+		@Nullable
+		private SimpleGraphResultSet currentResultSet;
+		@Nullable
+		private Assertion nextAssertion;
+
+		private DescribeGraphResultSet(@Nullable SimpleGraphResultSet firstResultSet,
+									   Iterator<ConstructQuery> remainingBatchQueries) {
+			this.currentResultSet = firstResultSet;
+			this.remainingBatchQueries = remainingBatchQueries;
+		}
+
+		@Override
+		public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+			while (nextAssertion == null && currentResultSet != null) {
+				if (currentResultSet.hasNext()) {
+					Assertion assertion = currentResultSet.next();
+					if (returnedAssertions.add(assertion))
+						nextAssertion = assertion;
+					continue;
+				}
+				currentResultSet.close();
+				currentResultSet = null;
+				if (remainingBatchQueries.hasNext()) {
+					try {
+						currentResultSet = executeInThread(remainingBatchQueries.next(),
+								QuestStatement.this::executeConstructQuery);
+					} catch (OntopReformulationException | OntopQueryEvaluationException e) {
+						throw new OntopConnectionException(e);
+					}
+				}
+			}
+			return nextAssertion != null;
+		}
+
+		@Override
+		public Assertion next() {
+			if (nextAssertion == null)
+				throw new NoSuchElementException("Please call hasNext() before calling next()");
+			Assertion assertion = nextAssertion;
+			nextAssertion = null;
+			return assertion;
+		}
+
+		@Override
+		public int getFetchSize() throws OntopConnectionException {
+			return currentResultSet == null ? 0 : currentResultSet.getFetchSize();
+		}
+
+		@Override
+		public void close() throws OntopConnectionException {
+			if (currentResultSet != null)
+				currentResultSet.close();
+			currentResultSet = null;
+			nextAssertion = null;
+		}
+	}
 }
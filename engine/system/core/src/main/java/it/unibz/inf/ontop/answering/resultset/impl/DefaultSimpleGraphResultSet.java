@@ -20,6 +20,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
  * #L%
  */
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
 import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
@@ -30,186 +31,216 @@ import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.ValueConstant;
 import it.unibz.inf.ontop.model.vocabulary.RDF;
-import it.unibz.inf.ontop.spec.ontology.ABoxAssertionSupplier;
-import it.unibz.inf.ontop.spec.ontology.Assertion;
-import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.query.algebra.*;
 
-import java.util.ArrayList;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
+/**
+ * Streams the triples of a CONSTRUCT query: the template is expanded row by row.
+ *
+ * Only the triples of the current row are buffered.
+ */
 public class DefaultSimpleGraphResultSet implements SimpleGraphResultSet {
 
-	private final List<Assertion> results = new ArrayList<>();
-
 	private final TupleResultSet tupleResultSet;
 
-	private final ConstructTemplate constructTemplate;
+	private final ImmutableList<TripleTemplate> tripleTemplates;
 
-	private final ImmutableMap<String, ValueExpr> extMap;
+	// triples of the current row (at most one per triple template)
+	private final ArrayDeque<Assertion> buffer;
 
-	// store results in case of describe queries
-	private final boolean storeResults;
-    private final TermFactory termFactory;
-    private final org.apache.commons.rdf.api.RDF rdfFactory;
+	private final ABoxAssertionSupplier assertionSupplier;
+	private final TermFactory termFactory;
+	private final org.apache.commons.rdf.api.RDF rdfFactory;
 
-    public DefaultSimpleGraphResultSet(TupleResultSet tupleResultSet, ConstructTemplate constructTemplate,
-                                       boolean storeResults, TermFactory termFactory,
-                                       org.apache.commons.rdf.api.RDF rdfFactory) throws OntopResultConversionException, OntopConnectionException {
+	public DefaultSimpleGraphResultSet(TupleResultSet tupleResultSet, ConstructTemplate constructTemplate,
+									   TermFactory termFactory, org.apache.commons.rdf.api.RDF rdfFactory) {
 		this.tupleResultSet = tupleResultSet;
-		this.constructTemplate = constructTemplate;
-        this.termFactory = termFactory;
-        this.rdfFactory = rdfFactory;
-        Extension ex = constructTemplate.getExtension();
-        if (ex != null) {
-            extMap = ex.getElements().stream()
-                    .collect(ImmutableCollectors.toMap(e -> e.getName(), e -> e.getExpr()));
-        }
-        else
-            extMap = null;
-
-        this.storeResults = storeResults;
-        if (storeResults) {
-            //process current result set into local buffer,
-            //since additional results will be collected
-            while (tupleResultSet.hasNext()) {
-                results.addAll(processResults(tupleResultSet.next()));
-            }
-        }
+		this.termFactory = termFactory;
+		this.rdfFactory = rdfFactory;
+		this.assertionSupplier = OntologyBuilderImpl.assertionSupplier(rdfFactory);
+
+		Extension ex = constructTemplate.getExtension();
+		ImmutableMap<String, ValueExpr> extMap = (ex != null)
+				? ex.getElements().stream()
+					.collect(ImmutableCollectors.toMap(ExtensionElem::getName, ExtensionElem::getExpr))
+				: ImmutableMap.of();
+
+		ImmutableList.Builder<TripleTemplate> tripleTemplateBuilder = ImmutableList.builder();
+		for (ProjectionElemList peList : constructTemplate.getProjectionElemList()) {
+			List<ProjectionElem> elements = peList.getElements();
+			for (int i = 0; i < elements.size() / 3; i++) {
+				tripleTemplateBuilder.add(new TripleTemplate(
+						elements.get(i * 3).getSourceName(),
+						elements.get(i * 3 + 1).getSourceName(),
+						elements.get(i * 3 + 2).getSourceName(),
+						extMap));
+			}
+		}
+		this.tripleTemplates = tripleTemplateBuilder.build();
+		this.buffer = new ArrayDeque<>(Math.max(tripleTemplates.size(), 1));
 	}
 
+	@Override
+	public int getFetchSize() throws OntopConnectionException {
+		return tupleResultSet.getFetchSize();
+	}
 
-    @Override
-    public int getFetchSize() throws OntopConnectionException {
-        return tupleResultSet.getFetchSize();
-    }
+	@Override
+	public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+		while (buffer.isEmpty() && tupleResultSet.hasNext()) {
+			OntopBindingSet bindingSet = tupleResultSet.next();
+			for (TripleTemplate tripleTemplate : tripleTemplates) {
+				Assertion assertion = tripleTemplate.createAssertion(bindingSet);
+				if (assertion != null)
+					buffer.add(assertion);
+			}
+		}
+		return !buffer.isEmpty();
+	}
 
-    @Override
-	public void addNewResult(Assertion assertion)
-	{
-		results.add(assertion);
+	@Override
+	public Assertion next() {
+		Assertion assertion = buffer.poll();
+		if (assertion == null)
+			throw new NoSuchElementException("Please call hasNext() before calling next()");
+		return assertion;
 	}
 
-	/**
-	 * The method to actually process the current result set Row.
-	 * Construct a list of assertions from the current result set row.
-	 * In case of describe it is called to process and store all 
-	 * the results from a resultset.
-	 * In case of construct it is called upon next, to process
-	 * the only current result set.
-	 */
-    private List<Assertion> processResults(OntopBindingSet bindingSet)
-            throws OntopResultConversionException, OntopConnectionException {
-
-        List<Assertion> tripleAssertions = new ArrayList<>();
-        ABoxAssertionSupplier builder = OntologyBuilderImpl.assertionSupplier(rdfFactory);
-
-        for (ProjectionElemList peList : constructTemplate.getProjectionElemList()) {
-            int size = peList.getElements().size();
-
-            for (int i = 0; i < size / 3; i++) {
-
-                ObjectConstant subjectConstant = (ObjectConstant) getConstant(peList.getElements().get(i * 3), bindingSet);
-                Constant predicateConstant = getConstant(peList.getElements().get(i * 3 + 1), bindingSet);
-                Constant objectConstant = getConstant(peList.getElements().get(i * 3 + 2), bindingSet);
-
-                // A triple can only be constructed when none of bindings is missing
-                if (subjectConstant == null || predicateConstant == null || objectConstant==null) {
-                    continue;
-                }
-
-                // Determines the type of assertion
-                String predicateName = predicateConstant.getValue();
-                try {
-                    Assertion assertion;
-                    if (predicateName.equals(RDF.TYPE.getIRIString())) {
-                        assertion = builder.createClassAssertion(objectConstant.getValue(), subjectConstant);
-                    }
-                    else {
-                        if ((objectConstant instanceof IRIConstant) || (objectConstant instanceof BNode)) {
-                            assertion = builder.createObjectPropertyAssertion(predicateName,
-                                    subjectConstant, (ObjectConstant) objectConstant);
-                        }
-                        else {
-                            assertion = builder.createDataPropertyAssertion(predicateName,
-                                    subjectConstant, (ValueConstant) objectConstant);
-                        }
-                    }
-                    if (assertion != null)
-                        tripleAssertions.add(assertion);
-                }
-                catch (InconsistentOntologyException e) {
-                    throw new OntopResultConversionException("InconsistentOntologyException: " +
-                            predicateName + " " + subjectConstant + " " + objectConstant);
-                }
-            }
-        }
-        return tripleAssertions;
-    }
-
-    @Override
-    public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
-        if (results.size() > 0)
-            return true;
-        //in case of describe, we return the collected results list information
-        if (storeResults)
-            return false;
-        // construct
-        while(tupleResultSet.hasNext()) {
-            List<Assertion> newTriples = processResults(tupleResultSet.next());
-            if (!newTriples.isEmpty()) {
-                results.addAll(newTriples);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    @Override
-    public Assertion next() {
-        if (results.size() > 0)
-            return results.remove(0);
-        else
-            throw new NoSuchElementException("Please call hasNext() before calling next()");
-    }
-
-    private Constant getConstant(ProjectionElem node, OntopBindingSet bindingSet)
-            throws OntopResultConversionException, OntopConnectionException {
-        Constant constant = null;
-        String node_name = node.getSourceName();
-        ValueExpr ve = null;
-
-        if (extMap != null) {
-            ve = extMap.get(node_name);
-            if (ve != null && ve instanceof Var)
-                throw new OntopResultConversionException("Invalid query. Found unbound variable: " + ve);
-        }
-
-//		if (node_name.charAt(0) == '-') {
-        if (ve instanceof org.eclipse.rdf4j.query.algebra.ValueConstant) {
-            org.eclipse.rdf4j.query.algebra.ValueConstant vc = (org.eclipse.rdf4j.query.algebra.ValueConstant) ve;
-            if (vc.getValue() instanceof IRI) {
-                constant = termFactory.getConstantIRI(rdfFactory.createIRI(vc.getValue().stringValue()));
-            }
-            else if (vc.getValue() instanceof Literal) {
-                constant = termFactory.getConstantLiteral(vc.getValue().stringValue());
-            }
-            else {
-                constant = termFactory.getConstantBNode(vc.getValue().stringValue());
-            }
-        } else {
-            constant = bindingSet.getConstant(node_name);
-        }
-        return constant;
-    }
-
-    @Override
+	@Override
 	public void close() throws OntopConnectionException {
 		tupleResultSet.close();
 	}
+
+	@FunctionalInterface
+	private interface TermExtractor {
+		@Nullable
+		Constant extract(OntopBindingSet bindingSet) throws OntopResultConversionException, OntopConnectionException;
+	}
+
+	/**
+	 * The constants of the template (and the classes and properties built from them)
+	 * are computed once for all the rows
+	 */
+	private final class TripleTemplate {
+		private final TermExtractor subjectExtractor, predicateExtractor, objectExtractor;
+
+		// when the predicate is a constant (but not rdf:type)
+		@Nullable
+		private final ObjectPropertyExpression objectProperty;
+		@Nullable
+		private final DataPropertyExpression dataProperty;
+		private final boolean isClassAssertion;
+		// when the predicate is rdf:type and the object is a constant
+		@Nullable
+		private final OClass oClass;
+
+		private TripleTemplate(String subjectName, String predicateName, String objectName,
+							   ImmutableMap<String, ValueExpr> extMap) {
+			subjectExtractor = getTermExtractor(subjectName, extMap);
+			predicateExtractor = getTermExtractor(predicateName, extMap);
+			objectExtractor = getTermExtractor(objectName, extMap);
+
+			Optional<String> predicateIRI = getConstantIRI(predicateName, extMap);
+			isClassAssertion = predicateIRI
+					.filter(p -> p.equals(RDF.TYPE.getIRIString()))
+					.isPresent();
+			objectProperty = predicateIRI
+					.filter(p -> !isClassAssertion)
+					.map(p -> OntologyBuilderImpl.createObjectPropertyExpression(rdfFactory.createIRI(p)))
+					.orElse(null);
+			dataProperty = predicateIRI
+					.filter(p -> !isClassAssertion)
+					.map(p -> OntologyBuilderImpl.createDataPropertyExpression(rdfFactory.createIRI(p)))
+					.orElse(null);
+			oClass = isClassAssertion
+					? getConstantIRI(objectName, extMap)
+						.map(c -> OntologyBuilderImpl.createClass(rdfFactory.createIRI(c)))
+						.orElse(null)
+					: null;
+		}
+
+		@Nullable
+		private Assertion createAssertion(OntopBindingSet bindingSet)
+				throws OntopResultConversionException, OntopConnectionException {
+			ObjectConstant subjectConstant = (ObjectConstant) subjectExtractor.extract(bindingSet);
+			Constant predicateConstant = predicateExtractor.extract(bindingSet);
+			Constant objectConstant = objectExtractor.extract(bindingSet);
+
+			// A triple can only be constructed when none of bindings is missing
+			if (subjectConstant == null || predicateConstant == null || objectConstant == null)
+				return null;
+
+			String predicateName = predicateConstant.getValue();
+			try {
+				boolean isObjectPropertyAssertion = (objectConstant instanceof IRIConstant)
+						|| (objectConstant instanceof BNode);
+
+				if (isClassAssertion)
+					return (oClass != null)
+							? OntologyBuilderImpl.createClassAssertion(oClass, subjectConstant)
+							: assertionSupplier.createClassAssertion(objectConstant.getValue(), subjectConstant);
+				else if (objectProperty != null)
+					return isObjectPropertyAssertion
+							? OntologyBuilderImpl.createObjectPropertyAssertion(objectProperty, subjectConstant,
+									(ObjectConstant) objectConstant)
+							: OntologyBuilderImpl.createDataPropertyAssertion(dataProperty, subjectConstant,
+									(ValueConstant) objectConstant);
+				// The predicate is a variable
+				else if (predicateName.equals(RDF.TYPE.getIRIString()))
+					return assertionSupplier.createClassAssertion(objectConstant.getValue(), subjectConstant);
+				else
+					return isObjectPropertyAssertion
+							? assertionSupplier.createObjectPropertyAssertion(predicateName, subjectConstant,
+									(ObjectConstant) objectConstant)
+							: assertionSupplier.createDataPropertyAssertion(predicateName, subjectConstant,
+									(ValueConstant) objectConstant);
+			}
+			catch (InconsistentOntologyException e) {
+				throw new OntopResultConversionException("InconsistentOntologyException: " +
+						predicateName + " " + subjectConstant + " " + objectConstant);
+			}
+		}
+	}
+
+	private TermExtractor getTermExtractor(String name, ImmutableMap<String, ValueExpr> extMap) {
+		ValueExpr ve = extMap.get(name);
+		if (ve instanceof Var)
+			return b -> {
+				throw new OntopResultConversionException("Invalid query. Found unbound variable: " + ve);
+			};
+
+		if (ve instanceof org.eclipse.rdf4j.query.algebra.ValueConstant) {
+			org.eclipse.rdf4j.query.algebra.ValueConstant vc = (org.eclipse.rdf4j.query.algebra.ValueConstant) ve;
+			Constant constant;
+			if (vc.getValue() instanceof IRI) {
+				constant = termFactory.getConstantIRI(rdfFactory.createIRI(vc.getValue().stringValue()));
+			}
+			else if (vc.getValue() instanceof Literal) {
+				constant = termFactory.getConstantLiteral(vc.getValue().stringValue());
+			}
+			else {
+				constant = termFactory.getConstantBNode(vc.getValue().stringValue());
+			}
+			return b -> constant;
+		}
+		return b -> b.getConstant(name);
+	}
+
+	private static Optional<String> getConstantIRI(String name, ImmutableMap<String, ValueExpr> extMap) {
+		ValueExpr ve = extMap.get(name);
+		return (ve instanceof org.eclipse.rdf4j.query.algebra.ValueConstant)
+				&& (((org.eclipse.rdf4j.query.algebra.ValueConstant) ve).getValue() instanceof IRI)
+				? Optional.of(((org.eclipse.rdf4j.query.algebra.ValueConstant) ve).getValue().stringValue())
+				: Optional.empty();
+	}
 }
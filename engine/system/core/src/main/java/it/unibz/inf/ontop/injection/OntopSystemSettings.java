@@ -9,11 +9,62 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    /**
+     * Maximum number of queries evaluated at the same time
+     */
+    int getQueryExecutorMaxThreads();
+
+    /**
+     * Maximum number of queries waiting for being evaluated.
+     * Beyond, new queries are rejected.
+     */
+    int getQueryExecutorQueueSize();
+
+    /**
+     * Only effective on JVMs supporting virtual threads (Java 21+)
+     */
+    boolean isVirtualThreadExecutionEnabled();
+
+    /**
+     * In seconds. Applies to the statements without a query timeout. 0 means no timeout.
+     */
+    int getDefaultQueryTimeout();
+
+    /**
+     * Maximum number of resources described by one CONSTRUCT query (in a VALUES block)
+     * when evaluating a DESCRIBE query
+     */
+    int getDescribeBatchSize();
+
+    /**
+     * Number of distinct rows above which the fingerprints of the DISTINCT post-processing
+     * are moved off the heap (to a memory-mapped temporary file)
+     */
+    int getDistinctResultSetMaxInMemoryRows();
+
+    /**
+     * Maximum number of consistency checks (ASK queries) evaluated at the same time
+     */
+    int getConsistencyCheckMaxThreads();
+
+    /**
+     * Maximum number of axioms checked by one ASK query (in a UNION) during a consistency check
+     */
+    int getConsistencyCheckBatchSize();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String QUERY_EXECUTOR_MAX_THREADS = "ontop.queryExecutor.maxThreads";
+    String QUERY_EXECUTOR_QUEUE_SIZE = "ontop.queryExecutor.queueSize";
+    String VIRTUAL_THREAD_EXECUTION = "ontop.queryExecutor.virtualThreads";
+    String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
+    String DESCRIBE_BATCH_SIZE = "ontop.describe.batchSize";
+    String DISTINCT_RESULTSET_MAX_IN_MEMORY_ROWS = "ontop.distinctResultSet.maxInMemoryRows";
+    String CONSISTENCY_CHECK_MAX_THREADS = "ontop.consistencyCheck.maxThreads";
+    String CONSISTENCY_CHECK_BATCH_SIZE = "ontop.consistencyCheck.batchSize";
 
 
 }
@@ -27,4 +27,44 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
     public boolean isPermanentDBConnectionEnabled() {
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
+
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return getRequiredInteger(QUERY_EXECUTOR_MAX_THREADS);
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return getRequiredInteger(QUERY_EXECUTOR_QUEUE_SIZE);
+    }
+
+    @Override
+    public boolean isVirtualThreadExecutionEnabled() {
+        return getRequiredBoolean(VIRTUAL_THREAD_EXECUTION);
+    }
+
+    @Override
+    public int getDefaultQueryTimeout() {
+        return getRequiredInteger(DEFAULT_QUERY_TIMEOUT);
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
+    @Override
+    public int getDistinctResultSetMaxInMemoryRows() {
+        return getRequiredInteger(DISTINCT_RESULTSET_MAX_IN_MEMORY_ROWS);
+    }
+
+    @Override
+    public int getConsistencyCheckMaxThreads() {
+        return getRequiredInteger(CONSISTENCY_CHECK_MAX_THREADS);
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return getRequiredInteger(CONSISTENCY_CHECK_BATCH_SIZE);
+    }
 }
@@ -23,6 +23,14 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of RDF properties/classes materialized concurrently,
+     * each on its own connection.
+     *
+     * 1 (sequential) by default.
+     */
+    int getParallelism();
+
 
     static Builder defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder<>();
@@ -35,6 +43,8 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B parallelism(int parallelism);
+
         MaterializationParams build();
 
     }
@@ -50,7 +50,12 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 
@@ -114,7 +119,9 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 		OntopQueryEngine queryEngine = engineFactory.create(obdaSpecification, configuration.getExecutorRegistry());
 		InputQueryFactory inputQueryFactory = injector.getInstance(InputQueryFactory.class);
 
-		return new DefaultMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory);
+		return params.getParallelism() > 1
+				? new ParallelMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory)
+				: new DefaultMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory);
 	}
 
 	/**
@@ -297,6 +304,179 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
 	}
 
 
+	/**
+	 * Materializes several RDF properties/classes at the same time, each on its own connection
+	 * (therefore the parallelism is also bounded by the size of the connection pool).
+	 *
+	 * The triples are exchanged through a bounded queue, so that slow consumers slow down the DB.
+	 * No ordering between the triples of different properties/classes is guaranteed.
+	 */
+	private static class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+		private static final int QUEUE_CAPACITY = 10000;
+		private static final long POLL_TIMEOUT = 100;
+
+		private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+		private final InputQueryFactory inputQueryFactory;
+		private final boolean doStreamResults, canBeIncomplete;
+		private final OntopQueryEngine queryEngine;
+		private final int parallelism;
+
+		private final BlockingQueue<Assertion> queue;
+		private final AtomicInteger remainingEntries;
+		private final AtomicLong counter;
+		private final List<IRI> possiblyIncompleteClassesAndProperties;
+
+		// Lately initiated
+		@Nullable
+		private ExecutorService executorService;
+		@Nullable
+		private volatile Exception failure;
+		@Nullable
+		private Assertion nextAssertion;
+
+		private final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+
+		ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+										   OntopQueryEngine queryEngine, InputQueryFactory inputQueryFactory) {
+			this.vocabulary = vocabulary;
+			this.queryEngine = queryEngine;
+			this.inputQueryFactory = inputQueryFactory;
+			this.doStreamResults = params.isDBResultStreamingEnabled();
+			this.canBeIncomplete = params.canMaterializationBeIncomplete();
+			this.parallelism = params.getParallelism();
+
+			this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+			this.remainingEntries = new AtomicInteger(vocabulary.size());
+			this.counter = new AtomicLong();
+			this.possiblyIncompleteClassesAndProperties = Collections.synchronizedList(new ArrayList<>());
+		}
+
+		@Override
+		public ImmutableSet<IRI> getSelectedVocabulary() {
+			return vocabulary.keySet();
+		}
+
+		private void start() {
+			AtomicInteger threadCount = new AtomicInteger();
+			executorService = Executors.newFixedThreadPool(parallelism, r -> {
+				Thread thread = new Thread(r, "ontop-materialization-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			for (VocabularyEntry entry : vocabulary.values()) {
+				executorService.execute(() -> {
+					try {
+						materialize(entry);
+					} finally {
+						remainingEntries.decrementAndGet();
+					}
+				});
+			}
+			executorService.shutdown();
+		}
+
+		/**
+		 * Executed by the worker threads
+		 */
+		private void materialize(VocabularyEntry entry) {
+			if (failure != null)
+				return;
+
+			try (OntopConnection connection = queryEngine.getConnection();
+				 OntopStatement statement = connection.createStatement()) {
+				ConstructQuery query = inputQueryFactory.createConstructQuery(entry.getQuery());
+				if (doStreamResults) {
+					statement.setFetchSize(FETCH_SIZE);
+				}
+				SimpleGraphResultSet graphResultSet = statement.execute(query);
+				try {
+					while (graphResultSet.hasNext())
+						queue.put(graphResultSet.next());
+				} finally {
+					graphResultSet.close();
+				}
+			} catch (InterruptedException e) {
+				// Closed
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				if (canBeIncomplete) {
+					LOGGER.warn("Possibly incomplete class/property " + entry.name + " (materialization problem).\n"
+							+ "Details: " + e);
+					possiblyIncompleteClassesAndProperties.add(entry.name);
+				}
+				else {
+					LOGGER.error("Problem materializing the class/property " + entry.name);
+					failure = e;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+			if (executorService == null)
+				start();
+
+			try {
+				while (nextAssertion == null) {
+					checkFailure();
+					// Read before polling: all the triples have already been added once it reaches 0
+					boolean isComplete = remainingEntries.get() == 0;
+					nextAssertion = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+					if (nextAssertion == null && isComplete) {
+						checkFailure();
+						return false;
+					}
+				}
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OntopConnectionException("Interrupted while waiting for the materialized triples");
+			}
+		}
+
+		private void checkFailure() throws OntopQueryAnsweringException, OntopConnectionException {
+			Exception e = failure;
+			if (e == null)
+				return;
+			if (e instanceof OntopQueryAnsweringException)
+				throw (OntopQueryAnsweringException) e;
+			if (e instanceof OntopConnectionException)
+				throw (OntopConnectionException) e;
+			throw new OntopQueryAnsweringException(e);
+		}
+
+		@Override
+		public Assertion next() throws OntopQueryAnsweringException {
+			Assertion assertion = nextAssertion;
+			if (assertion == null)
+				throw new NoSuchElementException("Call hasNext() before next()");
+			nextAssertion = null;
+			counter.incrementAndGet();
+			return assertion;
+		}
+
+		/**
+		 * Interrupts the worker threads, which close their statements and connections
+		 */
+		public void close() {
+			if (executorService != null)
+				executorService.shutdownNow();
+			queue.clear();
+		}
+
+		public long getTripleCountSoFar() {
+			return counter.get();
+		}
+
+		public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+			synchronized (possiblyIncompleteClassesAndProperties) {
+				return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+			}
+		}
+	}
+
+
 	private static class NonURIPredicateInVocabularyException extends OntopInternalBugException {
 
 		NonURIPredicateInVocabularyException(String vocabularyPredicate) {
@@ -0,0 +1,151 @@
+package it.unibz.inf.ontop.answering.connection.executor.impl;
+
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BoundedQueryExecutorTest {
+
+    @Test
+    public void testExecution() throws Exception {
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(2, 2, false);
+        Future<Integer> future = executor.submit(() -> 42);
+        assertEquals(42, (int) future.get());
+        assertEquals(0, executor.getActiveCount());
+        assertEquals(0, executor.getQueueDepth());
+        executor.close();
+    }
+
+    @Test
+    public void testAdmissionControl() throws Exception {
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Boolean> running = executor.submit(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        started.await();
+        Future<Integer> queued = executor.submit(() -> 1);
+        assertEquals(1, executor.getQueueDepth());
+
+        try {
+            executor.submit(() -> 2);
+            fail("The third query should have been rejected");
+        } catch (OntopQueryEvaluationException e) {
+            assertEquals(1, executor.getRejectedCount());
+        }
+
+        release.countDown();
+        assertTrue(running.get());
+        assertEquals(1, (int) queued.get());
+        assertEquals(2, executor.getExecutedCount());
+
+        // Permits have been released
+        assertEquals(3, (int) executor.submit(() -> 3).get());
+        executor.close();
+    }
+
+    @Test
+    public void testCancellationInterrupts() throws Exception {
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 0, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Future<Void> future = executor.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        started.await();
+        future.cancel(true);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        executor.close();
+    }
+
+    @Test
+    public void testCancellationOfQueuedQuery() throws Exception {
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Boolean> running = executor.submit(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        started.await();
+
+        // cancelled before having started, several times so that a leak would exhaust the permits
+        for (int i = 0; i < 3; i++) {
+            Future<Integer> queued = executor.submit(() -> 1);
+            assertEquals(1, executor.getQueueDepth());
+            assertTrue(queued.cancel(true));
+            assertEquals(0, executor.getQueueDepth());
+        }
+
+        release.countDown();
+        assertTrue(running.get());
+        assertEquals(2, (int) executor.submit(() -> 2).get());
+        assertEquals(0, executor.getRejectedCount());
+        assertEquals(2, executor.getExecutedCount());
+        executor.close();
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testFailure() throws Exception {
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 0, false);
+        try {
+            executor.submit(() -> {
+                throw new OntopQueryEvaluationException("failure");
+            }).get();
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsFallback() throws Exception {
+        // Falls back to platform threads on JVMs without virtual threads
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 0, true);
+        assertEquals("ok", executor.submit(() -> "ok").get());
+        executor.close();
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        BoundedQueryExecutor executor = new BoundedQueryExecutor(1, 1, false);
+        executor.registerMBean(server, 0);
+
+        executor.submit(() -> 1).get();
+
+        ObjectName name = new ObjectName("it.unibz.inf.ontop:type=QueryExecutor,id=0");
+        assertEquals(0, server.getAttribute(name, "QueueDepth"));
+        assertEquals(0, server.getAttribute(name, "ActiveCount"));
+        assertEquals(1L, server.getAttribute(name, "ExecutedCount"));
+        assertEquals(0L, server.getAttribute(name, "RejectedCount"));
+
+        executor.close();
+        assertFalse(server.isRegistered(name));
+        try {
+            executor.submit(() -> 2);
+            fail("The executor should not accept queries once closed");
+        } catch (OntopQueryEvaluationException e) {
+            // expected
+        }
+    }
+}
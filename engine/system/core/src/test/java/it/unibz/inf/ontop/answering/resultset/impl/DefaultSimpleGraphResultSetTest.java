@@ -0,0 +1,238 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.spec.ontology.Assertion;
+import it.unibz.inf.ontop.spec.ontology.ClassAssertion;
+import it.unibz.inf.ontop.spec.ontology.DataPropertyAssertion;
+import it.unibz.inf.ontop.spec.ontology.ObjectPropertyAssertion;
+import org.apache.commons.rdf.api.RDF;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DefaultSimpleGraphResultSetTest {
+
+    private static final OntopModelConfiguration CONFIGURATION = OntopModelConfiguration.defaultBuilder().build();
+    private static final TermFactory TERM_FACTORY = CONFIGURATION.getTermFactory();
+    private static final RDF RDF_FACTORY = CONFIGURATION.getRdfFactory();
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final String EX = "http://example.org/";
+
+    /**
+     * CONSTRUCT { ?s a ex:Person . ?s ex:knows ?o . ?s ex:name ?n } WHERE { ... }
+     */
+    private static final ConstructTemplate TEMPLATE = new ConstructTemplate() {
+        @Override
+        public ImmutableList<ProjectionElemList> getProjectionElemList() {
+            return ImmutableList.of(new ProjectionElemList(
+                    new ProjectionElem("s", "subject"), new ProjectionElem("_const_type", "predicate"),
+                    new ProjectionElem("_const_person", "object"),
+                    new ProjectionElem("s", "subject"), new ProjectionElem("_const_knows", "predicate"),
+                    new ProjectionElem("o", "object"),
+                    new ProjectionElem("s", "subject"), new ProjectionElem("_const_name", "predicate"),
+                    new ProjectionElem("n", "object")));
+        }
+
+        @Override
+        public Extension getExtension() {
+            return new Extension(new SingletonSet(),
+                    new ExtensionElem(new ValueConstant(org.eclipse.rdf4j.model.vocabulary.RDF.TYPE), "_const_type"),
+                    new ExtensionElem(new ValueConstant(VALUE_FACTORY.createIRI(EX + "Person")), "_const_person"),
+                    new ExtensionElem(new ValueConstant(VALUE_FACTORY.createIRI(EX + "knows")), "_const_knows"),
+                    new ExtensionElem(new ValueConstant(VALUE_FACTORY.createIRI(EX + "name")), "_const_name"));
+        }
+    };
+
+    @Test
+    public void testStreaming() throws Exception {
+        CountingTupleResultSet tuples = new CountingTupleResultSet(1000);
+        DefaultSimpleGraphResultSet resultSet = new DefaultSimpleGraphResultSet(tuples, TEMPLATE, TERM_FACTORY,
+                RDF_FACTORY);
+
+        assertEquals(0, tuples.consumedRows);
+        assertTrue(resultSet.hasNext());
+        assertTrue(resultSet.next() instanceof ClassAssertion);
+        assertTrue(resultSet.next() instanceof ObjectPropertyAssertion);
+        assertTrue(resultSet.next() instanceof DataPropertyAssertion);
+        assertEquals(1, tuples.consumedRows);
+
+        int count = 3;
+        while (resultSet.hasNext()) {
+            resultSet.next();
+            count++;
+        }
+        // ?o is not bound on the odd rows
+        assertEquals(2500, count);
+        assertEquals(1000, tuples.consumedRows);
+        resultSet.close();
+        assertTrue(tuples.isClosed);
+    }
+
+    @Test
+    public void testMissingBinding() throws Exception {
+        // ?o is not bound on the odd rows
+        CountingTupleResultSet tuples = new CountingTupleResultSet(4);
+        DefaultSimpleGraphResultSet resultSet = new DefaultSimpleGraphResultSet(tuples, TEMPLATE, TERM_FACTORY,
+                RDF_FACTORY);
+
+        int objectPropertyAssertions = 0;
+        while (resultSet.hasNext()) {
+            if (resultSet.next() instanceof ObjectPropertyAssertion)
+                objectPropertyAssertions++;
+        }
+        assertEquals(2, objectPropertyAssertions);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testEmpty() throws Exception {
+        DefaultSimpleGraphResultSet resultSet = new DefaultSimpleGraphResultSet(new CountingTupleResultSet(0),
+                TEMPLATE, TERM_FACTORY, RDF_FACTORY);
+        assertFalse(resultSet.hasNext());
+        resultSet.next();
+    }
+
+    @Test
+    public void testVariablePredicate() throws Exception {
+        ConstructTemplate template = new ConstructTemplate() {
+            @Override
+            public ImmutableList<ProjectionElemList> getProjectionElemList() {
+                return ImmutableList.of(new ProjectionElemList(
+                        new ProjectionElem("s", "subject"), new ProjectionElem("p", "predicate"),
+                        new ProjectionElem("n", "object")));
+            }
+
+            @Override
+            public Extension getExtension() {
+                return null;
+            }
+        };
+        DefaultSimpleGraphResultSet resultSet = new DefaultSimpleGraphResultSet(new CountingTupleResultSet(2),
+                template, TERM_FACTORY, RDF_FACTORY);
+        assertTrue(resultSet.hasNext());
+        Assertion assertion = resultSet.next();
+        assertTrue(assertion instanceof DataPropertyAssertion);
+        assertEquals(RDFS.LABEL.stringValue(),
+                ((DataPropertyAssertion) assertion).getProperty().getIRI().getIRIString());
+    }
+
+    /**
+     * Row i: ?s = ex:person/i, ?o = ex:person/(i+1) (only on the even rows), ?n = "name i" and ?p = rdfs:label
+     */
+    private static class CountingTupleResultSet implements TupleResultSet {
+        private final int size;
+        private int consumedRows = 0;
+        private boolean isClosed = false;
+
+        CountingTupleResultSet(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 4;
+        }
+
+        @Override
+        public List<String> getSignature() {
+            return ImmutableList.of("s", "o", "n", "p");
+        }
+
+        @Override
+        public int getFetchSize() {
+            return 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return consumedRows < size;
+        }
+
+        @Override
+        public OntopBindingSet next() {
+            int row = consumedRows++;
+            return new FakeBindingSet(row);
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+
+    private static class FakeBindingSet implements OntopBindingSet {
+        private final int row;
+
+        FakeBindingSet(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Constant getConstant(String name) {
+            switch (name) {
+                case "s":
+                    return TERM_FACTORY.getConstantIRI(RDF_FACTORY.createIRI(EX + "person/" + row));
+                case "o":
+                    return (row % 2 == 0)
+                            ? TERM_FACTORY.getConstantIRI(RDF_FACTORY.createIRI(EX + "person/" + (row + 1)))
+                            : null;
+                case "n":
+                    return TERM_FACTORY.getConstantLiteral("name " + row);
+                case "p":
+                    return TERM_FACTORY.getConstantIRI(RDF_FACTORY.createIRI(RDFS.LABEL.stringValue()));
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public Iterator<OntopBinding> iterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<OntopBinding> getBindings() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ImmutableList<String> getBindingNames() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Constant getConstant(int column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OntopBinding getBinding(int column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OntopBinding getBinding(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasBinding(String bindingName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
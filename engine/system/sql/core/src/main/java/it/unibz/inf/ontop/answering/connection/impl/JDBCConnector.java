@@ -4,6 +4,8 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.executor.QueryExecutor;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -44,6 +46,8 @@ public class JDBCConnector implements DBConnector {
     private final TermFactory termFactory;
     private final TypeFactory typeFactory;
     private final RDF rdfFactory;
+    private final QueryExecutor queryExecutor;
+    private final QueryLifecycleListener lifecycleListener;
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
@@ -54,6 +58,8 @@ public class JDBCConnector implements DBConnector {
                           TermFactory termFactory,
                           TypeFactory typeFactory,
                           RDF rdfFactory,
+                          QueryExecutor queryExecutor,
+                          QueryLifecycleListener lifecycleListener,
                           OntopSystemSQLSettings settings) {
         this.queryReformulator = queryReformulator;
         this.dbMetadata = dbMetadata;
@@ -64,6 +70,8 @@ public class JDBCConnector implements DBConnector {
         this.connectionPool = connectionPool;
         this.typeFactory = typeFactory;
         this.rdfFactory = rdfFactory;
+        this.queryExecutor = queryExecutor;
+        this.lifecycleListener = lifecycleListener;
     }
 
     /**
@@ -96,7 +104,11 @@ public class JDBCConnector implements DBConnector {
         } catch (Exception e) {
             log.error(e.getMessage());
         }
-        connectionPool.close();
+        try {
+            connectionPool.close();
+        } finally {
+            queryExecutor.close();
+        }
     }
 
     public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
@@ -125,7 +137,8 @@ public class JDBCConnector implements DBConnector {
     public OntopConnection getConnection() throws OntopConnectionException {
 
         return new SQLConnection(this, queryReformulator, getSQLPoolConnection(), iriDictionary,
-                dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory, settings);
+                dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory, queryExecutor,
+                lifecycleListener, settings);
     }
 
 
@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Prepared statements of a JDBC connection, indexed by their SQL string (the template of the parameterized queries),
+ * so that the queries of the same shape reuse the same statement and the plan prepared by the DB for it.
+ *
+ * A statement is borrowed for one execution and given back when its results are not needed anymore,
+ * so that two Ontop statements never share the same prepared statement.
+ * Keeps at most maxSize idle statements, the least recently used ones being closed first.
+ * When maxSize is 0, the statements are closed instead of being given back.
+ *
+ * Thread-safe.
+ */
+class PreparedStatementCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    private final Connection connection;
+    private final int maxSize;
+    // Access order. Guarded by this
+    private final LinkedHashMap<String, PreparedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean isClosed;
+    private long hitCount;
+    private long missCount;
+
+    PreparedStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Re-uses the idle statement prepared for this SQL string if any, otherwise prepares a new one.
+     */
+    PreparedStatement borrow(String sql) throws SQLException {
+        synchronized (this) {
+            PreparedStatement statement = idleStatements.remove(sql);
+            if (statement != null && !statement.isClosed()) {
+                hitCount++;
+                statement.clearParameters();
+                return statement;
+            }
+            missCount++;
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Makes the statement available again for its SQL string.
+     * The statement is closed when another one is already idle for the same string or when the cache is closed.
+     */
+    void giveBack(String sql, PreparedStatement statement) throws SQLException {
+        PreparedStatement toClose = null;
+        synchronized (this) {
+            if (isClosed || maxSize == 0 || statement.isClosed() || idleStatements.containsKey(sql))
+                toClose = statement;
+            else {
+                idleStatements.put(sql, statement);
+                if (idleStatements.size() > maxSize) {
+                    Iterator<PreparedStatement> it = idleStatements.values().iterator();
+                    toClose = it.next();
+                    it.remove();
+                }
+            }
+        }
+        if (toClose != null)
+            toClose.close();
+    }
+
+    /**
+     * Number of borrowings satisfied by an idle statement
+     */
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of statements prepared
+     */
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    synchronized int getIdleCount() {
+        return idleStatements.size();
+    }
+
+    /**
+     * Closes the idle statements. The statements given back afterwards are closed directly.
+     */
+    @Override
+    public void close() {
+        PreparedStatement[] statements;
+        synchronized (this) {
+            isClosed = true;
+            statements = idleStatements.values().toArray(new PreparedStatement[0]);
+            idleStatements.clear();
+        }
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.debug("Cannot close a prepared statement: " + e.getMessage());
+            }
+        }
+    }
+}
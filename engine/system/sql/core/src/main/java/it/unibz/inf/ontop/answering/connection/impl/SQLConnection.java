@@ -21,10 +21,14 @@ package it.unibz.inf.ontop.answering.connection.impl;
  */
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Optional;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.executor.QueryExecutor;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -51,25 +55,34 @@ public class SQLConnection implements OntopConnection {
 
 	private final QueryReformulator queryProcessor;
 	private Connection conn;
+	private PreparedStatementCache preparedStatementCache;
 	private final Optional<IRIDictionary> iriDictionary;
 	private final DBMetadata dbMetadata;
 	private final InputQueryFactory inputQueryFactory;
 	private final TermFactory termFactory;
 	private final TypeFactory typeFactory;
 	private final OntopSystemSQLSettings settings;
+	private final QueryExecutor queryExecutor;
+	private final QueryLifecycleListener lifecycleListener;
 
 	private final JDBCConnector jdbcConnector;
 	private boolean isClosed;
+	/**
+	 * True when the auto-commit mode has been disabled by Ontop for streaming the results
+	 */
+	private boolean isStreamingTransactionOpen;
 	private final RDF rdfFactory;
 
 
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
 						 Optional<IRIDictionary> iriDictionary, DBMetadata dbMetadata,
 						 InputQueryFactory inputQueryFactory, TermFactory termFactory, TypeFactory typeFactory,
-						 RDF rdfFactory, OntopSystemSQLSettings settings) {
+						 RDF rdfFactory, QueryExecutor queryExecutor, QueryLifecycleListener lifecycleListener,
+						 OntopSystemSQLSettings settings) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
 		this.conn = connection;
+		this.preparedStatementCache = new PreparedStatementCache(connection, settings.getPreparedStatementCacheSize());
 		this.iriDictionary = iriDictionary;
 		this.dbMetadata = dbMetadata;
 		this.inputQueryFactory = inputQueryFactory;
@@ -77,12 +90,17 @@ public class SQLConnection implements OntopConnection {
 		this.typeFactory = typeFactory;
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
+		this.queryExecutor = queryExecutor;
+		this.lifecycleListener = lifecycleListener;
 		this.isClosed = false;
 	}
 	
 	@Override
 	public void close() throws OntopConnectionException {
 		try {
+			preparedStatementCache.close();
+			if (!conn.isClosed())
+				endStreamingTransaction();
 			conn.close();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
@@ -94,17 +112,48 @@ public class SQLConnection implements OntopConnection {
 		try {
 			if (conn.isClosed()) {
 				// Sometimes it gets dropped, reconnect
+				preparedStatementCache.close();
+				isStreamingTransactionOpen = false;
 				conn = jdbcConnector.getSQLPoolConnection();
+				preparedStatementCache = new PreparedStatementCache(conn, settings.getPreparedStatementCacheSize());
 			}
+			Statement sqlStatement = conn.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY,
+					java.sql.ResultSet.CONCUR_READ_ONLY);
+			int fetchSize = settings.getFetchSize();
+			if (fetchSize > 0) {
+				sqlStatement.setFetchSize(fetchSize);
+				beginStreamingTransaction();
+			}
+
 			return new SQLQuestStatement(
 					this.queryProcessor,
-					conn.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY),
-					iriDictionary, dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory, settings);
+					sqlStatement, preparedStatementCache,
+					iriDictionary, dbMetadata, inputQueryFactory, termFactory, typeFactory, rdfFactory,
+					queryExecutor, lifecycleListener, settings);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
 	}
 
+	/**
+	 * Some JDBC drivers (e.g. PostgreSQL) ignore the fetch size and load all the results in auto-commit mode.
+	 * The queries being read-only, the transaction is simply rolled back when the connection is released.
+	 */
+	private void beginStreamingTransaction() throws SQLException {
+		if (!isStreamingTransactionOpen && conn.getAutoCommit()) {
+			conn.setAutoCommit(false);
+			isStreamingTransactionOpen = true;
+		}
+	}
+
+	private void endStreamingTransaction() throws SQLException {
+		if (isStreamingTransactionOpen) {
+			isStreamingTransactionOpen = false;
+			conn.rollback();
+			conn.setAutoCommit(true);
+		}
+	}
+
 	@Override
 	public InputQueryFactory getInputQueryFactory() {
 		return queryProcessor.getInputQueryFactory();
@@ -122,6 +171,7 @@ public class SQLConnection implements OntopConnection {
 	@Override
 	public void setAutoCommit(boolean autocommit) throws OntopConnectionException {
 		try {
+			isStreamingTransactionOpen = false;
 			conn.setAutoCommit(autocommit);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.monitoring.*;
 import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.impl.SQLExecutableQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
@@ -11,6 +13,7 @@ import it.unibz.inf.ontop.answering.resultset.SimpleGraphResultSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.answering.connection.executor.QueryExecutor;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.resultset.impl.PredefinedBooleanResultSet;
 
@@ -20,6 +23,7 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import org.apache.commons.rdf.api.RDF;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 import java.sql.ResultSet;
 
@@ -30,26 +34,39 @@ import java.sql.ResultSet;
 public class SQLQuestStatement extends QuestStatement {
 
     private final Statement sqlStatement;
+    private final PreparedStatementCache preparedStatementCache;
     private final DBMetadata dbMetadata;
     private final Optional<IRIDictionary> iriDictionary;
     private final TermFactory termFactory;
     private final TypeFactory typeFactory;
     private final RDF rdfFactory;
     private final OntopSystemSQLSettings settings;
+    private final QueryLifecycleListener lifecycleListener;
+    /**
+     * Used for the queries having parameters. Given back to the cache when the next query is executed.
+     */
+    @Nullable
+    private volatile PreparedStatement preparedStatement;
+    @Nullable
+    private String preparedSQL;
 
     public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
+                             PreparedStatementCache preparedStatementCache,
                              Optional<IRIDictionary> iriDictionary, DBMetadata dbMetadata,
                              InputQueryFactory inputQueryFactory,
                              TermFactory termFactory, TypeFactory typeFactory,
-                             RDF rdfFactory, OntopSystemSQLSettings settings) {
-        super(queryProcessor, inputQueryFactory);
+                             RDF rdfFactory, QueryExecutor queryExecutor, QueryLifecycleListener lifecycleListener,
+                             OntopSystemSQLSettings settings) {
+        super(queryProcessor, inputQueryFactory, queryExecutor, settings);
         this.sqlStatement = sqlStatement;
+        this.preparedStatementCache = preparedStatementCache;
         this.dbMetadata = dbMetadata;
         this.iriDictionary = iriDictionary;
         this.termFactory = termFactory;
         this.typeFactory = typeFactory;
         this.rdfFactory = rdfFactory;
         this.settings = settings;
+        this.lifecycleListener = lifecycleListener;
     }
 
     @Override
@@ -140,7 +157,8 @@ public class SQLQuestStatement extends QuestStatement {
         if (!isCanceled()) {
             try {
 
-                java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
+                java.sql.ResultSet set = executeSQLQuery(new SQLExecutableQuery(newsql, ImmutableList.of(),
+                        targetQuery.getParameters()));
                 if (set.next()) {
                     return set.getInt(1);
                 } else {
@@ -159,6 +177,7 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            releasePreparedStatement();
             if (sqlStatement != null)
                 sqlStatement.close();
         } catch (SQLException e) {
@@ -168,6 +187,9 @@ public class SQLQuestStatement extends QuestStatement {
 
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
+            PreparedStatement currentPreparedStatement = preparedStatement;
+            if (currentPreparedStatement != null)
+                currentPreparedStatement.cancel();
             sqlStatement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
@@ -184,7 +206,7 @@ public class SQLQuestStatement extends QuestStatement {
         }
 
         try {
-            java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+            java.sql.ResultSet set = executeSQLQuery(sqlTargetQuery, QueryType.ASK);
             return new SQLBooleanResultSet(set);
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e.getMessage());
@@ -201,20 +223,23 @@ public class SQLQuestStatement extends QuestStatement {
             return new EmptyTupleResultSet(executableQuery.getSignature());
         }
         try {
-            java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
-            return settings.isDistinctPostProcessingEnabled()
-                    ? new SQLDistinctTupleResultSet(set, executableQuery.getSignature(), dbMetadata, iriDictionary,
-                    termFactory, typeFactory, rdfFactory)
-                    : new DelegatedIriSQLTupleResultSet(set, executableQuery.getSignature(), dbMetadata, iriDictionary,
-                    termFactory, typeFactory, rdfFactory);
+            long start = System.nanoTime();
+            java.sql.ResultSet set = executeSQLQuery(sqlTargetQuery, QueryType.SELECT);
+            QueryResultMonitor monitor = new QueryResultMonitor(lifecycleListener, QueryType.SELECT, start);
+            return sqlTargetQuery.isDistinctPostProcessed()
+                    ? new SQLDistinctTupleResultSet(set, executableQuery.getSignature(),
+                    sqlTargetQuery.getStaticTypeLangValues(), dbMetadata, iriDictionary,
+                    termFactory, typeFactory, rdfFactory, settings.getDistinctResultSetMaxInMemoryRows(), monitor)
+                    : new DelegatedIriSQLTupleResultSet(set, executableQuery.getSignature(),
+                    sqlTargetQuery.getStaticTypeLangValues(), dbMetadata, iriDictionary,
+                    termFactory, typeFactory, rdfFactory, monitor);
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
         }
     }
 
     @Override
-    protected SimpleGraphResultSet executeGraphQuery(ConstructQuery inputQuery, ExecutableQuery executableQuery,
-                                                     boolean collectResults)
+    protected SimpleGraphResultSet executeGraphQuery(ConstructQuery inputQuery, ExecutableQuery executableQuery)
             throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
         SQLExecutableQuery sqlTargetQuery = checkAndConvertTargetQuery(executableQuery);
 
@@ -227,14 +252,55 @@ public class SQLQuestStatement extends QuestStatement {
         }
         else {
             try {
-                ResultSet set = sqlStatement.executeQuery(sqlQuery);
-                tuples = new DelegatedIriSQLTupleResultSet(set, executableQuery.getSignature(), dbMetadata,
-                        iriDictionary, termFactory, typeFactory, rdfFactory);
+                long start = System.nanoTime();
+                ResultSet set = executeSQLQuery(sqlTargetQuery, QueryType.CONSTRUCT);
+                tuples = new DelegatedIriSQLTupleResultSet(set, executableQuery.getSignature(),
+                        sqlTargetQuery.getStaticTypeLangValues(), dbMetadata, iriDictionary, termFactory, typeFactory,
+                        rdfFactory, new QueryResultMonitor(lifecycleListener, QueryType.CONSTRUCT, start));
             } catch (SQLException e) {
                 throw new OntopQueryEvaluationException(e.getMessage());
             }
         }
-        return new DefaultSimpleGraphResultSet(tuples, inputQuery.getConstructTemplate(), collectResults, termFactory, rdfFactory);
+        return new DefaultSimpleGraphResultSet(tuples, inputQuery.getConstructTemplate(), termFactory, rdfFactory);
+    }
+
+    private ResultSet executeSQLQuery(SQLExecutableQuery sqlQuery, QueryType queryType) throws SQLException {
+        long start = System.nanoTime();
+        ResultSet resultSet = executeSQLQuery(sqlQuery);
+        if (lifecycleListener.isEnabled())
+            lifecycleListener.onStageCompleted(new QueryStageEvent(QueryStage.EXECUTION, queryType,
+                    System.nanoTime() - start));
+        return resultSet;
+    }
+
+    /**
+     * Uses a prepared statement when the query has parameters, re-using the one of the connection
+     * prepared for the same template if any.
+     */
+    private ResultSet executeSQLQuery(SQLExecutableQuery sqlQuery) throws SQLException {
+        ImmutableList<String> parameters = sqlQuery.getParameters();
+        if (parameters.isEmpty())
+            return sqlStatement.executeQuery(sqlQuery.getSQL());
+
+        releasePreparedStatement();
+        String sql = sqlQuery.getSQL();
+        PreparedStatement newPreparedStatement = preparedStatementCache.borrow(sql);
+        newPreparedStatement.setFetchSize(sqlStatement.getFetchSize());
+        newPreparedStatement.setMaxRows(sqlStatement.getMaxRows());
+        newPreparedStatement.setQueryTimeout(sqlStatement.getQueryTimeout());
+        for (int i = 0; i < parameters.size(); i++) {
+            newPreparedStatement.setString(i + 1, parameters.get(i));
+        }
+        preparedSQL = sql;
+        preparedStatement = newPreparedStatement;
+        return newPreparedStatement.executeQuery();
+    }
+
+    private void releasePreparedStatement() throws SQLException {
+        PreparedStatement previousPreparedStatement = preparedStatement;
+        preparedStatement = null;
+        if (previousPreparedStatement != null)
+            preparedStatementCache.giveBack(preparedSQL, previousPreparedStatement);
     }
 
     private SQLExecutableQuery checkAndConvertTargetQuery(ExecutableQuery executableQuery) {
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.monitoring.QueryResultMonitor;
 import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -13,6 +14,7 @@ public abstract class AbstractSQLTupleResultSet implements TupleResultSet {
 
     protected final ResultSet rs;
     protected final ImmutableList<String> signature;
+    protected final QueryResultMonitor monitor;
 
     /**
      * Flag used to emulate the expected behavior of next() and hasNext()
@@ -24,9 +26,10 @@ public abstract class AbstractSQLTupleResultSet implements TupleResultSet {
     /* Set to false iff the moveCursor() method returned false (at least once) */
     private boolean foundNextElement = true;
 
-    protected AbstractSQLTupleResultSet(ResultSet rs, ImmutableList<String> signature){
+    protected AbstractSQLTupleResultSet(ResultSet rs, ImmutableList<String> signature, QueryResultMonitor monitor){
         this.rs = rs;
         this.signature = signature;
+        this.monitor = monitor;
     }
 
     @Override
@@ -56,6 +59,10 @@ public abstract class AbstractSQLTupleResultSet implements TupleResultSet {
             try {
                 // Moves cursor one result ahead
                 foundNextElement = moveCursor();
+                if (foundNextElement)
+                    monitor.onRow();
+                else
+                    monitor.onEnd();
             } catch (Exception e) {
                 throw new OntopConnectionException(e);
             }
@@ -74,6 +81,10 @@ public abstract class AbstractSQLTupleResultSet implements TupleResultSet {
             try {
                 // Moves cursor one result ahead
                 foundNextElement = moveCursor();
+                if (foundNextElement)
+                    monitor.onRow();
+                else
+                    monitor.onEnd();
             } catch (Exception e) {
                 throw new OntopConnectionException(e);
             }
@@ -89,6 +100,7 @@ public abstract class AbstractSQLTupleResultSet implements TupleResultSet {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            monitor.onEnd();
             rs.close();
         } catch (Exception e) {
             throw new OntopConnectionException(e);
@@ -8,15 +8,14 @@ import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.model.term.Constant;
 
 import javax.annotation.Nullable;
-import java.util.List;
 
 public class DelegatedIriSQLBindingSet extends AbstractOntopBindingSet implements OntopBindingSet {
 
     private final JDBC2ConstantConverter constantRetriever;
-    private final List<MainTypeLangValues> row;
+    private final MainTypeLangValues row;
     private final ImmutableMap<String, Integer> columnMap;
 
-    public DelegatedIriSQLBindingSet(List<MainTypeLangValues> row, ImmutableList<String> signature, ImmutableMap<String, Integer> columnMap,
+    public DelegatedIriSQLBindingSet(MainTypeLangValues row, ImmutableList<String> signature, ImmutableMap<String, Integer> columnMap,
                                      JDBC2ConstantConverter constantRetriever) {
         super(signature);
         this.row = row;
@@ -40,7 +39,7 @@ public class DelegatedIriSQLBindingSet extends AbstractOntopBindingSet implement
         return variableName2BindingMap.isPresent()?
                 variableName2BindingMap.get().containsKey(bindingName):
                 signature.contains(bindingName) &&
-                        row.get(columnMap.get(bindingName) - 1).getMainValue() != null;
+                        row.getMainValue(columnMap.get(bindingName) - 1) != null;
     }
 
     /***
@@ -49,12 +48,7 @@ public class DelegatedIriSQLBindingSet extends AbstractOntopBindingSet implement
     @Override
     @Nullable
     public Constant getConstant(int column) throws OntopResultConversionException {
-        final MainTypeLangValues cell = row.get(column - 1);
-        if (cell.getMainValue() == null) {
-            return null;
-        } else {
-            return constantRetriever.getConstantFromJDBC(cell);
-        }
+        return constantRetriever.getConstantFromJDBC(row, column - 1);
     }
 
     @Override
@@ -72,11 +66,10 @@ public class DelegatedIriSQLBindingSet extends AbstractOntopBindingSet implement
     }
 
     private OntopBinding computeBinding(int column) {
-        final MainTypeLangValues cell = row.get(column - 1);
-        if (cell.getMainValue() == null) {
+        if (row.getMainValue(column - 1) == null) {
             return null;
         } else {
-            return new SQLOntopBinding(signature.get(column - 1), cell, constantRetriever);
+            return new SQLOntopBinding(signature.get(column - 1), row, column - 1, constantRetriever);
         }
     }
 }
@@ -23,7 +23,9 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.monitoring.QueryResultMonitor;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+import it.unibz.inf.ontop.answering.reformulation.impl.StaticTypeLangValues;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -34,7 +36,6 @@ import org.apache.commons.rdf.api.RDF;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -46,27 +47,43 @@ public class DelegatedIriSQLTupleResultSet extends AbstractSQLTupleResultSet imp
 
     private final ImmutableMap<String, Integer> columnMap;
     protected final JDBC2ConstantConverter ontopConstantRetriever;
+    protected final SQLRowReader rowReader;
 
-    public DelegatedIriSQLTupleResultSet(ResultSet rs, ImmutableList<String> signature, DBMetadata dbMetadata,
-                                         Optional<IRIDictionary> iriDictionary, TermFactory termFactory,
-                                         TypeFactory typeFactory, RDF rdfFactory) {
-        super(rs, signature);
+    public DelegatedIriSQLTupleResultSet(ResultSet rs, ImmutableList<String> signature,
+                                         ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues,
+                                         DBMetadata dbMetadata, Optional<IRIDictionary> iriDictionary,
+                                         TermFactory termFactory, TypeFactory typeFactory, RDF rdfFactory,
+                                         QueryResultMonitor monitor)
+            throws SQLException {
+        super(rs, signature, monitor);
         this.columnMap = buildColumnMap();
+        this.rowReader = new SQLRowReader(signature, staticTypeLangValues, rs.getMetaData());
         this.ontopConstantRetriever = new JDBC2ConstantConverter(dbMetadata, iriDictionary, termFactory, typeFactory,
                 rdfFactory);
     }
 
     @Override
     protected DelegatedIriSQLBindingSet readCurrentRow() throws OntopConnectionException {
-        SQLRowReader rowReader = new SQLRowReader();
         try {
-            final List<MainTypeLangValues> cells = rowReader.read(rs, getColumnCount());
-            return new DelegatedIriSQLBindingSet(cells, signature, columnMap, ontopConstantRetriever);
+            MainTypeLangValues values = rowReader.read(rs);
+            if (monitor.isEnabled())
+                monitor.onDecodedCharacters(countCharacters(values));
+            return new DelegatedIriSQLBindingSet(values, signature, columnMap, ontopConstantRetriever);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
     }
 
+    private long countCharacters(MainTypeLangValues values) {
+        long count = 0;
+        for (int i = 0; i < signature.size(); i++) {
+            Object value = values.getMainValue(i);
+            if (value instanceof String)
+                count += ((String) value).length();
+        }
+        return count;
+    }
+
     private ImmutableMap<String, Integer> buildColumnMap() {
         AtomicInteger i = new AtomicInteger(0);
         return signature.stream().sequential()
@@ -13,6 +13,8 @@ import it.unibz.inf.ontop.model.vocabulary.XSD;
 import org.apache.commons.lang3.time.DateUtils;
 import org.apache.commons.rdf.api.RDF;
 
+import javax.annotation.Nullable;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URISyntaxException;
@@ -48,6 +50,12 @@ public class JDBC2ConstantConverter {
 
     private final System systemDB;
 
+    // Not thread-safe, like the result set
+    private final DecimalFormat floatingFormatter;
+    // Tried first: the values of a column usually share the same format
+    private DateTimeFormatter lastDateTimeFormatter;
+    private DateTimeFormatter lastTimeFormatter;
+
     static {
         defaultDateTimeFormatter = buildDefaultDateTimeFormatter();
         system2DateTimeFormatter = buildDateTimeFormatterMap();
@@ -107,6 +115,8 @@ public class JDBC2ConstantConverter {
         systemDB = identifySystem(vendor);
         this.bnodeCounter = new AtomicInteger();
         bnodeMap = new HashMap<>(1000);
+        floatingFormatter = new DecimalFormat("0.0E0");
+        floatingFormatter.setRoundingMode(RoundingMode.UNNECESSARY);
     }
 
     private System identifySystem(String vendor) {
@@ -117,20 +127,23 @@ public class JDBC2ConstantConverter {
         return DEFAULT;
     }
 
-    public Constant getConstantFromJDBC(MainTypeLangValues cell) throws OntopResultConversionException {
+    /**
+     * @param index 0-based index of the variable in the row
+     */
+    public Constant getConstantFromJDBC(MainTypeLangValues row, int index) throws OntopResultConversionException {
 
         Object value = "";
         String stringValue;
 
         try {
-            value = cell.getMainValue();
+            value = row.getMainValue(index);
 
             if (value == null) {
                 return null;
             }
             stringValue = String.valueOf(value);
 
-            int t = cell.getTypeValue();
+            int t = row.getTypeValue(index);
             COL_TYPE type = COL_TYPE.getQuestType(t);
             if (type == null)
                 throw new OntopResultConversionException("typeCode unknown: " + t);
@@ -164,7 +177,7 @@ public class JDBC2ConstantConverter {
                     // The constant is a literal, we need to find if its
                     // rdfs:Literal or a normal literal and construct it
                     // properly.
-                    String language = cell.getLangValue();
+                    String language = row.getLangValue(index);
                     if (language == null || language.trim().equals(""))
                         return termFactory.getConstantLiteral(stringValue);
                     else
@@ -256,10 +269,8 @@ public class JDBC2ConstantConverter {
         catch (NumberFormatException e){
             return stringValue;
         }
-        DecimalFormat formatter = new DecimalFormat("0.0E0");
-        formatter.setRoundingMode(RoundingMode.UNNECESSARY);
-        formatter.setMaximumFractionDigits((bigDecimal.scale() > 0) ? bigDecimal.precision() -1 : bigDecimal.precision() -1 + bigDecimal.scale() *-1);
-        return  formatter.format(bigDecimal);
+        floatingFormatter.setMaximumFractionDigits((bigDecimal.scale() > 0) ? bigDecimal.precision() -1 : bigDecimal.precision() -1 + bigDecimal.scale() *-1);
+        return floatingFormatter.format(bigDecimal);
     }
 
     private String extractDatetimeValue(Object value) throws OntopResultConversionException {
@@ -288,13 +299,16 @@ public class JDBC2ConstantConverter {
         } else {
             // Otherwise, we need to deal with possible String representation of datetime
             String stringValue = String.valueOf(value);
-            for (DateTimeFormatter format : system2DateTimeFormatter.get(systemDB)) {
-                try {
-                    dateValue = format.parseBest(stringValue, OffsetDateTime::from, LocalDateTime::from, LocalDate::from);
+            if (lastDateTimeFormatter != null)
+                dateValue = parseDateTime(lastDateTimeFormatter, stringValue);
 
-                    break;
-                } catch (DateTimeParseException e) {
-                    // continue with the next try
+            if (dateValue == null) {
+                for (DateTimeFormatter format : system2DateTimeFormatter.get(systemDB)) {
+                    dateValue = parseDateTime(format, stringValue);
+                    if (dateValue != null) {
+                        lastDateTimeFormatter = format;
+                        break;
+                    }
                 }
             }
 
@@ -318,13 +332,16 @@ public class JDBC2ConstantConverter {
         } else {
             // Otherwise, we need to deal with possible String representation of datetime
             String stringValue = String.valueOf(value);
-            for (DateTimeFormatter format : system2TimeFormatter.get(DEFAULT)) {
-                try {
-                    timeValue = format.parseBest(stringValue, OffsetTime::from, LocalTime::from);
+            if (lastTimeFormatter != null)
+                timeValue = parseTime(lastTimeFormatter, stringValue);
 
-                    break;
-                } catch (DateTimeParseException e) {
-                    // continue with the next try
+            if (timeValue == null) {
+                for (DateTimeFormatter format : system2TimeFormatter.get(DEFAULT)) {
+                    timeValue = parseTime(format, stringValue);
+                    if (timeValue != null) {
+                        lastTimeFormatter = format;
+                        break;
+                    }
                 }
             }
 
@@ -336,5 +353,23 @@ public class JDBC2ConstantConverter {
 
     }
 
+    @Nullable
+    private static TemporalAccessor parseDateTime(DateTimeFormatter format, String stringValue) {
+        try {
+            return format.parseBest(stringValue, OffsetDateTime::from, LocalDateTime::from, LocalDate::from);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static TemporalAccessor parseTime(DateTimeFormatter format, String stringValue) {
+        try {
+            return format.parseBest(stringValue, OffsetTime::from, LocalTime::from);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
 
 }
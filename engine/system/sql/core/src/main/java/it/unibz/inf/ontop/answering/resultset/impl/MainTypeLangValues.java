@@ -2,36 +2,34 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import javax.annotation.Nullable;
 
+/**
+ * Main, type and language values of the variables of a row (0-based indexes, in the order of the signature).
+ *
+ * The arrays are not copied: the type and language arrays may be shared by all the rows of a result set.
+ */
 public class MainTypeLangValues {
 
-    @Nullable
-    private Integer typeValue;
-
-    @Nullable
-    private String langValue;
+    private final Object[] mainValues;
+    private final int[] typeValues;
+    private final String[] langValues;
 
-    @Nullable
-    private Object mainValue;
-
-    MainTypeLangValues(Object mainValue, Integer typeValue, String langValue) {
-        this.mainValue = mainValue;
-        this.typeValue = typeValue;
-        this.langValue = langValue;
+    MainTypeLangValues(Object[] mainValues, int[] typeValues, String[] langValues) {
+        this.mainValues = mainValues;
+        this.typeValues = typeValues;
+        this.langValues = langValues;
     }
 
-    @Nullable
-    public Integer getTypeValue() {
-        return typeValue;
+    public int getTypeValue(int index) {
+        return typeValues[index];
     }
 
     @Nullable
-    public String getLangValue() {
-        return langValue;
+    public String getLangValue(int index) {
+        return langValues[index];
     }
 
     @Nullable
-    public Object getMainValue() {
-        return mainValue;
+    public Object getMainValue(int index) {
+        return mainValues[index];
     }
 }
-
@@ -0,0 +1,185 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Set of 128-bit row fingerprints (two longs), for deduplicating large result sets.
+ *
+ * Open addressing with linear probing, in a table of primitive longs that is at most half full.
+ * The slot (0, 0) marks an empty slot: the fingerprint (0, 0) is stored as (0, 1).
+ *
+ * Once the number of fingerprints exceeds maxInMemoryRows, the table is moved off the heap
+ * to a memory-mapped temporary file, which is deleted when the set is closed.
+ */
+class RowFingerprintSet implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final int maxInMemoryRows;
+    private LongTable table;
+    // Number of slots (power of two)
+    private long capacity;
+    private long size;
+
+    RowFingerprintSet(int maxInMemoryRows) {
+        this.maxInMemoryRows = maxInMemoryRows;
+        this.capacity = INITIAL_CAPACITY;
+        this.table = new HeapLongTable(2 * capacity);
+        this.size = 0;
+    }
+
+    /**
+     * Returns false if the fingerprint was already in the set
+     */
+    boolean add(long high, long low) throws IOException {
+        if (high == 0 && low == 0)
+            low = 1;
+
+        if (!insert(table, capacity, high, low))
+            return false;
+
+        size++;
+        if (2 * size > capacity)
+            resize();
+        return true;
+    }
+
+    private static boolean insert(LongTable table, long capacity, long high, long low) {
+        long mask = capacity - 1;
+        for (long slot = low & mask; ; slot = (slot + 1) & mask) {
+            long h = table.get(2 * slot);
+            long l = table.get(2 * slot + 1);
+            if (h == 0 && l == 0) {
+                table.set(2 * slot, high);
+                table.set(2 * slot + 1, low);
+                return true;
+            }
+            if (h == high && l == low)
+                return false;
+        }
+    }
+
+    private void resize() throws IOException {
+        long newCapacity = 2 * capacity;
+        LongTable newTable = (size > maxInMemoryRows)
+                ? new MappedLongTable(2 * newCapacity)
+                : new HeapLongTable(2 * newCapacity);
+
+        for (long slot = 0; slot < capacity; slot++) {
+            long h = table.get(2 * slot);
+            long l = table.get(2 * slot + 1);
+            if (h != 0 || l != 0)
+                insert(newTable, newCapacity, h, l);
+        }
+        table.close();
+        table = newTable;
+        capacity = newCapacity;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isOffHeap() {
+        return table instanceof MappedLongTable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+
+    private interface LongTable extends AutoCloseable {
+        long get(long index);
+
+        void set(long index, long value);
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class HeapLongTable implements LongTable {
+        private final long[] values;
+
+        HeapLongTable(long length) {
+            if (length > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Too large for the heap: " + length);
+            values = new long[(int) length];
+        }
+
+        @Override
+        public long get(long index) {
+            return values[(int) index];
+        }
+
+        @Override
+        public void set(long index, long value) {
+            values[(int) index] = value;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Zero-filled temporary file, mapped by chunks of at most 1 GB
+     */
+    private static class MappedLongTable implements LongTable {
+        private static final int CHUNK_BITS = 27;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+        private final Path path;
+        private final RandomAccessFile file;
+        private final LongBuffer[] chunks;
+
+        MappedLongTable(long length) throws IOException {
+            path = Files.createTempFile("ontop-distinct", ".bin");
+            file = new RandomAccessFile(path.toFile(), "rw");
+            try {
+                file.setLength(length * Long.BYTES);
+                FileChannel channel = file.getChannel();
+                int chunkCount = (int) ((length + CHUNK_MASK) >>> CHUNK_BITS);
+                chunks = new LongBuffer[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    long start = (long) i << CHUNK_BITS;
+                    long chunkLength = Math.min(CHUNK_MASK + 1, length - start);
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * Long.BYTES,
+                            chunkLength * Long.BYTES).asLongBuffer();
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public long get(long index) {
+            return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+        }
+
+        @Override
+        public void set(long index, long value) {
+            chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+        }
+
+        /**
+         * The mapping itself is released by the garbage collector
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                file.close();
+            }
+            finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -21,6 +21,12 @@ package it.unibz.inf.ontop.answering.resultset.impl;
  */
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.answering.monitoring.QueryResultMonitor;
+import it.unibz.inf.ontop.answering.reformulation.impl.StaticTypeLangValues;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.dbschema.DBMetadata;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
@@ -29,26 +35,37 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import org.apache.commons.rdf.api.RDF;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.*;
+import java.util.Optional;
 
 /**
  * Class to handle distinct in SPARQL query. Avoid returning duplicate rows.
  * See test case DistinctResultSetTest
+ *
+ * Only keeps a 128-bit fingerprint of the raw columns of each row returned so far
+ * (moved off the heap beyond maxInMemoryRows rows).
  */
 
 public class SQLDistinctTupleResultSet extends DelegatedIriSQLTupleResultSet implements TupleResultSet {
 
-    private Set<List<Object>> rowKeys;
+    private static final HashFunction FINGERPRINT_FUNCTION = Hashing.murmur3_128();
+
+    private final RowFingerprintSet rowFingerprints;
 
     public SQLDistinctTupleResultSet(ResultSet rs, ImmutableList<String> signature,
+                                     ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues,
                                      DBMetadata dbMetadata,
                                      Optional<IRIDictionary> iriDictionary, TermFactory termFactory,
-                                     TypeFactory typeFactory, RDF rdfFactory) {
+                                     TypeFactory typeFactory, RDF rdfFactory, int maxInMemoryRows,
+                                     QueryResultMonitor monitor)
+            throws SQLException {
 
-        super(rs, signature, dbMetadata, iriDictionary, termFactory, typeFactory, rdfFactory);
-        rowKeys = new HashSet<>();
+        super(rs, signature, staticTypeLangValues, dbMetadata, iriDictionary, termFactory, typeFactory, rdfFactory,
+                monitor);
+        rowFingerprints = new RowFingerprintSet(maxInMemoryRows);
     }
 
     /**
@@ -56,38 +73,51 @@ public class SQLDistinctTupleResultSet extends DelegatedIriSQLTupleResultSet imp
      */
     @Override
     protected boolean moveCursor() throws SQLException, OntopConnectionException {
-        boolean foundFreshRow;
-        List<Object> currentKey;
-        do{
-           foundFreshRow = rs.next();
-           // Cannot use this in the while condition: limit case where the last row was a duplicate
-           if(!foundFreshRow) {
-               break;
-           }
-           currentKey = computeRowKey(rs);
-        } while(!rowKeys.add(currentKey));
-
-        return foundFreshRow;
+        try {
+            while (rs.next()) {
+                ByteBuffer fingerprint = ByteBuffer.wrap(computeRowFingerprint());
+                if (rowFingerprints.add(fingerprint.getLong(0), fingerprint.getLong(8)))
+                    return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new OntopConnectionException(e);
+        }
     }
 
-    private List<Object> computeRowKey(ResultSet rs) throws OntopConnectionException {
-
-        ArrayList rowKey = new ArrayList<>();
-        for (int i = 1; i <= getSignature().size();  i ++ ) {
-            int column = i * 3;
-            rowKey.add(getRawObject(column-2));  //type
-            rowKey.add(getRawObject(column-1)); //lang
-            rowKey.add(getRawObject(column)); //value
+    /**
+     * Type, lang and value columns (only the value column for the variables having static type and lang values)
+     */
+    private byte[] computeRowFingerprint() throws SQLException {
+        Hasher hasher = FINGERPRINT_FUNCTION.newHasher();
+        for (int column = 1; column <= rowReader.getColumnCount(); column++) {
+            Object value = rs.getObject(column);
+            if (value == null) {
+                hasher.putByte((byte) 0);
+            }
+            else if (value instanceof byte[]) {
+                byte[] bytes = (byte[]) value;
+                hasher.putByte((byte) 1).putInt(bytes.length).putBytes(bytes);
+            }
+            else {
+                String string = String.valueOf(value);
+                hasher.putByte((byte) 2).putInt(string.length()).putUnencodedChars(string);
+            }
         }
-        return rowKey;
+        return hasher.hash().asBytes();
     }
 
-    Object getRawObject(int column) throws OntopConnectionException {
+    @Override
+    public void close() throws OntopConnectionException {
         try {
-            Object realValue = rs.getObject(column);
-            return realValue;
-        } catch (Exception e) {
-            throw new OntopConnectionException(e);
+            super.close();
+        }
+        finally {
+            try {
+                rowFingerprints.close();
+            } catch (IOException e) {
+                throw new OntopConnectionException(e);
+            }
         }
     }
 }
@@ -8,11 +8,16 @@ public class SQLOntopBinding implements OntopBinding {
 
     private final String name;
     private final JDBC2ConstantConverter constantRetriever;
-    private final MainTypeLangValues cell;
+    private final MainTypeLangValues row;
+    private final int index;
 
-    public SQLOntopBinding(String name, MainTypeLangValues cell, JDBC2ConstantConverter constantRetriever){
+    /**
+     * @param index 0-based index of the variable in the row
+     */
+    public SQLOntopBinding(String name, MainTypeLangValues row, int index, JDBC2ConstantConverter constantRetriever){
         this.name = name;
-        this.cell = cell;
+        this.row = row;
+        this.index = index;
         this.constantRetriever = constantRetriever;
     }
     
@@ -23,7 +28,7 @@ public class SQLOntopBinding implements OntopBinding {
 
     @Override
     public Constant getValue() throws OntopResultConversionException {
-        return constantRetriever.getConstantFromJDBC(cell);
+        return constantRetriever.getConstantFromJDBC(row, index);
     }
 
     @Override
@@ -44,13 +49,14 @@ public class SQLOntopBinding implements OntopBinding {
 
         if (!getName().equals(that.getName())) return false;
         if (!constantRetriever.equals(that.constantRetriever)) return false;
-        return cell.equals(that.cell);
+        return index == that.index && row.equals(that.row);
     }
 
     @Override
     public int hashCode() {
         int result = getName().hashCode();
-        result = 31 * result + cell.hashCode();
+        result = 31 * result + row.hashCode();
+        result = 31 * result + index;
         return result;
     }
 }
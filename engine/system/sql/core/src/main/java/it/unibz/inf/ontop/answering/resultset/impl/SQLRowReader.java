@@ -1,29 +1,120 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.impl.StaticTypeLangValues;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.List;
+import java.sql.Types;
 
+/**
+ * Each variable has a type, a language and a main column, except the variables having static type and language
+ * values, which only have their main column.
+ *
+ * Compiled once per result set: the getter of each main column is chosen from the JDBC metadata.
+ */
 public class SQLRowReader {
 
-    public List<MainTypeLangValues> read(ResultSet rs, int bindingNamesCount) throws SQLException {
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int column) throws SQLException;
+    }
+
+    private static final ColumnReader OBJECT_READER = ResultSet::getObject;
+    private static final ColumnReader STRING_READER = ResultSet::getString;
+    // Avoids boxing: the lexical value is needed anyway
+    private static final ColumnReader INTEGER_READER = (rs, column) -> {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : Long.toString(value);
+    };
+
+    private final int[] mainColumnIndexes;
+    // 0 for the variables having static values
+    private final int[] typeColumnIndexes;
+    private final int[] langColumnIndexes;
+    private final ColumnReader[] mainColumnReaders;
+    // Static values (shared by all the rows when no variable has dynamic values)
+    private final int[] staticTypeValues;
+    private final String[] staticLangValues;
+    private final boolean hasDynamicValues;
+    private final int columnCount;
+
+    public SQLRowReader(ImmutableList<String> signature,
+                        ImmutableMap<String, StaticTypeLangValues> staticTypeLangValues,
+                        ResultSetMetaData metaData) throws SQLException {
+        int size = signature.size();
+        mainColumnIndexes = new int[size];
+        typeColumnIndexes = new int[size];
+        langColumnIndexes = new int[size];
+        mainColumnReaders = new ColumnReader[size];
+        staticTypeValues = new int[size];
+        staticLangValues = new String[size];
+
+        boolean dynamic = false;
+        int column = 0;
+        for (int i = 0; i < size; i++) {
+            StaticTypeLangValues values = staticTypeLangValues.get(signature.get(i));
+            if (values == null) {
+                typeColumnIndexes[i] = ++column;
+                langColumnIndexes[i] = ++column;
+                dynamic = true;
+            }
+            else {
+                staticTypeValues[i] = values.getTypeValue();
+                staticLangValues[i] = values.getLangValue();
+            }
+            mainColumnIndexes[i] = ++column;
+            mainColumnReaders[i] = getColumnReader(metaData.getColumnType(column));
+        }
+        hasDynamicValues = dynamic;
+        columnCount = column;
+    }
+
+    private static ColumnReader getColumnReader(int jdbcType) {
+        switch (jdbcType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return STRING_READER;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INTEGER_READER;
+            default:
+                return OBJECT_READER;
+        }
+    }
 
-        final ImmutableList.Builder<MainTypeLangValues> builder = ImmutableList.builder();
+    public MainTypeLangValues read(ResultSet rs) throws SQLException {
+        int size = mainColumnIndexes.length;
+        Object[] mainValues = new Object[size];
+        for (int i = 0; i < size; i++) {
+            mainValues[i] = mainColumnReaders[i].read(rs, mainColumnIndexes[i]);
+        }
 
-        for (int i = 1; i <= bindingNamesCount; i++) {
-            final int mainColumnIndex = 3 * i;
-            final int typeColumnIndex = 3 * i - 2;
-            final int langColumnIndex = 3 * i - 1;
+        if (!hasDynamicValues)
+            return new MainTypeLangValues(mainValues, staticTypeValues, staticLangValues);
 
-            builder.add(new MainTypeLangValues(
-                    rs.getObject(mainColumnIndex),
-                    rs.getInt(typeColumnIndex),
-                    rs.getString(langColumnIndex)
-            ));
+        int[] typeValues = staticTypeValues.clone();
+        String[] langValues = staticLangValues.clone();
+        for (int i = 0; i < size; i++) {
+            if (typeColumnIndexes[i] > 0) {
+                typeValues[i] = rs.getInt(typeColumnIndexes[i]);
+                langValues[i] = rs.getString(langColumnIndexes[i]);
+            }
         }
+        return new MainTypeLangValues(mainValues, typeValues, langValues);
+    }
 
-        return builder.build();
+    /**
+     * Number of columns of the SQL result set
+     */
+    public int getColumnCount() {
+        return columnCount;
     }
 }
@@ -14,6 +14,20 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
     int getConnectionPoolInitialSize();
     int getConnectionPoolMaxSize();
 
+    /**
+     * Number of rows fetched at once from the DB when iterating over the results.
+     * 0 means the default of the JDBC driver.
+     *
+     * When positive, the auto-commit mode of the connection is disabled while its statements are open.
+     */
+    int getFetchSize();
+
+    /**
+     * Maximum number of idle prepared statements kept by each connection, indexed by their SQL template,
+     * for the parameterized queries. 0 disables the re-use of the prepared statements.
+     */
+    int getPreparedStatementCacheSize();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -24,4 +38,6 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
     // Connection timeout (in ms)
     String CONNECTION_TIMEOUT = "jdbc.pool.connectionTimeout";
     String KEEP_ALIVE = "jdbc.pool.keepAlive";
+    String FETCH_SIZE = "jdbc.fetchSize";
+    String PREPARED_STATEMENT_CACHE_SIZE = "jdbc.preparedStatementCacheSize";
 }
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Module;
+import it.unibz.inf.ontop.answering.monitoring.QueryLifecycleListener;
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
@@ -46,6 +47,11 @@ public class OntopStandaloneSQLConfigurationImpl extends OntopMappingSQLAllConfi
         return systemConfiguration.getIRIDictionary();
     }
 
+    @Override
+    public Optional<QueryLifecycleListener> getQueryLifecycleListener() {
+        return systemConfiguration.getQueryLifecycleListener();
+    }
+
     @Override
     public QueryReformulator loadQueryReformulator() throws OBDASpecificationException {
         return systemConfiguration.loadQueryReformulator();
@@ -120,6 +126,11 @@ public class OntopStandaloneSQLConfigurationImpl extends OntopMappingSQLAllConfi
             return translationFragmentBuilder.iriDictionary(iriDictionary);
         }
 
+        @Override
+        public B queryLifecycleListener(@Nonnull QueryLifecycleListener listener) {
+            return translationFragmentBuilder.queryLifecycleListener(listener);
+        }
+
         @Override
         public B keepPermanentDBConnection(boolean keep) {
             return systemFragmentBuilder.keepPermanentDBConnection(keep);
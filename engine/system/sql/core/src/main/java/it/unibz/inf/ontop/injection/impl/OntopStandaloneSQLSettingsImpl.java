@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopStandaloneSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 
@@ -36,6 +37,46 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.isIRISafeEncodingEnabled();
     }
 
+    @Override
+    public long getQueryCacheMaxSize() {
+        return systemSettings.getQueryCacheMaxSize();
+    }
+
+    @Override
+    public long getQueryCacheMaxWeight() {
+        return systemSettings.getQueryCacheMaxWeight();
+    }
+
+    @Override
+    public long getQueryCacheMinReformulationTime() {
+        return systemSettings.getQueryCacheMinReformulationTime();
+    }
+
+    @Override
+    public boolean isQueryParameterizationEnabled() {
+        return systemSettings.isQueryParameterizationEnabled();
+    }
+
+    @Override
+    public Optional<String> getIRIDictionaryFile() {
+        return systemSettings.getIRIDictionaryFile();
+    }
+
+    @Override
+    public boolean isJmxMonitoringEnabled() {
+        return systemSettings.isJmxMonitoringEnabled();
+    }
+
+    @Override
+    public int getMaxPropertyPathLength() {
+        return systemSettings.getMaxPropertyPathLength();
+    }
+
+    @Override
+    public int getMaxPropertyPathRecursionDepth() {
+        return systemSettings.getMaxPropertyPathRecursionDepth();
+    }
+
     @Override
     public boolean isKeepAliveEnabled() {
         return systemSettings.isKeepAliveEnabled();
@@ -61,8 +102,58 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getConnectionPoolMaxSize();
     }
 
+    @Override
+    public int getFetchSize() {
+        return systemSettings.getFetchSize();
+    }
+
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return systemSettings.getPreparedStatementCacheSize();
+    }
+
     @Override
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
     }
+
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return systemSettings.getQueryExecutorQueueSize();
+    }
+
+    @Override
+    public boolean isVirtualThreadExecutionEnabled() {
+        return systemSettings.isVirtualThreadExecutionEnabled();
+    }
+
+    @Override
+    public int getDefaultQueryTimeout() {
+        return systemSettings.getDefaultQueryTimeout();
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return systemSettings.getDescribeBatchSize();
+    }
+
+    @Override
+    public int getDistinctResultSetMaxInMemoryRows() {
+        return systemSettings.getDistinctResultSetMaxInMemoryRows();
+    }
+
+    @Override
+    public int getConsistencyCheckMaxThreads() {
+        return systemSettings.getConsistencyCheckMaxThreads();
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return systemSettings.getConsistencyCheckBatchSize();
+    }
 }
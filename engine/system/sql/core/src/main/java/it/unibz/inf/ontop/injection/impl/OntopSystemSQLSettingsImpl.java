@@ -61,11 +61,61 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(MAX_POOL_SIZE);
     }
 
+    @Override
+    public int getFetchSize() {
+        return getRequiredInteger(FETCH_SIZE);
+    }
+
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return getRequiredInteger(PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
     @Override
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorQueueSize() {
+        return systemSettings.getQueryExecutorQueueSize();
+    }
+
+    @Override
+    public boolean isVirtualThreadExecutionEnabled() {
+        return systemSettings.isVirtualThreadExecutionEnabled();
+    }
+
+    @Override
+    public int getDefaultQueryTimeout() {
+        return systemSettings.getDefaultQueryTimeout();
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return systemSettings.getDescribeBatchSize();
+    }
+
+    @Override
+    public int getDistinctResultSetMaxInMemoryRows() {
+        return systemSettings.getDistinctResultSetMaxInMemoryRows();
+    }
+
+    @Override
+    public int getConsistencyCheckMaxThreads() {
+        return systemSettings.getConsistencyCheckMaxThreads();
+    }
+
+    @Override
+    public int getConsistencyCheckBatchSize() {
+        return systemSettings.getConsistencyCheckBatchSize();
+    }
+
     @Override
     public String getJdbcUser() {
         return sqlCredentialSettings.getJdbcUser();
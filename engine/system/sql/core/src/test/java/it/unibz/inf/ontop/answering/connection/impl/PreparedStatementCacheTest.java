@@ -0,0 +1,112 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.Assert.*;
+
+public class PreparedStatementCacheTest {
+
+    private static final String TEMPLATE_1 = "SELECT ? FROM DUAL";
+    private static final String TEMPLATE_2 = "SELECT ?, ? FROM DUAL";
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:preparedstatements", "sa", "");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        try (PreparedStatementCache cache = new PreparedStatementCache(connection, 10)) {
+            PreparedStatement first = cache.borrow(TEMPLATE_1);
+            assertEquals("a", execute(first, "a"));
+            cache.giveBack(TEMPLATE_1, first);
+
+            PreparedStatement second = cache.borrow(TEMPLATE_1);
+            assertSame(first, second);
+            assertEquals("b", execute(second, "b"));
+            cache.giveBack(TEMPLATE_1, second);
+
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+        }
+    }
+
+    /**
+     * A borrowed statement is never handed out twice
+     */
+    @Test
+    public void testConcurrentBorrowings() throws Exception {
+        try (PreparedStatementCache cache = new PreparedStatementCache(connection, 10)) {
+            PreparedStatement first = cache.borrow(TEMPLATE_1);
+            PreparedStatement second = cache.borrow(TEMPLATE_1);
+            assertNotSame(first, second);
+
+            cache.giveBack(TEMPLATE_1, first);
+            // Already one idle statement for this template
+            cache.giveBack(TEMPLATE_1, second);
+            assertTrue(second.isClosed());
+            assertFalse(first.isClosed());
+            assertEquals(1, cache.getIdleCount());
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        try (PreparedStatementCache cache = new PreparedStatementCache(connection, 1)) {
+            PreparedStatement first = cache.borrow(TEMPLATE_1);
+            PreparedStatement second = cache.borrow(TEMPLATE_2);
+            cache.giveBack(TEMPLATE_1, first);
+            cache.giveBack(TEMPLATE_2, second);
+
+            assertTrue(first.isClosed());
+            assertFalse(second.isClosed());
+            assertSame(second, cache.borrow(TEMPLATE_2));
+            assertNotSame(first, cache.borrow(TEMPLATE_1));
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        try (PreparedStatementCache cache = new PreparedStatementCache(connection, 0)) {
+            PreparedStatement first = cache.borrow(TEMPLATE_1);
+            cache.giveBack(TEMPLATE_1, first);
+            assertTrue(first.isClosed());
+            assertEquals(0, cache.getHitCount());
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 10);
+        PreparedStatement idle = cache.borrow(TEMPLATE_1);
+        PreparedStatement borrowed = cache.borrow(TEMPLATE_2);
+        cache.giveBack(TEMPLATE_1, idle);
+        cache.close();
+        assertTrue(idle.isClosed());
+
+        cache.giveBack(TEMPLATE_2, borrowed);
+        assertTrue(borrowed.isClosed());
+    }
+
+    private static String execute(PreparedStatement statement, String value) throws Exception {
+        statement.setString(1, value);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            assertTrue(resultSet.next());
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.monitoring.*;
+import it.unibz.inf.ontop.answering.monitoring.impl.NoOpQueryLifecycleListener;
+import it.unibz.inf.ontop.answering.reformulation.impl.StaticTypeLangValues;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.dbschema.DummyBasicDBMetadata;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ValueConstant;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static it.unibz.inf.ontop.answering.reformulation.generation.utils.COL_TYPE.*;
+import static org.junit.Assert.*;
+
+/**
+ * The variables x, i and d have static type and language values (only their main column),
+ * n has a type, a language and a main column
+ */
+public class DelegatedIriSQLTupleResultSetTest {
+
+    private static final OntopModelConfiguration CONFIGURATION = OntopModelConfiguration.defaultBuilder().build();
+    private static final DBMetadata DB_METADATA = CONFIGURATION.getInjector().getInstance(DummyBasicDBMetadata.class);
+    private static final ImmutableList<String> SIGNATURE = ImmutableList.of("x", "n", "i", "d");
+    private static final ImmutableMap<String, StaticTypeLangValues> STATIC_VALUES = ImmutableMap.of(
+            "x", new StaticTypeLangValues(OBJECT.getQuestCode(), null),
+            "i", new StaticTypeLangValues(INTEGER.getQuestCode(), null),
+            "d", new StaticTypeLangValues(DATETIME.getQuestCode(), null));
+    private static final String SQL = "SELECT 'http://example.org/person/' || ID AS \"x\", " +
+            "TYPE AS \"nQuestType\", LANG AS \"nLang\", NAME AS \"n\", " +
+            "ID AS \"i\", BIRTH AS \"d\" FROM PERSON ORDER BY ID";
+
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection("jdbc:h2:mem:resultsetdb", "sa", "");
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate("CREATE TABLE PERSON (ID INT, NAME VARCHAR(100), TYPE INT, LANG VARCHAR(10), " +
+                    "BIRTH TIMESTAMP)");
+            st.executeUpdate("INSERT INTO PERSON VALUES (1, 'Alice', " + STRING.getQuestCode()
+                    + ", NULL, '2000-01-02 03:04:05')");
+            st.executeUpdate("INSERT INTO PERSON VALUES (2, 'Roberto', " + LANG_STRING.getQuestCode()
+                    + ", 'it', NULL)");
+            st.executeUpdate("INSERT INTO PERSON VALUES (NULL, NULL, NULL, NULL, NULL)");
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testRows() throws Exception {
+        try (Statement st = CONN.createStatement()) {
+            ResultSet rs = st.executeQuery(SQL);
+            List<QueryStageEvent> events = new ArrayList<>();
+            DelegatedIriSQLTupleResultSet resultSet = new DelegatedIriSQLTupleResultSet(rs, SIGNATURE, STATIC_VALUES,
+                    DB_METADATA, Optional.empty(), CONFIGURATION.getTermFactory(), CONFIGURATION.getTypeFactory(),
+                    CONFIGURATION.getRdfFactory(), new QueryResultMonitor(events::add, QueryType.SELECT,
+                    System.nanoTime()));
+
+            // NULL ID: nothing is bound
+            assertTrue(resultSet.hasNext());
+            OntopBindingSet row = resultSet.next();
+            assertTrue(row.getBindingNames().isEmpty());
+            assertNull(row.getConstant("i"));
+
+            assertTrue(resultSet.hasNext());
+            row = resultSet.next();
+            Constant x = row.getConstant("x");
+            assertTrue(x instanceof IRIConstant);
+            assertEquals("http://example.org/person/1", ((IRIConstant) x).getIRI().getIRIString());
+            assertLiteral("Alice", XSD.STRING.getIRIString(), row.getConstant("n"));
+            assertLiteral("1", XSD.INTEGER.getIRIString(), row.getConstant("i"));
+            ValueConstant d = (ValueConstant) row.getConstant("d");
+            assertTrue(d.getValue().startsWith("2000-01-02T03:04:05"));
+            assertEquals(ImmutableList.of("x", "n", "i", "d"), row.getBindingNames());
+
+            assertTrue(resultSet.hasNext());
+            row = resultSet.next();
+            ValueConstant n = (ValueConstant) row.getConstant("n");
+            assertEquals("Roberto", n.getValue());
+            assertEquals("it", n.getType().getLanguageTag().get().getFullString());
+            assertLiteral("2", XSD.INTEGER.getIRIString(), row.getConstant("i"));
+            assertFalse(row.hasBinding("d"));
+
+            assertFalse(resultSet.hasNext());
+            resultSet.close();
+
+            assertEquals(2, events.size());
+            assertEquals(QueryStage.FIRST_ROW, events.get(0).getStage());
+            QueryStageEvent decodingEvent = events.get(1);
+            assertEquals(QueryStage.RESULT_DECODING, decodingEvent.getStage());
+            assertEquals(QueryType.SELECT, decodingEvent.getQueryType());
+            assertEquals(3L, (long) decodingEvent.getSizes().get(QuerySize.ROW_COUNT));
+            assertTrue(decodingEvent.getSizes().get(QuerySize.DECODED_CHARACTERS) > 0);
+        }
+    }
+
+    /**
+     * The DISTINCT post-processing only compares the columns of the SQL result set
+     */
+    @Test
+    public void testDistinct() throws Exception {
+        try (Statement st = CONN.createStatement()) {
+            ResultSet rs = st.executeQuery("SELECT 'http://example.org/person/' || PERSON.ID AS \"x\" " +
+                    "FROM PERSON, PERSON P2");
+            SQLDistinctTupleResultSet resultSet = new SQLDistinctTupleResultSet(rs, ImmutableList.of("x"),
+                    STATIC_VALUES, DB_METADATA, Optional.empty(), CONFIGURATION.getTermFactory(),
+                    CONFIGURATION.getTypeFactory(), CONFIGURATION.getRdfFactory(), 1000,
+                    new QueryResultMonitor(new NoOpQueryLifecycleListener(), QueryType.SELECT, System.nanoTime()));
+            int count = 0;
+            while (resultSet.hasNext()) {
+                resultSet.next();
+                count++;
+            }
+            assertEquals(3, count);
+            resultSet.close();
+        }
+    }
+
+    private static void assertLiteral(String expectedValue, String expectedDatatype, Constant constant) {
+        assertTrue(constant instanceof ValueConstant);
+        ValueConstant literal = (ValueConstant) constant;
+        assertEquals(expectedValue, literal.getValue());
+        assertEquals(expectedDatatype, literal.getType().getIRI().getIRIString());
+    }
+}
@@ -0,0 +1,58 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RowFingerprintSetTest {
+
+    @Test
+    public void testInMemory() throws Exception {
+        try (RowFingerprintSet set = new RowFingerprintSet(100000)) {
+            checkAdditions(set, 10000);
+            assertFalse(set.isOffHeap());
+        }
+    }
+
+    @Test
+    public void testOffHeap() throws Exception {
+        try (RowFingerprintSet set = new RowFingerprintSet(100)) {
+            checkAdditions(set, 10000);
+            assertTrue(set.isOffHeap());
+        }
+    }
+
+    /**
+     * (0, 0) marks the empty slots
+     */
+    @Test
+    public void testZeroFingerprint() throws Exception {
+        try (RowFingerprintSet set = new RowFingerprintSet(100)) {
+            assertTrue(set.add(0, 0));
+            assertFalse(set.add(0, 0));
+            assertEquals(1, set.size());
+        }
+    }
+
+    private static void checkAdditions(RowFingerprintSet set, int count) throws Exception {
+        // Same low bits: collisions in the table
+        for (int i = 0; i < count; i++) {
+            assertTrue(set.add(i, 42));
+        }
+        Random random = new Random(0);
+        long[] highs = new long[count];
+        long[] lows = new long[count];
+        for (int i = 0; i < count; i++) {
+            highs[i] = random.nextLong();
+            lows[i] = random.nextLong();
+            assertTrue(set.add(highs[i], lows[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            assertFalse(set.add(i, 42));
+            assertFalse(set.add(highs[i], lows[i]));
+        }
+        assertEquals(2 * count, set.size());
+    }
+}
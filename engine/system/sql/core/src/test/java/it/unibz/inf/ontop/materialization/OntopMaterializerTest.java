@@ -146,6 +146,18 @@ public class OntopMaterializerTest {
 
 	@Test
 	public void testOneSource() throws Exception {
+		checkOneSource(MaterializationParams.defaultBuilder()
+				.build());
+	}
+
+	@Test
+	public void testOneSourceParallel() throws Exception {
+		checkOneSource(MaterializationParams.defaultBuilder()
+				.parallelism(3)
+				.build());
+	}
+
+	private void checkOneSource(MaterializationParams materializationParams) throws Exception {
 
     	SQLPPMapping ppMapping = createMapping();
 
@@ -168,6 +180,8 @@ public class OntopMaterializerTest {
 		}
 		in.close();
 
+		// The DB may be kept alive by the connection pool of a previous test
+		st.executeUpdate("DROP TABLE IF EXISTS \"data\"");
 		st.executeUpdate(bf.toString());
 		conn.commit();
 
@@ -176,9 +190,6 @@ public class OntopMaterializerTest {
 
 		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer();
 
-		MaterializationParams materializationParams = MaterializationParams.defaultBuilder()
-				.build();
-
 		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(
 				configuration, vocabulary, materializationParams)) {
 
@@ -2,6 +2,9 @@ package it.unibz.inf.ontop.injection;
 
 import it.unibz.inf.ontop.injection.impl.OntopSQLOWLAPIConfigurationImpl;
 
+import javax.annotation.Nonnull;
+import java.io.File;
+
 public interface OntopSQLOWLAPIConfiguration extends OntopStandaloneSQLConfiguration,
         OntopSystemOWLAPIConfiguration, OntopMappingSQLAllOWLAPIConfiguration {
 
@@ -12,6 +15,19 @@ public interface OntopSQLOWLAPIConfiguration extends OntopStandaloneSQLConfigura
     interface Builder<B extends Builder<B>> extends OntopStandaloneSQLConfiguration.Builder<B>,
             OntopMappingSQLAllOWLAPIConfiguration.Builder<B> {
 
+        /**
+         * Archive produced by "ontop compile": provides the properties, the mapping and the ontology.
+         * The DB metadata stored in the archive is used instead of being extracted
+         * (the mapping is still parsed and saturated when the specification is loaded).
+         *
+         * Replaces the properties given before.
+         * The JDBC credentials are not stored in the archive (not even in the JDBC URL):
+         * give them with jdbcUser and jdbcPassword.
+         */
+        B compiledSpecificationFile(@Nonnull File archiveFile);
+
+        B compiledSpecificationFile(@Nonnull String archiveFilename);
+
         @Override
         OntopSQLOWLAPIConfiguration build();
     }
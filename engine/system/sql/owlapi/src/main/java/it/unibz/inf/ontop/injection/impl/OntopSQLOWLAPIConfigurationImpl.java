@@ -8,14 +8,21 @@ import it.unibz.inf.ontop.injection.impl.OntopMappingOWLAPIConfigurationImpl.Ont
 import it.unibz.inf.ontop.injection.impl.OntopMappingOWLAPIConfigurationImpl.StandardMappingOWLAPIBuilderFragment;
 import it.unibz.inf.ontop.injection.impl.OntopMappingOntologyBuilders.OntopMappingOntologyOptions;
 import it.unibz.inf.ontop.injection.impl.OntopMappingOntologyBuilders.StandardMappingOntologyBuilderFragment;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.CompiledSpecificationArchive;
 import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
 import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 import java.util.Optional;
+import java.util.Properties;
 
 
 public class OntopSQLOWLAPIConfigurationImpl extends OntopStandaloneSQLConfigurationImpl
@@ -87,6 +94,45 @@ public class OntopSQLOWLAPIConfigurationImpl extends OntopStandaloneSQLConfigura
             return ontologyBuilderFragment.ontologyFile(owlFile);
         }
 
+        @Override
+        public B compiledSpecificationFile(@Nonnull String archiveFilename) {
+            return compiledSpecificationFile(new File(archiveFilename));
+        }
+
+        @Override
+        public B compiledSpecificationFile(@Nonnull File archiveFile) {
+            CompiledSpecificationArchive archive;
+            try {
+                archive = CompiledSpecificationArchive.read(archiveFile);
+            }
+            catch (IOException e) {
+                throw new InvalidOntopConfigurationException("Cannot read the compiled specification "
+                        + archiveFile + ": " + e.getMessage());
+            }
+
+            Properties properties = new Properties();
+            properties.putAll(archive.getSettings());
+            properties.setProperty(OntopMappingSQLSettings.COMPILED_SPECIFICATION_FILE, archiveFile.getAbsolutePath());
+            properties(properties);
+
+            if (archive.isR2rml())
+                r2rmlMappingReader(new StringReader(archive.getMapping()));
+            else
+                nativeOntopMappingReader(new StringReader(archive.getMapping()));
+
+            if (archive.getOntology().isPresent()) {
+                try {
+                    ontology(OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(
+                            new ByteArrayInputStream(archive.getOntology().get())));
+                }
+                catch (OWLOntologyCreationException e) {
+                    throw new InvalidOntopConfigurationException("Cannot load the ontology of the compiled specification "
+                            + archiveFile + ": " + e.getMessage());
+                }
+            }
+            return (B) this;
+        }
+
         void declareOntologyDefined() {
             if (isOntologyDefined) {
                 throw new InvalidOntopConfigurationException("Ontology already defined!");
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.spec.mapping.transformer.impl;
  */
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.datalog.CQIE;
 import it.unibz.inf.ontop.datalog.DatalogFactory;
@@ -30,6 +31,7 @@ import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.model.atom.AtomFactory;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Function;
@@ -49,6 +51,8 @@ import it.unibz.inf.ontop.substitution.Substitution;
 import it.unibz.inf.ontop.substitution.impl.SubstitutionUtilities;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -58,7 +62,16 @@ public class TMappingProcessor {
 	// TODO: the implementation of EXCLUDE ignores equivalent classes / properties
 
 	private class TMappingIndexEntry implements Iterable<TMappingRule> {
-		private final List<TMappingRule> rules = new LinkedList<>();
+		private final List<TMappingRule> rules = new ArrayList<>();
+
+		/*
+		 * Index of the rules by the shape of their subject (e.g. its IRI template).
+		 * Rules with different subject shapes have no homomorphism between them,
+		 * so the containment checks are only performed on the candidates with the same shape
+		 * and on the rules without a known shape.
+		 */
+		private final Map<ImmutableList<Object>, List<TMappingRule>> rulesBySubjectShape = new HashMap<>();
+		private final List<TMappingRule> rulesWithoutSubjectShape = new ArrayList<>();
 
 		public TMappingIndexEntry copyOf(IRI newPredicate) {
 			TMappingIndexEntry copy = new TMappingIndexEntry();
@@ -69,7 +82,7 @@ public class TMappingProcessor {
 						: atomFactory.getMutableTripleHeadAtom(headTerms.get(0), newPredicate, headTerms.get(2));
 				TMappingRule newRule = new TMappingRule(newHead, rule, datalogFactory, termFactory, eqNormalizer,
 						rule.isClass());
-				copy.rules.add(newRule);
+				copy.add(newRule);
 			}
 			return copy;
 		}
@@ -79,6 +92,38 @@ public class TMappingProcessor {
 			return rules.iterator();
 		}
 
+		private void add(TMappingRule rule) {
+			rules.add(rule);
+			getSubjectShape(rule)
+					.map(s -> rulesBySubjectShape.computeIfAbsent(s, k -> new ArrayList<>()))
+					.orElse(rulesWithoutSubjectShape)
+					.add(rule);
+		}
+
+		private void remove(TMappingRule rule) {
+			removeByIdentity(rules, rule);
+			Optional<ImmutableList<Object>> shape = getSubjectShape(rule);
+			if (shape.isPresent())
+				removeByIdentity(rulesBySubjectShape.get(shape.get()), rule);
+			else
+				removeByIdentity(rulesWithoutSubjectShape, rule);
+		}
+
+		/**
+		 * Rules that may be in a homomorphism relation with the new rule
+		 */
+		private List<TMappingRule> getCandidates(TMappingRule newRule) {
+			Optional<ImmutableList<Object>> shape = getSubjectShape(newRule);
+			if (!shape.isPresent())
+				return new ArrayList<>(rules);
+
+			List<TMappingRule> sameShapeRules = rulesBySubjectShape.get(shape.get());
+			List<TMappingRule> candidates = new ArrayList<>(rulesWithoutSubjectShape);
+			if (sameShapeRules != null)
+				candidates.addAll(sameShapeRules);
+			return candidates;
+		}
+
 		/***
 		 * 
 		 * This is an optimization mechanism that allows T-mappings to produce a
@@ -130,23 +175,21 @@ public class TMappingProcessor {
 			
 			// Facts are just added
 			if (newRule.isFact()) {
-				rules.add(newRule);
+				add(newRule);
 				return;
 			}
 		
 			if (noCQC) {
-				for (TMappingRule r : rules)
+				for (TMappingRule r : getCandidates(newRule))
 					if (r.equals(newRule))
 						return;
 				
-				rules.add(newRule);
+				add(newRule);
 				return;
 			}
 			
-			Iterator<TMappingRule> mappingIterator = rules.iterator();
-			while (mappingIterator.hasNext()) {
+			for (TMappingRule currentRule : getCandidates(newRule)) {
 
-				TMappingRule currentRule = mappingIterator.next(); 
 				// ROMAN (14 Oct 2015): quick fix, but one has to be more careful with variables in filters
 				if (currentRule.equals(newRule))
 					return;
@@ -168,7 +211,7 @@ public class TMappingProcessor {
 				if ((fromNewRule != null) && checkConditions(currentRule, newRule, fromNewRule)) {		
 					// The existing query is more specific than the new query, so we
 					// need to add the new query and remove the old	 
-					mappingIterator.remove();
+					remove(currentRule);
 					continue;
 				} 
 				
@@ -219,14 +262,14 @@ public class TMappingProcessor {
 
 					filterAtoms.add(newconditions);	
 					
-	                mappingIterator.remove();
+					remove(currentRule);
 	                
 					newRule = new TMappingRule(currentRule, filterAtoms, datalogFactory, termFactory, eqNormalizer);
 
 					break;
 				}				
 			}
-			rules.add(newRule);
+			add(newRule);
 		}
 		
 		private boolean checkConditions(TMappingRule rule1, TMappingRule rule2, Substitution toRule1) {
@@ -249,6 +292,7 @@ public class TMappingProcessor {
 	// end of the inner class
 
 
+	private static final Logger log = LoggerFactory.getLogger(TMappingProcessor.class);
 	private static final boolean noCQC = false;
 	private final AtomFactory atomFactory;
 	private final TermFactory termFactory;
@@ -278,21 +322,21 @@ public class TMappingProcessor {
 	private void getObjectTMappings(Map<IRI, TMappingIndexEntry> mappingIndex,
 			Map<IRI, List<TMappingRule>> originalMappings,
 			EquivalencesDAG<ObjectPropertyExpression> dag,
-			TMappingExclusionConfig excludeFromTMappings) {
+			TMappingExclusionConfig excludeFromTMappings, boolean parallel) {
 
-		for (Equivalences<ObjectPropertyExpression> propertySet : dag) {
+		saturate(mappingIndex, dag, parallel, propertySet -> {
 
 			ObjectPropertyExpression representative = propertySet.getRepresentative();
 			if (representative.isInverse())
-				continue;
+				return ImmutableMap.of();
 
 			if (excludeFromTMappings.contains(representative)) {
-				continue;
+				return ImmutableMap.of();
 			}
 
 			/* Getting the current node mappings */
 			IRI currentPredicate = representative.getIRI();
-			TMappingIndexEntry currentNodeMappings = getMappings(mappingIndex, currentPredicate);	
+			TMappingIndexEntry currentNodeMappings = getInitialMappings(mappingIndex, currentPredicate);
 
 			for (Equivalences<ObjectPropertyExpression> descendants : dag.getSub(propertySet)) {
 				for(ObjectPropertyExpression childproperty : descendants) {
@@ -320,12 +364,11 @@ public class TMappingProcessor {
 			}
 
 			/* Setting up mappings for the equivalent classes */
-			for (ObjectPropertyExpression equivProperty : propertySet) {
-				if (!equivProperty.isInverse())
-					setMappings(mappingIndex, equivProperty.getIRI(), currentNodeMappings);
-			}
-		} // Properties loop ended
-		
+			return propertySet.getMembers().stream()
+					.filter(p -> !p.isInverse())
+					.map(ObjectPropertyExpression::getIRI)
+					.collect(ImmutableCollectors.toMap(p -> p, currentNodeMappings::copyOf));
+		});
 	}
 
 	/**
@@ -337,17 +380,17 @@ public class TMappingProcessor {
 	private void getDataTMappings(Map<IRI, TMappingIndexEntry> mappingIndex,
 			Map<IRI, List<TMappingRule>> originalMappings,
 			EquivalencesDAG<DataPropertyExpression> dag,
-			TMappingExclusionConfig excludeFromTMappings) {
-		
-		for (Equivalences<DataPropertyExpression> propertySet : dag) {
+			TMappingExclusionConfig excludeFromTMappings, boolean parallel) {
+
+		saturate(mappingIndex, dag, parallel, propertySet -> {
 			DataPropertyExpression representative = propertySet.getRepresentative();
 
 			if (excludeFromTMappings.contains(representative)) {
-				continue;
+				return ImmutableMap.of();
 			}
 			/* Getting the current node mappings */
 			IRI currentPredicate = representative.getIRI();
-			TMappingIndexEntry currentNodeMappings = getMappings(mappingIndex, currentPredicate);
+			TMappingIndexEntry currentNodeMappings = getInitialMappings(mappingIndex, currentPredicate);
 
 			for (Equivalences<DataPropertyExpression> descendants : dag.getSub(propertySet)) {
 				for(DataPropertyExpression childproperty : descendants) {
@@ -375,11 +418,100 @@ public class TMappingProcessor {
 			}
 
 			/* Setting up mappings for the equivalent classes */
-			for (DataPropertyExpression equivProperty : propertySet) {
-				setMappings(mappingIndex, equivProperty.getIRI(), currentNodeMappings);
+			return propertySet.getMembers().stream()
+					.map(DataPropertyExpression::getIRI)
+					.collect(ImmutableCollectors.toMap(p -> p, currentNodeMappings::copyOf));
+		});
+	}
+
+	/**
+	 * constructs the TMappings for classes using DAG
+	 * @param mappingIndex
+	 * @param originalMappings
+	 * @param dag
+	 */
+	private void getClassTMappings(Map<IRI, TMappingIndexEntry> mappingIndex,
+			Map<IRI, List<TMappingRule>> originalMappings,
+			EquivalencesDAG<ClassExpression> dag,
+			TMappingExclusionConfig excludeFromTMappings, boolean parallel) {
+
+		saturate(mappingIndex, dag, parallel, classSet -> {
+
+			if (!(classSet.getRepresentative() instanceof OClass))
+				return ImmutableMap.of();
+
+			OClass representative = (OClass)classSet.getRepresentative();
+
+			if (excludeFromTMappings.contains(representative)) {
+				return ImmutableMap.of();
 			}
-		} // Properties loop ended
-		
+
+			/* Getting the current node mappings */
+			IRI currentPredicate = representative.getIRI();
+			TMappingIndexEntry currentNodeMappings = getInitialMappings(mappingIndex, currentPredicate);
+
+			for (Equivalences<ClassExpression> descendants : dag.getSub(classSet)) {
+				for (ClassExpression childDescription : descendants) {
+
+                    /* adding the mappings of the children as own mappings, the new
+					 * mappings. There are three cases, when the child is a named
+					 * class, or when it is an \exists P or \exists \inv P. 
+					 */
+					
+					final int arg;
+					final IRI childPredicate;
+					if (childDescription instanceof OClass) {
+						childPredicate = ((OClass) childDescription).getIRI();
+						arg = 0;
+					}
+					else if (childDescription instanceof ObjectSomeValuesFrom) {
+						ObjectPropertyExpression some = ((ObjectSomeValuesFrom) childDescription).getProperty();
+						childPredicate = some.getIRI();
+						arg = some.isInverse() ? 2 : 0;
+					} 
+					else {
+						assert (childDescription instanceof DataSomeValuesFrom);
+						DataPropertyExpression some = ((DataSomeValuesFrom) childDescription).getProperty();
+						childPredicate = some.getIRI();
+						arg = 0; // can never be an inverse
+					} 
+					
+					List<TMappingRule> childmappings = originalMappings.get(childPredicate);
+					if (childmappings == null)
+						continue;
+					
+					for (TMappingRule childmapping : childmappings) {
+						List<Term> terms = childmapping.getHeadTerms();
+						Function newMappingHead = atomFactory.getMutableTripleHeadAtom(terms.get(arg), currentPredicate);
+						TMappingRule newmapping = new TMappingRule(newMappingHead, childmapping, datalogFactory,
+								termFactory, eqNormalizer, true);
+						currentNodeMappings.mergeMappingsWithCQC(newmapping);
+					}
+				}
+			}
+
+			/* Setting up mappings for the equivalent classes */
+			return classSet.getMembers().stream()
+					.filter(c -> c instanceof OClass)
+					.map(c -> ((OClass) c).getIRI())
+					.collect(ImmutableCollectors.toMap(c -> c, currentNodeMappings::copyOf));
+		});
+	}
+
+	/**
+	 * Saturates the nodes of the DAG, in parallel (on the common fork-join pool) if requested.
+	 *
+	 * The T-mappings of a node only depend on its own mappings and on the original mappings of its descendants,
+	 * so the nodes are independent. The index is only updated once all the nodes have been processed.
+	 */
+	private static <T> void saturate(Map<IRI, TMappingIndexEntry> mappingIndex, EquivalencesDAG<T> dag, boolean parallel,
+									 java.util.function.Function<Equivalences<T>, ImmutableMap<IRI, TMappingIndexEntry>> nodeSaturator) {
+		ImmutableList<Equivalences<T>> nodes = ImmutableList.copyOf(dag);
+		ImmutableList<ImmutableMap<IRI, TMappingIndexEntry>> nodeMappings = (parallel ? nodes.parallelStream() : nodes.stream())
+				.map(nodeSaturator)
+				.collect(ImmutableCollectors.toList());
+
+		nodeMappings.forEach(mappingIndex::putAll);
 	}
 	
 	/**
@@ -390,6 +522,14 @@ public class TMappingProcessor {
 	 */
 
 	public List<CQIE> getTMappings(List<CQIE> originalMappings, ClassifiedTBox reasoner, CQContainmentCheckUnderLIDs cqc, TMappingExclusionConfig excludeFromTMappings) {
+		return getTMappings(originalMappings, reasoner, cqc, excludeFromTMappings, true);
+	}
+
+	/**
+	 * The sequential saturation is used by the tests, as a reference for the parallel one
+	 */
+	List<CQIE> getTMappings(List<CQIE> originalMappings, ClassifiedTBox reasoner, CQContainmentCheckUnderLIDs cqc,
+							TMappingExclusionConfig excludeFromTMappings, boolean parallelSaturation) {
 
 		final boolean printouts = false;
 		
@@ -450,8 +590,6 @@ public class TMappingProcessor {
 		
 
 		/*
-		 * We start with the property mappings, since class t-mappings require
-		 * that these are already processed. 
 		 * Processing mappings for all Properties
 		 *
 		 * We process the mappings for the descendants of the current node,
@@ -459,75 +597,22 @@ public class TMappingProcessor {
 		 * the TMappings specification.
 		 */
 
-		getObjectTMappings(mappingIndex, originalMappingIndex, reasoner.objectPropertiesDAG(), excludeFromTMappings);
-		getDataTMappings(mappingIndex, originalMappingIndex, reasoner.dataPropertiesDAG(), excludeFromTMappings);
+		long saturationStartTime = System.currentTimeMillis();
+
+		getObjectTMappings(mappingIndex, originalMappingIndex, reasoner.objectPropertiesDAG(), excludeFromTMappings,
+				parallelSaturation);
+		getDataTMappings(mappingIndex, originalMappingIndex, reasoner.dataPropertiesDAG(), excludeFromTMappings,
+				parallelSaturation);
 
 		/*
-		 * Property t-mappings are done, we now continue with class t-mappings.
+		 * Property t-mappings are done, we now continue with class t-mappings
+		 * (they are built from the original property mappings).
 		 */
 
-		for (Equivalences<ClassExpression> classSet : reasoner.classesDAG()) {
-
-			if (!(classSet.getRepresentative() instanceof OClass))
-				continue;
+		getClassTMappings(mappingIndex, originalMappingIndex, reasoner.classesDAG(), excludeFromTMappings,
+				parallelSaturation);
 
-			OClass representative = (OClass)classSet.getRepresentative();
-
-			if (excludeFromTMappings.contains(representative)) {
-				continue;
-			}
-
-			/* Getting the current node mappings */
-			IRI currentPredicate = representative.getIRI();
-			TMappingIndexEntry currentNodeMappings = getMappings(mappingIndex, currentPredicate);
-
-			for (Equivalences<ClassExpression> descendants : reasoner.classesDAG().getSub(classSet)) {
-				for (ClassExpression childDescription : descendants) {
-
-                    /* adding the mappings of the children as own mappings, the new
-					 * mappings. There are three cases, when the child is a named
-					 * class, or when it is an \exists P or \exists \inv P. 
-					 */
-					
-					final int arg;
-					final IRI childPredicate;
-					if (childDescription instanceof OClass) {
-						childPredicate = ((OClass) childDescription).getIRI();
-						arg = 0;
-					}
-					else if (childDescription instanceof ObjectSomeValuesFrom) {
-						ObjectPropertyExpression some = ((ObjectSomeValuesFrom) childDescription).getProperty();
-						childPredicate = some.getIRI();
-						arg = some.isInverse() ? 2 : 0;
-					} 
-					else {
-						assert (childDescription instanceof DataSomeValuesFrom);
-						DataPropertyExpression some = ((DataSomeValuesFrom) childDescription).getProperty();
-						childPredicate = some.getIRI();
-						arg = 0; // can never be an inverse
-					} 
-					
-					List<TMappingRule> childmappings = originalMappingIndex.get(childPredicate);
-					if (childmappings == null)
-						continue;
-					
-					for (TMappingRule childmapping : childmappings) {
-						List<Term> terms = childmapping.getHeadTerms();
-						Function newMappingHead = atomFactory.getMutableTripleHeadAtom(terms.get(arg), currentPredicate);
-						TMappingRule newmapping = new TMappingRule(newMappingHead, childmapping, datalogFactory,
-								termFactory, eqNormalizer, true);
-						currentNodeMappings.mergeMappingsWithCQC(newmapping);
-					}
-				}
-			}
-
-			/* Setting up mappings for the equivalent classes */
-			for (ClassExpression equiv : classSet) {
-				if (equiv instanceof OClass)
-					setMappings(mappingIndex, ((OClass) equiv).getIRI(), currentNodeMappings);
-			}
-		}
-		
+		log.info("T-mapping saturation time: {} ms", System.currentTimeMillis() - saturationStartTime);
 
 		List<CQIE> tmappingsProgram = new LinkedList<>();
 		for (Entry<IRI, TMappingIndexEntry> entry : mappingIndex.entrySet()) {
@@ -600,6 +685,44 @@ public class TMappingProcessor {
 	}
 
 
+	/**
+	 * Function symbol and constant first argument (e.g. IRI template) of the subject.
+	 *
+	 * Empty when the subject is a variable or when its first argument is not a constant
+	 * (e.g. IRI directly taken from a column).
+	 */
+	private static Optional<ImmutableList<Object>> getSubjectShape(TMappingRule rule) {
+		Term subject = rule.getHeadTerms().get(0);
+		if (!(subject instanceof Function))
+			return Optional.empty();
+
+		Function functionalSubject = (Function) subject;
+		if ((functionalSubject.getArity() == 0) || !(functionalSubject.getTerm(0) instanceof Constant))
+			return Optional.empty();
+
+		return Optional.of(ImmutableList.of(functionalSubject.getFunctionSymbol(), functionalSubject.getTerm(0)));
+	}
+
+	private static void removeByIdentity(List<TMappingRule> rules, TMappingRule rule) {
+		Iterator<TMappingRule> iterator = rules.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next() == rule) {
+				iterator.remove();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Private copy of the mappings of the predicate (does not modify the index)
+	 */
+	private TMappingIndexEntry getInitialMappings(Map<IRI, TMappingIndexEntry> mappingIndex, IRI current) {
+		TMappingIndexEntry currentMappings = mappingIndex.get(current);
+		return (currentMappings == null)
+				? new TMappingIndexEntry()
+				: currentMappings.copyOf(current);
+	}
+
 	private TMappingIndexEntry getMappings(Map<IRI, TMappingIndexEntry> mappingIndex, IRI current) {
 		
 		TMappingIndexEntry currentMappings = mappingIndex.get(current);	
@@ -0,0 +1,89 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import it.unibz.inf.ontop.datalog.CQIE;
+import it.unibz.inf.ontop.datalog.impl.CQContainmentCheckUnderLIDs;
+import it.unibz.inf.ontop.model.term.Function;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.Test;
+
+import java.util.List;
+
+import static it.unibz.inf.ontop.utils.MappingTestingTools.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TMappingProcessorTest {
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final Variable Z = TERM_FACTORY.getVariable("z");
+
+    @Test
+    public void testParallelSaturation() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY);
+        OClass A = builder.declareClass("http://example.org/voc#A");
+        OClass B = builder.declareClass("http://example.org/voc#B");
+        OClass C = builder.declareClass("http://example.org/voc#C");
+        OClass D = builder.declareClass("http://example.org/voc#D");
+        ObjectPropertyExpression P = builder.declareObjectProperty("http://example.org/voc#P");
+        ObjectPropertyExpression Q = builder.declareObjectProperty("http://example.org/voc#Q");
+        DataPropertyExpression R = builder.declareDataProperty("http://example.org/voc#R");
+        DataPropertyExpression S = builder.declareDataProperty("http://example.org/voc#S");
+        builder.addSubClassOfAxiom(B, A);
+        builder.addSubClassOfAxiom(C, A);
+        builder.addSubClassOfAxiom(D, B);
+        builder.addSubClassOfAxiom(D, C);
+        builder.addSubPropertyOfAxiom(P, Q);
+        builder.addSubClassOfAxiom(P.getDomain(), B);
+        builder.addSubClassOfAxiom(Q.getInverse().getDomain(), C);
+        builder.addSubPropertyOfAxiom(R, S);
+        ClassifiedTBox tbox = builder.build().tbox();
+
+        CQContainmentCheckUnderLIDs cqc = new CQContainmentCheckUnderLIDs(ImmutableList.of(), DATALOG_FACTORY,
+                UNIFIER_UTILITIES, SUBSTITUTION_UTILITIES, TERM_FACTORY);
+
+        List<CQIE> sequentialMappings = TMAPPING_PROCESSOR.getTMappings(createMappings(A, B, D, P, Q, R), tbox, cqc,
+                TMappingExclusionConfig.empty(), false);
+        List<CQIE> parallelMappings = TMAPPING_PROCESSOR.getTMappings(createMappings(A, B, D, P, Q, R), tbox, cqc,
+                TMappingExclusionConfig.empty(), true);
+
+        // the saturation adds the mappings of A, C and S
+        assertTrue(sequentialMappings.size() > 6);
+        assertEquals(toStrings(sequentialMappings), toStrings(parallelMappings));
+    }
+
+    private static List<CQIE> createMappings(OClass A, OClass B, OClass D, ObjectPropertyExpression P,
+                                             ObjectPropertyExpression Q, DataPropertyExpression R) {
+        return ImmutableList.of(
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), A.getIRI()),
+                        TERM_FACTORY.getFunction(TABLE1_AR3, X, Y, Z)),
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), B.getIRI()),
+                        TERM_FACTORY.getFunction(TABLE1_AR2, X, Y)),
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), D.getIRI()),
+                        TERM_FACTORY.getFunction(TABLE2_AR2, X, Y)),
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), P.getIRI(), getIRI(Y)),
+                        TERM_FACTORY.getFunction(TABLE2_AR3, X, Y, Z)),
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), Q.getIRI(), getIRI(Z)),
+                        TERM_FACTORY.getFunction(TABLE3_AR3, X, Y, Z)),
+                DATALOG_FACTORY.getCQIE(ATOM_FACTORY.getMutableTripleHeadAtom(getIRI(X), R.getIRI(),
+                        TERM_FACTORY.getTypedTerm(Y, XSD.STRING)),
+                        TERM_FACTORY.getFunction(TABLE1_AR2, X, Y)));
+    }
+
+    private static Function getIRI(Variable variable) {
+        return TERM_FACTORY.getUriTemplate(TERM_FACTORY.getConstantLiteral("http://example.org/{}"), variable);
+    }
+
+    private static ImmutableMultiset<String> toStrings(List<CQIE> mappings) {
+        return mappings.stream()
+                .map(CQIE::toString)
+                .collect(ImmutableCollectors.toMultiset());
+    }
+}
@@ -23,6 +23,7 @@ import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.spec.mapping.MappingMetadata;
 import it.unibz.inf.ontop.spec.mapping.PrefixManager;
 import it.unibz.inf.ontop.spec.mapping.transformer.*;
+import it.unibz.inf.ontop.spec.mapping.transformer.impl.TMappingProcessor;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.substitution.impl.SubstitutionUtilities;
 import it.unibz.inf.ontop.substitution.impl.UnifierUtilities;
@@ -59,6 +60,7 @@ public class MappingTestingTools {
     public static final MappingSameAsInverseRewriter SAME_AS_INVERSE_REWRITER;
     public static final IQ2DatalogTranslator INTERMEDIATE_QUERY_2_DATALOG_TRANSLATOR;
     public static final MappingSaturator MAPPING_SATURATOR;
+    public static final TMappingProcessor TMAPPING_PROCESSOR;
 
     public static final UriTemplateMatcher EMPTY_URI_TEMPLATE_MATCHER;
     public static final PrefixManager EMPTY_PREFIX_MANAGER;
@@ -98,6 +100,7 @@ public class MappingTestingTools {
         SAME_AS_INVERSE_REWRITER = injector.getInstance(MappingSameAsInverseRewriter.class);
         INTERMEDIATE_QUERY_2_DATALOG_TRANSLATOR = injector.getInstance(IQ2DatalogTranslator.class);
         MAPPING_SATURATOR = injector.getInstance(MappingSaturator.class);
+        TMAPPING_PROCESSOR = injector.getInstance(TMappingProcessor.class);
         UNION_FLATTENER = injector.getInstance(UnionFlattener.class);
         SPECIFICATION_FACTORY = injector.getInstance(SpecificationFactory.class);
         IQ_CONVERTER = injector.getInstance(IQConverter.class);
@@ -0,0 +1,264 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static it.unibz.inf.ontop.utils.SQLAllMappingTestingTools.TYPE_FACTORY;
+import static org.junit.Assert.*;
+
+public class RDBMetadataExtractionTest {
+
+    private static final String URL = "jdbc:h2:mem:metadata_extraction";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private static final JdbcTypeMapper JDBC_TYPE_MAPPER = OntopMappingConfiguration.defaultBuilder()
+            .enableTestMode()
+            .build()
+            .getInjector()
+            .getInstance(JdbcTypeMapper.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("CREATE TABLE DEPARTMENT (ID INT PRIMARY KEY, NAME VARCHAR(100) NOT NULL UNIQUE)");
+            st.executeUpdate("CREATE TABLE EMPLOYEE (ID INT, COUNTRY CHAR(2), NAME VARCHAR(100), DEPT INT, " +
+                    "PRIMARY KEY (ID, COUNTRY), FOREIGN KEY (DEPT) REFERENCES DEPARTMENT(ID))");
+            st.executeUpdate("CREATE TABLE PROJECT (CODE VARCHAR(10) PRIMARY KEY, LEADER INT, LEADER_COUNTRY CHAR(2), " +
+                    "FOREIGN KEY (LEADER, LEADER_COUNTRY) REFERENCES EMPLOYEE(ID, COUNTRY))");
+            for (int i = 0; i < 20; i++)
+                st.executeUpdate("CREATE TABLE T" + i + " (A INT PRIMARY KEY, B DATE, C DECIMAL(10,2), " +
+                        "D INT REFERENCES DEPARTMENT(ID))");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testParallelExtraction() throws SQLException {
+        RDBMetadata sequential = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        RDBMetadataExtractionTools.loadMetadata(sequential, connection, null);
+
+        RDBMetadata parallel = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        ImmutableList<DatabaseRelationDefinition> relations = RDBMetadataExtractionTools.loadMetadata(parallel,
+                connection, null, () -> DriverManager.getConnection(URL, USER, PASSWORD), 4);
+
+        assertEquals(23, relations.size());
+        assertEquals(print(sequential), print(parallel));
+    }
+
+    @Test
+    public void testSnapshot() throws SQLException {
+        File directory = folder.getRoot();
+        RDBMetadataCache cache = new RDBMetadataCache(directory, URL, USER);
+        String fingerprint = cache.computeFingerprint(connection, idfac(), null);
+
+        RDBMetadata extracted = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        assertFalse(cache.load(extracted, fingerprint));
+        ImmutableList<DatabaseRelationDefinition> relations = RDBMetadataExtractionTools.loadMetadata(extracted,
+                connection, null, null, 1);
+        cache.store(relations, fingerprint);
+        assertTrue(cache.getFile().exists());
+
+        RDBMetadata loaded = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        assertTrue(new RDBMetadataCache(directory, URL, USER).load(loaded,
+                cache.computeFingerprint(connection, idfac(), null)));
+        assertEquals(print(extracted), print(loaded));
+
+        // another user has another snapshot
+        assertFalse(new RDBMetadataCache(directory, URL, "other").load(
+                RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER), fingerprint));
+    }
+
+    @Test
+    public void testFingerprintChange() throws SQLException {
+        RDBMetadataCache cache = new RDBMetadataCache(folder.getRoot(), URL, USER);
+        String fingerprint = cache.computeFingerprint(connection, idfac(), null);
+        assertEquals(fingerprint, cache.computeFingerprint(connection, idfac(), null));
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE PROJECT ADD COLUMN BUDGET INT");
+        }
+        assertNotEquals(fingerprint, cache.computeFingerprint(connection, idfac(), null));
+    }
+
+    /**
+     * The constraints restored by the snapshot are part of the fingerprint
+     */
+    @Test
+    public void testFingerprintConstraintChange() throws SQLException {
+        RDBMetadataCache cache = new RDBMetadataCache(folder.getRoot(), URL, USER);
+        String fingerprint = cache.computeFingerprint(connection, idfac(), null);
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE PROJECT ADD CONSTRAINT PROJECT_LEADER UNIQUE (LEADER, LEADER_COUNTRY)");
+        }
+        String withUnique = cache.computeFingerprint(connection, idfac(), null);
+        assertNotEquals(fingerprint, withUnique);
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE T0 ADD CONSTRAINT T0_DEPARTMENT FOREIGN KEY (A) REFERENCES DEPARTMENT(ID)");
+        }
+        String withForeignKey = cache.computeFingerprint(connection, idfac(), null);
+        assertNotEquals(withUnique, withForeignKey);
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE T0 DROP CONSTRAINT T0_DEPARTMENT");
+        }
+        assertEquals(withUnique, cache.computeFingerprint(connection, idfac(), null));
+    }
+
+    @Test
+    public void testParallelFingerprint() throws SQLException {
+        RDBMetadataCache cache = new RDBMetadataCache(folder.getRoot(), URL, USER);
+        assertEquals(cache.computeFingerprint(connection, idfac(), null),
+                cache.computeFingerprint(connection, idfac(), null,
+                        () -> DriverManager.getConnection(URL, USER, PASSWORD), 4));
+    }
+
+    /**
+     * Only the tables referenced by the mapping are part of the fingerprint
+     */
+    @Test
+    public void testFingerprintOfReferencedTables() throws SQLException {
+        QuotedIDFactory idfac = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER)
+                .getQuotedIDFactory();
+        ImmutableSet<RelationID> realTables = ImmutableSet.of(
+                RelationID.createRelationIdFromDatabaseRecord(idfac, null, "EMPLOYEE"),
+                RelationID.createRelationIdFromDatabaseRecord(idfac, "PUBLIC", "DEPARTMENT"));
+
+        RDBMetadataCache cache = new RDBMetadataCache(folder.getRoot(), URL, USER);
+        String fingerprint = cache.computeFingerprint(connection, idfac, realTables);
+        assertEquals(fingerprint, cache.computeFingerprint(connection, idfac, ImmutableSet.copyOf(realTables.asList().reverse())));
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE PROJECT ADD COLUMN BUDGET INT");
+        }
+        assertEquals(fingerprint, cache.computeFingerprint(connection, idfac, realTables));
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE DEPARTMENT ADD COLUMN BUDGET INT");
+        }
+        assertNotEquals(fingerprint, cache.computeFingerprint(connection, idfac, realTables));
+    }
+
+    /**
+     * A cache hit makes no per-table metadata call
+     */
+    @Test
+    public void testCacheHitSkipsTableMetadata() throws SQLException {
+        AtomicInteger tableCalls = new AtomicInteger();
+        Connection counting = countTableMetadataCalls(connection, tableCalls);
+
+        RDBMetadata extracted = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        new RDBMetadataCache(folder.getRoot(), URL, USER).loadOrExtract(extracted, counting, null, null, 1);
+        assertTrue(tableCalls.get() > 0);
+
+        tableCalls.set(0);
+        RDBMetadata loaded = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        new RDBMetadataCache(folder.getRoot(), URL, USER).loadOrExtract(loaded, counting, null, null, 1);
+        assertEquals(0, tableCalls.get());
+        assertEquals(print(extracted), print(loaded));
+    }
+
+    /**
+     * After the revalidation period, the snapshot is checked against the schema
+     */
+    @Test
+    public void testRevalidation() throws SQLException {
+        RDBMetadata extracted = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        new RDBMetadataCache(folder.getRoot(), URL, USER).loadOrExtract(extracted, connection, null, null, 1);
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("ALTER TABLE PROJECT ADD COLUMN BUDGET INT");
+        }
+
+        RDBMetadata notRevalidated = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        new RDBMetadataCache(folder.getRoot(), URL, USER, Duration.ofHours(1))
+                .loadOrExtract(notRevalidated, connection, null, null, 1);
+        assertEquals(print(extracted), print(notRevalidated));
+
+        RDBMetadata revalidated = RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER);
+        new RDBMetadataCache(folder.getRoot(), URL, USER, Duration.ZERO)
+                .loadOrExtract(revalidated, connection, null, null, 1);
+        assertNotEquals(print(extracted), print(revalidated));
+    }
+
+    /**
+     * Counts the calls to the per-table methods of DatabaseMetaData
+     */
+    private static Connection countTableMetadataCalls(Connection connection, AtomicInteger counter) {
+        ImmutableSet<String> tableMethods = ImmutableSet.of("getColumns", "getPrimaryKeys", "getIndexInfo",
+                "getImportedKeys");
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (!method.getName().equals("getMetaData"))
+                        return result;
+                    return Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+                            new Class<?>[]{DatabaseMetaData.class},
+                            (mdProxy, mdMethod, mdArgs) -> {
+                                if (tableMethods.contains(mdMethod.getName()))
+                                    counter.incrementAndGet();
+                                return mdMethod.getName().equals("getConnection")
+                                        ? proxy
+                                        : invoke(result, mdMethod, mdArgs);
+                            });
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private QuotedIDFactory idfac() throws SQLException {
+        return RDBMetadataExtractionTools.createMetadata(connection, TYPE_FACTORY, JDBC_TYPE_MAPPER)
+                .getQuotedIDFactory();
+    }
+
+    private static String print(RDBMetadata metadata) {
+        return metadata.getDatabaseRelations().stream()
+                .distinct()
+                .sorted(Comparator.comparing(r -> r.getID().getSQLRendering()))
+                .map(r -> r + "\n" + r.getUniqueConstraints() + "\n" + r.getForeignKeys())
+                .collect(Collectors.joining("\n"));
+    }
+}
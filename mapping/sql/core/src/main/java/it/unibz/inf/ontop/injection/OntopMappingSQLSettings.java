@@ -1,6 +1,37 @@
 package it.unibz.inf.ontop.injection;
 
 
+import java.util.Optional;
+
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * Number of connections used for extracting the DB metadata
+     */
+    int getMetadataExtractionThreads();
+
+    /**
+     * Directory where the extracted DB metadata is stored and reused while the schema does not change
+     */
+    Optional<String> getMetadataCacheDirectory();
+
+    /**
+     * Period (in seconds) after which the stored DB metadata is checked against the schema before being reused.
+     * If absent, it is never checked: the cache directory must be cleared when the schema changes.
+     */
+    Optional<Long> getMetadataCacheRevalidationPeriod();
+
+    /**
+     * Archive produced by "ontop compile" from which the DB metadata is loaded (instead of being extracted)
+     */
+    Optional<String> getCompiledSpecificationFile();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String METADATA_EXTRACTION_THREADS = "ontop.dbMetadata.extractionThreads";
+    String METADATA_CACHE_DIRECTORY = "ontop.dbMetadata.cacheDirectory";
+    String METADATA_CACHE_REVALIDATION_PERIOD = "ontop.dbMetadata.cacheRevalidationPeriod";
+    String COMPILED_SPECIFICATION_FILE = "ontop.compiledSpecificationFile";
 }
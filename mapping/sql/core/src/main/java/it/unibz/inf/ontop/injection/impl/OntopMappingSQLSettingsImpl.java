@@ -28,6 +28,27 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
         return loadDefaultPropertiesFromFile(OntopMappingSQLSettings.class, DEFAULT_PROPERTY_FILE);
     }
 
+    @Override
+    public int getMetadataExtractionThreads() {
+        return getRequiredInteger(METADATA_EXTRACTION_THREADS);
+    }
+
+    @Override
+    public Optional<String> getMetadataCacheDirectory() {
+        return getProperty(METADATA_CACHE_DIRECTORY);
+    }
+
+    @Override
+    public Optional<Long> getMetadataCacheRevalidationPeriod() {
+        return getProperty(METADATA_CACHE_REVALIDATION_PERIOD)
+                .map(Long::parseLong);
+    }
+
+    @Override
+    public Optional<String> getCompiledSpecificationFile() {
+        return getProperty(COMPILED_SPECIFICATION_FILE);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
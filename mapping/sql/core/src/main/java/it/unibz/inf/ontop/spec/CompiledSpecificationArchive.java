@@ -0,0 +1,223 @@
+package it.unibz.inf.ontop.spec;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadata;
+import it.unibz.inf.ontop.dbschema.RDBMetadataCache;
+import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Artifact produced by "ontop compile": a ZIP archive with the inputs of the OBDA specification
+ *    (settings, mapping and ontology with its imports merged in) and the DB metadata extracted from the database
+ *    (including the implicit constraints), in the snapshot format of RDBMetadataCache.
+ *
+ * Loading a specification from the archive does not query the database metadata and does not depend on
+ *    the location of the original files. The mapping is still parsed, and the TBox classified and the mapping
+ *    saturated, when the specification is loaded: the archive is not a serialized OBDASpecification.
+ *
+ * The JDBC credentials are not stored, neither as settings nor as parameters of the JDBC URL:
+ *    they have to be supplied when loading the archive (e.g. with jdbcUser and jdbcPassword
+ *    on the configuration builder).
+ */
+public class CompiledSpecificationArchive {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String MANIFEST_ENTRY = "manifest.properties";
+    private static final String SETTINGS_ENTRY = "settings.properties";
+    private static final String MAPPING_ENTRY = "mapping";
+    private static final String ONTOLOGY_ENTRY = "ontology";
+    private static final String DB_METADATA_ENTRY = "dbmetadata";
+
+    private static final String FORMAT_VERSION_KEY = "formatVersion";
+    private static final String MAPPING_FORMAT_KEY = "mappingFormat";
+    private static final String R2RML_FORMAT = "r2rml";
+    private static final String NATIVE_FORMAT = "obda";
+
+    // user and password given as parameters (e.g., ?user=..&password=.. or ;user=..;password=..)
+    private static final Pattern URL_PARAMETER = Pattern.compile("([?&;])([^=?&;]*)=([^?&;]*)");
+    private static final ImmutableSet<String> CREDENTIAL_PARAMETERS = ImmutableSet.of("user", "username", "uid",
+            "password", "pwd", "passwd");
+    // user information before the host (e.g., //user:password@host or thin:user/password@host for Oracle)
+    private static final Pattern URL_USER_INFO = Pattern.compile("(//|:thin:)[^/@?;]*[:/][^@?;]*@");
+
+    private final Properties settings;
+    private final String mapping;
+    private final boolean isR2rml;
+    private final Optional<byte[]> ontology;
+
+    private CompiledSpecificationArchive(Properties settings, String mapping, boolean isR2rml,
+                                         Optional<byte[]> ontology) {
+        this.settings = settings;
+        this.mapping = mapping;
+        this.isR2rml = isR2rml;
+        this.ontology = ontology;
+    }
+
+    public Properties getSettings() {
+        return settings;
+    }
+
+    public String getMapping() {
+        return mapping;
+    }
+
+    public boolean isR2rml() {
+        return isR2rml;
+    }
+
+    public Optional<byte[]> getOntology() {
+        return ontology;
+    }
+
+    /**
+     * Writes the archive (atomically replacing the previous one), without the JDBC credentials
+     */
+    public static void write(File file, Properties settings, String mapping, boolean isR2rml,
+                             Optional<byte[]> ontology, DBMetadata dbMetadata) throws IOException {
+
+        Path target = file.getAbsoluteFile().toPath();
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            Properties manifest = new Properties();
+            manifest.setProperty(FORMAT_VERSION_KEY, Integer.toString(FORMAT_VERSION));
+            manifest.setProperty(MAPPING_FORMAT_KEY, isR2rml ? R2RML_FORMAT : NATIVE_FORMAT);
+            out.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            manifest.store(out, null);
+
+            Properties storedSettings = new Properties();
+            storedSettings.putAll(settings);
+            storedSettings.remove(OntopSQLCredentialSettings.JDBC_USER);
+            storedSettings.remove(OntopSQLCredentialSettings.JDBC_PASSWORD);
+            String jdbcUrl = storedSettings.getProperty(OntopSQLCoreSettings.JDBC_URL);
+            if (jdbcUrl != null)
+                storedSettings.setProperty(OntopSQLCoreSettings.JDBC_URL, redactJdbcUrl(jdbcUrl));
+            out.putNextEntry(new ZipEntry(SETTINGS_ENTRY));
+            storedSettings.store(out, null);
+
+            out.putNextEntry(new ZipEntry(MAPPING_ENTRY));
+            out.write(mapping.getBytes(StandardCharsets.UTF_8));
+
+            if (ontology.isPresent()) {
+                out.putNextEntry(new ZipEntry(ONTOLOGY_ENTRY));
+                out.write(ontology.get());
+            }
+
+            out.putNextEntry(new ZipEntry(DB_METADATA_ENTRY));
+            DataOutputStream dataOut = new DataOutputStream(out);
+            RDBMetadataCache.writeRelations(dataOut, dbMetadata.getDatabaseRelations());
+            dataOut.flush();
+            out.closeEntry();
+        }
+        catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes the user and the password from the JDBC URL
+     */
+    public static String redactJdbcUrl(String jdbcUrl) {
+        Matcher userInfo = URL_USER_INFO.matcher(jdbcUrl);
+        String url = userInfo.find()
+                ? jdbcUrl.substring(0, userInfo.start()) + userInfo.group(1)
+                        + (userInfo.group(1).equals("//") ? "" : "@") + jdbcUrl.substring(userInfo.end())
+                : jdbcUrl;
+
+        StringBuffer sb = new StringBuffer();
+        Matcher parameter = URL_PARAMETER.matcher(url);
+        // the separator ? of a removed parameter goes to the next one
+        boolean isQuestionMarkRemoved = false;
+        while (parameter.find()) {
+            String separator = parameter.group(1);
+            if (CREDENTIAL_PARAMETERS.contains(parameter.group(2).trim().toLowerCase())) {
+                isQuestionMarkRemoved |= separator.equals("?");
+                parameter.appendReplacement(sb, "");
+            }
+            else {
+                String newSeparator = isQuestionMarkRemoved && separator.equals("&") ? "?" : separator;
+                isQuestionMarkRemoved = false;
+                parameter.appendReplacement(sb, Matcher.quoteReplacement(
+                        newSeparator + parameter.group(2) + "=" + parameter.group(3)));
+            }
+        }
+        parameter.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Reads the inputs of the specification (the DB metadata is read by loadDBMetadata)
+     */
+    public static CompiledSpecificationArchive read(File file) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            Properties manifest = readProperties(zip, MANIFEST_ENTRY);
+            checkFormatVersion(file, manifest);
+
+            Properties settings = readProperties(zip, SETTINGS_ENTRY);
+            String mapping = new String(readBytes(zip, MAPPING_ENTRY), StandardCharsets.UTF_8);
+            Optional<byte[]> ontology = zip.getEntry(ONTOLOGY_ENTRY) == null
+                    ? Optional.empty()
+                    : Optional.of(readBytes(zip, ONTOLOGY_ENTRY));
+
+            return new CompiledSpecificationArchive(settings, mapping,
+                    R2RML_FORMAT.equals(manifest.getProperty(MAPPING_FORMAT_KEY)), ontology);
+        }
+    }
+
+    /**
+     * Adds the relations stored in the archive to the metadata
+     */
+    public static void loadDBMetadata(File file, RDBMetadata metadata) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            checkFormatVersion(file, readProperties(zip, MANIFEST_ENTRY));
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(getInputStream(zip, DB_METADATA_ENTRY)))) {
+                RDBMetadataCache.readRelations(in, metadata);
+            }
+        }
+    }
+
+    private static void checkFormatVersion(File file, Properties manifest) throws IOException {
+        if (!Integer.toString(FORMAT_VERSION).equals(manifest.getProperty(FORMAT_VERSION_KEY)))
+            throw new IOException("Unsupported format version of the compiled specification " + file
+                    + ": " + manifest.getProperty(FORMAT_VERSION_KEY) + " (please compile it again)");
+    }
+
+    private static Properties readProperties(ZipFile zip, String entry) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = getInputStream(zip, entry)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static byte[] readBytes(ZipFile zip, String entry) throws IOException {
+        try (InputStream in = getInputStream(zip, entry)) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    private static InputStream getInputStream(ZipFile zip, String entry) throws IOException {
+        ZipEntry zipEntry = zip.getEntry(entry);
+        if (zipEntry == null)
+            throw new IOException("Missing entry " + entry + " in the compiled specification " + zip.getName());
+        return zip.getInputStream(zipEntry);
+    }
+}
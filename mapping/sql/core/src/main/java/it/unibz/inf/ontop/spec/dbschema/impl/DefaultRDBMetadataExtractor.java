@@ -5,16 +5,20 @@ import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.exception.DBMetadataExtractionException;
 import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.spec.CompiledSpecificationArchive;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMapping;
 import it.unibz.inf.ontop.spec.dbschema.RDBMetadataExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintExtractor;
 import it.unibz.inf.ontop.spec.dbschema.PreProcessedImplicitRelationalDBConstraintSet;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,6 +43,7 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
     private final PreProcessedImplicitRelationalDBConstraintExtractor implicitDBConstraintExtractor;
     private final JdbcTypeMapper jdbcTypeMapper;
     private final TypeFactory typeFactory;
+    private final OntopMappingSQLSettings settings;
 
     @Inject
     private DefaultRDBMetadataExtractor(OntopMappingSQLSettings settings,
@@ -48,6 +53,7 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
         this.jdbcTypeMapper = jdbcTypeMapper;
         this.typeFactory = typeFactory;
+        this.settings = settings;
     }
 
     @Override
@@ -78,9 +84,16 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
         try {
             RDBMetadata metadata = (RDBMetadata) partiallyDefinedMetadata;
 
+            Optional<String> compiledSpecificationFile = settings.getCompiledSpecificationFile();
+            if (compiledSpecificationFile.isPresent()) {
+                // the implicit constraints were inserted before compiling the specification
+                loadCompiledMetadata(metadata, new File(compiledSpecificationFile.get()));
+                return metadata;
+            }
+
             // if we have to parse the full metadata or just the table list in the mappings
             if (obtainFullMetadata) {
-                RDBMetadataExtractionTools.loadMetadata(metadata, connection, null);
+                loadMetadata(metadata, connection, null);
             }
             else {
                 try {
@@ -96,7 +109,7 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
                         realTables.addAll(referredTables);
                     });
 
-                    RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables);
+                    loadMetadata(metadata, connection, realTables);
                 }
                 catch (SQLException e) {
                     System.out.println("Error obtaining the metadata " + e);
@@ -115,4 +128,37 @@ public class DefaultRDBMetadataExtractor implements RDBMetadataExtractor {
             throw new DBMetadataExtractionException(e.getMessage());
         }
     }
+
+    private static void loadCompiledMetadata(RDBMetadata metadata, File compiledSpecificationFile)
+            throws DBMetadataExtractionException {
+        try {
+            CompiledSpecificationArchive.loadDBMetadata(compiledSpecificationFile, metadata);
+        }
+        catch (IOException e) {
+            throw new DBMetadataExtractionException("Cannot load the DB metadata from the compiled specification: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Reuses the snapshot of the metadata if there is one (see RDBMetadataCache)
+     */
+    private void loadMetadata(RDBMetadata metadata, Connection connection, @Nullable Set<RelationID> realTables)
+            throws SQLException {
+
+        Optional<RDBMetadataCache> cache = settings.getMetadataCacheDirectory()
+                .map(d -> new RDBMetadataCache(new File(d), settings.getJdbcUrl(), settings.getJdbcUser(),
+                        settings.getMetadataCacheRevalidationPeriod()
+                                .map(Duration::ofSeconds)
+                                .orElse(null)));
+
+        if (cache.isPresent())
+            cache.get().loadOrExtract(metadata, connection, realTables,
+                    () -> LocalJDBCConnectionUtils.createConnection(settings),
+                    settings.getMetadataExtractionThreads());
+        else
+            RDBMetadataExtractionTools.loadMetadata(metadata, connection, realTables,
+                    () -> LocalJDBCConnectionUtils.createConnection(settings),
+                    settings.getMetadataExtractionThreads());
+    }
 }
@@ -0,0 +1,94 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import it.unibz.inf.ontop.answering.reformulation.generation.utils.COL_TYPE;
+import it.unibz.inf.ontop.benchmark.SyntheticScenario;
+import it.unibz.inf.ontop.benchmark.generator.SyntheticMappingGenerator;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes rows made of the values typically returned by the JDBC drivers, one column per common datatype.
+ *
+ * In the same package as JDBC2ConstantConverter for building the rows directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JDBC2ConstantConverterBenchmark {
+
+    private static final int ROW_COUNT = 1024;
+
+    private static final COL_TYPE[] COLUMN_TYPES = {
+            COL_TYPE.OBJECT,
+            COL_TYPE.STRING,
+            COL_TYPE.LANG_STRING,
+            COL_TYPE.INTEGER,
+            COL_TYPE.DECIMAL,
+            COL_TYPE.DOUBLE,
+            COL_TYPE.BOOLEAN,
+            COL_TYPE.DATE,
+            COL_TYPE.DATETIME,
+            // Lexical value to be parsed
+            COL_TYPE.DATETIME
+    };
+
+    private SyntheticScenario scenario;
+    private JDBC2ConstantConverter converter;
+    private MainTypeLangValues[] rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scenario = new SyntheticScenario(0, 1, 1);
+        OntopSQLOWLAPIConfiguration configuration = scenario.getConfiguration();
+        converter = new JDBC2ConstantConverter(scenario.getSpecification().getDBMetadata(), Optional.empty(),
+                configuration.getTermFactory(), configuration.getTypeFactory(), configuration.getRdfFactory());
+
+        int[] typeValues = new int[COLUMN_TYPES.length];
+        for (int i = 0; i < COLUMN_TYPES.length; i++)
+            typeValues[i] = COLUMN_TYPES[i].getQuestCode();
+        String[] langValues = new String[COLUMN_TYPES.length];
+        langValues[2] = "en";
+
+        rows = new MainTypeLangValues[ROW_COUNT];
+        for (int id = 0; id < ROW_COUNT; id++) {
+            Object[] mainValues = {
+                    SyntheticMappingGenerator.getIndividualIRI(0, id),
+                    "label " + id,
+                    "label " + id,
+                    id,
+                    new BigDecimal(id).movePointLeft(2),
+                    id * 1.5,
+                    id % 2 == 0,
+                    new Date(1_500_000_000_000L + id * 86_400_000L),
+                    new Timestamp(1_500_000_000_000L + id * 1000L),
+                    String.format("2018-12-01 10:%02d:%02d", (id / 60) % 60, id % 60)
+            };
+            rows[id] = new MainTypeLangValues(mainValues, typeValues, langValues);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scenario.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public void decodeRows(Blackhole blackhole) throws OntopResultConversionException {
+        for (MainTypeLangValues row : rows) {
+            for (int i = 0; i < COLUMN_TYPES.length; i++)
+                blackhole.consume(converter.getConstantFromJDBC(row, i));
+        }
+    }
+}
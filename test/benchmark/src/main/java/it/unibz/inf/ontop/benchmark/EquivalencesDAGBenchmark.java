@@ -0,0 +1,112 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.spec.ontology.Equivalences;
+import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
+import it.unibz.inf.ontop.spec.ontology.impl.EquivalencesDAGImpl;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the DAG of a class hierarchy (with its reachability index) and answers subsumption queries over it.
+ *
+ * The hierarchy is a complete tree of the given depth and fan-out, in which a percentage of the classes
+ * have a second super-class: a cousin of their parent, so that the two paths meet again 1 to 3 levels above
+ * (diamonds, whose sub-classes have several intervals to merge).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EquivalencesDAGBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+    private static final int MAX_DIAMOND_HEIGHT = 3;
+
+    @Param({"6", "8"})
+    public int depth;
+
+    @Param({"4"})
+    public int fanOut;
+
+    @Param({"0", "10", "30"})
+    public int multipleInheritancePercentage;
+
+    private DefaultDirectedGraph<Integer, DefaultEdge> graph;
+    private EquivalencesDAG<Integer> dag;
+    private Equivalences<Integer>[] subs;
+    private Equivalences<Integer>[] sups;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(0);
+        graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        int classCount = 0;
+        for (int level = 0, levelSize = 1; level <= depth; level++, levelSize *= fanOut)
+            classCount += levelSize;
+
+        for (int i = 0; i < classCount; i++) {
+            graph.addVertex(i);
+            if (i > 0) {
+                int parent = (i - 1) / fanOut;
+                graph.addEdge(i, parent);
+                // all the super-classes are one level up: no cycle
+                if (random.nextInt(100) < multipleInheritancePercentage) {
+                    int cousin = getRandomCousin(parent, random);
+                    if (cousin != parent)
+                        graph.addEdge(i, cousin);
+                }
+            }
+        }
+        dag = EquivalencesDAGImpl.getEquivalencesDAG(graph);
+
+        subs = new Equivalences[QUERY_COUNT];
+        sups = new Equivalences[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            subs[i] = dag.getVertex(random.nextInt(classCount));
+            sups[i] = dag.getVertex(random.nextInt(classCount));
+        }
+    }
+
+    /**
+     * A class of the same level having a common ancestor at most MAX_DIAMOND_HEIGHT levels above
+     */
+    private int getRandomCousin(int node, Random random) {
+        int height = 1 + random.nextInt(MAX_DIAMOND_HEIGHT);
+        int ancestor = node;
+        int levels = 0;
+        for (; levels < height && ancestor > 0; levels++)
+            ancestor = (ancestor - 1) / fanOut;
+
+        int cousin = ancestor;
+        for (int level = 0; level < levels; level++)
+            cousin = cousin * fanOut + 1 + random.nextInt(fanOut);
+        return cousin;
+    }
+
+    @Benchmark
+    public EquivalencesDAG<Integer> build() {
+        return EquivalencesDAGImpl.getEquivalencesDAG(graph);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public void isSubsumed(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++)
+            blackhole.consume(dag.isSubsumed(subs[i], sups[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public void getSuper(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++)
+            blackhole.consume(dag.getSuper(subs[i]));
+    }
+}
@@ -0,0 +1,114 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each stage of the reformulation separately, on the output of the previous stages
+ * (computed once per trial).
+ *
+ * The size of the saturated mapping grows with the depth and the fan-out of the class hierarchy,
+ * and with the number of assertions per class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ReformulationBenchmark {
+
+    @Param({"2", "4"})
+    public int depth;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"1", "4"})
+    public int assertionsPerClass;
+
+    @Param({"ROOT_CLASS", "STAR", "CHAIN", "EXISTENTIAL", "CONSTANT_SUBJECT"})
+    public SyntheticQuery query;
+
+    private SyntheticScenario scenario;
+    private ReformulationStages stages;
+
+    private InputQuery inputQuery;
+    private IQ translatedQuery;
+    private IQ rewrittenQuery;
+    private IQ unfoldedQuery;
+    private IntermediateQuery queryBeforeJoinOptimization;
+    private IntermediateQuery queryBeforeNativeQueryGeneration;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scenario = new SyntheticScenario(depth, fanOut, assertionsPerClass);
+        stages = new ReformulationStages(scenario.getConfiguration(), scenario.getSpecification());
+
+        inputQuery = stages.parse(query.getSparql());
+        translatedQuery = stages.translate(inputQuery);
+        rewrittenQuery = stages.rewrite(translatedQuery);
+        unfoldedQuery = stages.unfold(rewrittenQuery);
+        queryBeforeJoinOptimization = stages.prepareJoinOptimization(unfoldedQuery);
+        queryBeforeNativeQueryGeneration = stages.prepareNativeQueryGeneration(
+                stages.optimizeJoins(queryBeforeJoinOptimization.createSnapshot()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scenario.close();
+    }
+
+    @Benchmark
+    public IQ translation() throws Exception {
+        return stages.translate(inputQuery);
+    }
+
+    @Benchmark
+    public IQ rewriting() throws Exception {
+        return stages.rewrite(translatedQuery);
+    }
+
+    @Benchmark
+    public IQ unfolding() {
+        return stages.unfold(rewrittenQuery);
+    }
+
+    @Benchmark
+    public IntermediateQuery joinOptimization(JoinOptimizationInput input) throws Exception {
+        return stages.optimizeJoins(input.query);
+    }
+
+    @Benchmark
+    public ExecutableQuery nativeQueryGeneration(NativeQueryGenerationInput input) throws Exception {
+        return stages.generateNativeQuery(input.query);
+    }
+
+    /**
+     * The join optimizers modify the query in place: a fresh copy is given to each invocation
+     */
+    @State(Scope.Thread)
+    public static class JoinOptimizationInput {
+        private IntermediateQuery query;
+
+        @Setup(Level.Invocation)
+        public void setUp(ReformulationBenchmark benchmark) {
+            query = benchmark.queryBeforeJoinOptimization.createSnapshot();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NativeQueryGenerationInput {
+        private IntermediateQuery query;
+
+        @Setup(Level.Invocation)
+        public void setUp(ReformulationBenchmark benchmark) {
+            query = benchmark.queryBeforeNativeQueryGeneration.createSnapshot();
+        }
+    }
+}
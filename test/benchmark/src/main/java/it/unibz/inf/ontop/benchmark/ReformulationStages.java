@@ -0,0 +1,133 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.reformulation.ExecutableQuery;
+import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
+import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
+import it.unibz.inf.ontop.datalog.*;
+import it.unibz.inf.ontop.dbschema.DBMetadata;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IntermediateQuery;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.iq.optimizer.*;
+import it.unibz.inf.ontop.iq.tools.ExecutorRegistry;
+import it.unibz.inf.ontop.iq.tools.IQConverter;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+
+/**
+ * The stages of the reformulation, as chained by QuestQueryProcessor, exposed separately
+ * so that each one can be measured on the output of the previous ones.
+ *
+ * The components are obtained from the injector of the configuration, like in QuestQueryProcessor.
+ */
+public class ReformulationStages {
+
+    private final InputQueryFactory inputQueryFactory;
+    private final InputQueryTranslator inputQueryTranslator;
+    private final DatalogFactory datalogFactory;
+    private final EQNormalizer eqNormalizer;
+    private final DatalogProgram2QueryConverter datalogConverter;
+    private final QueryRewriter rewriter;
+    private final QueryUnfolder queryUnfolder;
+    private final IQConverter iqConverter;
+    private final BindingLiftOptimizer bindingLiftOptimizer;
+    private final PushUpBooleanExpressionOptimizer pullUpExpressionOptimizer;
+    private final JoinLikeOptimizer joinLikeOptimizer;
+    private final FlattenUnionOptimizer flattenUnionOptimizer;
+    private final NativeQueryGenerator nativeQueryGenerator;
+    private final DBMetadata dbMetadata;
+    private final ExecutorRegistry executorRegistry;
+
+    public ReformulationStages(OntopSQLOWLAPIConfiguration configuration, OBDASpecification specification) {
+        Injector injector = configuration.getInjector();
+        TranslationFactory translationFactory = injector.getInstance(TranslationFactory.class);
+        Mapping saturatedMapping = specification.getSaturatedMapping();
+
+        this.inputQueryFactory = configuration.getInputQueryFactory();
+        this.inputQueryTranslator = translationFactory.createInputQueryTranslator(
+                saturatedMapping.getMetadata().getUriTemplateMatcher());
+        this.datalogFactory = injector.getInstance(DatalogFactory.class);
+        this.eqNormalizer = injector.getInstance(EQNormalizer.class);
+        this.datalogConverter = injector.getInstance(DatalogProgram2QueryConverter.class);
+        this.rewriter = injector.getInstance(QueryRewriter.class);
+        this.rewriter.setTBox(specification.getSaturatedTBox());
+        this.queryUnfolder = translationFactory.create(saturatedMapping);
+        this.iqConverter = injector.getInstance(IQConverter.class);
+        this.bindingLiftOptimizer = injector.getInstance(BindingLiftOptimizer.class);
+        this.pullUpExpressionOptimizer = injector.getInstance(PushUpBooleanExpressionOptimizer.class);
+        this.joinLikeOptimizer = injector.getInstance(JoinLikeOptimizer.class);
+        this.flattenUnionOptimizer = injector.getInstance(FlattenUnionOptimizer.class);
+        this.dbMetadata = specification.getDBMetadata();
+        this.nativeQueryGenerator = translationFactory.create(dbMetadata);
+        this.executorRegistry = configuration.getExecutorRegistry();
+    }
+
+    public InputQuery parse(String sparql) throws OntopReformulationException {
+        return inputQueryFactory.createSelectQuery(sparql);
+    }
+
+    /**
+     * SPARQL -> Datalog -> IQ
+     */
+    public IQ translate(InputQuery inputQuery) throws OntopReformulationException, EmptyQueryException {
+        InternalSparqlQuery translation = inputQuery.translate(inputQueryTranslator);
+        DatalogProgram program = translation.getProgram();
+
+        DatalogProgram normalizedProgram = datalogFactory.getDatalogProgram(program.getQueryModifiers());
+        for (CQIE query : program.getRules()) {
+            CQIE rule = query.clone();
+            eqNormalizer.enforceEqualities(rule);
+            normalizedProgram.appendRule(rule);
+        }
+        return datalogConverter.convertDatalogProgram(normalizedProgram, ImmutableList.of(),
+                translation.getSignature());
+    }
+
+    public IQ rewrite(IQ query) throws OntopReformulationException, EmptyQueryException {
+        return rewriter.rewrite(query);
+    }
+
+    public IQ unfold(IQ query) {
+        return queryUnfolder.optimize(query);
+    }
+
+    /**
+     * Optimizations applied before the join optimization
+     */
+    public IntermediateQuery prepareJoinOptimization(IQ unfoldedQuery) throws EmptyQueryException {
+        IntermediateQuery query = iqConverter.convert(unfoldedQuery, dbMetadata, executorRegistry);
+        query = bindingLiftOptimizer.optimize(query);
+        query = pullUpExpressionOptimizer.optimize(query);
+        return new ProjectionShrinkingOptimizer().optimize(query);
+    }
+
+    /**
+     * Fixed point of the join optimizers. The query may be modified in place.
+     */
+    public IntermediateQuery optimizeJoins(IntermediateQuery query) throws EmptyQueryException {
+        return joinLikeOptimizer.optimize(query);
+    }
+
+    /**
+     * Optimizations applied after the join optimization
+     */
+    public IntermediateQuery prepareNativeQueryGeneration(IntermediateQuery query) throws EmptyQueryException {
+        return flattenUnionOptimizer.optimize(query);
+    }
+
+    /**
+     * Generates the SQL query (OneShotSQLGeneratorEngine)
+     */
+    public ExecutableQuery generateNativeQuery(IntermediateQuery query) throws OntopReformulationException {
+        return nativeQueryGenerator.generateSourceQuery(query);
+    }
+}
@@ -0,0 +1,45 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.benchmark.generator.SyntheticMappingGenerator;
+import it.unibz.inf.ontop.benchmark.generator.SyntheticOntologyGenerator;
+
+/**
+ * SPARQL queries over the vocabulary of the synthetic scenarios, each one stressing a different stage
+ */
+public enum SyntheticQuery {
+
+    /**
+     * Union of the mapping assertions of all the classes (saturated mapping)
+     */
+    ROOT_CLASS("SELECT ?x WHERE { ?x a ex:C0 }"),
+
+    /**
+     * Star-shaped join over the same subject
+     */
+    STAR("SELECT ?x ?l ?y WHERE { ?x a ex:C1 ; ex:d1 ?l ; ex:p1 ?y }"),
+
+    /**
+     * Chain of the root property, which is populated by all the mapping assertions of the properties
+     */
+    CHAIN("SELECT ?x ?z WHERE { ?x ex:p0 ?y . ?y ex:p0 ?z }"),
+
+    /**
+     * Non-answer variable that can be mapped to an anonymous individual (tree witness)
+     */
+    EXISTENTIAL("SELECT ?x WHERE { ?x ex:p0 ?y . ?y a ex:C1 }"),
+
+    /**
+     * IRI constant to be matched against the IRI templates
+     */
+    CONSTANT_SUBJECT("SELECT ?p ?o WHERE { <" + SyntheticMappingGenerator.getIndividualIRI(1, 0) + "> ?p ?o }");
+
+    private final String sparql;
+
+    SyntheticQuery(String body) {
+        this.sparql = "PREFIX ex: <" + SyntheticOntologyGenerator.NAMESPACE + ">\n" + body;
+    }
+
+    public String getSparql() {
+        return sparql;
+    }
+}
@@ -0,0 +1,83 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.benchmark.generator.SyntheticMappingGenerator;
+import it.unibz.inf.ontop.benchmark.generator.SyntheticOntologyGenerator;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Synthetic ontology and mapping over an in-memory H2 database, and the OBDA specification derived from them.
+ *
+ * The database lives as long as the scenario is not closed.
+ */
+public class SyntheticScenario implements AutoCloseable {
+
+    private static final String URL_PREFIX = "jdbc:h2:mem:";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private static final int OBJECT_PROPERTY_COUNT = 16;
+    private static final int DATA_PROPERTY_COUNT = 4;
+    private static final int EXISTENTIAL_AXIOM_COUNT = 8;
+    private static final int ROW_COUNT = 100;
+
+    private final SyntheticOntologyGenerator ontologyGenerator;
+    private final Connection connection;
+    private final OntopSQLOWLAPIConfiguration configuration;
+    private final OBDASpecification specification;
+
+    /**
+     * @param depth depth of the class hierarchy
+     * @param fanOut number of sub-classes of each non-leaf class
+     * @param assertionsPerClass number of mapping assertions populating each class
+     */
+    public SyntheticScenario(int depth, int fanOut, int assertionsPerClass)
+            throws SQLException, OWLOntologyCreationException, OBDASpecificationException {
+        this.ontologyGenerator = new SyntheticOntologyGenerator(depth, fanOut, OBJECT_PROPERTY_COUNT,
+                DATA_PROPERTY_COUNT, EXISTENTIAL_AXIOM_COUNT);
+        SyntheticMappingGenerator mappingGenerator = new SyntheticMappingGenerator(ontologyGenerator,
+                assertionsPerClass, ROW_COUNT);
+
+        String jdbcUrl = URL_PREFIX + UUID.randomUUID().toString();
+        this.connection = DriverManager.getConnection(jdbcUrl, USER, PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(mappingGenerator.generateDatabaseScript());
+        }
+
+        this.configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .ontology(ontologyGenerator.generate())
+                .nativeOntopMappingReader(new StringReader(mappingGenerator.generateMapping()))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .enableExistentialReasoning(true)
+                .build();
+        this.specification = configuration.loadSpecification();
+    }
+
+    public SyntheticOntologyGenerator getOntologyGenerator() {
+        return ontologyGenerator;
+    }
+
+    public OntopSQLOWLAPIConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public OBDASpecification getSpecification() {
+        return specification;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
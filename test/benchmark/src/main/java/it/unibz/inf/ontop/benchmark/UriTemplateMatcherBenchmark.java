@@ -0,0 +1,66 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.benchmark.generator.SyntheticMappingGenerator;
+import it.unibz.inf.ontop.utils.UriTemplateMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches IRIs against the IRI templates of the synthetic mapping (one template per class).
+ *
+ * Half of the IRIs do not match any template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class UriTemplateMatcherBenchmark {
+
+    private static final int IRI_COUNT = 1024;
+
+    @Param({"2", "4"})
+    public int depth;
+
+    @Param({"3", "6"})
+    public int fanOut;
+
+    private SyntheticScenario scenario;
+    private UriTemplateMatcher matcher;
+    private String[] iris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        scenario = new SyntheticScenario(depth, fanOut, 1);
+        matcher = scenario.getSpecification().getSaturatedMapping().getMetadata().getUriTemplateMatcher();
+
+        int classCount = scenario.getOntologyGenerator().getClassCount();
+        iris = new String[IRI_COUNT];
+        for (int i = 0; i < IRI_COUNT; i++) {
+            String iri = SyntheticMappingGenerator.getIndividualIRI(i % classCount, i);
+            iris[i] = i % 2 == 0 ? iri : iri.replace("/c", "/unknown");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scenario.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IRI_COUNT)
+    public void generateURIFunction(Blackhole blackhole) {
+        for (String iri : iris)
+            blackhole.consume(matcher.generateURIFunction(iri));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IRI_COUNT)
+    public void getMatchingTemplates(Blackhole blackhole) {
+        for (String iri : iris)
+            blackhole.consume(matcher.getMatchingTemplates(iri));
+    }
+}
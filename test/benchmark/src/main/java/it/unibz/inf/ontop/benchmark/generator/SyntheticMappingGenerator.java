@@ -0,0 +1,111 @@
+package it.unibz.inf.ontop.benchmark.generator;
+
+/**
+ * Generates, for the vocabulary of a synthetic ontology, a database (one table per class) and a mapping
+ * in the native Ontop format.
+ *
+ * Each class (e.g. C3) is populated from its table (e.g. "c3") by several mapping assertions (partitioning its rows),
+ * with one IRI template per class. Each object property is populated from the table of its domain.
+ */
+public class SyntheticMappingGenerator {
+
+    private static final String PREFIX = "ex";
+
+    private final SyntheticOntologyGenerator ontologyGenerator;
+    private final int assertionsPerClass;
+    private final int rowCount;
+
+    public SyntheticMappingGenerator(SyntheticOntologyGenerator ontologyGenerator, int assertionsPerClass,
+                                     int rowCount) {
+        if (assertionsPerClass < 1 || rowCount < 0)
+            throw new IllegalArgumentException("Invalid parameters of the synthetic mapping");
+        this.ontologyGenerator = ontologyGenerator;
+        this.assertionsPerClass = assertionsPerClass;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * SQL script creating and populating the tables
+     */
+    public String generateDatabaseScript() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ontologyGenerator.getClassCount(); i++) {
+            sb.append("CREATE TABLE \"").append(getTableName(i)).append("\" (\n")
+                    .append("    id integer NOT NULL PRIMARY KEY,\n")
+                    .append("    label character varying(100) NOT NULL,\n")
+                    .append("    ref integer NOT NULL\n")
+                    .append(");\n");
+            if (rowCount > 0) {
+                sb.append("INSERT INTO \"").append(getTableName(i)).append("\" VALUES ");
+                for (int id = 0; id < rowCount; id++) {
+                    if (id > 0)
+                        sb.append(", ");
+                    sb.append("(").append(id).append(", 'label ").append(i).append("-").append(id).append("', ")
+                            .append((id + 1) % rowCount).append(")");
+                }
+                sb.append(";\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Mapping in the native Ontop format
+     */
+    public String generateMapping() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[PrefixDeclaration]\n")
+                .append(PREFIX).append(": ").append(SyntheticOntologyGenerator.NAMESPACE).append("\n")
+                .append("xsd: http://www.w3.org/2001/XMLSchema#\n\n")
+                .append("[MappingDeclaration] @collection [[\n");
+
+        int classCount = ontologyGenerator.getClassCount();
+        for (int i = 0; i < classCount; i++) {
+            for (int m = 0; m < assertionsPerClass; m++) {
+                sb.append("\nmappingId   class-").append(i).append("-").append(m).append("\n")
+                        .append("target      ").append(getSubjectTemplate(i)).append(" a ").append(PREFIX).append(":C")
+                        .append(i).append(" ; ").append(PREFIX).append(":d").append(i % ontologyGenerator.getDataPropertyCount())
+                        // Explicit datatype: it cannot be inferred from the partitioning queries
+                        .append(" {label}^^xsd:string .\n")
+                        .append("source      SELECT id, label FROM \"").append(getTableName(i)).append("\"")
+                        .append(getPartitionCondition(m)).append("\n");
+            }
+        }
+
+        for (int j = 0; j < ontologyGenerator.getObjectPropertyCount(); j++) {
+            int domain = ontologyGenerator.getDomain(j);
+            sb.append("\nmappingId   property-").append(j).append("\n")
+                    .append("target      ").append(getSubjectTemplate(domain)).append(" ").append(PREFIX).append(":p")
+                    .append(j).append(" ").append(getTemplate(ontologyGenerator.getRange(j), "ref")).append(" .\n")
+                    .append("source      SELECT id, ref FROM \"").append(getTableName(domain)).append("\"\n");
+        }
+
+        sb.append("]]\n");
+        return sb.toString();
+    }
+
+    /**
+     * IRI of the individual of the class built from the row of the given id
+     */
+    public static String getIndividualIRI(int classIndex, int id) {
+        return SyntheticOntologyGenerator.NAMESPACE + "c" + classIndex + "/" + id;
+    }
+
+    private String getPartitionCondition(int assertionIndex) {
+        return assertionsPerClass == 1
+                ? ""
+                : " WHERE MOD(id, " + assertionsPerClass + ") = " + assertionIndex;
+    }
+
+    private static String getSubjectTemplate(int classIndex) {
+        return getTemplate(classIndex, "id");
+    }
+
+    private static String getTemplate(int classIndex, String column) {
+        return PREFIX + ":c" + classIndex + "/{" + column + "}";
+    }
+
+    private static String getTableName(int classIndex) {
+        return "c" + classIndex;
+    }
+}
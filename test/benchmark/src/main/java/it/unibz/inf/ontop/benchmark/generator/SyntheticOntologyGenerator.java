@@ -0,0 +1,128 @@
+package it.unibz.inf.ontop.benchmark.generator;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Generates an ontology whose size is controlled by a few parameters:
+ *   - a complete tree of classes of the given depth and fan-out (C0 being the root);
+ *   - a tree of object properties (p0 being the root), each one with a domain and a range;
+ *   - data properties (d0, d1, ...);
+ *   - existential axioms C_i SubClassOf p_j some C_k, which produce tree witnesses.
+ *
+ * The saturation of the mapping grows with the depth of the class hierarchy: the root class
+ * inherits the mapping assertions of all the classes.
+ */
+public class SyntheticOntologyGenerator {
+
+    public static final String NAMESPACE = "http://example.org/benchmark/";
+
+    private final int depth;
+    private final int fanOut;
+    private final int objectPropertyCount;
+    private final int dataPropertyCount;
+    private final int existentialAxiomCount;
+
+    public SyntheticOntologyGenerator(int depth, int fanOut, int objectPropertyCount, int dataPropertyCount,
+                                      int existentialAxiomCount) {
+        if (depth < 0 || fanOut < 1 || objectPropertyCount < 1 || dataPropertyCount < 1 || existentialAxiomCount < 0)
+            throw new IllegalArgumentException("Invalid parameters of the synthetic ontology");
+        this.depth = depth;
+        this.fanOut = fanOut;
+        this.objectPropertyCount = objectPropertyCount;
+        this.dataPropertyCount = dataPropertyCount;
+        this.existentialAxiomCount = existentialAxiomCount;
+    }
+
+    public OWLOntology generate() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLDataFactory factory = manager.getOWLDataFactory();
+
+        Set<OWLAxiom> axioms = new HashSet<>();
+        int classCount = getClassCount();
+        for (int i = 0; i < classCount; i++) {
+            OWLClass owlClass = factory.getOWLClass(IRI.create(getClassIRI(i)));
+            axioms.add(factory.getOWLDeclarationAxiom(owlClass));
+            if (i > 0)
+                axioms.add(factory.getOWLSubClassOfAxiom(owlClass,
+                        factory.getOWLClass(IRI.create(getClassIRI(getParentClass(i))))));
+        }
+
+        for (int j = 0; j < objectPropertyCount; j++) {
+            OWLObjectProperty property = factory.getOWLObjectProperty(IRI.create(getObjectPropertyIRI(j)));
+            axioms.add(factory.getOWLDeclarationAxiom(property));
+            if (j > 0)
+                axioms.add(factory.getOWLSubObjectPropertyOfAxiom(property,
+                        factory.getOWLObjectProperty(IRI.create(getObjectPropertyIRI((j - 1) / 2)))));
+            axioms.add(factory.getOWLObjectPropertyDomainAxiom(property,
+                    factory.getOWLClass(IRI.create(getClassIRI(getDomain(j))))));
+            axioms.add(factory.getOWLObjectPropertyRangeAxiom(property,
+                    factory.getOWLClass(IRI.create(getClassIRI(getRange(j))))));
+        }
+
+        for (int j = 0; j < dataPropertyCount; j++)
+            axioms.add(factory.getOWLDeclarationAxiom(factory.getOWLDataProperty(IRI.create(getDataPropertyIRI(j)))));
+
+        for (int i = 0; i < existentialAxiomCount; i++) {
+            int subClass = i % classCount;
+            axioms.add(factory.getOWLSubClassOfAxiom(
+                    factory.getOWLClass(IRI.create(getClassIRI(subClass))),
+                    factory.getOWLObjectSomeValuesFrom(
+                            factory.getOWLObjectProperty(IRI.create(getObjectPropertyIRI(i % objectPropertyCount))),
+                            factory.getOWLClass(IRI.create(getClassIRI((subClass + 1) % classCount))))));
+        }
+
+        return manager.createOntology(axioms, IRI.create(NAMESPACE));
+    }
+
+    /**
+     * Number of classes of the complete tree
+     */
+    public int getClassCount() {
+        int count = 0;
+        int levelSize = 1;
+        for (int level = 0; level <= depth; level++) {
+            count += levelSize;
+            levelSize *= fanOut;
+        }
+        return count;
+    }
+
+    public int getObjectPropertyCount() {
+        return objectPropertyCount;
+    }
+
+    public int getDataPropertyCount() {
+        return dataPropertyCount;
+    }
+
+    /**
+     * Classes are numbered in breadth-first order
+     */
+    public int getParentClass(int classIndex) {
+        return (classIndex - 1) / fanOut;
+    }
+
+    public int getDomain(int objectPropertyIndex) {
+        return objectPropertyIndex % getClassCount();
+    }
+
+    public int getRange(int objectPropertyIndex) {
+        return (objectPropertyIndex + 1) % getClassCount();
+    }
+
+    public static String getClassIRI(int classIndex) {
+        return NAMESPACE + "C" + classIndex;
+    }
+
+    public static String getObjectPropertyIRI(int propertyIndex) {
+        return NAMESPACE + "p" + propertyIndex;
+    }
+
+    public static String getDataPropertyIRI(int propertyIndex) {
+        return NAMESPACE + "d" + propertyIndex;
+    }
+}
@@ -12,6 +12,8 @@ import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Properties;
 
 /**
@@ -22,6 +24,14 @@ public interface OntopSemanticIndexLoader extends AutoCloseable {
 
     OntopSQLOWLAPIConfiguration getConfiguration();
 
+    /**
+     * Writes the IRI dictionary of the Semantic Index in a file.
+     *
+     * This file can be memory-mapped by other configurations (and processes)
+     * through the property ontop.iriDictionary.file, instead of keeping the dictionary on the heap.
+     */
+    void saveIRIDictionary(Path file) throws IOException;
+
     /**
      * Closes its connection to the in-memory DB that was kept
      * just for keeping the DB alive.
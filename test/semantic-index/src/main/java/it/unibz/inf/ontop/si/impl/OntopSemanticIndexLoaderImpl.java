@@ -3,10 +3,13 @@ package it.unibz.inf.ontop.si.impl;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import it.unibz.inf.ontop.si.repository.impl.SIRepository;
+import it.unibz.inf.ontop.si.repository.impl.SemanticIndexURIMap;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
@@ -21,9 +24,11 @@ public class OntopSemanticIndexLoaderImpl implements OntopSemanticIndexLoader {
 
     private final OntopSQLOWLAPIConfiguration configuration;
     private final Connection connection;
+    private final SemanticIndexURIMap uriMap;
 
     OntopSemanticIndexLoaderImpl(SIRepository repo, Connection connection, Properties properties, Optional<OWLOntology> tbox) {
         this.connection = connection;
+        this.uriMap = repo.getUriMap();
 
         OntopSQLOWLAPIConfiguration.Builder builder = OntopSQLOWLAPIConfiguration.defaultBuilder()
                 .ppMapping(repo.createMappings())
@@ -34,7 +39,7 @@ public class OntopSemanticIndexLoaderImpl implements OntopSemanticIndexLoader {
                 //TODO: remove it (required by Tomcat...)
                 .jdbcDriver("org.h2.Driver")
                 .keepPermanentDBConnection(true)
-                .iriDictionary(repo.getUriMap());
+                .iriDictionary(uriMap);
 
         tbox.ifPresent(builder::ontology);
 
@@ -47,6 +52,11 @@ public class OntopSemanticIndexLoaderImpl implements OntopSemanticIndexLoader {
         return configuration;
     }
 
+    @Override
+    public void saveIRIDictionary(Path file) throws IOException {
+        uriMap.save(file);
+    }
+
     @Override
     public void close() {
         try {
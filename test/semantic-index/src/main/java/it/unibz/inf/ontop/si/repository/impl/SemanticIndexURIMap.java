@@ -1,7 +1,11 @@
 package it.unibz.inf.ontop.si.repository.impl;
 
 import it.unibz.inf.ontop.answering.reformulation.IRIDictionary;
+import it.unibz.inf.ontop.answering.reformulation.impl.MappedIRIDictionary;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.HashMap;
 
 public class SemanticIndexURIMap implements IRIDictionary {
@@ -39,4 +43,26 @@ public class SemanticIndexURIMap implements IRIDictionary {
 	public String getURI(Integer id) {
 		return uriMap2.get(id);
 	}
+
+	/**
+	 * Writes the dictionary in a file that can be loaded by MappedIRIDictionary.
+	 * The ids are assigned sequentially from 0 by RDBMSSIRepository.
+	 */
+	public void save(Path file) throws IOException {
+		int size = uriMap2.size();
+		MappedIRIDictionary.write(new AbstractList<String>() {
+			@Override
+			public String get(int id) {
+				String uri = uriMap2.get(id);
+				if (uri == null)
+					throw new IllegalStateException("The URI ids are not sequential: " + id + " is missing");
+				return uri;
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		}, file);
+	}
 }
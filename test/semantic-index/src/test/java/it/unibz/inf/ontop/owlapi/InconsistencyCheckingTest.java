@@ -78,6 +78,7 @@ public class InconsistencyCheckingTest extends TestCase{
 		//initially the ontology is consistent
 		startReasoner();
 		assertTrue(reasoner.isConsistent());
+		assertTrue(reasoner.getInconsistentAxioms().isEmpty());
 	}
 	
 	@Test
@@ -154,4 +155,29 @@ public class InconsistencyCheckingTest extends TestCase{
 		assertFalse(consistent);
 
 	} 
+
+	@Test
+	public void testAllViolatedAxioms() throws Exception {
+
+		//Male(a), Female(a), hasMother(a,b), hasMother(a,c), hasFather(a,b), hasAge(a, 21)
+		manager.addAxiom(ontology, ClassAssertion(c1, a));
+		manager.addAxiom(ontology, ClassAssertion(c2, a));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, b));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r1, a, c));
+		manager.addAxiom(ontology, ObjectPropertyAssertion(r2, a, b));
+		manager.addAxiom(ontology, DataPropertyAssertion(d2, a, Literal(21)));
+
+		// Violated: disjoint(Male, Female), func(hasMother)
+		manager.addAxiom(ontology, DisjointClasses(c1, c2));
+		manager.addAxiom(ontology, FunctionalObjectProperty(r1));
+		// Not violated: func(hasFather), disjoint(hasAgeFirst, hasAge)
+		manager.addAxiom(ontology, FunctionalObjectProperty(r2));
+		manager.addAxiom(ontology, DisjointDataProperties(d1, d2));
+
+		startReasoner();
+
+		assertFalse(reasoner.isConsistent());
+		assertEquals(2, reasoner.getInconsistentAxioms().size());
+		assertEquals(reasoner.getInconsistentAxioms().get(0), reasoner.getInconsistentAxiom());
+	}
 }
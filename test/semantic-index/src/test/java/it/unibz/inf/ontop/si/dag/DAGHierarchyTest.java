@@ -24,8 +24,12 @@ package it.unibz.inf.ontop.si.dag;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
+import it.unibz.inf.ontop.spec.ontology.impl.EquivalencesDAGImpl;
 import junit.framework.TestCase;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
 
+import java.util.Random;
 import java.util.Set;
 
 public class DAGHierarchyTest extends TestCase {
@@ -363,4 +367,58 @@ public class DAGHierarchyTest extends TestCase {
 
 		assertTrue(ancestors.contains(new Equivalences<>(ImmutableSet.of(T, U))));		// ancestor is reflexive now
 	}
+
+	/**
+	 * Checks the reachability index against the ancestors of each class
+	 */
+	public void testSubsumedClasses() throws Exception {
+		final String ontoURI = "http://obda.inf.unibz.it/ontologies/test-class-hierarchy.owl#";
+
+		ClassifiedTBox dag = DAGEquivalenceTest.loadOntologyFromFileAndClassify(inputFile1);
+		EquivalencesDAG<ClassExpression> classes = dag.classesDAG();
+
+		Equivalences<ClassExpression> A = classes.getVertex(dag.classes().get(ontoURI + "A"));
+		Equivalences<ClassExpression> B = classes.getVertex(dag.classes().get(ontoURI + "B"));
+		Equivalences<ClassExpression> D = classes.getVertex(dag.classes().get(ontoURI + "D"));
+		Equivalences<ClassExpression> F = classes.getVertex(dag.classes().get(ontoURI + "F"));
+
+		assertTrue(classes.isSubsumed(A, A)); // reflexive
+		assertTrue(classes.isSubsumed(A, B));
+		assertTrue(classes.isSubsumed(A, F)); // transitive
+		assertTrue(classes.isSubsumed(D, F));
+		assertFalse(classes.isSubsumed(B, A));
+		assertFalse(classes.isSubsumed(D, B));
+		assertFalse(classes.isSubsumed(F, D));
+
+		for (Equivalences<ClassExpression> sub : classes)
+			for (Equivalences<ClassExpression> sup : classes)
+				assertEquals(classes.getSuper(sub).contains(sup), classes.isSubsumed(sub, sup));
+	}
+
+	/**
+	 * Checks the reachability index on random graphs with many non-tree edges (and some cycles)
+	 */
+	public void testSubsumedRandomGraph() {
+		Random random = new Random(0);
+		for (int round = 0; round < 20; round++) {
+			DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+			int size = 1 + random.nextInt(100);
+			for (int i = 0; i < size; i++)
+				graph.addVertex(i);
+			for (int i = 0; i < 2 * size; i++) {
+				int sub = random.nextInt(size);
+				int sup = random.nextInt(size);
+				// mostly from the lower to the higher numbers, so that most components are singletons
+				if (sub != sup && (sub < sup || random.nextInt(10) == 0))
+					graph.addEdge(sub, sup);
+			}
+			EquivalencesDAG<Integer> dag = EquivalencesDAGImpl.getEquivalencesDAG(graph);
+
+			for (Equivalences<Integer> sub : dag)
+				for (Equivalences<Integer> sup : dag) {
+					assertEquals(dag.getSuper(sub).contains(sup), dag.isSubsumed(sub, sup));
+					assertEquals(dag.getSub(sup).contains(sub), dag.isSubsumed(sub, sup));
+				}
+		}
+	}
 }